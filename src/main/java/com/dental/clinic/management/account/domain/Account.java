@@ -5,12 +5,15 @@ import java.time.LocalDateTime;
 
 import com.dental.clinic.management.account.enums.AccountStatus;
 import com.dental.clinic.management.employee.domain.Employee;
+import com.dental.clinic.management.notification.service.RoleMembershipChangeListener;
+import com.dental.clinic.management.notification.service.RoleMembershipSource;
 import com.dental.clinic.management.patient.domain.Patient;
 import com.dental.clinic.management.role.domain.Role;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -22,6 +25,7 @@ import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -31,7 +35,8 @@ import jakarta.validation.constraints.Size;
  */
 @Entity
 @Table(name = "accounts")
-public class Account {
+@EntityListeners(RoleMembershipChangeListener.class)
+public class Account implements RoleMembershipSource {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -84,6 +89,10 @@ public class Account {
     @JoinColumn(name = "role_id", nullable = false)
     private Role role;
 
+    // Membership fields as loaded (RoleMembershipChangeListener)
+    @Transient
+    private List<Object> loadedRoleMembershipState;
+
     // Constructors
     public Account() {
     }
@@ -215,6 +224,21 @@ public class Account {
         return status == AccountStatus.ACTIVE;
     }
 
+    @Override
+    public List<Object> roleMembershipState() {
+        return Arrays.asList(role != null ? role.getRoleId() : null, status);
+    }
+
+    @Override
+    public List<Object> loadedRoleMembershipState() {
+        return loadedRoleMembershipState;
+    }
+
+    @Override
+    public void recordRoleMembershipState(List<Object> state) {
+        this.loadedRoleMembershipState = state;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
@@ -7,6 +7,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -70,4 +71,12 @@ public interface AccountRepository extends JpaRepository<Account, Integer> {
          */
         @Query("SELECT a FROM Account a JOIN FETCH a.role r LEFT JOIN FETCH a.employee WHERE r.roleName = :roleName")
         List<Account> findByRole_RoleName(@Param("roleName") String roleName);
+
+        /**
+         * Role membership of employee accounts as (roleName, employeeId) rows,
+         * used by RoleMembershipIndex for role-targeted notifications
+         */
+        @Query("SELECT r.roleName, e.employeeId FROM Account a JOIN a.role r JOIN a.employee e " +
+                        "WHERE r.roleName IN :roleNames")
+        List<Object[]> findEmployeeIdsByRoleNames(@Param("roleNames") Collection<String> roleNames);
 }
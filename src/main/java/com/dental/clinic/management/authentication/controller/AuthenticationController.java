@@ -9,8 +9,6 @@ import com.dental.clinic.management.authentication.dto.response.LoginResponse;
 import com.dental.clinic.management.authentication.dto.response.RefreshTokenResponse;
 import com.dental.clinic.management.authentication.service.AuthenticationService;
 import com.dental.clinic.management.authentication.service.TokenBlacklistService;
-import com.dental.clinic.management.exception.authentication.RateLimitExceededException;
-import com.dental.clinic.management.utils.RateLimiter;
 import com.dental.clinic.management.utils.annotation.ApiMessage;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -33,14 +31,11 @@ public class AuthenticationController {
 
     private final AuthenticationService authenticationService;
     private final TokenBlacklistService tokenBlacklistService;
-    private final RateLimiter rateLimiter;
 
     public AuthenticationController(AuthenticationService authenticationService,
-            TokenBlacklistService tokenBlacklistService,
-            RateLimiter rateLimiter) {
+            TokenBlacklistService tokenBlacklistService) {
         this.authenticationService = authenticationService;
         this.tokenBlacklistService = tokenBlacklistService;
-        this.rateLimiter = rateLimiter;
     }
 
     /**
@@ -144,17 +139,17 @@ public class AuthenticationController {
             @Parameter(description = "Authorization header with Bearer token") @RequestHeader(value = "Authorization", required = false) String authHeader,
             @Parameter(description = "Refresh token from HTTP-only cookie") @CookieValue(value = "refreshToken", required = false) String refreshToken) {
 
-        // Blacklist access token if provided
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            String accessToken = authHeader.substring(7);
-            tokenBlacklistService.blacklistToken(accessToken);
-        }
-
         // Vô hiệu hóa refresh token trong database
         if (refreshToken != null) {
             authenticationService.logout(refreshToken);
         }
 
+        // Blacklist access token if provided (after the refresh token: a store failure fails the request)
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            String accessToken = authHeader.substring(7);
+            tokenBlacklistService.blacklistToken(accessToken);
+        }
+
         // Xóa refresh token cookie
         ResponseCookie clearCookie = ResponseCookie.from("refreshToken", "")
                 .httpOnly(true)
@@ -232,7 +227,7 @@ public class AuthenticationController {
      * @param request contains email address
      * @param httpRequest to extract client IP address
      * @return 200 OK with success message
-     * @throws RateLimitExceededException if too many requests
+     * Too many requests: 429 with Retry-After (RateLimitFilter)
      */
     @PostMapping("/forgot-password")
     @Operation(summary = "Forgot password", description = "Initiate password reset process. Sends password reset email to user if account exists. Always returns success to prevent email enumeration. Rate limited to 3 requests per 15 minutes.")
@@ -240,21 +235,10 @@ public class AuthenticationController {
     public ResponseEntity<Void> forgotPassword(
             @Valid @RequestBody com.dental.clinic.management.authentication.dto.ForgotPasswordRequest request,
             HttpServletRequest httpRequest) {
-        
-        // Rate limiting: 3 requests per 15 minutes per IP
+
+        // Rate limiting (3 requests per 15 minutes per IP): RateLimitFilter, policy "forgot-password"
         String clientIp = getClientIp(httpRequest);
-        String rateLimitKey = clientIp + ":forgot-password";
-        
-        if (!rateLimiter.isAllowed(rateLimitKey, 3, 15)) {
-            long retryAfter = rateLimiter.getSecondsUntilReset(rateLimitKey, 15);
-            org.slf4j.LoggerFactory.getLogger(AuthenticationController.class)
-                .warn("Rate limit exceeded for forgot-password from IP: {} - Retry after {} seconds", clientIp, retryAfter);
-            throw new RateLimitExceededException(
-                "Bạn đã vượt quá số lần yêu cầu cho phép. Vui lòng thử lại sau " + (retryAfter / 60 + 1) + " phút.",
-                retryAfter
-            );
-        }
-        
+
         org.slf4j.LoggerFactory.getLogger(AuthenticationController.class)
             .info("Forgot password request from IP: {} for email: {}", clientIp, request.getEmail());
         
@@ -272,7 +256,7 @@ public class AuthenticationController {
      * @throws com.dental.clinic.management.exception.authentication.InvalidTokenException if token is invalid
      * @throws com.dental.clinic.management.exception.authentication.TokenExpiredException if token has expired
      * @throws IllegalArgumentException if passwords don't match
-     * @throws RateLimitExceededException if too many attempts
+     * Too many attempts: 429 with Retry-After (RateLimitFilter)
      */
     @PostMapping("/reset-password")
     @Operation(summary = "Reset password", description = "Reset password using token from email. User must provide new password and confirm password. Rate limited to 5 attempts per 10 minutes to prevent brute force.")
@@ -280,21 +264,10 @@ public class AuthenticationController {
     public ResponseEntity<Void> resetPassword(
             @Valid @RequestBody com.dental.clinic.management.authentication.dto.ResetPasswordRequest request,
             HttpServletRequest httpRequest) {
-        
-        // Rate limiting: 5 attempts per 10 minutes per IP
+
+        // Rate limiting (5 attempts per 10 minutes per IP): RateLimitFilter, policy "reset-password"
         String clientIp = getClientIp(httpRequest);
-        String rateLimitKey = clientIp + ":reset-password";
-        
-        if (!rateLimiter.isAllowed(rateLimitKey, 5, 10)) {
-            long retryAfter = rateLimiter.getSecondsUntilReset(rateLimitKey, 10);
-            org.slf4j.LoggerFactory.getLogger(AuthenticationController.class)
-                .warn("Rate limit exceeded for reset-password from IP: {} - Retry after {} seconds", clientIp, retryAfter);
-            throw new RateLimitExceededException(
-                "Bạn đã vượt quá số lần thử cho phép. Vui lòng thử lại sau " + (retryAfter / 60 + 1) + " phút.",
-                retryAfter
-            );
-        }
-        
+
         org.slf4j.LoggerFactory.getLogger(AuthenticationController.class)
             .info("Reset password attempt from IP: {} with token: {}", clientIp, request.getToken());
         
@@ -6,7 +6,6 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,7 +35,6 @@ import com.dental.clinic.management.exception.account.AccountNotFoundException;
 import com.dental.clinic.management.exception.account.AccountNotVerifiedException;
 import com.dental.clinic.management.exception.authentication.InvalidTokenException;
 import com.dental.clinic.management.exception.authentication.TokenExpiredException;
-import com.dental.clinic.management.permission.domain.Permission;
 import com.dental.clinic.management.role.domain.Role;
 import com.dental.clinic.management.utils.EmailService;
 import com.dental.clinic.management.utils.security.SecurityUtil;
@@ -64,6 +62,7 @@ public class AuthenticationService {
         private final EmailService emailService;
         private final PasswordEncoder passwordEncoder;
         private final SessionManagementService sessionManagementService;
+        private final RoleSnapshotCache roleSnapshotCache;
 
         public AuthenticationService(
                         AuthenticationManager authenticationManager,
@@ -74,7 +73,8 @@ public class AuthenticationService {
                         PasswordResetTokenRepository passwordResetTokenRepository,
                         EmailService emailService,
                         PasswordEncoder passwordEncoder,
-                        SessionManagementService sessionManagementService) {
+                        SessionManagementService sessionManagementService,
+                        RoleSnapshotCache roleSnapshotCache) {
                 this.authenticationManager = authenticationManager;
                 this.securityUtil = securityUtil;
                 this.accountRepository = accountRepository;
@@ -84,6 +84,7 @@ public class AuthenticationService {
                 this.emailService = emailService;
                 this.passwordEncoder = passwordEncoder;
                 this.sessionManagementService = sessionManagementService;
+                this.roleSnapshotCache = roleSnapshotCache;
         }
 
         /**
@@ -102,8 +103,8 @@ public class AuthenticationService {
                                 new UsernamePasswordAuthenticationToken(request.getUsername(),
                                                 request.getPassword()));
 
-                // Lấy thông tin tài khoản kèm role và quyền hạn
-                Account account = accountRepository.findByUsernameWithRoleAndPermissions(request.getUsername())
+                // Lấy thông tin tài khoản (quyền hạn lấy từ snapshot của role)
+                Account account = accountRepository.findOneByUsername(request.getUsername())
                                 .orElseThrow(() -> new org.springframework.security.authentication.BadCredentialsException(
                                                 "Account not found"));
 
@@ -115,20 +116,14 @@ public class AuthenticationService {
                                         "Tài khoản chưa được xác thực. Vui lòng kiểm tra email để xác thực tài khoản.");
                 }
 
-                Role role = account.getRole();
-                String roleName = role.getRoleName();
+                RoleSnapshotCache.Snapshot role = roleSnapshotCache.get(account.getRole().getRoleId());
+                String roleName = role.roleName();
 
                 // Lấy tất cả quyền hạn từ role
-                List<String> permissionIds = role.getPermissions().stream()
-                                .map(Permission::getPermissionId)
-                                .distinct()
-                                .collect(Collectors.toList());
+                List<String> permissionIds = role.permissionIds();
 
                 // Group permissions by module for efficient FE processing
-                Map<String, List<String>> groupedPermissions = role.getPermissions().stream()
-                                .collect(Collectors.groupingBy(
-                                                Permission::getModule,
-                                                Collectors.mapping(Permission::getPermissionId, Collectors.toList())));
+                Map<String, List<String>> groupedPermissions = role.groupedPermissions();
 
                 // Collect patientCode and employeeCode for FE navigation (Issue 3.3)
                 String patientCode = null;
@@ -184,7 +179,7 @@ public class AuthenticationService {
                 response.setGroupedPermissions(groupedPermissions); // Grouped permissions by module
 
                 // Set baseRole for FE layout determination
-                response.setBaseRole(role.getBaseRole().getBaseRoleName());
+                response.setBaseRole(role.baseRoleName());
 
                 // Set employmentType if user is an employee
                 if (account.getEmployee() != null) {
@@ -239,8 +234,8 @@ public class AuthenticationService {
                 String username = jwt.getSubject();
                 log.debug("Refresh token decoded successfully for user: {}", username);
 
-                // Lấy thông tin tài khoản với role/permissions
-                Account account = accountRepository.findByUsernameWithRoleAndPermissions(username)
+                // Lấy thông tin tài khoản (quyền hạn lấy từ snapshot của role)
+                Account account = accountRepository.findOneByUsername(username)
                                 .orElseThrow(() -> {
                                         log.error("Account not found for username: {}", username);
                                         return new AccountNotFoundException(username);
@@ -254,10 +249,9 @@ public class AuthenticationService {
                 }
 
                 log.debug("Generating new tokens for user: {}", username);
-                Role role = account.getRole();
-                List<String> roles = List.of(role.getRoleName());
-                List<String> permissions = role.getPermissions().stream()
-                                .map(Permission::getPermissionId).distinct().collect(Collectors.toList());
+                RoleSnapshotCache.Snapshot role = roleSnapshotCache.get(account.getRole().getRoleId());
+                List<String> roles = List.of(role.roleName());
+                List<String> permissions = role.permissionIds();
 
                 // Collect patientCode and employeeCode for token refresh (Issue 3.3)
                 String patientCode = null;
@@ -322,7 +316,7 @@ public class AuthenticationService {
          * @throws AccountNotFoundException if account does not exist
          */
         public UserInfoResponse getUserInfo(String username) {
-                Account account = accountRepository.findByUsernameWithRoleAndPermissions(username)
+                Account account = accountRepository.findOneByUsername(username)
                                 .orElseThrow(() -> new AccountNotFoundException(username));
 
                 UserInfoResponse response = new UserInfoResponse();
@@ -331,16 +325,10 @@ public class AuthenticationService {
                 response.setEmail(account.getEmail());
                 response.setAccountStatus(account.getStatus() != null ? account.getStatus().name() : null);
 
-                // Lấy vai trò
-                Role role = account.getRole();
-                response.setRoles(List.of(role.getRoleName()));
-
-                // Lấy tất cả quyền hạn từ role
-                List<String> permissions = role.getPermissions().stream()
-                                .map(Permission::getPermissionId)
-                                .distinct()
-                                .collect(Collectors.toList());
-                response.setPermissions(permissions);
+                // Lấy vai trò và quyền hạn từ snapshot của role
+                RoleSnapshotCache.Snapshot role = roleSnapshotCache.get(account.getRole().getRoleId());
+                response.setRoles(List.of(role.roleName()));
+                response.setPermissions(role.permissionIds());
 
                 // Thông tin chi tiết nếu employee có profile
                 if (account.getEmployee() != null) {
@@ -371,7 +359,7 @@ public class AuthenticationService {
          * @throws AccountNotFoundException if account does not exist
          */
         public UserProfileResponse getUserProfile(String username) {
-                Account account = accountRepository.findByUsernameWithRoleAndPermissions(username)
+                Account account = accountRepository.findOneByUsername(username)
                                 .orElseThrow(() -> new AccountNotFoundException(username));
 
                 UserProfileResponse response = new UserProfileResponse();
@@ -413,14 +401,11 @@ public class AuthenticationService {
          * @throws AccountNotFoundException if account does not exist
          */
         public UserPermissionsResponse getUserPermissions(String username) {
-                Account account = accountRepository.findByUsernameWithRoleAndPermissions(username)
+                Account account = accountRepository.findOneByUsername(username)
                                 .orElseThrow(() -> new AccountNotFoundException(username));
 
-                // Lấy tất cả quyền hạn từ role
-                List<String> permissions = account.getRole().getPermissions().stream()
-                                .map(Permission::getPermissionId)
-                                .distinct()
-                                .collect(Collectors.toList());
+                // Lấy tất cả quyền hạn từ snapshot của role
+                List<String> permissions = roleSnapshotCache.get(account.getRole().getRoleId()).permissionIds();
 
                 return new UserPermissionsResponse(account.getUsername(), permissions);
         }
@@ -434,7 +419,7 @@ public class AuthenticationService {
          * @throws AccountNotFoundException if account does not exist
          */
         public MeResponse getMe(String username) {
-                Account account = accountRepository.findByUsernameWithRoleAndPermissions(username)
+                Account account = accountRepository.findOneByUsername(username)
                                 .orElseThrow(() -> new AccountNotFoundException(username));
 
                 MeResponse response = new MeResponse();
@@ -445,24 +430,16 @@ public class AuthenticationService {
                 response.setEmail(account.getEmail());
                 response.setAccountStatus(account.getStatus() != null ? account.getStatus().name() : null);
 
-                // Role info
-                Role role = account.getRole();
-                response.setRole(role.getRoleName());
-                response.setBaseRole(role.getBaseRole().getBaseRoleName());
+                // Role info (precomputed per role, see RoleSnapshotCache)
+                RoleSnapshotCache.Snapshot role = roleSnapshotCache.get(account.getRole().getRoleId());
+                response.setRole(role.roleName());
+                response.setBaseRole(role.baseRoleName());
 
                 // Permissions
-                List<String> permissions = role.getPermissions().stream()
-                                .map(Permission::getPermissionId)
-                                .distinct()
-                                .collect(Collectors.toList());
-                response.setPermissions(permissions);
+                response.setPermissions(role.permissionIds());
 
                 // Grouped permissions by module
-                Map<String, List<String>> groupedPermissions = role.getPermissions().stream()
-                                .collect(Collectors.groupingBy(
-                                                Permission::getModule,
-                                                Collectors.mapping(Permission::getPermissionId, Collectors.toList())));
-                response.setGroupedPermissions(groupedPermissions);
+                response.setGroupedPermissions(role.groupedPermissions());
 
                 // Employee-specific info
                 if (account.getEmployee() != null) {
@@ -550,38 +527,11 @@ public class AuthenticationService {
          * @throws AccountNotFoundException if account not found
          */
         public Map<String, List<String>> getMyPermissionsGrouped(String username) {
-                Account account = accountRepository.findByUsernameWithRoleAndPermissions(username)
+                Account account = accountRepository.findOneByUsername(username)
                                 .orElseThrow(() -> new AccountNotFoundException(username));
 
-                Role role = account.getRole();
-
-                // Group user's permissions by module
-                Map<String, List<String>> groupedPermissions = role.getPermissions().stream()
-                                .filter(Permission::getIsActive) // Only active permissions
-                                .sorted((p1, p2) -> {
-                                        // Sort by module first
-                                        int moduleCompare = p1.getModule().compareTo(p2.getModule());
-                                        if (moduleCompare != 0)
-                                                return moduleCompare;
-
-                                        // Then by displayOrder
-                                        if (p1.getDisplayOrder() != null && p2.getDisplayOrder() != null) {
-                                                return p1.getDisplayOrder().compareTo(p2.getDisplayOrder());
-                                        }
-                                        if (p1.getDisplayOrder() != null)
-                                                return -1;
-                                        if (p2.getDisplayOrder() != null)
-                                                return 1;
-
-                                        // Finally by permission ID
-                                        return p1.getPermissionId().compareTo(p2.getPermissionId());
-                                })
-                                .collect(Collectors.groupingBy(
-                                                Permission::getModule,
-                                                java.util.LinkedHashMap::new, // Maintain order
-                                                Collectors.mapping(Permission::getPermissionId, Collectors.toList())));
-
-                return groupedPermissions;
+                // Active permissions by module, sorted by module, displayOrder, permission ID
+                return roleSnapshotCache.get(account.getRole().getRoleId()).activeGroupedPermissions();
         }
 
         /**
@@ -0,0 +1,177 @@
+package com.dental.clinic.management.authentication.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.dental.clinic.management.authentication.dto.SidebarItemDTO;
+import com.dental.clinic.management.exception.validation.BadRequestAlertException;
+import com.dental.clinic.management.permission.domain.Permission;
+import com.dental.clinic.management.role.domain.Role;
+import com.dental.clinic.management.role.repository.RoleRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable per-role authorization data for login, token refresh and /me.
+ *
+ * A snapshot (permission IDs, permissions grouped by module, sidebar) is built
+ * once per role version from one query (role, base role and permissions);
+ * accounts then only need their own row. RoleService and PermissionService invalidate it after commit next
+ * to their @CacheEvict hooks; the TTL only covers other nodes and changes made
+ * outside the services (SQL scripts).
+ */
+@Slf4j
+@Component
+public class RoleSnapshotCache {
+
+    /**
+     * Module, then displayOrder (nulls last), then permission ID - the order
+     * of the grouped permission and sidebar endpoints
+     */
+    private static final Comparator<Permission> DISPLAY_ORDER = Comparator
+            .comparing(Permission::getModule)
+            .thenComparing(Permission::getDisplayOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(Permission::getPermissionId);
+
+    private final RoleRepository roleRepository;
+    private final Map<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final AtomicLong version = new AtomicLong();
+
+    @Value("${app.role-snapshot.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    public RoleSnapshotCache(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    /**
+     * @param permissionIds             all permission IDs of the role
+     * @param groupedPermissions        all permissions by module
+     * @param activeGroupedPermissions  active permissions by module, display order
+     * @param sidebar                   sidebar items by module (SidebarService.generateSidebar)
+     */
+    public record Snapshot(
+            long version,
+            long builtAt,
+            String roleId,
+            String roleName,
+            String baseRoleName,
+            List<String> permissionIds,
+            Map<String, List<String>> groupedPermissions,
+            Map<String, List<String>> activeGroupedPermissions,
+            Map<String, List<SidebarItemDTO>> sidebar) {
+    }
+
+    /**
+     * Snapshot of the role, built if missing or outdated. Must run inside a
+     * transaction (lazy parent permissions).
+     */
+    public Snapshot get(String roleId) {
+        Snapshot snapshot = snapshots.get(roleId);
+        if (snapshot != null && System.currentTimeMillis() - snapshot.builtAt() < ttlSeconds * 1000) {
+            return snapshot;
+        }
+
+        long buildVersion = version.get();
+        snapshot = build(roleId, buildVersion);
+        // Skip caching if a role or permission changed while building (snapshot may be stale)
+        if (version.get() == buildVersion) {
+            snapshots.put(roleId, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Role permissions / name / base role changed
+     */
+    public void invalidate(String roleId) {
+        afterCommit(() -> {
+            version.incrementAndGet();
+            snapshots.remove(roleId);
+        });
+    }
+
+    /**
+     * Permission changed (module, active flag, ...): affects every role holding it
+     */
+    public void invalidateAll() {
+        afterCommit(() -> {
+            version.incrementAndGet();
+            snapshots.clear();
+        });
+    }
+
+    private Snapshot build(String roleId, long buildVersion) {
+        Role role = roleRepository.findByIdWithPermissions(roleId)
+                .orElseThrow(() -> new BadRequestAlertException(
+                        "Không tìm thấy vai trò với ID: " + roleId, "role", "rolenotfound"));
+
+        List<Permission> permissions = new ArrayList<>(role.getPermissions());
+        permissions.sort(DISPLAY_ORDER);
+
+        List<String> permissionIds = permissions.stream()
+                .map(Permission::getPermissionId)
+                .toList();
+
+        Map<String, List<String>> groupedPermissions = groupByModule(permissions);
+        Map<String, List<String>> activeGroupedPermissions = groupByModule(permissions.stream()
+                .filter(p -> Boolean.TRUE.equals(p.getIsActive()))
+                .toList());
+
+        List<Permission> sidebarCandidates = permissions.stream()
+                .filter(p -> Boolean.TRUE.equals(p.getIsActive()))
+                .toList();
+        Map<String, List<SidebarItemDTO>> sidebar = SidebarService.buildSidebar(Set.copyOf(permissionIds),
+                sidebarCandidates);
+        Map<String, List<SidebarItemDTO>> immutableSidebar = new LinkedHashMap<>();
+        sidebar.forEach((module, items) -> immutableSidebar.put(module, List.copyOf(items)));
+
+        log.debug("Role snapshot built for {}: {} permissions", roleId, permissionIds.size());
+        return new Snapshot(
+                buildVersion,
+                System.currentTimeMillis(),
+                role.getRoleId(),
+                role.getRoleName(),
+                role.getBaseRole().getBaseRoleName(),
+                permissionIds,
+                groupedPermissions,
+                activeGroupedPermissions,
+                Collections.unmodifiableMap(immutableSidebar));
+    }
+
+    private static Map<String, List<String>> groupByModule(List<Permission> sortedPermissions) {
+        Map<String, List<String>> grouped = sortedPermissions.stream()
+                .collect(Collectors.groupingBy(
+                        Permission::getModule,
+                        LinkedHashMap::new,
+                        Collectors.mapping(Permission::getPermissionId, Collectors.toList())));
+        grouped.replaceAll((module, ids) -> List.copyOf(ids));
+        return Collections.unmodifiableMap(grouped);
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -54,7 +54,12 @@ public class SessionManagementService {
                 // Invalidate old session
                 log.warn("Rule #3: User {} already has active session. Invalidating old token (device fingerprint: {})",
                         username, oldSession.getDeviceFingerprint());
-                tokenBlacklistService.blacklistToken(oldSession.getToken());
+                try {
+                    tokenBlacklistService.blacklistToken(oldSession.getToken());
+                } catch (Exception e) {
+                    // The new session is registered anyway
+                    log.error("Failed to revoke old token of user {}: {}", username, e.getMessage());
+                }
             }
 
             // Extract device fingerprint from JWT claims (if available)
@@ -2,10 +2,8 @@ package com.dental.clinic.management.authentication.service;
 
 import com.dental.clinic.management.authentication.dto.SidebarItemDTO;
 import com.dental.clinic.management.permission.domain.Permission;
-import com.dental.clinic.management.permission.repository.PermissionRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,36 +23,39 @@ import java.util.stream.Collectors;
 @Slf4j
 public class SidebarService {
 
-    private final PermissionRepository permissionRepository;
+    private final RoleSnapshotCache roleSnapshotCache;
 
     /**
      * Generate sidebar structure for a given role.
      *
      * Process:
      * 1. Get all permission IDs for the role (for parent-child checking)
-     * 2. Get sidebar permissions (path != null)
+     * 2. Get sidebar candidates (active permissions, display order)
      * 3. Filter out child permissions if user has parent permission
      * 4. Group by module
      * 5. Convert to DTO
      *
-     * Results are cached by roleId.
+     * Built once per role with the role snapshot (see RoleSnapshotCache), which
+     * is invalidated by RoleService / PermissionService.
      *
      * @param roleId the role ID
      * @return Map of module name -> list of sidebar items
      */
-    @Cacheable(value = "sidebar", key = "#roleId")
     @Transactional(readOnly = true)
     public Map<String, List<SidebarItemDTO>> generateSidebar(String roleId) {
-        log.debug("Generating sidebar for role: {}", roleId);
-
-        // === 1. GET ALL PERMISSION IDS (for checking parent-child) ===
-        Set<String> allUserPermissionIds = permissionRepository.findAllPermissionIdsByRoleId(roleId);
-        log.debug("User has {} total permissions", allUserPermissionIds.size());
-
-        // === 2. GET SIDEBAR CANDIDATES (path != null) ===
-        List<Permission> sidebarCandidates = permissionRepository.findSidebarPermissionsByRoleId(roleId);
-        log.debug("Found {} sidebar candidate permissions", sidebarCandidates.size());
+        return roleSnapshotCache.get(roleId).sidebar();
+    }
 
+    /**
+     * Steps 3-5 of generateSidebar, run by RoleSnapshotCache when it builds a
+     * role snapshot.
+     *
+     * @param allUserPermissionIds all permission IDs of the role
+     * @param sidebarCandidates    active permissions of the role, in display order
+     * @return Map of module name -> list of sidebar items
+     */
+    public static Map<String, List<SidebarItemDTO>> buildSidebar(Set<String> allUserPermissionIds,
+            List<Permission> sidebarCandidates) {
         // === 3. FILTER PARENT-CHILD ===
         // If user has parent permission, remove child permission from sidebar
         List<Permission> filteredList = new ArrayList<>();
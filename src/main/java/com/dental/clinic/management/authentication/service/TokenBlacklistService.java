@@ -1,45 +1,137 @@
 package com.dental.clinic.management.authentication.service;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Service;
 
-import jakarta.annotation.PreDestroy;
+import com.dental.clinic.management.authentication.service.revocation.RevokedTokenBloomFilter;
+import com.dental.clinic.management.authentication.service.revocation.TokenRevocationStore;
+import com.dental.clinic.management.utils.security.VerifiedTokenCache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
 
 /**
- * Simple in-memory token blacklist service.
- * For production, consider using Redis or database.
+ * Token blacklist (logout, session replaced).
+ *
+ * Tokens are identified by the SHA-256 of the raw token (never stored
+ * themselves) and kept in TokenRevocationStore until they would have expired
+ * anyway - cleanup is done by expiry.
+ *
+ * Every node keeps a Bloom filter of revoked hashes, filled at startup from
+ * the store (and rebuilt larger when it fills up) and kept in sync by the store's notifications. The common case
+ * (token not revoked) is answered by the filter without leaving the JVM; only
+ * filter hits are confirmed against the store.
+ *
+ * The filter is only trusted once it has been loaded: until then (store
+ * unreachable at startup) every check goes to the store, and loading is
+ * retried every retry-interval-ms. Notifications missed while disconnected
+ * from the store are picked up by a full reload every resync-interval-ms.
+ *
+ * Revoked tokens are also evicted from VerifiedTokenCache on every node.
  */
+@Slf4j
 @Service
 public class TokenBlacklistService {
 
-    private final ConcurrentHashMap<String, Long> blacklistedTokens = new ConcurrentHashMap<>();
+    private static final double FALSE_POSITIVE_RATE = 0.001;
+
     private final JwtDecoder jwtDecoder;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+    private final TokenRevocationStore revocationStore;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${app.token-revocation.bloom-capacity:100000}")
+    private int bloomCapacity;
+
+    private volatile RevokedTokenBloomFilter bloomFilter;
+    private volatile boolean filterLoaded;
+    private volatile boolean subscribed;
+
+    /**
+     * Digests added while a rebuild is loading the store, replayed into the new filter
+     */
+    private final Queue<byte[]> addedDuringRebuild = new ConcurrentLinkedQueue<>();
+    private volatile boolean rebuilding;
 
-    public TokenBlacklistService(JwtDecoder jwtDecoder) {
+    public TokenBlacklistService(JwtDecoder jwtDecoder, TokenRevocationStore revocationStore,
+            VerifiedTokenCache verifiedTokenCache) {
         this.jwtDecoder = jwtDecoder;
-        // Cleanup expired tokens every hour
-        scheduler.scheduleAtFixedRate(this::cleanupExpiredTokens, 1, 1, TimeUnit.HOURS);
+        this.revocationStore = revocationStore;
+        this.verifiedTokenCache = verifiedTokenCache;
+    }
+
+    /**
+     * Load the Bloom filter from the store and follow revocations of other nodes
+     */
+    @PostConstruct
+    public void initialize() {
+        subscribe();
+        rebuildFilter();
+    }
+
+    /**
+     * Retry what failed at startup. A late subscription reloads the filter, as
+     * revocations made before it were never received.
+     */
+    @Scheduled(fixedDelayString = "${app.token-revocation.retry-interval-ms:10000}",
+            initialDelayString = "${app.token-revocation.retry-interval-ms:10000}")
+    public void retryInitialization() {
+        boolean resubscribed = !subscribed && subscribe();
+        if (resubscribed || !filterLoaded) {
+            rebuildFilter();
+        }
+    }
+
+    /**
+     * Full reload: recovers notifications missed while disconnected from the store
+     */
+    @Scheduled(fixedDelayString = "${app.token-revocation.resync-interval-ms:300000}",
+            initialDelayString = "${app.token-revocation.resync-interval-ms:300000}")
+    public void resyncFilter() {
+        rebuildFilter();
     }
 
     /**
      * Add token to blacklist when user logs out
      */
     public void blacklistToken(String token) {
+        verifiedTokenCache.evict(token);
+        Jwt jwt;
         try {
-            Jwt jwt = jwtDecoder.decode(token);
-            Long expiryTime = jwt.getExpiresAt() != null ? jwt.getExpiresAt().getEpochSecond() : null;
-            if (expiryTime != null) {
-                blacklistedTokens.put(token, expiryTime);
-            }
-        } catch (Exception e) {
+            jwt = jwtDecoder.decode(token);
+        } catch (JwtException e) {
             // Token already invalid, no need to blacklist
+            return;
+        }
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return;
+        }
+        Duration ttl = Duration.between(Instant.now(), expiresAt);
+        if (ttl.isNegative() || ttl.isZero()) {
+            return;
+        }
+
+        byte[] digest = digest(token);
+        addToFilter(digest);
+        // Store failures propagate: the caller must know the token is still valid
+        revocationStore.revoke(Base64.getUrlEncoder().withoutPadding().encodeToString(digest), ttl);
+
+        if (currentFilter().isSaturated()) {
+            rebuildFilter();
         }
     }
 
@@ -47,36 +139,83 @@ public class TokenBlacklistService {
      * Check if token is blacklisted
      */
     public boolean isTokenBlacklisted(String token) {
-        return blacklistedTokens.containsKey(token);
+        byte[] digest = digest(token);
+        if (filterLoaded && !currentFilter().mightContain(digest)) {
+            return false;
+        }
+        try {
+            return revocationStore.isRevoked(Base64.getUrlEncoder().withoutPadding().encodeToString(digest));
+        } catch (Exception e) {
+            // Store unreachable: a possibly revoked token (or any token before the filter is loaded) is rejected
+            log.warn("Token revocation store unavailable, rejecting suspected revoked token: {}", e.getMessage());
+            return true;
+        }
     }
 
-    /**
-     * Remove expired tokens from blacklist
-     */
-    private void cleanupExpiredTokens() {
-        long currentTime = System.currentTimeMillis() / 1000;
-        blacklistedTokens.entrySet().removeIf(entry -> entry.getValue() < currentTime);
+    private boolean subscribe() {
+        try {
+            revocationStore.subscribe(hash -> {
+                addToFilter(Base64.getUrlDecoder().decode(hash));
+                verifiedTokenCache.evictByHash(hash);
+            });
+            subscribed = true;
+        } catch (Exception e) {
+            log.error("Failed to subscribe to token revocations of other nodes: {}", e.getMessage(), e);
+        }
+        return subscribed;
     }
 
     /**
-     * Shutdown scheduler gracefully when application stops
-     * This prevents memory leak warnings
+     * New filter sized for the current revocations (at least bloom-capacity)
      */
-    @PreDestroy
-    public void destroy() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
-            try {
-                // Wait for existing tasks to complete
-                if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    // Force shutdown if tasks don't complete in time
-                    scheduler.shutdownNow();
+    private synchronized void rebuildFilter() {
+        addedDuringRebuild.clear();
+        rebuilding = true;
+        try {
+            Set<String> hashes = revocationStore.activeHashes();
+            RevokedTokenBloomFilter filter = new RevokedTokenBloomFilter(
+                    Math.max(bloomCapacity, hashes.size() * 2), FALSE_POSITIVE_RATE);
+            hashes.forEach(hash -> filter.put(Base64.getUrlDecoder().decode(hash)));
+            bloomFilter = filter;
+            // Revocations made while loading only reached the old filter
+            addedDuringRebuild.forEach(filter::put);
+            filterLoaded = true;
+            log.info("Revoked token filter loaded: {} active revocations", hashes.size());
+        } catch (Exception e) {
+            log.error("Failed to load revoked tokens{}: {}",
+                    filterLoaded ? ", keeping the previous filter" : ", checking every token against the store",
+                    e.getMessage(), e);
+        } finally {
+            rebuilding = false;
+            addedDuringRebuild.clear();
+        }
+    }
+
+    private void addToFilter(byte[] digest) {
+        currentFilter().put(digest);
+        if (rebuilding) {
+            addedDuringRebuild.add(digest);
+        }
+    }
+
+    private RevokedTokenBloomFilter currentFilter() {
+        RevokedTokenBloomFilter filter = bloomFilter;
+        if (filter == null) {
+            synchronized (this) {
+                if (bloomFilter == null) {
+                    bloomFilter = new RevokedTokenBloomFilter(bloomCapacity, FALSE_POSITIVE_RATE);
                 }
-            } catch (InterruptedException e) {
-                // Force shutdown if interrupted
-                scheduler.shutdownNow();
-                Thread.currentThread().interrupt();
+                filter = bloomFilter;
             }
         }
+        return filter;
+    }
+
+    private static byte[] digest(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
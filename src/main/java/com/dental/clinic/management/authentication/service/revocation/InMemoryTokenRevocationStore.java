@@ -0,0 +1,51 @@
+package com.dental.clinic.management.authentication.service.revocation;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Single-node revocation store. Expired entries are dropped when they are
+ * read and whenever the Bloom filter is rebuilt.
+ */
+@Component
+@ConditionalOnProperty(name = "app.token-revocation.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenRevocationStore implements TokenRevocationStore {
+
+    private final Map<String, Long> expiryByHash = new ConcurrentHashMap<>();
+
+    @Override
+    public void revoke(String tokenHash, Duration ttl) {
+        expiryByHash.put(tokenHash, System.currentTimeMillis() + ttl.toMillis());
+    }
+
+    @Override
+    public boolean isRevoked(String tokenHash) {
+        Long expiry = expiryByHash.get(tokenHash);
+        if (expiry == null) {
+            return false;
+        }
+        if (expiry < System.currentTimeMillis()) {
+            expiryByHash.remove(tokenHash, expiry);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Set<String> activeHashes() {
+        long now = System.currentTimeMillis();
+        expiryByHash.values().removeIf(expiry -> expiry < now);
+        return Set.copyOf(expiryByHash.keySet());
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        // Single node: nobody else revokes tokens
+    }
+}
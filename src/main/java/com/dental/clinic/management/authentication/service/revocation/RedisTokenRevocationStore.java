@@ -0,0 +1,89 @@
+package com.dental.clinic.management.authentication.service.revocation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Cluster-wide revocation store (app.token-revocation.store=redis).
+ *
+ * Keys:
+ * - jwt:revoked:{tokenHash} -> "1", expires when the token expires
+ *
+ * Channel jwt:revoked carries "{nodeId}:{tokenHash}" so every node adds the
+ * hash to its Bloom filter right away.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.token-revocation.store", havingValue = "redis")
+public class RedisTokenRevocationStore implements TokenRevocationStore {
+
+    private static final String KEY_PREFIX = "jwt:revoked:";
+    private static final String CHANNEL = "jwt:revoked";
+
+    private final StringRedisTemplate redisTemplate;
+    private final RedisMessageListenerContainer container;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisTokenRevocationStore(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory) {
+        this.redisTemplate = redisTemplate;
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+    }
+
+    @Override
+    public void revoke(String tokenHash, Duration ttl) {
+        redisTemplate.opsForValue().set(KEY_PREFIX + tokenHash, "1", ttl);
+        redisTemplate.convertAndSend(CHANNEL, nodeId + ":" + tokenHash);
+    }
+
+    @Override
+    public boolean isRevoked(String tokenHash) {
+        return Boolean.TRUE.equals(redisTemplate.hasKey(KEY_PREFIX + tokenHash));
+    }
+
+    @Override
+    public Set<String> activeHashes() {
+        Set<String> hashes = new HashSet<>();
+        ScanOptions options = ScanOptions.scanOptions().match(KEY_PREFIX + "*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            cursor.forEachRemaining(key -> hashes.add(key.substring(KEY_PREFIX.length())));
+        }
+        return hashes;
+    }
+
+    @Override
+    public void subscribe(Consumer<String> listener) {
+        container.addMessageListener((message, pattern) -> {
+            String body = new String(message.getBody(), StandardCharsets.UTF_8);
+            int separator = body.indexOf(':');
+            if (separator > 0 && !body.substring(0, separator).equals(nodeId)) {
+                listener.accept(body.substring(separator + 1));
+            }
+        }, new ChannelTopic(CHANNEL));
+        if (!container.isRunning()) {
+            container.afterPropertiesSet();
+            container.start();
+            log.info("Token revocation sync subscribed to Redis channel {}", CHANNEL);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        container.destroy();
+    }
+}
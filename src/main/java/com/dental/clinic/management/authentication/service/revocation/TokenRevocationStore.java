@@ -0,0 +1,36 @@
+package com.dental.clinic.management.authentication.service.revocation;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Storage for revoked tokens, keyed by token hash (see TokenBlacklistService).
+ *
+ * Implementations:
+ * - InMemoryTokenRevocationStore (default, app.token-revocation.store=memory): single node
+ * - RedisTokenRevocationStore (app.token-revocation.store=redis): shared by all nodes,
+ * survives restarts
+ *
+ * Entries expire with the token; expired entries must never be reported as
+ * revoked.
+ */
+public interface TokenRevocationStore {
+
+    /**
+     * Revoke until the token would have expired anyway, and notify other nodes
+     */
+    void revoke(String tokenHash, Duration ttl);
+
+    boolean isRevoked(String tokenHash);
+
+    /**
+     * All revoked, not yet expired hashes (used to rebuild the Bloom filter)
+     */
+    Set<String> activeHashes();
+
+    /**
+     * Receive hashes revoked on OTHER nodes
+     */
+    void subscribe(Consumer<String> listener);
+}
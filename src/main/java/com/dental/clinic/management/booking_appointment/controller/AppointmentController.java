@@ -8,18 +8,25 @@ import com.dental.clinic.management.booking_appointment.dto.CreateAppointmentRes
 import com.dental.clinic.management.booking_appointment.dto.DatePreset;
 import com.dental.clinic.management.booking_appointment.dto.UpdateAppointmentStatusRequest;
 import com.dental.clinic.management.booking_appointment.dto.request.AvailableTimesRequest;
+import com.dental.clinic.management.booking_appointment.dto.request.BatchCreateAppointmentRequest;
+import com.dental.clinic.management.booking_appointment.dto.request.CreateSlotHoldRequest;
 import com.dental.clinic.management.booking_appointment.dto.request.DelayAppointmentRequest;
 import com.dental.clinic.management.booking_appointment.dto.request.RescheduleAppointmentRequest;
 import com.dental.clinic.management.booking_appointment.dto.response.AvailableTimesResponse;
+import com.dental.clinic.management.booking_appointment.dto.response.BatchCreateAppointmentResponse;
 import com.dental.clinic.management.booking_appointment.dto.response.RescheduleAppointmentResponse;
+import com.dental.clinic.management.booking_appointment.dto.response.SlotHoldResponse;
 import com.dental.clinic.management.booking_appointment.service.AppointmentAvailabilityService;
+import com.dental.clinic.management.booking_appointment.service.AppointmentBatchCreationService;
 import com.dental.clinic.management.booking_appointment.service.AppointmentCreationService;
 import com.dental.clinic.management.booking_appointment.service.AppointmentDelayService;
 import com.dental.clinic.management.booking_appointment.service.AppointmentDetailService;
 import com.dental.clinic.management.booking_appointment.service.AppointmentListService;
 import com.dental.clinic.management.booking_appointment.service.AppointmentRescheduleService;
 import com.dental.clinic.management.booking_appointment.service.AppointmentStatusService;
+import com.dental.clinic.management.booking_appointment.service.SlotHoldService;
 import com.dental.clinic.management.utils.annotation.ApiMessage;
+import com.dental.clinic.management.utils.pagination.CursorPage;
 import com.dental.clinic.management.utils.security.AuthoritiesConstants;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -50,11 +57,13 @@ public class AppointmentController {
 
         private final AppointmentAvailabilityService availabilityService;
         private final AppointmentCreationService creationService;
+        private final AppointmentBatchCreationService batchCreationService;
         private final AppointmentListService listService;
         private final AppointmentDetailService detailService;
         private final AppointmentStatusService statusService;
         private final AppointmentDelayService delayService;
         private final AppointmentRescheduleService rescheduleService;
+        private final SlotHoldService slotHoldService;
 
         /**
          * P3.1: Find Available Time Slots
@@ -127,6 +136,88 @@ public class AppointmentController {
                 return ResponseEntity.status(HttpStatus.CREATED).body(response);
         }
 
+        /**
+         * P3.2D: Create several appointments for one patient at once
+         *
+         * POST /api/v1/appointments/batch
+         *
+         * - Used to confirm treatment-plan auto-schedule suggestions in one call
+         * - Same rules and error keys as P3.2, validated against existing bookings
+         * and the other items of the batch
+         * - Valid items are created in one transaction; invalid items are
+         * reported per index and do not block the others
+         *
+         * @param request Patient code + up to 50 appointments
+         * @return 201 Created with one result per item
+         */
+        @Operation(
+            summary = "Create appointments in batch",
+            description = "Create several appointments for one patient in one transaction, with per-item results"
+        )
+        @PostMapping("/batch")
+        @PreAuthorize("hasAuthority('" + AuthoritiesConstants.CREATE_APPOINTMENT + "')")
+        public ResponseEntity<BatchCreateAppointmentResponse> createAppointmentsBatch(
+                        @Valid @RequestBody BatchCreateAppointmentRequest request) {
+
+                log.info("Batch creating {} appointments for patient={}",
+                                request.getAppointments().size(), request.getPatientCode());
+
+                BatchCreateAppointmentResponse response = batchCreationService.createAppointments(request);
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
+        /**
+         * P3.2B: Hold a slot while the booking form is completed
+         *
+         * POST /api/v1/appointments/holds
+         *
+         * - Re-checks the slot against existing appointments once
+         * - Other users' availability searches skip the held interval
+         * - Expires after app.slot-hold.ttl-seconds (default 5 minutes)
+         * - Pass holdId in POST /api/v1/appointments; released after creation
+         *
+         * @param request Doctor, room, participants, start time and duration
+         * @return 201 Created with holdId and expiry
+         */
+        @Operation(
+            summary = "Hold a slot",
+            description = "Reserve a (doctor, room, participants, interval) slot for a few minutes while the booking is completed"
+        )
+        @PostMapping("/holds")
+        @PreAuthorize("hasAuthority('" + AuthoritiesConstants.CREATE_APPOINTMENT + "')")
+        public ResponseEntity<SlotHoldResponse> placeSlotHold(
+                        @Valid @RequestBody CreateSlotHoldRequest request) {
+
+                log.info("Placing slot hold: doctor={}, room={}, start={}, duration={}",
+                                request.getEmployeeCode(), request.getRoomCode(), request.getStartTime(),
+                                request.getDurationMinutes());
+
+                SlotHoldResponse response = slotHoldService.placeHold(request);
+
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        }
+
+        /**
+         * P3.2C: Release a slot hold (user picked another slot or closed the form)
+         *
+         * DELETE /api/v1/appointments/holds/{holdId}
+         */
+        @Operation(
+            summary = "Release a slot hold",
+            description = "Release a slot hold placed by the current user"
+        )
+        @DeleteMapping("/holds/{holdId}")
+        @PreAuthorize("hasAuthority('" + AuthoritiesConstants.CREATE_APPOINTMENT + "')")
+        public ResponseEntity<Void> releaseSlotHold(@PathVariable String holdId) {
+
+                log.info("Releasing slot hold: {}", holdId);
+
+                slotHoldService.releaseHold(holdId);
+
+                return ResponseEntity.noContent().build();
+        }
+
         /**
          * P3.3: Get Appointment List (Dashboard View)
          *
@@ -221,6 +312,64 @@ public class AppointmentController {
                 return ResponseEntity.ok(appointments);
         }
 
+        /**
+         * P3.3B: Get Appointment List in cursor (keyset) mode
+         *
+         * GET /api/v1/appointments/cursor
+         *
+         * Same filters and RBAC as P3.3, for infinite scroll / deep browsing:
+         * - Ordered by appointmentStartTime ASC (ties by id); no sortBy/page
+         * - cursor: nextCursor of the previous response (omit for the first page)
+         * - withTotal (default false): also count matching rows (one extra COUNT)
+         *
+         * @return Page content + nextCursor (null on the last page)
+         */
+        @Operation(
+            summary = "Get appointment list (cursor mode)",
+            description = "Keyset-paginated appointment list: pass nextCursor back as cursor; total count is optional"
+        )
+        @SuppressWarnings("deprecation")
+        @GetMapping("/cursor")
+        @PreAuthorize("hasAnyAuthority('VIEW_APPOINTMENT_ALL', 'VIEW_APPOINTMENT_OWN')")
+        public ResponseEntity<CursorPage<AppointmentSummaryDTO>> getAppointmentsByCursor(
+                        @RequestParam(required = false) String cursor,
+                        @RequestParam(defaultValue = "10") int size,
+                        @RequestParam(defaultValue = "false") boolean withTotal,
+
+                        @RequestParam(required = false) DatePreset datePreset,
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateFrom,
+                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateTo,
+                        @RequestParam(required = false) Boolean today,
+                        @RequestParam(required = false) List<String> status,
+                        @RequestParam(required = false) String patientCode,
+                        @RequestParam(required = false) String patientName,
+                        @RequestParam(required = false) String patientPhone,
+                        @RequestParam(required = false) String employeeCode,
+                        @RequestParam(required = false) String roomCode,
+                        @RequestParam(required = false) String serviceCode,
+                        @RequestParam(required = false) String searchCode) {
+
+                log.info("Fetching appointments by cursor: size={}, withTotal={}, datePreset={}, dateFrom={}, dateTo={}, status={}, searchCode={}",
+                                size, withTotal, datePreset, dateFrom, dateTo, status, searchCode);
+
+                AppointmentFilterCriteria criteria = AppointmentFilterCriteria.builder()
+                                .datePreset(datePreset)
+                                .dateFrom(dateFrom)
+                                .dateTo(dateTo)
+                                .today(today)
+                                .status(status)
+                                .patientCode(patientCode)
+                                .patientName(patientName)
+                                .patientPhone(patientPhone)
+                                .employeeCode(employeeCode)
+                                .roomCode(roomCode)
+                                .serviceCode(serviceCode)
+                                .searchCode(searchCode)
+                                .build();
+
+                return ResponseEntity.ok(listService.getAppointmentsByCursor(criteria, cursor, size, withTotal));
+        }
+
         /**
          * P3.4: Get Appointment Detail by Code
          *
@@ -3,10 +3,14 @@ package com.dental.clinic.management.booking_appointment.controller;
 import com.dental.clinic.management.booking_appointment.dto.availability.AvailableDoctorDTO;
 import com.dental.clinic.management.booking_appointment.dto.availability.AvailableResourcesDTO;
 import com.dental.clinic.management.booking_appointment.dto.availability.TimeSlotDTO;
+import com.dental.clinic.management.booking_appointment.dto.request.NextAvailableSlotsRequest;
+import com.dental.clinic.management.booking_appointment.dto.response.NextAvailableSlotsResponse;
 import com.dental.clinic.management.booking_appointment.service.AvailabilityService;
+import com.dental.clinic.management.booking_appointment.service.NextAvailableSlotService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -30,6 +34,7 @@ import java.util.List;
 public class AvailabilityController {
 
     private final AvailabilityService availabilityService;
+    private final NextAvailableSlotService nextAvailableSlotService;
 
     /**
      * API 4.1: Get Available Doctors
@@ -114,4 +119,28 @@ public class AvailabilityController {
 
         return ResponseEntity.ok(resources);
     }
+
+    /**
+     * API 4.4: Next Available Slots (clinic-wide, multi-day)
+     * Shortcut for the booking flow: earliest (doctor, room, start) combinations
+     * across up to 30 days instead of checking date by date
+     */
+    @GetMapping("/next-slots")
+    @PreAuthorize("hasAuthority('CREATE_APPOINTMENT')")
+    @Operation(
+            summary = "Get next available slots",
+            description = "Returns the N earliest feasible (doctor, room, start time) combinations for the services " +
+                    "within a horizon of up to 30 days, optionally restricted to given doctors and participants"
+    )
+    public ResponseEntity<NextAvailableSlotsResponse> getNextAvailableSlots(
+            @Valid @ModelAttribute NextAvailableSlotsRequest request) {
+
+        log.info("GET /api/v1/availability/next-slots - services: {}, doctors: {}, from: {}, horizon: {}",
+                request.getServiceCodes(), request.getEmployeeCodes(), request.getFromDate(),
+                request.getHorizonDays());
+
+        NextAvailableSlotsResponse response = nextAvailableSlotService.findNextAvailableSlots(request);
+
+        return ResponseEntity.ok(response);
+    }
 }
@@ -1,10 +1,13 @@
 package com.dental.clinic.management.booking_appointment.domain;
 
 import com.dental.clinic.management.booking_appointment.enums.AppointmentStatus;
+import com.dental.clinic.management.dashboard.service.DashboardRollupChangeListener;
+import com.dental.clinic.management.export.service.ExportDataChangeListener;
 import com.dental.clinic.management.utils.IdGenerator;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -17,7 +20,11 @@ import java.time.LocalDateTime;
  * - Service layer resolve codes -> IDs trước khi persist
  */
 @Entity
-@Table(name = "appointments")
+@Table(name = "appointments", indexes = {
+        @Index(name = "idx_appointments_start_time_id", columnList = "appointment_start_time, appointment_id"),
+        @Index(name = "idx_appointments_status_start_time", columnList = "status, appointment_start_time")
+})
+@EntityListeners({ DashboardRollupChangeListener.class, ExportDataChangeListener.class })
 public class Appointment {
 
     @Transient
@@ -132,7 +139,9 @@ public class Appointment {
     @PrePersist
     protected void onCreate() {
         if (appointmentCode == null && idGenerator != null) {
-            appointmentCode = idGenerator.generateId("APT");
+            appointmentCode = idGenerator.generateAppointmentCode(appointmentStartTime != null
+                    ? appointmentStartTime.toLocalDate()
+                    : LocalDate.now());
         }
         if (createdAt == null) {
             createdAt = LocalDateTime.now();
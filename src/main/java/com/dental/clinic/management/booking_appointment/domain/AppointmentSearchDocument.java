@@ -0,0 +1,38 @@
+package com.dental.clinic.management.booking_appointment.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Appointment Search Document - Văn bản tìm kiếm đã chuẩn hóa của lịch hẹn
+ *
+ * One row per appointment with the codes and names of its patient, doctor,
+ * room, participants and services, lower-cased and without Vietnamese
+ * diacritics ("Nguyễn Văn A" -> "nguyen van a").
+ *
+ * Rows are written by AppointmentSearchIndexer only (set-based SQL upsert);
+ * the trigram index on search_text is created at startup.
+ */
+@Entity
+@Table(name = "appointment_search_documents")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppointmentSearchDocument {
+
+    @Id
+    @Column(name = "appointment_id")
+    private Integer appointmentId;
+
+    @Column(name = "search_text", nullable = false, columnDefinition = "TEXT")
+    private String searchText;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
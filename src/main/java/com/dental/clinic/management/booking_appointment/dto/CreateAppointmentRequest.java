@@ -101,6 +101,13 @@ public class CreateAppointmentRequest {
      */
     private List<String> participantCodes;
 
+    /**
+     * Optional slot hold placed via POST /api/v1/appointments/holds
+     * Must belong to the current user and cover doctor, room, participants and time
+     * Example: "3f1c2a9e-6b1d-4f7e-9a0c-2d5b8e7f1a34"
+     */
+    private String holdId;
+
     /**
      * Optional notes from receptionist
      * Example: "Bệnh nhân có tiền sử cao huyết áp"
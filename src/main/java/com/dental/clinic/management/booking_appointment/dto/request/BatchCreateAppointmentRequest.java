@@ -0,0 +1,83 @@
+package com.dental.clinic.management.booking_appointment.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for creating several appointments of ONE patient at once
+ * (e.g. confirmed auto-schedule suggestions of a treatment plan).
+ * API: POST /api/v1/appointments/batch
+ *
+ * Each item follows the same rules as P3.2 and is additionally checked
+ * against the other items of the batch. Valid items are created together,
+ * invalid items are reported individually.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateAppointmentRequest {
+
+    /**
+     * Patient code (must exist, be active and not blocked)
+     * Example: "BN-1001"
+     */
+    @NotBlank(message = "Mã bệnh nhân là bắt buộc")
+    private String patientCode;
+
+    @NotEmpty(message = "Danh sách lịch hẹn không được để trống")
+    @Size(max = 50, message = "Tối đa 50 lịch hẹn mỗi lần")
+    @Valid
+    private List<BatchAppointmentItem> appointments;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BatchAppointmentItem {
+
+        @NotBlank(message = "Mã nhân viên là bắt buộc")
+        private String employeeCode;
+
+        @NotBlank(message = "Mã phòng là bắt buộc")
+        private String roomCode;
+
+        /**
+         * Standalone booking: service codes
+         */
+        private List<String> serviceCodes;
+
+        /**
+         * Treatment plan booking: patient plan item IDs
+         */
+        private List<Long> patientPlanItemIds;
+
+        @NotBlank(message = "Thời gian bắt đầu cuộc hẹn là bắt buộc")
+        @Pattern(regexp = "^\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}$", message = "Thời gian bắt đầu phải theo định dạng ISO 8601 (YYYY-MM-DDTHH:mm:ss)")
+        private String appointmentStartTime;
+
+        private List<String> participantCodes;
+
+        private String notes;
+
+        /**
+         * Same XOR rule as CreateAppointmentRequest
+         */
+        @AssertTrue(message = "Vui lòng cung cấp serviceCodes cho đặt lịch đơn lẻ hoặc patientPlanItemIds cho đặt lịch theo lộ trình, nhưng không được cả hai hoặc để trống")
+        private boolean isValidBookingType() {
+            boolean hasServiceCodes = serviceCodes != null && !serviceCodes.isEmpty();
+            boolean hasPlanItems = patientPlanItemIds != null && !patientPlanItemIds.isEmpty();
+            return hasServiceCodes ^ hasPlanItems;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.dental.clinic.management.booking_appointment.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Request DTO for placing a slot hold while the booking form is completed.
+ * API: POST /api/v1/appointments/holds
+ *
+ * Values come straight from the P3.1 / 4.4 availability responses:
+ * employeeCode, roomCode, slot start and totalDurationNeeded.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateSlotHoldRequest {
+
+    /**
+     * Primary doctor to hold
+     * Example: "BS-001"
+     */
+    @NotBlank(message = "Mã nhân viên là bắt buộc")
+    private String employeeCode;
+
+    /**
+     * Room to hold
+     * Example: "P-01"
+     */
+    @NotBlank(message = "Mã phòng là bắt buộc")
+    private String roomCode;
+
+    /**
+     * Optional participants (assistants) to hold together with the doctor
+     */
+    private List<String> participantCodes;
+
+    /**
+     * Slot start time
+     * Example: "2025-10-30T09:30:00"
+     */
+    @NotNull(message = "Thời gian bắt đầu là bắt buộc")
+    private LocalDateTime startTime;
+
+    /**
+     * Slot length in minutes (totalDurationNeeded from availability search)
+     */
+    @NotNull(message = "Thời lượng là bắt buộc")
+    @Min(value = 1, message = "Thời lượng phải lớn hơn 0")
+    @Max(value = 720, message = "Thời lượng tối đa là 720 phút")
+    private Integer durationMinutes;
+}
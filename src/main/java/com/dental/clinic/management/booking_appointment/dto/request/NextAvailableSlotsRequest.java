@@ -0,0 +1,69 @@
+package com.dental.clinic.management.booking_appointment.dto.request;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Request DTO for API 4.4: Next Available Slots (clinic-wide, multi-day)
+ *
+ * Business Logic:
+ * 1. Validate services (exist + active), calculate total duration
+ * 2. Candidate doctors = given employeeCodes, or every qualified medical staff
+ * 3. Participants (optional) must be free and on shift for the whole slot
+ * 4. Search [fromDate, fromDate + horizonDays) skipping holidays
+ * 5. Return the N earliest (doctor, room, start) combinations
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NextAvailableSlotsRequest {
+
+    /**
+     * Service codes for this appointment
+     * Example: ["SCALING_L1", "GEN_EXAM"]
+     */
+    @NotEmpty(message = "Ít nhất một mã dịch vụ là bắt buộc")
+    private List<String> serviceCodes;
+
+    /**
+     * Optional: Restrict search to these doctors
+     * Empty = every active medical staff qualified for the services
+     */
+    private List<String> employeeCodes;
+
+    /**
+     * Optional: Participants (assistants) who must join the appointment
+     */
+    private List<String> participantCodes;
+
+    /**
+     * Optional: First date to search (default: today)
+     * Format: YYYY-MM-DD
+     */
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate fromDate;
+
+    /**
+     * Optional: Number of days to search (default: 14, max: 30)
+     */
+    @Min(value = 1, message = "Số ngày tìm kiếm phải lớn hơn 0")
+    @Max(value = 30, message = "Số ngày tìm kiếm tối đa là 30")
+    private Integer horizonDays;
+
+    /**
+     * Optional: Number of slots to return (default: 10, max: 50)
+     */
+    @Min(value = 1, message = "Số lượng kết quả phải lớn hơn 0")
+    @Max(value = 50, message = "Số lượng kết quả tối đa là 50")
+    private Integer limit;
+}
@@ -0,0 +1,56 @@
+package com.dental.clinic.management.booking_appointment.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for batch appointment creation
+ * One result per requested item, in request order
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateAppointmentResponse {
+
+    private String patientCode;
+    private Integer totalRequested;
+    private Integer createdCount;
+    private Integer failedCount;
+    private List<ItemResult> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ItemResult {
+
+        /**
+         * Position of the item in the request (0-based)
+         */
+        private Integer index;
+
+        private Boolean success;
+
+        /**
+         * Set when success = true
+         */
+        private String appointmentCode;
+        private LocalDateTime appointmentStartTime;
+        private LocalDateTime appointmentEndTime;
+        private String employeeCode;
+        private String roomCode;
+        private List<Long> patientPlanItemIds;
+
+        /**
+         * Set when success = false (same error keys as P3.2)
+         */
+        private String errorKey;
+        private String errorMessage;
+    }
+}
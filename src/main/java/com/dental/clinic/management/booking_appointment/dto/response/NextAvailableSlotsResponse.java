@@ -0,0 +1,63 @@
+package com.dental.clinic.management.booking_appointment.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for API 4.4: Next Available Slots
+ * Earliest feasible (doctor, room, start) combinations across the clinic
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NextAvailableSlotsResponse {
+
+    /**
+     * Total duration needed (sum of service durations + buffers)
+     */
+    private Integer totalDurationNeeded;
+
+    /**
+     * Searched window [fromDate, toDate]
+     */
+    private LocalDate fromDate;
+    private LocalDate toDate;
+
+    /**
+     * Slots ordered by start time (then doctor code)
+     */
+    private List<SlotCandidate> slots;
+
+    /**
+     * Optional message (e.g. no compatible rooms)
+     */
+    private String message;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SlotCandidate {
+        private LocalDateTime startTime;
+        private LocalDateTime endTime;
+        private String employeeCode;
+        private String employeeName;
+
+        /**
+         * Suggested room (first free compatible room)
+         */
+        private String roomCode;
+
+        /**
+         * All compatible rooms free during this slot
+         */
+        private List<String> availableCompatibleRoomCodes;
+    }
+}
@@ -0,0 +1,28 @@
+package com.dental.clinic.management.booking_appointment.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Response DTO for a placed slot hold.
+ * Pass holdId in CreateAppointmentRequest before expiresAt.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHoldResponse {
+
+    private String holdId;
+    private String employeeCode;
+    private String roomCode;
+    private List<String> participantCodes;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private LocalDateTime expiresAt;
+}
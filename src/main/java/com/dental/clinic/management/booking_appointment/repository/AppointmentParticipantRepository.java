@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -23,6 +24,11 @@ public interface AppointmentParticipantRepository
      */
     List<AppointmentParticipant> findByIdAppointmentId(Integer appointmentId);
 
+    /**
+     * Find all participants of several appointments (list page batch loading)
+     */
+    List<AppointmentParticipant> findByIdAppointmentIdIn(Collection<Integer> appointmentIds);
+
     /**
      * Find all participants for a specific appointment with employee and account eagerly loaded
      * This is used for sending notifications to participants
@@ -49,6 +55,22 @@ public interface AppointmentParticipantRepository
             @Param("startTime") LocalDateTime startTime,
             @Param("endTime") LocalDateTime endTime);
 
+    /**
+     * Busy intervals of several employees acting as participants, in ONE query
+     * Returns: [employeeId, appointmentStartTime, appointmentEndTime]
+     * Used for: Building the in-memory occupancy index for availability search
+     */
+    @Query("SELECT ap.id.employeeId, a.appointmentStartTime, a.appointmentEndTime " +
+            "FROM AppointmentParticipant ap " +
+            "JOIN Appointment a ON ap.id.appointmentId = a.appointmentId " +
+            "WHERE ap.id.employeeId IN :employeeIds " +
+            "AND a.status IN ('SCHEDULED', 'CHECKED_IN', 'IN_PROGRESS') " +
+            "AND a.appointmentStartTime < :endTime AND a.appointmentEndTime > :startTime")
+    List<Object[]> findBusyIntervalsByEmployeesInRange(
+            @Param("employeeIds") java.util.Collection<Integer> employeeIds,
+            @Param("startTime") LocalDateTime startTime,
+            @Param("endTime") LocalDateTime endTime);
+
     /**
      * Check if employee has conflict as participant
      */
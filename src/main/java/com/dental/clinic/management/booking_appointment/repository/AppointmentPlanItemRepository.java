@@ -57,4 +57,21 @@ public interface AppointmentPlanItemRepository
      * @return List of bridge records for this appointment
      */
     java.util.List<AppointmentPlanItemBridge> findById_AppointmentId(Integer appointmentId);
+
+    /**
+     * Treatment plan code linked to each appointment, for several appointments.
+     *
+     * @param appointmentIds The appointment IDs
+     * @return Object[]{appointmentId (Long), planCode}
+     */
+    @Query("""
+            SELECT DISTINCT apib.id.appointmentId, plan.planCode
+            FROM AppointmentPlanItemBridge apib
+            JOIN PatientPlanItem item ON item.itemId = apib.id.itemId
+            JOIN item.phase phase
+            JOIN phase.treatmentPlan plan
+            WHERE apib.id.appointmentId IN :appointmentIds
+            """)
+    java.util.List<Object[]> findPlanCodesByAppointmentIds(
+            @Param("appointmentIds") java.util.Collection<Long> appointmentIds);
 }
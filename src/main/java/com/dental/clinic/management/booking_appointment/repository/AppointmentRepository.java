@@ -12,6 +12,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -126,11 +127,15 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
         List<Object[]> findServicesByAppointmentId(@Param("appointmentId") Integer appointmentId);
 
         /**
-         * Find last appointment code with prefix for sequence generation
-         * Example: findTopByAppointmentCodeStartingWith("APT-20251115-") ->
-         * "APT-20251115-003"
+         * Batch version of findServicesByAppointmentId for a page of appointments
+         *
+         * @return Object[]{appointmentId, serviceCode, serviceName}
          */
-        Optional<Appointment> findTopByAppointmentCodeStartingWithOrderByAppointmentCodeDesc(String codePrefix);
+        @Query("SELECT aps.id.appointmentId, s.serviceCode, s.serviceName " +
+                        "FROM AppointmentService aps " +
+                        "JOIN aps.service s " +
+                        "WHERE aps.id.appointmentId IN :appointmentIds")
+        List<Object[]> findServicesByAppointmentIds(@Param("appointmentIds") Collection<Integer> appointmentIds);
 
         /**
          * Find all appointments for a specific employee within date range
@@ -172,6 +177,29 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
                         @Param("endTime") LocalDateTime endTime,
                         @Param("statuses") List<AppointmentStatus> statuses);
 
+        /**
+         * Load every busy appointment touching a set of employees (as primary doctor)
+         * or rooms within a time window - in ONE query.
+         * Used for: Building the in-memory occupancy index for availability search
+         * (replaces one existsConflictForRoom call per room per slot)
+         *
+         * @param employeeIds Doctor + participant employee IDs (must not be empty)
+         * @param roomIds     Compatible room IDs (must not be empty)
+         * @param startTime   Window start (inclusive)
+         * @param endTime     Window end (exclusive)
+         * @param statuses    Busy statuses (SCHEDULED, CHECKED_IN, IN_PROGRESS)
+         */
+        @Query("SELECT a FROM Appointment a " +
+                        "WHERE a.status IN :statuses " +
+                        "AND a.appointmentStartTime < :endTime AND a.appointmentEndTime > :startTime " +
+                        "AND (a.employeeId IN :employeeIds OR a.roomId IN :roomIds)")
+        List<Appointment> findBusyForResourcesInRange(
+                        @Param("employeeIds") java.util.Collection<Integer> employeeIds,
+                        @Param("roomIds") java.util.Collection<String> roomIds,
+                        @Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime,
+                        @Param("statuses") List<AppointmentStatus> statuses);
+
         /**
          * Find all appointments for a specific patient within date range
          * Used for: Checking patient availability (prevent double booking)
@@ -217,6 +245,25 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
                         @Param("startTime") LocalDateTime startTime,
                         @Param("endTime") LocalDateTime endTime);
 
+        /**
+         * Single existence check for a whole booking tuple: any employee busy as
+         * primary doctor, any participant busy as participant, or the room busy.
+         * Used for: Creation backed by a slot hold (detailed checks only on hit)
+         */
+        @Query("SELECT COUNT(a) > 0 FROM Appointment a " +
+                        "WHERE a.status IN :statuses " +
+                        "AND a.appointmentStartTime < :endTime AND a.appointmentEndTime > :startTime " +
+                        "AND (a.employeeId IN :employeeIds OR a.roomId = :roomId " +
+                        "OR EXISTS (SELECT 1 FROM AppointmentParticipant ap " +
+                        "WHERE ap.id.appointmentId = a.appointmentId AND ap.id.employeeId IN :participantIds))")
+        boolean existsBusyForResources(
+                        @Param("employeeIds") java.util.Collection<Integer> employeeIds,
+                        @Param("participantIds") java.util.Collection<Integer> participantIds,
+                        @Param("roomId") String roomId,
+                        @Param("startTime") LocalDateTime startTime,
+                        @Param("endTime") LocalDateTime endTime,
+                        @Param("statuses") List<AppointmentStatus> statuses);
+
         /**
          * Check if time slot conflicts with existing appointments for an employee
          * Used for: Preventing double-booking
@@ -465,43 +512,29 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
          * - Participant: employee_code OR full_name
          * - Service: service_code OR service_name
          *
-         * Uses ILIKE for case-insensitive partial matching on names.
+         * Matches against appointment_search_documents (one pre-joined row per
+         * appointment, maintained by AppointmentSearchIndexer): one trigram-indexed
+         * LIKE instead of joining 8 tables with 10 ILIKE predicates + DISTINCT.
+         * Text and term are lower-cased and stripped of Vietnamese diacritics.
          *
          * Examples:
-         * - searchCode="Nguyễn" → Finds all patients/doctors with "Nguyễn" in name
+         * - searchCode="Nguyễn" or "nguyen" → Finds all patients/doctors with "Nguyễn" in name
          * - searchCode="BN-1001" → Finds patient by exact code
-         * - searchCode="Cạo vôi" → Finds appointments with "Cạo vôi" service
+         * - searchCode="Cạo vôi" or "cao voi" → Finds appointments with "Cạo vôi" service
          *
          * @param searchCode The code or name to search for (supports partial match on
          *                   names)
          */
-        @Query(value = "SELECT DISTINCT a.* FROM appointments a " +
-                        "LEFT JOIN patients p ON a.patient_id = p.patient_id " +
-                        "LEFT JOIN employees e ON a.employee_id = e.employee_id " +
-                        "LEFT JOIN rooms r ON a.room_id = r.room_id " +
-                        "LEFT JOIN appointment_participants ap ON a.appointment_id = ap.appointment_id " +
-                        "LEFT JOIN employees part_emp ON ap.employee_id = part_emp.employee_id " +
-                        "LEFT JOIN appointment_services asvc ON a.appointment_id = asvc.appointment_id " +
-                        "LEFT JOIN services s ON asvc.service_id = s.service_id " +
+        @Query(value = "SELECT a.* FROM appointments a " +
+                        "JOIN appointment_search_documents d ON d.appointment_id = a.appointment_id " +
                         "WHERE (CAST(:startDate AS timestamp) IS NULL OR a.appointment_start_time >= CAST(:startDate AS timestamp)) "
                         +
                         "AND (CAST(:endDate AS timestamp) IS NULL OR a.appointment_start_time <= CAST(:endDate AS timestamp)) "
                         +
                         "AND (COALESCE(CAST(:statuses AS text[]), NULL::text[]) IS NULL OR a.status::text = ANY(:statuses)) "
                         +
-                        "AND (" +
-                        "    p.patient_code ILIKE '%' || :searchCode || '%' " +
-                        "    OR LOWER(CONCAT(p.first_name, ' ', p.last_name)) LIKE LOWER('%' || :searchCode || '%') " +
-                        "    OR e.employee_code ILIKE '%' || :searchCode || '%' " +
-                        "    OR LOWER(CONCAT(e.first_name, ' ', e.last_name)) LIKE LOWER('%' || :searchCode || '%') " +
-                        "    OR r.room_code ILIKE '%' || :searchCode || '%' " +
-                        "    OR LOWER(r.room_name) LIKE LOWER('%' || :searchCode || '%') " +
-                        "    OR part_emp.employee_code ILIKE '%' || :searchCode || '%' " +
-                        "    OR LOWER(CONCAT(part_emp.first_name, ' ', part_emp.last_name)) LIKE LOWER('%' || :searchCode || '%') "
-                        +
-                        "    OR s.service_code ILIKE '%' || :searchCode || '%' " +
-                        "    OR LOWER(s.service_name) LIKE LOWER('%' || :searchCode || '%') " +
-                        ")", nativeQuery = true)
+                        "AND d.search_text LIKE '%' || " + AppointmentSearchDocumentRepository.FOLDED_SEARCH_CODE
+                        + " || '%'", nativeQuery = true)
         Page<Appointment> findBySearchCode(
                         @Param("startDate") LocalDateTime startDate,
                         @Param("endDate") LocalDateTime endDate,
@@ -509,6 +542,74 @@ public interface AppointmentRepository extends JpaRepository<Appointment, Intege
                         @Param("searchCode") String searchCode,
                         Pageable pageable);
 
+        /**
+         * Keyset (cursor) variant of findByFilters for all three list views.
+         *
+         * - Ordered by (appointment_start_time, appointment_id), no OFFSET: each page
+         * seeks past the cursor, so page 500 costs the same as page 1
+         * - No COUNT query; pass PageRequest.of(0, size + 1) to detect a next page
+         * - memberEmployeeId: primary doctor OR participant (employee view)
+         * - cursorStart NULL = first page (cursorId is then ignored)
+         */
+        @Query(value = "SELECT a.* FROM appointments a " +
+                        "LEFT JOIN patients p ON a.patient_id = p.patient_id " +
+                        "WHERE (COALESCE(:startDate, NULL::timestamp) IS NULL OR a.appointment_start_time >= :startDate) "
+                        +
+                        "AND (COALESCE(:endDate, NULL::timestamp) IS NULL OR a.appointment_start_time <= :endDate) " +
+                        "AND (COALESCE(:statuses, NULL::text[]) IS NULL OR a.status = ANY(:statuses)) " +
+                        "AND (COALESCE(:patientId, NULL::integer) IS NULL OR a.patient_id = :patientId) " +
+                        "AND (COALESCE(:employeeId, NULL::integer) IS NULL OR a.employee_id = :employeeId) " +
+                        "AND (COALESCE(:memberEmployeeId, NULL::integer) IS NULL OR a.employee_id = :memberEmployeeId " +
+                        "     OR EXISTS (SELECT 1 FROM appointment_participants ap " +
+                        "                WHERE ap.appointment_id = a.appointment_id AND ap.employee_id = :memberEmployeeId)) " +
+                        "AND (COALESCE(:roomId, NULL::varchar) IS NULL OR a.room_id = :roomId) " +
+                        "AND (COALESCE(:patientName, NULL::varchar) IS NULL OR " +
+                        "     LOWER((COALESCE(p.first_name, '') || ' ' || COALESCE(p.last_name, ''))::text) LIKE LOWER('%' || :patientName || '%')) "
+                        +
+                        "AND (COALESCE(:patientPhone, NULL::varchar) IS NULL OR p.phone LIKE '%' || :patientPhone || '%') "
+                        +
+                        "AND (COALESCE(:cursorStart, NULL::timestamp) IS NULL " +
+                        "     OR (a.appointment_start_time, a.appointment_id) > (:cursorStart, :cursorId)) " +
+                        "ORDER BY a.appointment_start_time, a.appointment_id", nativeQuery = true)
+        List<Appointment> findByFiltersAfter(
+                        @Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate,
+                        @Param("statuses") String[] statuses,
+                        @Param("patientId") Integer patientId,
+                        @Param("employeeId") Integer employeeId,
+                        @Param("memberEmployeeId") Integer memberEmployeeId,
+                        @Param("roomId") String roomId,
+                        @Param("patientName") String patientName,
+                        @Param("patientPhone") String patientPhone,
+                        @Param("cursorStart") LocalDateTime cursorStart,
+                        @Param("cursorId") Integer cursorId,
+                        Pageable pageable);
+
+        /**
+         * Keyset (cursor) variant of findBySearchCode (same search document match).
+         */
+        @Query(value = "SELECT a.* FROM appointments a " +
+                        "JOIN appointment_search_documents d ON d.appointment_id = a.appointment_id " +
+                        "WHERE (CAST(:startDate AS timestamp) IS NULL OR a.appointment_start_time >= CAST(:startDate AS timestamp)) "
+                        +
+                        "AND (CAST(:endDate AS timestamp) IS NULL OR a.appointment_start_time <= CAST(:endDate AS timestamp)) "
+                        +
+                        "AND (COALESCE(CAST(:statuses AS text[]), NULL::text[]) IS NULL OR a.status::text = ANY(:statuses)) "
+                        +
+                        "AND d.search_text LIKE '%' || " + AppointmentSearchDocumentRepository.FOLDED_SEARCH_CODE
+                        + " || '%' " +
+                        "AND (CAST(:cursorStart AS timestamp) IS NULL " +
+                        "     OR (a.appointment_start_time, a.appointment_id) > (CAST(:cursorStart AS timestamp), :cursorId)) " +
+                        "ORDER BY a.appointment_start_time, a.appointment_id", nativeQuery = true)
+        List<Appointment> findBySearchCodeAfter(
+                        @Param("startDate") LocalDateTime startDate,
+                        @Param("endDate") LocalDateTime endDate,
+                        @Param("statuses") String[] statuses,
+                        @Param("searchCode") String searchCode,
+                        @Param("cursorStart") LocalDateTime cursorStart,
+                        @Param("cursorId") Integer cursorId,
+                        Pageable pageable);
+
         // ==================== V21 CLINICAL RULES VALIDATION ====================
 
         /**
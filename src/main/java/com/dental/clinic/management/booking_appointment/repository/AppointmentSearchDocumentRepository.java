@@ -0,0 +1,30 @@
+package com.dental.clinic.management.booking_appointment.repository;
+
+import com.dental.clinic.management.booking_appointment.domain.AppointmentSearchDocument;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for appointment_search_documents.
+ *
+ * The folding constants are shared by the document upsert
+ * (AppointmentSearchIndexer) and the search queries (AppointmentRepository),
+ * so text and search term are always normalized the same way: Vietnamese
+ * letters are mapped to their base letter by TRANSLATE, then LOWER handles
+ * plain ASCII (independent of the database locale).
+ */
+@Repository
+public interface AppointmentSearchDocumentRepository extends JpaRepository<AppointmentSearchDocument, Integer> {
+
+        String FOLD_FROM = "àáạảãâầấậẩẫăằắặẳẵèéẹẻẽêềếệểễìíịỉĩòóọỏõôồốộổỗơờớợởỡùúụủũưừứựửữỳýỵỷỹđ"
+                        + "ÀÁẠẢÃÂẦẤẬẨẪĂẰẮẶẲẴÈÉẸẺẼÊỀẾỆỂỄÌÍỊỈĨÒÓỌỎÕÔỒỐỘỔỖƠỜỚỢỞỠÙÚỤỦŨƯỪỨỰỬỮỲÝỴỶỸĐ";
+
+        String FOLD_TO = "aaaaaaaaaaaaaaaaaeeeeeeeeeeeiiiiiooooooooooooooooouuuuuuuuuuuyyyyyd"
+                        + "aaaaaaaaaaaaaaaaaeeeeeeeeeeeiiiiiooooooooooooooooouuuuuuuuuuuyyyyyd";
+
+        /**
+         * :searchCode folded like search_text, for use inside native queries
+         */
+        String FOLDED_SEARCH_CODE = "LOWER(TRANSLATE(TRIM(CAST(:searchCode AS text)), '" + FOLD_FROM + "', '"
+                        + FOLD_TO + "'))";
+}
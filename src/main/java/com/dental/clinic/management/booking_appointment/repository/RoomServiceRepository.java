@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -53,6 +54,18 @@ public interface RoomServiceRepository extends JpaRepository<RoomService, RoomSe
      */
     List<RoomService> findByIdRoomId(String roomId);
 
+    /**
+     * Find all RoomService entities of several rooms in one query.
+     * <p>
+     * Used by batch appointment creation to check room compatibility of all
+     * items without one query per room.
+     * </p>
+     *
+     * @param roomIds the room IDs
+     * @return list of RoomService entities for these rooms
+     */
+    List<RoomService> findByIdRoomIdIn(Collection<String> roomIds);
+
     /**
      * Delete all RoomService entities by room ID.
      * <p>
@@ -1,17 +1,14 @@
 package com.dental.clinic.management.booking_appointment.service;
 
-import com.dental.clinic.management.booking_appointment.domain.Appointment;
-import com.dental.clinic.management.booking_appointment.enums.AppointmentStatus;
-import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
-import com.dental.clinic.management.booking_appointment.dto.UpdateAppointmentStatusRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 /**
  * Scheduled service for automatic appointment status transitions.
@@ -23,14 +20,28 @@ import java.util.List;
  * - Finds SCHEDULED appointments where: startTime + 30 minutes < now
  * - Auto-updates status to NO_SHOW with system notes
  * - Triggers Rule #5 (no-show counter) via AppointmentStatusService
+ *
+ * The sweep is set-based and chunked: each chunk is one short transaction
+ * (AppointmentStatusService.markLateAppointmentsAsNoShow), so a backlog after
+ * an outage or a holiday commits progressively instead of holding one huge
+ * transaction. Leftovers beyond MAX_CHUNKS_PER_RUN are picked up by the next
+ * run.
+ *
+ * Metrics: appointment.no_show_sweep.marked, .blocked_patients, .duration
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AppointmentAutoStatusService {
 
-    private final AppointmentRepository appointmentRepository;
+    private static final int LATE_THRESHOLD_MINUTES = 30;
+    private static final int MAX_CHUNKS_PER_RUN = 50;
+
     private final AppointmentStatusService statusService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.no-show-sweep.chunk-size:200}")
+    private int chunkSize;
 
     /**
      * Cron: Every 5 minutes
@@ -40,68 +51,51 @@ public class AppointmentAutoStatusService {
      * Rule #6: Late arrivals (>30 min) are automatically marked as NO_SHOW
      */
     @Scheduled(cron = "0 */5 * * * *") // Every 5 minutes
-    @Transactional
     public void autoMarkLateAppointmentsAsNoShow() {
         LocalDateTime now = LocalDateTime.now();
-        LocalDateTime cutoffTime = now.minusMinutes(30);
+        LocalDateTime cutoffTime = now.minusMinutes(LATE_THRESHOLD_MINUTES);
+        int limit = Math.max(1, chunkSize);
 
         log.info("Running scheduled job: Auto-mark late appointments as NO_SHOW (cutoff: {})", cutoffTime);
 
-        // Find SCHEDULED appointments where start time + 15 minutes has passed
-        List<Appointment> lateAppointments = appointmentRepository
-                .findByStatusAndAppointmentStartTimeBefore(
-                        AppointmentStatus.SCHEDULED,
-                        cutoffTime);
+        Timer.Sample sample = Timer.start(meterRegistry);
+        int totalMarked = 0;
+        int totalBlocked = 0;
+        int chunks = 0;
+        try {
+            while (chunks < MAX_CHUNKS_PER_RUN) {
+                AppointmentStatusService.NoShowSweepResult result = statusService
+                        .markLateAppointmentsAsNoShow(cutoffTime, now, limit);
+                chunks++;
+                totalMarked += result.marked();
+                totalBlocked += result.blockedPatientCodes().size();
+                meterRegistry.counter("appointment.no_show_sweep.marked").increment(result.marked());
+                meterRegistry.counter("appointment.no_show_sweep.blocked_patients")
+                        .increment(result.blockedPatientCodes().size());
+
+                if (result.marked() > 0) {
+                    log.info("NO_SHOW sweep chunk {}: {} appointments of {} patients committed ({} so far)",
+                            chunks, result.marked(), result.patients(), totalMarked);
+                }
+                if (result.marked() < limit) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // Committed chunks stay; the rest is retried on the next run
+            log.error("✗ NO_SHOW sweep failed after {} appointments: {}", totalMarked, e.getMessage(), e);
+        } finally {
+            sample.stop(meterRegistry.timer("appointment.no_show_sweep.duration"));
+        }
 
-        if (lateAppointments.isEmpty()) {
+        if (totalMarked == 0) {
             log.debug("No late appointments found");
             return;
         }
-
-        log.info("Found {} late appointments (>30 min past start time)", lateAppointments.size());
-
-        int successCount = 0;
-        int failCount = 0;
-
-        for (Appointment appointment : lateAppointments) {
-            try {
-                // Calculate how late the patient is
-                long minutesLate = java.time.Duration.between(
-                        appointment.getAppointmentStartTime(),
-                        now).toMinutes();
-
-                // Update status via AppointmentStatusService to trigger all side effects
-                // (audit log, plan item update, Rule #5 no-show tracking, etc.)
-                UpdateAppointmentStatusRequest request = new UpdateAppointmentStatusRequest();
-                request.setStatus(AppointmentStatus.NO_SHOW.name());
-                request.setReasonCode("OTHER");
-
-                // Format Vietnamese date/time (dd/MM/yyyy HH:mm)
-                java.time.format.DateTimeFormatter vietnameseFormatter = java.time.format.DateTimeFormatter
-                        .ofPattern("dd/MM/yyyy HH:mm");
-                String originalTime = appointment.getAppointmentStartTime().format(vietnameseFormatter);
-                String systemTime = now.format(vietnameseFormatter);
-
-                request.setNotes(String.format(
-                        "Hệ thống tự động đánh dấu KHÔNG ĐẾN: Bệnh nhân đến trễ hơn 30 phút (trễ %d phút). " +
-                                "Thời gian lịch hẹn gốc: %s. Thời gian hệ thống: %s.",
-                        minutesLate,
-                        originalTime,
-                        systemTime));
-
-                statusService.updateStatus(appointment.getAppointmentCode(), request);
-
-                successCount++;
-                log.info("✓ Auto-marked appointment {} as NO_SHOW ({} minutes late)",
-                        appointment.getAppointmentCode(), minutesLate);
-
-            } catch (Exception e) {
-                failCount++;
-                log.error("✗ Failed to auto-mark appointment {} as NO_SHOW: {}",
-                        appointment.getAppointmentCode(), e.getMessage(), e);
-            }
+        if (chunks == MAX_CHUNKS_PER_RUN) {
+            log.warn("NO_SHOW sweep stopped after {} chunks - remaining appointments go to the next run", chunks);
         }
-
-        log.info("Auto-mark late appointments completed: {} success, {} failed", successCount, failCount);
+        log.info("Auto-mark late appointments completed: {} marked NO_SHOW, {} patients blocked, {} chunks",
+                totalMarked, totalBlocked, chunks);
     }
 }
@@ -12,6 +12,7 @@ import com.dental.clinic.management.booking_appointment.repository.AppointmentPa
 import com.dental.clinic.management.booking_appointment.repository.BookingDentalServiceRepository;
 import com.dental.clinic.management.booking_appointment.repository.RoomRepository;
 import com.dental.clinic.management.booking_appointment.repository.RoomServiceRepository;
+import com.dental.clinic.management.booking_appointment.service.hold.SlotHold;
 import com.dental.clinic.management.employee.repository.EmployeeRepository;
 import com.dental.clinic.management.exception.validation.BadRequestAlertException;
 import com.dental.clinic.management.working_schedule.domain.EmployeeShift;
@@ -51,6 +52,7 @@ public class AppointmentAvailabilityService {
     private final RoomServiceRepository roomServiceRepository;
     private final EmployeeRepository employeeRepository;
     private final EmployeeShiftRepository shiftRepository;
+    private final SlotHoldService slotHoldService;
 
     private static final int SLOT_INTERVAL_MINUTES = 15; // Split slots every 15 minutes
     private static final List<AppointmentStatus> BUSY_STATUSES = Arrays.asList(
@@ -98,19 +100,26 @@ public class AppointmentAvailabilityService {
                 .map(Room::getRoomId)
                 .collect(Collectors.toList());
 
+        List<Integer> employeeIds = new ArrayList<>();
+        employeeIds.add(employee.getEmployeeId());
+        participants.forEach(p -> employeeIds.add(p.getEmployeeId()));
+
+        // Load all busy intervals of the day ONCE (doctor, participants, rooms)
+        ResourceOccupancyIndex occupancy = buildOccupancyIndex(requestedDate, employeeIds, compatibleRoomIds);
+
         List<TimeInterval> freeIntervals = findFreeIntervals(
                 requestedDate,
                 employee.getEmployeeId(),
-                participants.stream().map(e -> e.getEmployeeId()).collect(Collectors.toList()),
-                compatibleRoomIds,
+                employeeIds,
+                occupancy,
                 totalDuration);
 
         // STEP 7: Split into Slots & Map Rooms
         List<TimeSlotDTO> slots = splitIntoSlotsWithRooms(
                 freeIntervals,
                 compatibleRooms,
-                totalDuration,
-                requestedDate);
+                occupancy,
+                totalDuration);
 
         // STEP 8: Sort by start time chronologically
         slots.sort(Comparator.comparing(TimeSlotDTO::getStartTime));
@@ -307,21 +316,76 @@ public class AppointmentAvailabilityService {
         return roomRepository.findByRoomIdInAndIsActiveTrue(roomIds);
     }
 
+    /**
+     * Build the per-day occupancy index with a constant number of queries:
+     * 1. Busy appointments where employee is primary doctor OR room is compatible
+     * 2. Busy appointments where employee is participant
+     *
+     * An employee is busy in both roles, so both are marked on the same bitmap.
+     */
+    private ResourceOccupancyIndex buildOccupancyIndex(
+            LocalDate date,
+            List<Integer> employeeIds,
+            List<String> compatibleRoomIds) {
+
+        ResourceOccupancyIndex index = new ResourceOccupancyIndex(date);
+        LocalDateTime dayStart = index.getDayStart();
+        LocalDateTime dayEnd = index.getDayEnd();
+
+        Set<Integer> employeeIdSet = new HashSet<>(employeeIds);
+        Set<String> roomIdSet = new HashSet<>(compatibleRoomIds);
+
+        List<Appointment> busyAppointments = appointmentRepository.findBusyForResourcesInRange(
+                employeeIdSet, roomIdSet, dayStart, dayEnd, BUSY_STATUSES);
+        for (Appointment appointment : busyAppointments) {
+            if (employeeIdSet.contains(appointment.getEmployeeId())) {
+                index.markEmployeeBusy(appointment.getEmployeeId(),
+                        appointment.getAppointmentStartTime(), appointment.getAppointmentEndTime());
+            }
+            if (roomIdSet.contains(appointment.getRoomId())) {
+                index.markRoomBusy(appointment.getRoomId(),
+                        appointment.getAppointmentStartTime(), appointment.getAppointmentEndTime());
+            }
+        }
+
+        List<Object[]> participantBusy = participantRepository.findBusyIntervalsByEmployeesInRange(
+                employeeIdSet, dayStart, dayEnd);
+        for (Object[] row : participantBusy) {
+            index.markEmployeeBusy((Integer) row[0], (LocalDateTime) row[1], (LocalDateTime) row[2]);
+        }
+
+        // Slots other users are holding while they finish booking
+        List<SlotHold> holds = slotHoldService.findHoldsOfOtherUsers(dayStart, dayEnd);
+        for (SlotHold hold : holds) {
+            for (Integer employeeId : hold.employeeIds()) {
+                if (employeeIdSet.contains(employeeId)) {
+                    index.markEmployeeBusy(employeeId, hold.getStartTime(), hold.getEndTime());
+                }
+            }
+            if (roomIdSet.contains(hold.getRoomId())) {
+                index.markRoomBusy(hold.getRoomId(), hold.getStartTime(), hold.getEndTime());
+            }
+        }
+
+        log.debug("Occupancy index for {}: {} appointments, {} participant rows, {} holds",
+                date, busyAppointments.size(), participantBusy.size(), holds.size());
+        return index;
+    }
+
     /**
      * Find free time intervals using intersection algorithm
      *
      * Logic:
      * 1. Get doctor's work shifts (source of truth)
-     * 2. Subtract doctor's busy appointments
-     * 3. Subtract participants' busy times
-     * 4. For each interval, check if at least 1 compatible room is free
-     * 5. Return intervals >= totalDuration
+     * 2. Subtract doctor's and participants' busy times (in memory, from index)
+     * 3. Return intervals >= totalDuration
+     * Room availability is checked per slot in splitIntoSlotsWithRooms
      */
     private List<TimeInterval> findFreeIntervals(
             LocalDate date,
             Integer doctorId,
-            List<Integer> participantIds,
-            List<String> compatibleRoomIds,
+            List<Integer> employeeIds,
+            ResourceOccupancyIndex occupancy,
             int totalDuration) {
 
         // 1. Get doctor's work shifts for this date
@@ -338,73 +402,18 @@ public class AppointmentAvailabilityService {
             LocalDateTime shiftStart = LocalDateTime.of(shift.getWorkDate(), shift.getWorkShift().getStartTime());
             LocalDateTime shiftEnd = LocalDateTime.of(shift.getWorkDate(), shift.getWorkShift().getEndTime());
 
-            List<TimeInterval> shiftIntervals = Collections.singletonList(
-                    new TimeInterval(shiftStart, shiftEnd));
-
-            // 2. Subtract doctor's busy appointments
-            List<Appointment> doctorAppointments = appointmentRepository.findByEmployeeAndTimeRange(
-                    doctorId, shiftStart, shiftEnd, BUSY_STATUSES);
-            shiftIntervals = subtractBusyTimes(shiftIntervals, doctorAppointments);
-
-            // 3. Subtract participants' busy times (both as primary doctor and as
-            // participant)
-            for (Integer participantId : participantIds) {
-                // As primary doctor
-                List<Appointment> participantAsDoctor = appointmentRepository.findByEmployeeAndTimeRange(
-                        participantId, shiftStart, shiftEnd, BUSY_STATUSES);
-                shiftIntervals = subtractBusyTimes(shiftIntervals, participantAsDoctor);
-
-                // As participant
-                var participantAppointments = participantRepository.findByEmployeeAndTimeRange(
-                        participantId, shiftStart, shiftEnd);
-                shiftIntervals = subtractParticipantBusyTimes(shiftIntervals, participantAppointments);
-            }
-
-            // Filter intervals >= totalDuration
-            shiftIntervals = shiftIntervals.stream()
-                    .filter(interval -> interval.getDurationMinutes() >= totalDuration)
-                    .collect(Collectors.toList());
-
-            freeIntervals.addAll(shiftIntervals);
-        }
+            // 2. Subtract busy times of doctor + participants (both as primary doctor
+            // and as participant)
+            for (LocalDateTime[] run : occupancy.findCommonFreeRuns(employeeIds, shiftStart, shiftEnd)) {
+                TimeInterval interval = new TimeInterval(run[0], run[1]);
 
-        return freeIntervals;
-    }
-
-    /**
-     * Subtract busy appointment times from free intervals
-     */
-    private List<TimeInterval> subtractBusyTimes(
-            List<TimeInterval> freeIntervals,
-            List<Appointment> busyAppointments) {
-
-        List<TimeInterval> result = new ArrayList<>(freeIntervals);
-
-        for (Appointment appointment : busyAppointments) {
-            TimeInterval busy = new TimeInterval(
-                    appointment.getAppointmentStartTime(),
-                    appointment.getAppointmentEndTime());
-
-            List<TimeInterval> newResult = new ArrayList<>();
-            for (TimeInterval free : result) {
-                newResult.addAll(free.subtract(busy));
+                // 3. Filter intervals >= totalDuration
+                if (interval.getDurationMinutes() >= totalDuration) {
+                    freeIntervals.add(interval);
+                }
             }
-            result = newResult;
         }
 
-        return result;
-    }
-
-    /**
-     * Subtract participant busy times
-     */
-    private List<TimeInterval> subtractParticipantBusyTimes(
-            List<TimeInterval> freeIntervals,
-            List<com.dental.clinic.management.booking_appointment.domain.AppointmentParticipant> participants) {
-
-        // This would need to join with Appointment to get times
-        // Simplified for now - implementation would query appointments through
-        // participant IDs
         return freeIntervals;
     }
 
@@ -415,8 +424,8 @@ public class AppointmentAvailabilityService {
     private List<TimeSlotDTO> splitIntoSlotsWithRooms(
             List<TimeInterval> freeIntervals,
             List<Room> compatibleRooms,
-            int totalDuration,
-            LocalDate date) {
+            ResourceOccupancyIndex occupancy,
+            int totalDuration) {
 
         List<TimeSlotDTO> slots = new ArrayList<>();
 
@@ -429,6 +438,7 @@ public class AppointmentAvailabilityService {
                 // Check which rooms are available at this specific slot
                 List<String> availableRoomCodes = findAvailableRoomsAtTime(
                         compatibleRooms,
+                        occupancy,
                         slotTime,
                         slotTime.plusMinutes(totalDuration));
 
@@ -448,26 +458,23 @@ public class AppointmentAvailabilityService {
 
     /**
      * Find which compatible rooms are free at a specific time slot
-     * Filters out rooms that have conflicting appointments
+     * Filters out rooms that have conflicting appointments (in memory)
      */
     private List<String> findAvailableRoomsAtTime(
             List<Room> compatibleRooms,
+            ResourceOccupancyIndex occupancy,
             LocalDateTime startTime,
             LocalDateTime endTime) {
 
         return compatibleRooms.stream()
-                .filter(room -> !appointmentRepository.existsConflictForRoom(
-                        room.getRoomId(),
-                        startTime,
-                        endTime,
-                        null)) // No appointment to exclude in availability check
+                .filter(room -> occupancy.isRoomFree(room.getRoomId(), startTime, endTime))
                 .map(Room::getRoomCode)
                 .collect(Collectors.toList());
     }
 
     /**
      * Time Interval Helper Class
-     * Represents a continuous free time period
+     * Represents a continuous free time period (computed by ResourceOccupancyIndex)
      */
     private static class TimeInterval {
         LocalDateTime start;
@@ -481,37 +488,5 @@ public class AppointmentAvailabilityService {
         int getDurationMinutes() {
             return (int) java.time.Duration.between(start, end).toMinutes();
         }
-
-        /**
-         * Subtract a busy interval from this free interval
-         * Returns 0, 1, or 2 new intervals depending on overlap
-         */
-        List<TimeInterval> subtract(TimeInterval busy) {
-            // No overlap
-            if (busy.end.isBefore(this.start) || busy.end.isEqual(this.start) ||
-                    busy.start.isAfter(this.end) || busy.start.isEqual(this.end)) {
-                return Collections.singletonList(this);
-            }
-
-            // Busy completely covers free
-            if (busy.start.isBefore(this.start) && busy.end.isAfter(this.end)) {
-                return Collections.emptyList();
-            }
-
-            // Busy at start
-            if (busy.start.isBefore(this.start) || busy.start.isEqual(this.start)) {
-                return Collections.singletonList(new TimeInterval(busy.end, this.end));
-            }
-
-            // Busy at end
-            if (busy.end.isAfter(this.end) || busy.end.isEqual(this.end)) {
-                return Collections.singletonList(new TimeInterval(this.start, busy.start));
-            }
-
-            // Busy in middle - splits into 2 intervals
-            return Arrays.asList(
-                    new TimeInterval(this.start, busy.start),
-                    new TimeInterval(busy.end, this.end));
-        }
     }
 }
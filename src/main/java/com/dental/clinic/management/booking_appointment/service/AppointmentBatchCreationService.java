@@ -0,0 +1,1004 @@
+package com.dental.clinic.management.booking_appointment.service;
+
+import com.dental.clinic.management.booking_appointment.domain.Appointment;
+import com.dental.clinic.management.booking_appointment.domain.DentalService;
+import com.dental.clinic.management.booking_appointment.domain.Room;
+import com.dental.clinic.management.booking_appointment.domain.RoomService;
+import com.dental.clinic.management.booking_appointment.dto.request.BatchCreateAppointmentRequest;
+import com.dental.clinic.management.booking_appointment.dto.request.BatchCreateAppointmentRequest.BatchAppointmentItem;
+import com.dental.clinic.management.booking_appointment.dto.response.BatchCreateAppointmentResponse;
+import com.dental.clinic.management.booking_appointment.dto.response.BatchCreateAppointmentResponse.ItemResult;
+import com.dental.clinic.management.booking_appointment.enums.AppointmentActionType;
+import com.dental.clinic.management.booking_appointment.enums.AppointmentParticipantRole;
+import com.dental.clinic.management.booking_appointment.enums.AppointmentStatus;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentParticipantRepository;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentPlanItemRepository;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
+import com.dental.clinic.management.booking_appointment.repository.BookingDentalServiceRepository;
+import com.dental.clinic.management.booking_appointment.repository.PatientPlanItemRepository;
+import com.dental.clinic.management.booking_appointment.repository.RoomRepository;
+import com.dental.clinic.management.booking_appointment.repository.RoomServiceRepository;
+import com.dental.clinic.management.booking_appointment.service.hold.SlotHold;
+import com.dental.clinic.management.dashboard.service.DashboardRollupService;
+import com.dental.clinic.management.employee.domain.Employee;
+import com.dental.clinic.management.employee.repository.EmployeeRepository;
+import com.dental.clinic.management.exception.validation.BadRequestAlertException;
+import com.dental.clinic.management.notification.dto.CreateNotificationRequest;
+import com.dental.clinic.management.notification.enums.NotificationEntityType;
+import com.dental.clinic.management.notification.enums.NotificationType;
+import com.dental.clinic.management.outbox.dto.AppointmentConfirmationEmailPayload;
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+import com.dental.clinic.management.outbox.service.OutboxService;
+import com.dental.clinic.management.patient.domain.Patient;
+import com.dental.clinic.management.patient.repository.PatientRepository;
+import com.dental.clinic.management.service.service.ClinicalRulesValidationService;
+import com.dental.clinic.management.specialization.domain.Specialization;
+import com.dental.clinic.management.treatment_plans.domain.ApprovalStatus;
+import com.dental.clinic.management.treatment_plans.domain.PatientPlanItem;
+import com.dental.clinic.management.treatment_plans.domain.PatientTreatmentPlan;
+import com.dental.clinic.management.treatment_plans.enums.PlanItemStatus;
+import com.dental.clinic.management.treatment_plans.enums.TreatmentPlanStatus;
+import com.dental.clinic.management.treatment_plans.repository.PatientTreatmentPlanRepository;
+import com.dental.clinic.management.utils.IdGenerator;
+import com.dental.clinic.management.working_schedule.domain.EmployeeShift;
+import com.dental.clinic.management.working_schedule.repository.EmployeeShiftRepository;
+import com.dental.clinic.management.working_schedule.repository.HolidayDateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.ErrorResponseException;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Batch appointment creation for ONE patient (e.g. the confirmed auto-schedule
+ * suggestions of a treatment plan).
+ *
+ * Same business rules as AppointmentCreationService (P3.2), but:
+ * - Reference data, shifts, holidays, existing bookings and slot holds for the
+ * whole batch window are loaded up front in a few set-based queries
+ * - Each item is validated in memory against existing bookings AND against the
+ * items accepted before it in the same batch
+ * - Accepted items are written with JDBC batch inserts in one transaction
+ * - An invalid item is reported in its result and does not block the others
+ *
+ * Only the clinical rules (prerequisites, min days) are still checked per item
+ * since they depend on the patient's treatment history per service.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentBatchCreationService {
+
+        private static final String ENTITY_NAME = "appointment";
+
+        private static final List<AppointmentStatus> BUSY_STATUSES = List.of(
+                        AppointmentStatus.SCHEDULED,
+                        AppointmentStatus.CHECKED_IN,
+                        AppointmentStatus.IN_PROGRESS);
+
+        private static final String INSERT_APPOINTMENT_SQL = "INSERT INTO appointments (appointment_code, patient_id, "
+                        + "employee_id, room_id, appointment_start_time, appointment_end_time, "
+                        + "expected_duration_minutes, status, notes, reschedule_count, created_by, created_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+        private static final String INSERT_SERVICE_SQL = "INSERT INTO appointment_services (appointment_id, service_id) "
+                        + "VALUES (?, ?)";
+        private static final String INSERT_PARTICIPANT_SQL = "INSERT INTO appointment_participants "
+                        + "(appointment_id, employee_id, participant_role) VALUES (?, ?, ?)";
+        private static final String INSERT_PLAN_ITEM_SQL = "INSERT INTO appointment_plan_items (appointment_id, item_id) "
+                        + "VALUES (?, ?)";
+        private static final String INSERT_AUDIT_LOG_SQL = "INSERT INTO appointment_audit_logs "
+                        + "(appointment_id, changed_by_employee_id, action_type, action_timestamp, created_at) "
+                        + "VALUES (?, ?, CAST(? AS appointment_action_type), ?, ?)";
+
+        private final AppointmentCreationService appointmentCreationService;
+        private final PatientRepository patientRepository;
+        private final EmployeeRepository employeeRepository;
+        private final RoomRepository roomRepository;
+        private final RoomServiceRepository roomServiceRepository;
+        private final BookingDentalServiceRepository dentalServiceRepository;
+        private final PatientPlanItemRepository patientPlanItemRepository;
+        private final AppointmentPlanItemRepository appointmentPlanItemRepository;
+        private final PatientTreatmentPlanRepository treatmentPlanRepository;
+        private final EmployeeShiftRepository employeeShiftRepository;
+        private final HolidayDateRepository holidayDateRepository;
+        private final AppointmentRepository appointmentRepository;
+        private final AppointmentParticipantRepository appointmentParticipantRepository;
+        private final ClinicalRulesValidationService clinicalRulesValidationService;
+        private final SlotHoldService slotHoldService;
+        private final AppointmentSearchIndexer searchIndexer;
+        private final IdGenerator idGenerator;
+        private final JdbcTemplate jdbcTemplate;
+        private final DashboardRollupService rollupService;
+        private final OutboxService outboxService;
+
+        /**
+         * Validate all items together and create the valid ones in one transaction
+         *
+         * @param request Patient + list of appointments
+         * @return One result per item (request order)
+         * @throws BadRequestAlertException if the patient itself cannot book
+         */
+        @Transactional
+        public BatchCreateAppointmentResponse createAppointments(BatchCreateAppointmentRequest request) {
+                List<BatchAppointmentItem> items = request.getAppointments();
+                log.info("Batch creating {} appointments for patient {}", items.size(), request.getPatientCode());
+
+                Integer createdById = appointmentCreationService.getCurrentUserId();
+                Patient patient = validatePatient(request.getPatientCode());
+
+                BatchContext context = loadContext(patient, items);
+
+                ItemResult[] results = new ItemResult[items.size()];
+                List<Accepted> accepted = new ArrayList<>();
+
+                // Earliest items first so "first appointment of plan" rules see them first
+                List<Integer> order = new ArrayList<>();
+                for (int i = 0; i < items.size(); i++) {
+                        order.add(i);
+                }
+                order.sort(Comparator.comparing(i -> Optional.ofNullable(context.startTimes().get(i))
+                                .orElse(LocalDateTime.MAX)));
+
+                for (int index : order) {
+                        BatchAppointmentItem item = items.get(index);
+                        try {
+                                Accepted candidate = validateItem(index, item, patient, context);
+                                context.reserve(candidate);
+                                accepted.add(candidate);
+                        } catch (ErrorResponseException e) {
+                                log.debug("Batch item {} rejected: {}", index, e.getMessage());
+                                results[index] = failure(index, e);
+                        }
+                }
+
+                if (!accepted.isEmpty()) {
+                        Map<Integer, String> codes = persist(accepted, patient, createdById, context);
+                        for (Accepted a : accepted) {
+                                results[a.index()] = success(a, codes.get(a.index()));
+                        }
+                        notifyCreated(accepted, codes, patient);
+                }
+
+                int created = accepted.size();
+                log.info("Batch for patient {}: {} created, {} failed", patient.getPatientCode(), created,
+                                items.size() - created);
+
+                return BatchCreateAppointmentResponse.builder()
+                                .patientCode(patient.getPatientCode())
+                                .totalRequested(items.size())
+                                .createdCount(created)
+                                .failedCount(items.size() - created)
+                                .results(Arrays.asList(results))
+                                .build();
+        }
+
+        // ====================================================================
+        // Load everything for the batch window in a few queries
+        // ====================================================================
+
+        private Patient validatePatient(String patientCode) {
+                Patient patient = patientRepository.findOneByPatientCode(patientCode)
+                                .orElseThrow(() -> new BadRequestAlertException(
+                                                "Patient not found: " + patientCode,
+                                                ENTITY_NAME,
+                                                "PATIENT_NOT_FOUND"));
+                if (!patient.getIsActive()) {
+                        throw new BadRequestAlertException(
+                                        "Patient is inactive: " + patientCode,
+                                        ENTITY_NAME,
+                                        "PATIENT_INACTIVE");
+                }
+                if (Boolean.TRUE.equals(patient.getIsBookingBlocked())) {
+                        throw new BadRequestAlertException(
+                                        String.format("Bệnh nhân %s đã bị chặn đặt lịch online. Lý do: %s. Vui lòng liên hệ lễ tân để được hỗ trợ.",
+                                                        patient.getPatientCode(),
+                                                        patient.getBookingBlockReason() != null
+                                                                        ? patient.getBookingBlockReason()
+                                                                        : "Bỏ hẹn nhiều lần"),
+                                        ENTITY_NAME,
+                                        "PATIENT_BOOKING_BLOCKED");
+                }
+                return patient;
+        }
+
+        private BatchContext loadContext(Patient patient, List<BatchAppointmentItem> items) {
+                Map<Integer, LocalDateTime> startTimes = new HashMap<>();
+                for (int i = 0; i < items.size(); i++) {
+                        try {
+                                startTimes.put(i, LocalDateTime.parse(items.get(i).getAppointmentStartTime()));
+                        } catch (Exception e) {
+                                // Reported when the item is validated
+                        }
+                }
+
+                // Medical staff (with specializations + account), active rooms
+                Map<String, Employee> staffByCode = employeeRepository.findActiveEmployeesWithSpecializations().stream()
+                                .collect(Collectors.toMap(Employee::getEmployeeCode, Function.identity(), (a, b) -> a));
+                Map<String, Room> roomsByCode = roomRepository.findByIsActiveTrue().stream()
+                                .collect(Collectors.toMap(Room::getRoomCode, Function.identity(), (a, b) -> a));
+
+                // Services (standalone) and plan items (treatment plan) of all items
+                List<String> serviceCodes = items.stream()
+                                .filter(i -> i.getServiceCodes() != null)
+                                .flatMap(i -> i.getServiceCodes().stream())
+                                .distinct()
+                                .collect(Collectors.toList());
+                List<Long> planItemIds = items.stream()
+                                .filter(i -> i.getPatientPlanItemIds() != null)
+                                .flatMap(i -> i.getPatientPlanItemIds().stream())
+                                .distinct()
+                                .collect(Collectors.toList());
+
+                Map<String, DentalService> servicesByCode = serviceCodes.isEmpty() ? Map.of()
+                                : dentalServiceRepository.findByServiceCodeIn(serviceCodes).stream()
+                                                .collect(Collectors.toMap(DentalService::getServiceCode,
+                                                                Function.identity()));
+                Map<Long, PatientPlanItem> planItemsById = planItemIds.isEmpty() ? Map.of()
+                                : patientPlanItemRepository.findByIdInWithPlanAndPhase(planItemIds).stream()
+                                                .collect(Collectors.toMap(PatientPlanItem::getItemId,
+                                                                Function.identity()));
+                Set<Integer> planServiceIds = planItemsById.values().stream()
+                                .map(PatientPlanItem::getServiceId)
+                                .collect(Collectors.toSet());
+                Map<Integer, DentalService> servicesById = new HashMap<>();
+                servicesByCode.values().forEach(s -> servicesById.put(s.getServiceId(), s));
+                if (!planServiceIds.isEmpty()) {
+                        dentalServiceRepository.findAllById(planServiceIds)
+                                        .forEach(s -> servicesById.put(s.getServiceId(), s));
+                }
+
+                // Room -> supported service IDs
+                Set<String> roomIds = items.stream()
+                                .map(i -> roomsByCode.get(i.getRoomCode()))
+                                .filter(Objects::nonNull)
+                                .map(Room::getRoomId)
+                                .collect(Collectors.toSet());
+                Map<String, Set<Integer>> roomServiceIds = new HashMap<>();
+                if (!roomIds.isEmpty()) {
+                        for (RoomService rs : roomServiceRepository.findByIdRoomIdIn(roomIds)) {
+                                roomServiceIds.computeIfAbsent(rs.getId().getRoomId(), r -> new HashSet<>())
+                                                .add(rs.getId().getServiceId());
+                        }
+                }
+
+                // Employees involved (doctors + participants)
+                Set<Integer> employeeIds = new HashSet<>();
+                for (BatchAppointmentItem item : items) {
+                        Optional.ofNullable(staffByCode.get(item.getEmployeeCode()))
+                                        .ifPresent(e -> employeeIds.add(e.getEmployeeId()));
+                        if (item.getParticipantCodes() != null) {
+                                item.getParticipantCodes().stream()
+                                                .map(staffByCode::get)
+                                                .filter(Objects::nonNull)
+                                                .forEach(e -> employeeIds.add(e.getEmployeeId()));
+                        }
+                }
+
+                BatchContext context = new BatchContext(startTimes, staffByCode, roomsByCode, servicesByCode,
+                                servicesById, planItemsById, roomServiceIds);
+
+                if (startTimes.isEmpty()) {
+                        return context;
+                }
+
+                LocalDate fromDate = Collections.min(startTimes.values()).toLocalDate();
+                LocalDate toDate = Collections.max(startTimes.values()).toLocalDate();
+                LocalDateTime windowStart = fromDate.atStartOfDay();
+                LocalDateTime windowEnd = toDate.plusDays(1).atStartOfDay();
+
+                context.holidays().addAll(holidayDateRepository.findHolidayDatesByRange(fromDate, toDate));
+
+                if (!employeeIds.isEmpty()) {
+                        for (EmployeeShift shift : employeeShiftRepository.findByEmployeesAndDateRange(employeeIds,
+                                        fromDate, toDate)) {
+                                context.shifts()
+                                                .computeIfAbsent(shift.getEmployee().getEmployeeId(),
+                                                                id -> new HashMap<>())
+                                                .computeIfAbsent(shift.getWorkDate(), d -> new ArrayList<>())
+                                                .add(new Interval(
+                                                                LocalDateTime.of(shift.getWorkDate(),
+                                                                                shift.getWorkShift().getStartTime()),
+                                                                LocalDateTime.of(shift.getWorkDate(),
+                                                                                shift.getWorkShift().getEndTime()),
+                                                                null));
+                        }
+
+                        for (Object[] row : appointmentParticipantRepository.findBusyIntervalsByEmployeesInRange(
+                                        employeeIds, windowStart, windowEnd)) {
+                                context.participantBusy().computeIfAbsent((Integer) row[0], id -> new ArrayList<>())
+                                                .add(new Interval((LocalDateTime) row[1], (LocalDateTime) row[2], null));
+                        }
+                }
+
+                for (Appointment a : appointmentRepository.findBusyForResourcesInRange(
+                                employeeIds.isEmpty() ? Set.of(-1) : employeeIds,
+                                roomIds.isEmpty() ? Set.of("") : roomIds,
+                                windowStart, windowEnd, BUSY_STATUSES)) {
+                        Interval busy = new Interval(a.getAppointmentStartTime(), a.getAppointmentEndTime(),
+                                        a.getAppointmentCode());
+                        context.primaryBusy().computeIfAbsent(a.getEmployeeId(), id -> new ArrayList<>()).add(busy);
+                        context.roomBusy().computeIfAbsent(a.getRoomId(), id -> new ArrayList<>()).add(busy);
+                }
+                for (Appointment a : appointmentRepository.findByPatientAndTimeRange(patient.getPatientId(),
+                                windowStart, windowEnd, BUSY_STATUSES)) {
+                        context.patientBusy().add(new Interval(a.getAppointmentStartTime(),
+                                        a.getAppointmentEndTime(), a.getAppointmentCode()));
+                }
+
+                context.holds().addAll(slotHoldService.findHoldsOfOtherUsers(windowStart, windowEnd));
+
+                // Plans booked for the first time: count existing appointments once per plan
+                planItemsById.values().stream()
+                                .map(item -> item.getPhase().getTreatmentPlan())
+                                .filter(plan -> !context.existingPlanAppointments().containsKey(plan.getPlanId()))
+                                .forEach(plan -> context.existingPlanAppointments().put(plan.getPlanId(),
+                                                appointmentPlanItemRepository
+                                                                .countAppointmentsForPlan(plan.getPlanId())));
+
+                return context;
+        }
+
+        // ====================================================================
+        // Validate one item in memory (same rules and error keys as P3.2)
+        // ====================================================================
+
+        private Accepted validateItem(int index, BatchAppointmentItem item, Patient patient, BatchContext context) {
+                LocalDateTime startTime = context.startTimes().get(index);
+                if (startTime == null || startTime.isBefore(LocalDateTime.now())) {
+                        throw new BadRequestAlertException(
+                                        "Invalid start time: " + item.getAppointmentStartTime(),
+                                        ENTITY_NAME,
+                                        "INVALID_START_TIME");
+                }
+
+                Employee doctor = context.staffByCode().get(item.getEmployeeCode());
+                if (doctor == null) {
+                        throw new BadRequestAlertException(
+                                        "Employee not found, inactive or not medical staff: " + item.getEmployeeCode(),
+                                        ENTITY_NAME,
+                                        "EMPLOYEE_NOT_FOUND");
+                }
+                Room room = context.roomsByCode().get(item.getRoomCode());
+                if (room == null) {
+                        throw new BadRequestAlertException(
+                                        "Room not found or inactive: " + item.getRoomCode(),
+                                        ENTITY_NAME,
+                                        "ROOM_NOT_FOUND");
+                }
+
+                List<Long> planItemIds = item.getPatientPlanItemIds() != null ? item.getPatientPlanItemIds()
+                                : List.of();
+                List<DentalService> services = planItemIds.isEmpty()
+                                ? resolveServices(item.getServiceCodes(), context)
+                                : resolvePlanItemServices(planItemIds, patient, context);
+                List<Employee> participants = resolveParticipants(item.getParticipantCodes(), context);
+
+                validateDoctorSpecializations(doctor, services);
+                Set<Integer> supported = context.roomServiceIds().getOrDefault(room.getRoomId(), Set.of());
+                if (!services.stream().map(DentalService::getServiceId).allMatch(supported::contains)) {
+                        throw new BadRequestAlertException(
+                                        "Room " + room.getRoomCode() + " does not support all requested services",
+                                        ENTITY_NAME,
+                                        "ROOM_NOT_COMPATIBLE");
+                }
+
+                int totalDuration = services.stream()
+                                .mapToInt(s -> s.getDefaultDurationMinutes() + s.getDefaultBufferMinutes())
+                                .sum();
+                LocalDateTime endTime = startTime.plusMinutes(totalDuration);
+
+                validateBookingWindow(startTime);
+                if (context.holidays().contains(startTime.toLocalDate())) {
+                        throw new BadRequestAlertException(
+                                        "Không thể đặt lịch hẹn vào ngày nghỉ lễ: " + startTime.toLocalDate(),
+                                        ENTITY_NAME,
+                                        "DATE_IS_HOLIDAY");
+                }
+
+                requireShift(doctor, startTime, endTime, context, "EMPLOYEE");
+                participants.forEach(p -> requireShift(p, startTime, endTime, context, "PARTICIPANT"));
+
+                checkConflicts(doctor, room, participants, startTime, endTime, context);
+
+                if (!planItemIds.isEmpty()) {
+                        validatePlanStartDateProximity(planItemIds, startTime, context);
+                }
+
+                clinicalRulesValidationService.validateAppointmentServices(
+                                patient.getPatientId(),
+                                services.stream().map(s -> s.getServiceId().longValue()).collect(Collectors.toList()),
+                                startTime.toLocalDate());
+
+                return new Accepted(index, item, doctor, room, services, participants, planItemIds, startTime,
+                                endTime, totalDuration);
+        }
+
+        private List<DentalService> resolveServices(List<String> serviceCodes, BatchContext context) {
+                List<String> missing = serviceCodes.stream()
+                                .filter(code -> !context.servicesByCode().containsKey(code))
+                                .collect(Collectors.toList());
+                if (!missing.isEmpty()) {
+                        throw new BadRequestAlertException(
+                                        "Services not found: " + String.join(", ", missing),
+                                        ENTITY_NAME,
+                                        "SERVICES_NOT_FOUND");
+                }
+                List<DentalService> services = serviceCodes.stream()
+                                .distinct()
+                                .map(context.servicesByCode()::get)
+                                .collect(Collectors.toList());
+                List<String> inactive = services.stream()
+                                .filter(s -> !s.getIsActive())
+                                .map(DentalService::getServiceCode)
+                                .collect(Collectors.toList());
+                if (!inactive.isEmpty()) {
+                        throw new BadRequestAlertException(
+                                        "Services are inactive: " + String.join(", ", inactive),
+                                        ENTITY_NAME,
+                                        "SERVICES_INACTIVE");
+                }
+                return services;
+        }
+
+        private List<DentalService> resolvePlanItemServices(List<Long> itemIds, Patient patient,
+                        BatchContext context) {
+                List<Long> missing = itemIds.stream()
+                                .filter(id -> !context.planItemsById().containsKey(id))
+                                .collect(Collectors.toList());
+                if (!missing.isEmpty()) {
+                        throw new BadRequestAlertException(
+                                        "Patient plan items not found: " + missing,
+                                        ENTITY_NAME,
+                                        "PLAN_ITEMS_NOT_FOUND");
+                }
+
+                List<PatientPlanItem> planItems = itemIds.stream()
+                                .map(context.planItemsById()::get)
+                                .collect(Collectors.toList());
+                List<Long> wrongOwner = planItems.stream()
+                                .filter(pi -> !pi.getPhase().getTreatmentPlan().getPatient().getPatientId()
+                                                .equals(patient.getPatientId()))
+                                .map(PatientPlanItem::getItemId)
+                                .collect(Collectors.toList());
+                if (!wrongOwner.isEmpty()) {
+                        throw new BadRequestAlertException(
+                                        "Patient plan items do not belong to patient " + patient.getPatientId()
+                                                        + ". Item IDs: " + wrongOwner,
+                                        ENTITY_NAME,
+                                        "PLAN_ITEMS_WRONG_PATIENT");
+                }
+
+                // READY_FOR_BOOKING and not already taken by an earlier item of this batch
+                List<String> notReady = planItems.stream()
+                                .filter(pi -> pi.getStatus() != PlanItemStatus.READY_FOR_BOOKING
+                                                || context.bookedPlanItemIds().contains(pi.getItemId()))
+                                .map(pi -> pi.getItemId() + " (status: "
+                                                + (context.bookedPlanItemIds().contains(pi.getItemId())
+                                                                ? "BOOKED_IN_BATCH"
+                                                                : pi.getStatus())
+                                                + ")")
+                                .collect(Collectors.toList());
+                if (!notReady.isEmpty()) {
+                        throw new BadRequestAlertException(
+                                        "Some patient plan items are not ready for booking: " + notReady,
+                                        ENTITY_NAME,
+                                        "PLAN_ITEMS_NOT_READY");
+                }
+
+                return planItems.stream()
+                                .map(pi -> {
+                                        DentalService service = context.servicesById().get(pi.getServiceId());
+                                        if (service == null) {
+                                                throw new BadRequestAlertException(
+                                                                "Service not found for plan item: " + pi.getItemId(),
+                                                                ENTITY_NAME,
+                                                                "SERVICE_NOT_FOUND");
+                                        }
+                                        return service;
+                                })
+                                .distinct()
+                                .collect(Collectors.toList());
+        }
+
+        private List<Employee> resolveParticipants(List<String> participantCodes, BatchContext context) {
+                if (participantCodes == null || participantCodes.isEmpty()) {
+                        return List.of();
+                }
+                List<String> missing = participantCodes.stream()
+                                .filter(code -> !context.staffByCode().containsKey(code))
+                                .collect(Collectors.toList());
+                if (!missing.isEmpty()) {
+                        throw new BadRequestAlertException(
+                                        "Participants not found, inactive or not medical staff: "
+                                                        + String.join(", ", missing),
+                                        ENTITY_NAME,
+                                        "PARTICIPANT_NOT_FOUND");
+                }
+                return participantCodes.stream()
+                                .distinct()
+                                .map(context.staffByCode()::get)
+                                .collect(Collectors.toList());
+        }
+
+        private void validateDoctorSpecializations(Employee doctor, List<DentalService> services) {
+                Set<Integer> required = services.stream()
+                                .filter(s -> s.getSpecialization() != null)
+                                .map(s -> s.getSpecialization().getSpecializationId())
+                                .collect(Collectors.toSet());
+                if (required.isEmpty()) {
+                        return;
+                }
+                Set<Integer> doctorSpecIds = doctor.getSpecializations() == null ? Set.of()
+                                : doctor.getSpecializations().stream()
+                                                .map(Specialization::getSpecializationId)
+                                                .collect(Collectors.toSet());
+                if (!doctorSpecIds.containsAll(required)) {
+                        List<Integer> missing = required.stream()
+                                        .filter(id -> !doctorSpecIds.contains(id))
+                                        .collect(Collectors.toList());
+                        throw new BadRequestAlertException(
+                                        "Doctor " + doctor.getEmployeeCode()
+                                                        + " does not have required specializations. Missing IDs: "
+                                                        + missing,
+                                        ENTITY_NAME,
+                                        "EMPLOYEE_NOT_QUALIFIED");
+                }
+        }
+
+        /**
+         * Rule #2 (2-hour lead time) and Rule #1 (3-month advance booking)
+         */
+        private void validateBookingWindow(LocalDateTime startTime) {
+                LocalDateTime now = LocalDateTime.now();
+                if (startTime.isBefore(now.plusHours(2))) {
+                        throw new BadRequestAlertException(
+                                        String.format("Phải đặt lịch trước ít nhất 2 giờ. Thời gian yêu cầu: %s",
+                                                        startTime),
+                                        ENTITY_NAME,
+                                        "MINIMUM_LEAD_TIME_VIOLATION");
+                }
+                if (startTime.isAfter(now.plusMonths(3))) {
+                        throw new BadRequestAlertException(
+                                        String.format("Không thể đặt lịch quá xa. Thời gian yêu cầu: %s", startTime),
+                                        ENTITY_NAME,
+                                        "MAXIMUM_ADVANCE_BOOKING_VIOLATION");
+                }
+        }
+
+        private void requireShift(Employee employee, LocalDateTime startTime, LocalDateTime endTime,
+                        BatchContext context, String errorPrefix) {
+                List<Interval> shifts = context.shifts()
+                                .getOrDefault(employee.getEmployeeId(), Map.of())
+                                .getOrDefault(startTime.toLocalDate(), List.of());
+                if (shifts.isEmpty()) {
+                        throw new BadRequestAlertException(
+                                        employee.getEmployeeCode() + " has no shift on " + startTime.toLocalDate(),
+                                        ENTITY_NAME,
+                                        errorPrefix + "_NOT_SCHEDULED");
+                }
+                boolean covered = shifts.stream()
+                                .anyMatch(s -> !startTime.isBefore(s.start()) && !endTime.isAfter(s.end()));
+                if (!covered) {
+                        throw new BadRequestAlertException(
+                                        employee.getEmployeeCode() + " shift does not cover appointment time range",
+                                        ENTITY_NAME,
+                                        errorPrefix + "_SHIFT_NOT_COVERING");
+                }
+        }
+
+        /**
+         * Existing bookings (same semantics as P3.2: doctor vs primary bookings,
+         * participants vs primary and participant bookings), slot holds of other
+         * users, and items accepted earlier in this batch.
+         */
+        private void checkConflicts(Employee doctor, Room room, List<Employee> participants,
+                        LocalDateTime startTime, LocalDateTime endTime, BatchContext context) {
+                Interval doctorConflict = firstOverlap(context.primaryBusy().get(doctor.getEmployeeId()), startTime,
+                                endTime);
+                if (doctorConflict == null) {
+                        doctorConflict = firstOverlap(context.batchEmployeeBusy().get(doctor.getEmployeeId()),
+                                        startTime, endTime);
+                }
+                if (doctorConflict != null) {
+                        throw new BadRequestAlertException(
+                                        String.format("Doctor %s already has an appointment during this time. " +
+                                                        "Conflicting appointment: %s (%s to %s)",
+                                                        doctor.getEmployeeCode(), doctorConflict.label(),
+                                                        doctorConflict.start(), doctorConflict.end()),
+                                        ENTITY_NAME,
+                                        "EMPLOYEE_SLOT_TAKEN");
+                }
+
+                Interval roomConflict = firstOverlap(context.roomBusy().get(room.getRoomId()), startTime, endTime);
+                if (roomConflict != null) {
+                        throw new BadRequestAlertException(
+                                        String.format("Room %s is already booked during this time. " +
+                                                        "Conflicting appointment: %s (%s to %s)",
+                                                        room.getRoomCode(), roomConflict.label(),
+                                                        roomConflict.start(), roomConflict.end()),
+                                        ENTITY_NAME,
+                                        "ROOM_SLOT_TAKEN");
+                }
+
+                if (firstOverlap(context.patientBusy(), startTime, endTime) != null) {
+                        throw new BadRequestAlertException(
+                                        "Patient already has an appointment during this time",
+                                        ENTITY_NAME,
+                                        "PATIENT_HAS_CONFLICT");
+                }
+
+                for (Employee participant : participants) {
+                        Integer id = participant.getEmployeeId();
+                        if (firstOverlap(context.primaryBusy().get(id), startTime, endTime) != null
+                                        || firstOverlap(context.participantBusy().get(id), startTime, endTime) != null
+                                        || firstOverlap(context.batchEmployeeBusy().get(id), startTime,
+                                                        endTime) != null) {
+                                throw new BadRequestAlertException(
+                                                "Participant " + participant.getEmployeeCode()
+                                                                + " is busy during this time",
+                                                ENTITY_NAME,
+                                                "PARTICIPANT_SLOT_TAKEN");
+                        }
+                }
+
+                List<Integer> employeeIds = new ArrayList<>();
+                employeeIds.add(doctor.getEmployeeId());
+                participants.forEach(p -> employeeIds.add(p.getEmployeeId()));
+                for (SlotHold hold : context.holds()) {
+                        if (hold.blocks(employeeIds, room.getRoomId(), startTime, endTime)) {
+                                throw new BadRequestAlertException(
+                                                String.format("Khung giờ này đang được giữ chỗ đến %s, vui lòng chọn khung giờ khác",
+                                                                hold.getExpiresAt()),
+                                                ENTITY_NAME,
+                                                "SLOT_HELD");
+                        }
+                }
+        }
+
+        private Interval firstOverlap(List<Interval> intervals, LocalDateTime startTime, LocalDateTime endTime) {
+                if (intervals == null) {
+                        return null;
+                }
+                for (Interval interval : intervals) {
+                        if (interval.start().isBefore(endTime) && interval.end().isAfter(startTime)) {
+                                return interval;
+                        }
+                }
+                return null;
+        }
+
+        /**
+         * First appointment of a plan must be within 7 days of the plan start date
+         * (earliest item of the batch counts as first when the plan has none yet)
+         */
+        private void validatePlanStartDateProximity(List<Long> itemIds, LocalDateTime startTime,
+                        BatchContext context) {
+                PatientTreatmentPlan plan = context.planItemsById().get(itemIds.get(0)).getPhase().getTreatmentPlan();
+                long existing = context.existingPlanAppointments().getOrDefault(plan.getPlanId(), 0L)
+                                + context.acceptedPerPlan().getOrDefault(plan.getPlanId(), 0);
+                if (existing > 0 || plan.getStartDate() == null) {
+                        return;
+                }
+
+                LocalDate appointmentDate = startTime.toLocalDate();
+                long daysDifference = java.time.temporal.ChronoUnit.DAYS.between(plan.getStartDate(), appointmentDate);
+                if (daysDifference > 7) {
+                        throw new BadRequestAlertException(
+                                        String.format("Lịch hẹn đầu tiên phải được đặt trong vòng 7 ngày kể từ ngày bắt đầu kế hoạch điều trị. "
+                                                        + "Ngày bắt đầu kế hoạch: %s, Ngày hẹn yêu cầu: %s (cách nhau %d ngày).",
+                                                        plan.getStartDate(), appointmentDate, daysDifference),
+                                        ENTITY_NAME,
+                                        "FIRST_APPOINTMENT_TOO_FAR_FROM_PLAN_START");
+                } else if (daysDifference < 0) {
+                        throw new BadRequestAlertException(
+                                        String.format("Lịch hẹn không thể đặt trước ngày bắt đầu kế hoạch điều trị. "
+                                                        + "Ngày bắt đầu kế hoạch: %s, Ngày hẹn yêu cầu: %s.",
+                                                        plan.getStartDate(), appointmentDate),
+                                        ENTITY_NAME,
+                                        "APPOINTMENT_BEFORE_PLAN_START");
+                }
+        }
+
+        // ====================================================================
+        // Persist accepted items with JDBC batches
+        // ====================================================================
+
+        /**
+         * @return appointment code per item index
+         */
+        private Map<Integer, String> persist(List<Accepted> accepted, Patient patient, Integer createdById,
+                        BatchContext context) {
+                LocalDateTime now = LocalDateTime.now();
+                Timestamp nowTs = Timestamp.valueOf(now);
+                Integer createdBy = createdById != null && createdById != 0 ? createdById : null;
+
+                Map<Integer, String> codes = new HashMap<>();
+                for (Accepted a : accepted) {
+                        codes.put(a.index(), idGenerator.generateAppointmentCode(a.startTime().toLocalDate()));
+                }
+
+                jdbcTemplate.batchUpdate(INSERT_APPOINTMENT_SQL, accepted, accepted.size(), (ps, a) -> {
+                        ps.setString(1, codes.get(a.index()));
+                        ps.setInt(2, patient.getPatientId());
+                        ps.setInt(3, a.doctor().getEmployeeId());
+                        ps.setString(4, a.room().getRoomId());
+                        ps.setTimestamp(5, Timestamp.valueOf(a.startTime()));
+                        ps.setTimestamp(6, Timestamp.valueOf(a.endTime()));
+                        ps.setInt(7, a.totalDuration());
+                        ps.setString(8, AppointmentStatus.SCHEDULED.name());
+                        ps.setString(9, a.item().getNotes());
+                        ps.setObject(10, createdBy);
+                        ps.setTimestamp(11, nowTs);
+                });
+
+                // Generated IDs by unique code, one round trip
+                String placeholders = String.join(",", Collections.nCopies(accepted.size(), "?"));
+                Map<String, Integer> idsByCode = new HashMap<>();
+                jdbcTemplate.query(
+                                "SELECT appointment_id, appointment_code FROM appointments WHERE appointment_code IN ("
+                                                + placeholders + ")",
+                                rs -> {
+                                        idsByCode.put(rs.getString("appointment_code"), rs.getInt("appointment_id"));
+                                },
+                                codes.values().toArray());
+
+                List<Object[]> serviceRows = new ArrayList<>();
+                List<Object[]> participantRows = new ArrayList<>();
+                List<Object[]> planItemRows = new ArrayList<>();
+                List<Object[]> auditRows = new ArrayList<>();
+                List<Long> bookedItemIds = new ArrayList<>();
+                for (Accepted a : accepted) {
+                        Integer appointmentId = idsByCode.get(codes.get(a.index()));
+                        a.services().forEach(s -> serviceRows.add(new Object[] { appointmentId, s.getServiceId() }));
+                        a.participants().forEach(p -> participantRows.add(new Object[] { appointmentId,
+                                        p.getEmployeeId(), AppointmentParticipantRole.ASSISTANT.name() }));
+                        a.planItemIds().forEach(itemId -> planItemRows
+                                        .add(new Object[] { appointmentId.longValue(), itemId }));
+                        bookedItemIds.addAll(a.planItemIds());
+                        auditRows.add(new Object[] { appointmentId, createdBy,
+                                        AppointmentActionType.CREATE.name(), nowTs, nowTs });
+                }
+
+                jdbcTemplate.batchUpdate(INSERT_SERVICE_SQL, serviceRows);
+                if (!participantRows.isEmpty()) {
+                        jdbcTemplate.batchUpdate(INSERT_PARTICIPANT_SQL, participantRows);
+                }
+                if (!planItemRows.isEmpty()) {
+                        jdbcTemplate.batchUpdate(INSERT_PLAN_ITEM_SQL, planItemRows);
+                        jdbcTemplate.update(
+                                        "UPDATE patient_plan_items SET status = ? WHERE item_id IN ("
+                                                        + String.join(",", Collections.nCopies(bookedItemIds.size(), "?"))
+                                                        + ")",
+                                        ps -> {
+                                                ps.setString(1, PlanItemStatus.SCHEDULED.name());
+                                                for (int i = 0; i < bookedItemIds.size(); i++) {
+                                                        ps.setLong(i + 2, bookedItemIds.get(i));
+                                                }
+                                        });
+                        activatePlans(accepted, context);
+                }
+                jdbcTemplate.batchUpdate(INSERT_AUDIT_LOG_SQL, auditRows);
+                searchIndexer.refreshAppointments(idsByCode.values());
+                rollupService.markDirty(DashboardRollupService.Fact.APPOINTMENT,
+                                accepted.stream().map(a -> a.startTime().toLocalDate()).distinct().toList());
+
+                log.debug("Batch persisted {} appointments, {} services, {} participants, {} plan items",
+                                accepted.size(), serviceRows.size(), participantRows.size(), planItemRows.size());
+                return codes;
+        }
+
+        /**
+         * V21: PENDING → IN_PROGRESS for approved plans booked for the first time
+         */
+        private void activatePlans(List<Accepted> accepted, BatchContext context) {
+                Map<Long, PatientTreatmentPlan> plans = new HashMap<>();
+                for (Accepted a : accepted) {
+                        for (Long itemId : a.planItemIds()) {
+                                PatientTreatmentPlan plan = context.planItemsById().get(itemId).getPhase()
+                                                .getTreatmentPlan();
+                                plans.putIfAbsent(plan.getPlanId(), plan);
+                        }
+                }
+                for (PatientTreatmentPlan plan : plans.values()) {
+                        boolean firstBooking = context.existingPlanAppointments().getOrDefault(plan.getPlanId(),
+                                        0L) == 0;
+                        if (firstBooking && plan.getStatus() == TreatmentPlanStatus.PENDING
+                                        && plan.getApprovalStatus() == ApprovalStatus.APPROVED) {
+                                plan.setStatus(TreatmentPlanStatus.IN_PROGRESS);
+                                treatmentPlanRepository.save(plan);
+                                log.info("V21: Auto-activated treatment plan {} (PENDING → IN_PROGRESS) by batch booking",
+                                                plan.getPlanCode());
+                        }
+                }
+        }
+
+        /**
+         * One summary notification per recipient instead of one per appointment.
+         * Confirmation emails stay per appointment (BR-17). Everything is queued in
+         * the outbox and delivered after commit.
+         */
+        private void notifyCreated(List<Accepted> accepted, Map<Integer, String> codes, Patient patient) {
+                try {
+                        DateTimeFormatter display = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+                        List<Accepted> sorted = accepted.stream()
+                                        .sorted(Comparator.comparing(Accepted::startTime))
+                                        .collect(Collectors.toList());
+                        String summary = sorted.stream()
+                                        .map(a -> codes.get(a.index()) + " (" + a.startTime().format(display) + ")")
+                                        .collect(Collectors.joining(", "));
+
+                        Patient patientWithAccount = patientRepository
+                                        .findOneByPatientCodeWithAccount(patient.getPatientCode())
+                                        .orElse(patient);
+                        if (patientWithAccount.getAccount() != null) {
+                                outboxService.enqueue(OutboxMessageType.NOTIFICATION, patient.getPatientCode(),
+                                                CreateNotificationRequest.builder()
+                                                .userId(patientWithAccount.getAccount().getAccountId())
+                                                .type(NotificationType.APPOINTMENT_CREATED)
+                                                .title("Đặt lịch thành công")
+                                                .message(String.format("Đã đặt %d lịch hẹn: %s", sorted.size(), summary))
+                                                .relatedEntityType(NotificationEntityType.APPOINTMENT)
+                                                .relatedEntityId(codes.get(sorted.get(0).index()))
+                                                .build());
+                        }
+
+                        Map<Employee, List<Accepted>> byStaff = new LinkedHashMap<>();
+                        for (Accepted a : sorted) {
+                                byStaff.computeIfAbsent(a.doctor(), e -> new ArrayList<>()).add(a);
+                                a.participants().forEach(p -> byStaff.computeIfAbsent(p, e -> new ArrayList<>()).add(a));
+                        }
+                        byStaff.forEach((staff, staffAppointments) -> {
+                                if (staff.getAccount() == null) {
+                                        return;
+                                }
+                                outboxService.enqueue(OutboxMessageType.NOTIFICATION, staff.getEmployeeCode(),
+                                                CreateNotificationRequest.builder()
+                                                .userId(staff.getAccount().getAccountId())
+                                                .type(NotificationType.APPOINTMENT_CREATED)
+                                                .title("Bạn có lịch hẹn mới")
+                                                .message(String.format("%d lịch hẹn mới - Bệnh nhân: %s: %s",
+                                                                staffAppointments.size(), patient.getFullName(),
+                                                                staffAppointments.stream()
+                                                                                .map(a -> codes.get(a.index()) + " ("
+                                                                                                + a.startTime().format(display)
+                                                                                                + ")")
+                                                                                .collect(Collectors.joining(", "))))
+                                                .relatedEntityType(NotificationEntityType.APPOINTMENT)
+                                                .relatedEntityId(codes.get(staffAppointments.get(0).index()))
+                                                .build());
+                        });
+
+                        if (patient.getEmail() != null && !patient.getEmail().isEmpty()) {
+                                for (Accepted a : sorted) {
+                                        outboxService.enqueue(OutboxMessageType.APPOINTMENT_CONFIRMATION_EMAIL,
+                                                        codes.get(a.index()),
+                                                        new AppointmentConfirmationEmailPayload(
+                                                                        patient.getEmail(),
+                                                                        patient.getFullName(),
+                                                                        codes.get(a.index()),
+                                                                        a.startTime(),
+                                                                        a.doctor().getFullName(),
+                                                                        "Phòng " + a.room().getRoomCode(),
+                                                                        a.services().stream()
+                                                                                        .map(DentalService::getServiceName)
+                                                                                        .collect(Collectors.joining(", "))));
+                                }
+                        }
+                } catch (Exception e) {
+                        // Notification failure should not block appointment creation
+                        log.error("Failed to send batch notifications for patient {}: {}",
+                                        patient.getPatientCode(), e.getMessage(), e);
+                }
+        }
+
+        private ItemResult success(Accepted a, String code) {
+                return ItemResult.builder()
+                                .index(a.index())
+                                .success(true)
+                                .appointmentCode(code)
+                                .appointmentStartTime(a.startTime())
+                                .appointmentEndTime(a.endTime())
+                                .employeeCode(a.doctor().getEmployeeCode())
+                                .roomCode(a.room().getRoomCode())
+                                .patientPlanItemIds(a.planItemIds().isEmpty() ? null : a.planItemIds())
+                                .build();
+        }
+
+        private ItemResult failure(int index, ErrorResponseException e) {
+                String errorKey = e instanceof BadRequestAlertException badRequest
+                                ? badRequest.getErrorKey()
+                                : Optional.ofNullable(e.getBody().getProperties())
+                                                .map(p -> p.get("errorCode"))
+                                                .map(Object::toString)
+                                                .orElse(e.getStatusCode().toString());
+                String message = e.getBody().getDetail() != null ? e.getBody().getDetail() : e.getBody().getTitle();
+                return ItemResult.builder()
+                                .index(index)
+                                .success(false)
+                                .errorKey(errorKey)
+                                .errorMessage(message)
+                                .build();
+        }
+
+        // ====================================================================
+        // In-memory state of one batch
+        // ====================================================================
+
+        private record Interval(LocalDateTime start, LocalDateTime end, String label) {
+        }
+
+        private record BatchContext(
+                        Map<Integer, LocalDateTime> startTimes,
+                        Map<String, Employee> staffByCode,
+                        Map<String, Room> roomsByCode,
+                        Map<String, DentalService> servicesByCode,
+                        Map<Integer, DentalService> servicesById,
+                        Map<Long, PatientPlanItem> planItemsById,
+                        Map<String, Set<Integer>> roomServiceIds,
+                        Set<LocalDate> holidays,
+                        Map<Integer, Map<LocalDate, List<Interval>>> shifts,
+                        Map<Integer, List<Interval>> primaryBusy,
+                        Map<Integer, List<Interval>> participantBusy,
+                        Map<String, List<Interval>> roomBusy,
+                        List<Interval> patientBusy,
+                        List<SlotHold> holds,
+                        Map<Long, Long> existingPlanAppointments,
+                        Map<Integer, List<Interval>> batchEmployeeBusy,
+                        Set<Long> bookedPlanItemIds,
+                        Map<Long, Integer> acceptedPerPlan) {
+
+                BatchContext(Map<Integer, LocalDateTime> startTimes, Map<String, Employee> staffByCode,
+                                Map<String, Room> roomsByCode, Map<String, DentalService> servicesByCode,
+                                Map<Integer, DentalService> servicesById, Map<Long, PatientPlanItem> planItemsById,
+                                Map<String, Set<Integer>> roomServiceIds) {
+                        this(startTimes, staffByCode, roomsByCode, servicesByCode, servicesById, planItemsById,
+                                        roomServiceIds, new HashSet<>(), new HashMap<>(), new HashMap<>(),
+                                        new HashMap<>(), new HashMap<>(), new ArrayList<>(), new ArrayList<>(),
+                                        new HashMap<>(), new HashMap<>(), new HashSet<>(), new HashMap<>());
+                }
+
+                /**
+                 * Make an accepted item visible to the items validated after it
+                 */
+                void reserve(Accepted a) {
+                        Interval interval = new Interval(a.startTime(), a.endTime(), "batch item #" + a.index());
+                        batchEmployeeBusy.computeIfAbsent(a.doctor().getEmployeeId(), id -> new ArrayList<>())
+                                        .add(interval);
+                        a.participants().forEach(p -> batchEmployeeBusy
+                                        .computeIfAbsent(p.getEmployeeId(), id -> new ArrayList<>()).add(interval));
+                        roomBusy.computeIfAbsent(a.room().getRoomId(), id -> new ArrayList<>()).add(interval);
+                        patientBusy.add(interval);
+                        bookedPlanItemIds.addAll(a.planItemIds());
+                        if (!a.planItemIds().isEmpty()) {
+                                Long planId = planItemsById.get(a.planItemIds().get(0)).getPhase().getTreatmentPlan()
+                                                .getPlanId();
+                                acceptedPerPlan.merge(planId, 1, Integer::sum);
+                        }
+                }
+        }
+
+        /**
+         * Validated item waiting to be persisted
+         */
+        private record Accepted(
+                        int index,
+                        BatchAppointmentItem item,
+                        Employee doctor,
+                        Room room,
+                        List<DentalService> services,
+                        List<Employee> participants,
+                        List<Long> planItemIds,
+                        LocalDateTime startTime,
+                        LocalDateTime endTime,
+                        int totalDuration) {
+        }
+}
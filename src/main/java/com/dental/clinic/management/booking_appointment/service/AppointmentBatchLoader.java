@@ -0,0 +1,243 @@
+package com.dental.clinic.management.booking_appointment.service;
+
+import com.dental.clinic.management.booking_appointment.domain.Appointment;
+import com.dental.clinic.management.booking_appointment.domain.AppointmentParticipant;
+import com.dental.clinic.management.booking_appointment.domain.Room;
+import com.dental.clinic.management.booking_appointment.dto.CreateAppointmentResponse;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentParticipantRepository;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentPlanItemRepository;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
+import com.dental.clinic.management.booking_appointment.repository.RoomRepository;
+import com.dental.clinic.management.employee.domain.Employee;
+import com.dental.clinic.management.employee.repository.EmployeeRepository;
+import com.dental.clinic.management.feedback.repository.AppointmentFeedbackRepository;
+import com.dental.clinic.management.patient.domain.Patient;
+import com.dental.clinic.management.patient.repository.PatientRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Batch resolution of everything an appointment DTO needs (P3.3 list, P3.4
+ * detail).
+ *
+ * Loading N appointments costs a constant number of queries:
+ * 1. participants (all appointments)
+ * 2. employees (doctors + participants + creators)
+ * 3. patients
+ * 4. rooms
+ * 5. services (all appointments)
+ * 6. feedback flags (all appointment codes)
+ * 7. linked treatment plan codes (only if requested, detail view)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentBatchLoader {
+
+    private final AppointmentRepository appointmentRepository;
+    private final PatientRepository patientRepository;
+    private final EmployeeRepository employeeRepository;
+    private final RoomRepository roomRepository;
+    private final AppointmentParticipantRepository appointmentParticipantRepository;
+    private final AppointmentPlanItemRepository appointmentPlanItemRepository;
+    private final AppointmentFeedbackRepository feedbackRepository;
+
+    /**
+     * Load relations of a page of appointments (list view)
+     */
+    public LoadedRelations load(Collection<Appointment> appointments) {
+        return load(appointments, false);
+    }
+
+    /**
+     * Load relations of appointments
+     *
+     * @param includePlanCodes also resolve the linked treatment plan code
+     */
+    public LoadedRelations load(Collection<Appointment> appointments, boolean includePlanCodes) {
+        LoadedRelations relations = new LoadedRelations();
+        if (appointments.isEmpty()) {
+            return relations;
+        }
+
+        Set<Integer> appointmentIds = appointments.stream()
+                .map(Appointment::getAppointmentId)
+                .collect(Collectors.toSet());
+
+        // Participants first: their employees are loaded with the doctors
+        Set<Integer> employeeIds = new HashSet<>();
+        for (AppointmentParticipant ap : appointmentParticipantRepository.findByIdAppointmentIdIn(appointmentIds)) {
+            relations.participantsByAppointment
+                    .computeIfAbsent(ap.getId().getAppointmentId(), id -> new ArrayList<>())
+                    .add(ap);
+            employeeIds.add(ap.getId().getEmployeeId());
+        }
+        for (Appointment appointment : appointments) {
+            employeeIds.add(appointment.getEmployeeId());
+            if (appointment.getCreatedBy() != null) {
+                employeeIds.add(appointment.getCreatedBy());
+            }
+        }
+
+        relations.employees.putAll(employeeRepository.findAllById(employeeIds).stream()
+                .collect(Collectors.toMap(Employee::getEmployeeId, Function.identity())));
+
+        relations.patients.putAll(patientRepository.findAllById(appointments.stream()
+                .map(Appointment::getPatientId)
+                .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Patient::getPatientId, Function.identity())));
+
+        relations.rooms.putAll(roomRepository.findAllById(appointments.stream()
+                .map(Appointment::getRoomId)
+                .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Room::getRoomId, Function.identity())));
+
+        for (Object[] row : appointmentRepository.findServicesByAppointmentIds(appointmentIds)) {
+            relations.servicesByAppointment
+                    .computeIfAbsent((Integer) row[0], id -> new ArrayList<>())
+                    .add(CreateAppointmentResponse.ServiceSummary.builder()
+                            .serviceCode((String) row[1])
+                            .serviceName((String) row[2])
+                            .build());
+        }
+
+        relations.codesWithFeedback.addAll(feedbackRepository.findAppointmentCodesWithFeedback(
+                appointments.stream().map(Appointment::getAppointmentCode).collect(Collectors.toList())));
+
+        if (includePlanCodes) {
+            for (Object[] row : appointmentPlanItemRepository.findPlanCodesByAppointmentIds(
+                    appointmentIds.stream().map(Integer::longValue).collect(Collectors.toList()))) {
+                relations.planCodes.putIfAbsent(((Long) row[0]).intValue(), (String) row[1]);
+            }
+        }
+
+        log.debug("Batch loaded relations of {} appointments ({} employees, {} patients, {} rooms)",
+                appointments.size(), relations.employees.size(), relations.patients.size(),
+                relations.rooms.size());
+        return relations;
+    }
+
+    /**
+     * Relations of a set of appointments, already mapped for the summary DTOs
+     */
+    public static class LoadedRelations {
+
+        private final Map<Integer, Patient> patients = new HashMap<>();
+        private final Map<Integer, Employee> employees = new HashMap<>();
+        private final Map<String, Room> rooms = new HashMap<>();
+        private final Map<Integer, List<AppointmentParticipant>> participantsByAppointment = new HashMap<>();
+        private final Map<Integer, List<CreateAppointmentResponse.ServiceSummary>> servicesByAppointment = new HashMap<>();
+        private final Set<String> codesWithFeedback = new HashSet<>();
+        private final Map<Integer, String> planCodes = new HashMap<>();
+
+        public CreateAppointmentResponse.PatientSummary patientSummary(Appointment appointment) {
+            Patient patient = patients.get(appointment.getPatientId());
+            if (patient == null) {
+                return null;
+            }
+
+            // Calculate age
+            Integer age = null;
+            if (patient.getDateOfBirth() != null) {
+                age = Period.between(patient.getDateOfBirth(), LocalDate.now()).getYears();
+            }
+
+            return CreateAppointmentResponse.PatientSummary.builder()
+                    .patientId(patient.getPatientId())
+                    .patientCode(patient.getPatientCode())
+                    .fullName(patient.getFirstName() + " " + patient.getLastName())
+                    .phone(patient.getPhone())
+                    .email(patient.getEmail())
+                    .dateOfBirth(patient.getDateOfBirth())
+                    .age(age)
+                    .gender(patient.getGender() != null ? patient.getGender().name() : null)
+                    .address(patient.getAddress())
+                    .medicalHistory(patient.getMedicalHistory())
+                    .allergies(patient.getAllergies())
+                    .emergencyContactName(patient.getEmergencyContactName())
+                    .emergencyContactPhone(patient.getEmergencyContactPhone())
+                    .guardianName(patient.getGuardianName())
+                    .guardianPhone(patient.getGuardianPhone())
+                    .guardianRelationship(patient.getGuardianRelationship())
+                    .guardianCitizenId(patient.getGuardianCitizenId())
+                    .isActive(patient.getIsActive())
+                    .consecutiveNoShows(patient.getConsecutiveNoShows())
+                    .isBookingBlocked(patient.getIsBookingBlocked())
+                    .bookingBlockReason(patient.getBookingBlockReason() != null
+                            ? patient.getBookingBlockReason().name()
+                            : null)
+                    .build();
+        }
+
+        public CreateAppointmentResponse.DoctorSummary doctorSummary(Appointment appointment) {
+            Employee employee = employees.get(appointment.getEmployeeId());
+            if (employee == null) {
+                return null;
+            }
+            return CreateAppointmentResponse.DoctorSummary.builder()
+                    .employeeCode(employee.getEmployeeCode())
+                    .fullName(employee.getFirstName() + " " + employee.getLastName())
+                    .build();
+        }
+
+        public CreateAppointmentResponse.RoomSummary roomSummary(Appointment appointment) {
+            Room room = rooms.get(appointment.getRoomId());
+            if (room == null) {
+                return null;
+            }
+            return CreateAppointmentResponse.RoomSummary.builder()
+                    .roomCode(room.getRoomCode())
+                    .roomName(room.getRoomName())
+                    .build();
+        }
+
+        public List<CreateAppointmentResponse.ServiceSummary> services(Appointment appointment) {
+            return servicesByAppointment.getOrDefault(appointment.getAppointmentId(), new ArrayList<>());
+        }
+
+        public List<CreateAppointmentResponse.ParticipantSummary> participants(Appointment appointment) {
+            List<CreateAppointmentResponse.ParticipantSummary> participants = new ArrayList<>();
+            for (AppointmentParticipant ap : participantsByAppointment.getOrDefault(
+                    appointment.getAppointmentId(), List.of())) {
+                Employee participantEmployee = employees.get(ap.getId().getEmployeeId());
+                if (participantEmployee != null) {
+                    participants.add(CreateAppointmentResponse.ParticipantSummary.builder()
+                            .employeeCode(participantEmployee.getEmployeeCode())
+                            .fullName(participantEmployee.getFirstName() + " " + participantEmployee.getLastName())
+                            .role(ap.getRole())
+                            .build());
+                }
+            }
+            return participants;
+        }
+
+        public String createdByName(Appointment appointment) {
+            if (appointment.getCreatedBy() == null) {
+                return null;
+            }
+            Employee createdBy = employees.get(appointment.getCreatedBy());
+            return createdBy != null ? createdBy.getFirstName() + " " + createdBy.getLastName() : null;
+        }
+
+        public boolean hasFeedback(Appointment appointment) {
+            return codesWithFeedback.contains(appointment.getAppointmentCode());
+        }
+
+        public String linkedPlanCode(Appointment appointment) {
+            return planCodes.get(appointment.getAppointmentId());
+        }
+    }
+}
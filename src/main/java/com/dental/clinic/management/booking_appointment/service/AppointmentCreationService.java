@@ -29,11 +29,13 @@ import com.dental.clinic.management.patient.repository.PatientRepository;
 import com.dental.clinic.management.treatment_plans.repository.PatientTreatmentPlanRepository;
 import com.dental.clinic.management.treatment_plans.enums.PlanItemStatus;
 import com.dental.clinic.management.service.service.ClinicalRulesValidationService;
-import com.dental.clinic.management.notification.service.NotificationService;
 import com.dental.clinic.management.notification.dto.CreateNotificationRequest;
 import com.dental.clinic.management.notification.enums.NotificationType;
 import com.dental.clinic.management.notification.enums.NotificationEntityType;
-import com.dental.clinic.management.utils.AppointmentEmailService;
+import com.dental.clinic.management.outbox.dto.AppointmentConfirmationEmailPayload;
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+import com.dental.clinic.management.outbox.service.OutboxService;
+import com.dental.clinic.management.utils.IdGenerator;
 import com.dental.clinic.management.utils.validation.HolidayValidator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -89,15 +91,21 @@ public class AppointmentCreationService {
         // V21: Clinical Rules Validation
         private final ClinicalRulesValidationService clinicalRulesValidationService;
 
-        // Notification Service
-        private final NotificationService notificationService;
-
-        // BR-17: Email Service for appointment confirmation and reminders
-        private final AppointmentEmailService appointmentEmailService;
+        // Notifications and BR-17 confirmation emails (delivered after commit)
+        private final OutboxService outboxService;
 
         // ISSUE #53: Holiday Validation
         private final HolidayValidator holidayValidator;
 
+        // Shared business code allocator (APT-YYYYMMDD-SEQ)
+        private final IdGenerator idGenerator;
+
+        // Slot holds placed between availability search and creation
+        private final SlotHoldService slotHoldService;
+
+        // Denormalized search text (P3.3 searchCode)
+        private final AppointmentSearchIndexer searchIndexer;
+
         private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
         private static final String ENTITY_NAME = "appointment";
 
@@ -201,10 +209,9 @@ public class AppointmentCreationService {
                 validateParticipantShifts(participants, startTime, endTime);
 
                 // STEP 7: Check conflicts (CRITICAL - prevents double booking)
-                checkDoctorConflict(doctor, startTime, endTime);
-                checkRoomConflict(room, startTime, endTime);
+                // A valid slot hold replaces the per-resource checks with one query
+                checkResourceConflicts(request.getHoldId(), doctor, room, participants, startTime, endTime);
                 checkPatientConflict(patient, startTime, endTime);
-                checkParticipantConflicts(participants, startTime, endTime);
 
                 // STEP 7B: V21 Clinical Rules Validation (NEW V21)
                 log.debug("V21: Validating clinical rules for {} services", services.size());
@@ -222,6 +229,8 @@ public class AppointmentCreationService {
                                 request.getNotes(), createdById);
                 insertAppointmentServices(appointment, services);
                 insertAppointmentParticipants(appointment, participants);
+                searchIndexer.refreshAppointments(List.of(appointment.getAppointmentId()));
+                slotHoldService.releaseAfterCommit(request.getHoldId());
 
                 // STEP 8B: Treatment Plan Integration (V2) - Insert bridge + Update status
                 if (isBookingFromPlan) {
@@ -319,10 +328,8 @@ public class AppointmentCreationService {
                 validateDoctorShift(doctor, startTime, endTime);
                 validateParticipantShifts(participants, startTime, endTime);
 
-                checkDoctorConflict(doctor, startTime, endTime);
-                checkRoomConflict(room, startTime, endTime);
+                checkResourceConflicts(request.getHoldId(), doctor, room, participants, startTime, endTime);
                 checkPatientConflict(patient, startTime, endTime);
-                checkParticipantConflicts(participants, startTime, endTime);
 
                 // V21: Clinical Rules Validation
                 log.debug("V21: Validating clinical rules for {} services", services.size());
@@ -339,6 +346,8 @@ public class AppointmentCreationService {
                                 totalDuration, request.getNotes(), createdById);
                 insertAppointmentServices(appointment, services);
                 insertAppointmentParticipants(appointment, participants);
+                searchIndexer.refreshAppointments(List.of(appointment.getAppointmentId()));
+                slotHoldService.releaseAfterCommit(request.getHoldId());
 
                 // V2: Treatment Plan integration
                 if (isBookingFromPlan) {
@@ -368,7 +377,7 @@ public class AppointmentCreationService {
          *
          * @return Employee ID of current user, or 0 (SYSTEM) if admin account
          */
-        private Integer getCurrentUserId() {
+        Integer getCurrentUserId() {
                 Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
                 if (authentication == null || !authentication.isAuthenticated()) {
@@ -811,6 +820,42 @@ public class AppointmentCreationService {
         // STEP 7: Check Conflicts (CRITICAL)
         // ====================================================================
 
+        /**
+         * Doctor, room and participant conflicts.
+         *
+         * With the caller's own slot hold: the slot was verified when the hold was
+         * placed and other users could not book it since, so a single combined
+         * query is enough; the detailed checks only run to explain a hit.
+         * Without a hold: slots held by other users are rejected up front, then
+         * the detailed checks run as usual.
+         */
+        private void checkResourceConflicts(String holdId, Employee doctor, Room room, List<Employee> participants,
+                        LocalDateTime startTime, LocalDateTime endTime) {
+                List<Integer> participantIds = participants.stream()
+                                .map(Employee::getEmployeeId)
+                                .collect(Collectors.toList());
+                List<Integer> employeeIds = new ArrayList<>(participantIds);
+                employeeIds.add(doctor.getEmployeeId());
+
+                if (slotHoldService.verifyOwnHold(holdId, doctor.getEmployeeId(), room.getRoomId(), participantIds,
+                                startTime, endTime)) {
+                        boolean busy = appointmentRepository.existsBusyForResources(employeeIds, participantIds,
+                                        room.getRoomId(), startTime, endTime,
+                                        List.of(AppointmentStatus.SCHEDULED, AppointmentStatus.CHECKED_IN,
+                                                        AppointmentStatus.IN_PROGRESS));
+                        if (!busy) {
+                                log.debug("Slot hold {} verified, resources free", holdId);
+                                return;
+                        }
+                } else {
+                        slotHoldService.checkNotHeldByOthers(employeeIds, room.getRoomId(), startTime, endTime);
+                }
+
+                checkDoctorConflict(doctor, startTime, endTime);
+                checkRoomConflict(room, startTime, endTime);
+                checkParticipantConflicts(participants, startTime, endTime);
+        }
+
         private void checkDoctorConflict(Employee doctor, LocalDateTime startTime, LocalDateTime endTime) {
                 // Get actual conflicting appointments for detailed error message
                 List<AppointmentStatus> activeStatuses = List.of(
@@ -952,24 +997,8 @@ public class AppointmentCreationService {
          * Example: APT-20251115-001
          */
         private String generateAppointmentCode(LocalDate appointmentDate) {
-                String datePrefix = appointmentDate.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-                String codePrefix = "APT-" + datePrefix + "-";
-
-                // Find the highest sequence number for this date
-                String lastCode = appointmentRepository
-                                .findTopByAppointmentCodeStartingWithOrderByAppointmentCodeDesc(codePrefix)
-                                .map(Appointment::getAppointmentCode)
-                                .orElse(null);
-
-                int nextSequence = 1;
-                if (lastCode != null) {
-                        // Extract sequence number from APT-20251115-001 -> 001
-                        String sequencePart = lastCode.substring(lastCode.lastIndexOf("-") + 1);
-                        nextSequence = Integer.parseInt(sequencePart) + 1;
-                }
-
-                // Format with leading zeros: 001, 002, ..., 999
-                return codePrefix + String.format("%03d", nextSequence);
+                // Sequence per appointment date from the shared allocator (no MAX() lookup per booking)
+                return idGenerator.generateAppointmentCode(appointmentDate);
         }
 
         private void insertAppointmentServices(Appointment appointment, List<DentalService> services) {
@@ -1013,7 +1042,9 @@ public class AppointmentCreationService {
 
         /**
          * Send notifications to patient, dentist, and participants when appointment is
-         * created
+         * created.
+         * Notifications go through the outbox: they are delivered only if the booking
+         * commits, outside the request thread.
          */
         private void sendAppointmentCreatedNotification(Appointment appointment, Patient patient) {
                 try {
@@ -1046,8 +1077,9 @@ public class AppointmentCreationService {
                                                 .relatedEntityId(appointment.getAppointmentCode())
                                                 .build();
 
-                                notificationService.createNotification(patientNotification);
-                                log.info("✓ Patient notification created successfully");
+                                outboxService.enqueue(OutboxMessageType.NOTIFICATION,
+                                        appointment.getAppointmentCode(), patientNotification);
+                                log.info("✓ Patient notification queued");
                         } else {
                                 log.warn("Patient {} has no account, skipping patient notification",
                                                 patientWithAccount.getPatientId());
@@ -1074,8 +1106,9 @@ public class AppointmentCreationService {
                                                 .relatedEntityId(appointment.getAppointmentCode())
                                                 .build();
 
-                                notificationService.createNotification(doctorNotification);
-                                log.info("✓ Main doctor notification created successfully");
+                                outboxService.enqueue(OutboxMessageType.NOTIFICATION,
+                                        appointment.getAppointmentCode(), doctorNotification);
+                                log.info("✓ Main doctor notification queued");
                         } else {
                                 log.warn("Main doctor has no account, skipping doctor notification");
                         }
@@ -1133,8 +1166,9 @@ public class AppointmentCreationService {
                                                                 .relatedEntityId(appointment.getAppointmentCode())
                                                                 .build();
 
-                                                notificationService.createNotification(staffNotification);
-                                                log.info("✓ {} notification created for userId={}", role.name(),
+                                                outboxService.enqueue(OutboxMessageType.NOTIFICATION,
+                                                appointment.getAppointmentCode(), staffNotification);
+                                                log.info("✓ {} notification queued for userId={}", role.name(),
                                                                 staffUserId);
                                         } catch (Exception e) {
                                                 log.error("Failed to send notification to participant employeeId={}: {}",
@@ -1167,6 +1201,7 @@ public class AppointmentCreationService {
 
         /**
          * BR-17: Send confirmation email to patient immediately after booking
+         * (queued in the outbox, sent by OutboxDispatcher after commit)
          */
         private void sendAppointmentConfirmationEmail(
                         Appointment appointment,
@@ -1182,7 +1217,7 @@ public class AppointmentCreationService {
                                 return;
                         }
 
-                        log.info("📧 Sending confirmation email to {} for appointment {}", 
+                        log.info("📧 Queueing confirmation email to {} for appointment {}", 
                                 patient.getEmail(), appointment.getAppointmentCode());
 
                         // Get room name (enhance later if Room entity has name field)
@@ -1193,17 +1228,18 @@ public class AppointmentCreationService {
                                 .map(DentalService::getServiceName)
                                 .collect(Collectors.joining(", "));
 
-                        appointmentEmailService.sendAppointmentConfirmation(
-                                patient.getEmail(),
-                                patient.getFullName(),
+                        outboxService.enqueue(OutboxMessageType.APPOINTMENT_CONFIRMATION_EMAIL,
                                 appointment.getAppointmentCode(),
-                                appointment.getAppointmentStartTime(),
-                                doctor.getFullName(),
-                                roomName,
-                                serviceNames
-                        );
-
-                        log.info("✅ Confirmation email sent successfully");
+                                new AppointmentConfirmationEmailPayload(
+                                        patient.getEmail(),
+                                        patient.getFullName(),
+                                        appointment.getAppointmentCode(),
+                                        appointment.getAppointmentStartTime(),
+                                        doctor.getFullName(),
+                                        roomName,
+                                        serviceNames));
+
+                        log.info("✅ Confirmation email queued");
 
                 } catch (Exception e) {
                         log.error("❌ Failed to send confirmation email for appointment {}: {}",
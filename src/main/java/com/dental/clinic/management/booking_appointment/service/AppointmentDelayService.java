@@ -10,6 +10,7 @@ import com.dental.clinic.management.booking_appointment.enums.AppointmentStatus;
 import com.dental.clinic.management.booking_appointment.repository.AppointmentAuditLogRepository;
 import com.dental.clinic.management.booking_appointment.repository.AppointmentParticipantRepository;
 import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
+import com.dental.clinic.management.dashboard.service.DashboardRollupService;
 import com.dental.clinic.management.employee.domain.Employee;
 import com.dental.clinic.management.employee.repository.EmployeeRepository;
 import lombok.RequiredArgsConstructor;
@@ -44,6 +45,7 @@ public class AppointmentDelayService {
         private final AppointmentAuditLogRepository auditLogRepository;
         private final EmployeeRepository employeeRepository;
         private final AppointmentDetailService detailService;
+        private final DashboardRollupService rollupService;
 
         /**
          * Delay appointment to new time slot with conflict checking.
@@ -79,6 +81,8 @@ public class AppointmentDelayService {
                 appointment.setAppointmentStartTime(newStartTime);
                 appointment.setAppointmentEndTime(newEndTime);
                 appointmentRepository.save(appointment);
+                // New day is marked by the entity listener, the old one only here
+                rollupService.markDirty(DashboardRollupService.Fact.APPOINTMENT, oldStartTime);
 
                 // STEP 6: Create audit log
                 createDelayAuditLog(appointment, oldStartTime, newStartTime, request);
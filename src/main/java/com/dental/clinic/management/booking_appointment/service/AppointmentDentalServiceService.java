@@ -42,6 +42,7 @@ public class AppointmentDentalServiceService {
     private final SpecializationRepository specializationRepository;
     private final EmployeeRepository employeeRepository;
     private final ServiceMapper serviceMapper;
+    private final AppointmentSearchIndexer searchIndexer;
 
     private static final int MAX_PAGE_SIZE = 100;
     private static final int DEFAULT_PAGE_SIZE = 10;
@@ -181,6 +182,12 @@ public class AppointmentDentalServiceService {
                     "Service code already exists: " + request.getServiceCode());
         }
 
+        // Appointment search documents embed service code + name
+        boolean renamed = (request.getServiceCode() != null
+                && !request.getServiceCode().equals(service.getServiceCode()))
+                || (request.getServiceName() != null
+                        && !request.getServiceName().equals(service.getServiceName()));
+
         // Update fields
         if (request.getServiceCode() != null) {
             service.setServiceCode(request.getServiceCode());
@@ -232,6 +239,9 @@ public class AppointmentDentalServiceService {
         }
 
         DentalService updatedService = serviceRepository.save(service);
+        if (renamed) {
+            searchIndexer.refreshForService(updatedService.getServiceId());
+        }
 
         log.info("Updated service code: {}", serviceCode);
 
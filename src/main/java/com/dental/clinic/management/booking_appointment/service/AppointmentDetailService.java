@@ -2,23 +2,15 @@ package com.dental.clinic.management.booking_appointment.service;
 
 import com.dental.clinic.management.booking_appointment.domain.Appointment;
 import com.dental.clinic.management.booking_appointment.domain.AppointmentAuditLog;
-import com.dental.clinic.management.booking_appointment.domain.AppointmentParticipant;
 import com.dental.clinic.management.booking_appointment.dto.AppointmentDetailDTO;
-import com.dental.clinic.management.booking_appointment.dto.CreateAppointmentResponse;
 import com.dental.clinic.management.booking_appointment.enums.AppointmentActionType;
 import com.dental.clinic.management.booking_appointment.enums.AppointmentStatus;
-import com.dental.clinic.management.booking_appointment.domain.AppointmentPlanItemBridge;
 import com.dental.clinic.management.booking_appointment.repository.AppointmentAuditLogRepository;
 import com.dental.clinic.management.booking_appointment.repository.AppointmentParticipantRepository;
-import com.dental.clinic.management.booking_appointment.repository.AppointmentPlanItemRepository;
 import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
-import com.dental.clinic.management.booking_appointment.repository.PatientPlanItemRepository;
-import com.dental.clinic.management.booking_appointment.repository.RoomRepository;
 import com.dental.clinic.management.employee.repository.EmployeeRepository;
 import com.dental.clinic.management.exception.ResourceNotFoundException;
-import com.dental.clinic.management.feedback.repository.AppointmentFeedbackRepository;
 import com.dental.clinic.management.patient.repository.PatientRepository;
-import com.dental.clinic.management.treatment_plans.domain.PatientPlanItem;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
@@ -29,7 +21,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -52,12 +43,9 @@ public class AppointmentDetailService {
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final EmployeeRepository employeeRepository;
-    private final RoomRepository roomRepository;
     private final AppointmentParticipantRepository appointmentParticipantRepository;
     private final AppointmentAuditLogRepository appointmentAuditLogRepository;
-    private final AppointmentPlanItemRepository appointmentPlanItemRepository;
-    private final PatientPlanItemRepository patientPlanItemRepository;
-    private final AppointmentFeedbackRepository feedbackRepository;
+    private final AppointmentBatchLoader batchLoader;
 
     /**
      * Get appointment detail by code with RBAC check
@@ -217,126 +205,9 @@ public class AppointmentDetailService {
      * Map Appointment entity to DetailDTO with all related entities
      */
     private AppointmentDetailDTO mapToDetailDTO(Appointment appointment) {
-        // Load patient with full details (including medical history, allergies, etc.)
-        CreateAppointmentResponse.PatientSummary patientSummary = null;
-        try {
-            var patient = patientRepository.findById(appointment.getPatientId()).orElse(null);
-            if (patient != null) {
-                // Calculate age
-                Integer age = null;
-                if (patient.getDateOfBirth() != null) {
-                    age = java.time.Period.between(patient.getDateOfBirth(), java.time.LocalDate.now()).getYears();
-                }
-
-                patientSummary = CreateAppointmentResponse.PatientSummary.builder()
-                        .patientId(patient.getPatientId())
-                        .patientCode(patient.getPatientCode())
-                        .fullName(patient.getFirstName() + " " + patient.getLastName())
-                        .phone(patient.getPhone())
-                        .email(patient.getEmail())
-                        .dateOfBirth(patient.getDateOfBirth())
-                        .age(age)
-                        .gender(patient.getGender() != null ? patient.getGender().name() : null)
-                        .address(patient.getAddress())
-                        .medicalHistory(patient.getMedicalHistory())
-                        .allergies(patient.getAllergies())
-                        .emergencyContactName(patient.getEmergencyContactName())
-                        .emergencyContactPhone(patient.getEmergencyContactPhone())
-                        .guardianName(patient.getGuardianName())
-                        .guardianPhone(patient.getGuardianPhone())
-                        .guardianRelationship(patient.getGuardianRelationship())
-                        .guardianCitizenId(patient.getGuardianCitizenId())
-                        .isActive(patient.getIsActive())
-                        .consecutiveNoShows(patient.getConsecutiveNoShows())
-                        .isBookingBlocked(patient.getIsBookingBlocked())
-                        .bookingBlockReason(patient.getBookingBlockReason() != null
-                                ? patient.getBookingBlockReason().name()
-                                : null)
-                        .build();
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load patient: {}", e.getMessage());
-        }
-
-        // Load doctor (primary employee)
-        CreateAppointmentResponse.DoctorSummary doctorSummary = null;
-        try {
-            var employee = employeeRepository.findById(appointment.getEmployeeId()).orElse(null);
-            if (employee != null) {
-                doctorSummary = CreateAppointmentResponse.DoctorSummary.builder()
-                        .employeeCode(employee.getEmployeeCode())
-                        .fullName(employee.getFirstName() + " " + employee.getLastName())
-                        .build();
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load doctor: {}", e.getMessage());
-        }
-
-        // Load room from RoomRepository
-        CreateAppointmentResponse.RoomSummary roomSummary = null;
-        try {
-            var room = roomRepository.findById(appointment.getRoomId()).orElse(null);
-            if (room != null) {
-                roomSummary = CreateAppointmentResponse.RoomSummary.builder()
-                        .roomCode(room.getRoomCode())
-                        .roomName(room.getRoomName())
-                        .build();
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load room: {}", e.getMessage());
-        }
-
-        // Load services using direct JPQL query
-        List<CreateAppointmentResponse.ServiceSummary> services = new ArrayList<>();
-        try {
-            List<Object[]> serviceData = appointmentRepository
-                    .findServicesByAppointmentId(appointment.getAppointmentId());
-
-            for (Object[] row : serviceData) {
-                String serviceCode = (String) row[0];
-                String serviceName = (String) row[1];
-                services.add(CreateAppointmentResponse.ServiceSummary.builder()
-                        .serviceCode(serviceCode)
-                        .serviceName(serviceName)
-                        .build());
-            }
-        } catch (Exception e) {
-            log.error("Failed to load services for appointment {}: {}", appointment.getAppointmentCode(),
-                    e.getMessage());
-        }
-
-        // Load participants
-        List<CreateAppointmentResponse.ParticipantSummary> participants = new ArrayList<>();
-        try {
-            List<AppointmentParticipant> appointmentParticipants = appointmentParticipantRepository
-                    .findByIdAppointmentId(appointment.getAppointmentId());
-
-            for (AppointmentParticipant ap : appointmentParticipants) {
-                var participantEmployee = employeeRepository.findById(ap.getId().getEmployeeId()).orElse(null);
-                if (participantEmployee != null) {
-                    participants.add(CreateAppointmentResponse.ParticipantSummary.builder()
-                            .employeeCode(participantEmployee.getEmployeeCode())
-                            .fullName(participantEmployee.getFirstName() + " " + participantEmployee.getLastName())
-                            .role(ap.getRole())
-                            .build());
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load participants: {}", e.getMessage());
-        }
-
-        // Load createdBy user info
-        String createdByName = null;
-        try {
-            if (appointment.getCreatedBy() != null) {
-                var createdByEmployee = employeeRepository.findById(appointment.getCreatedBy()).orElse(null);
-                if (createdByEmployee != null) {
-                    createdByName = createdByEmployee.getFirstName() + " " + createdByEmployee.getLastName();
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load createdBy info: {}", e.getMessage());
-        }
+        // Patient, doctor, room, services, participants, creator, feedback flag and
+        // linked plan code in a fixed number of queries
+        AppointmentBatchLoader.LoadedRelations relations = batchLoader.load(List.of(appointment), true);
 
         // Load cancellation reason from audit log (if status = CANCELLED or CANCELLED_LATE)
         String cancellationReason = null;
@@ -371,29 +242,6 @@ public class AppointmentDetailService {
             }
         }
 
-        // Load linked treatment plan code (if appointment is linked to plan items)
-        String linkedPlanCode = null;
-        try {
-            // Query: appointment_plan_items → patient_plan_items → phases → treatment_plan
-            List<AppointmentPlanItemBridge> bridges = appointmentPlanItemRepository
-                    .findById_AppointmentId(appointment.getAppointmentId());
-
-            if (!bridges.isEmpty()) {
-                // Get first item's plan code (all items in same appointment should be from same
-                // plan)
-                Long firstItemId = bridges.get(0).getId().getItemId();
-                PatientPlanItem item = patientPlanItemRepository.findById(firstItemId).orElse(null);
-                if (item != null && item.getPhase() != null && item.getPhase().getTreatmentPlan() != null) {
-                    linkedPlanCode = item.getPhase().getTreatmentPlan().getPlanCode();
-                    log.debug("Found linked treatment plan: {} for appointment: {}",
-                            linkedPlanCode, appointment.getAppointmentCode());
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load linked treatment plan code for appointment {}: {}",
-                    appointment.getAppointmentCode(), e.getMessage());
-        }
-
         // Compute dynamic fields
         LocalDateTime now = LocalDateTime.now();
         String computedStatus = calculateComputedStatus(appointment, now);
@@ -412,15 +260,15 @@ public class AppointmentDetailService {
                 .actualEndTime(appointment.getActualEndTime())
                 .cancellationReason(cancellationReason)
                 .notes(appointment.getNotes())
-                .patient(patientSummary)
-                .doctor(doctorSummary)
-                .room(roomSummary)
-                .services(services)
-                .participants(participants)
-                .createdBy(createdByName)
+                .patient(relations.patientSummary(appointment))
+                .doctor(relations.doctorSummary(appointment))
+                .room(relations.roomSummary(appointment))
+                .services(relations.services(appointment))
+                .participants(relations.participants(appointment))
+                .createdBy(relations.createdByName(appointment))
                 .createdAt(appointment.getCreatedAt())
-                .linkedTreatmentPlanCode(linkedPlanCode)
-                .hasFeedback(feedbackRepository.existsByAppointmentCode(appointment.getAppointmentCode()))
+                .linkedTreatmentPlanCode(relations.linkedPlanCode(appointment))
+                .hasFeedback(relations.hasFeedback(appointment))
                 .build();
     }
 
@@ -3,15 +3,12 @@ package com.dental.clinic.management.booking_appointment.service;
 import com.dental.clinic.management.booking_appointment.domain.Appointment;
 import com.dental.clinic.management.booking_appointment.dto.AppointmentFilterCriteria;
 import com.dental.clinic.management.booking_appointment.dto.AppointmentSummaryDTO;
-import com.dental.clinic.management.booking_appointment.dto.CreateAppointmentResponse;
 import com.dental.clinic.management.booking_appointment.enums.AppointmentStatus;
-import com.dental.clinic.management.booking_appointment.domain.AppointmentParticipant;
-import com.dental.clinic.management.booking_appointment.repository.AppointmentParticipantRepository;
 import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
-import com.dental.clinic.management.booking_appointment.repository.RoomRepository;
 import com.dental.clinic.management.employee.repository.EmployeeRepository;
-import com.dental.clinic.management.feedback.repository.AppointmentFeedbackRepository;
 import com.dental.clinic.management.patient.repository.PatientRepository;
+import com.dental.clinic.management.utils.pagination.CursorPage;
+import com.dental.clinic.management.utils.pagination.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -26,7 +23,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -45,12 +41,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AppointmentListService {
 
+    private static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final AppointmentRepository appointmentRepository;
     private final PatientRepository patientRepository;
     private final EmployeeRepository employeeRepository;
-    private final RoomRepository roomRepository;
-    private final AppointmentParticipantRepository appointmentParticipantRepository;
-    private final AppointmentFeedbackRepository feedbackRepository;
+    private final AppointmentBatchLoader batchLoader;
 
     /**
      * Get paginated appointment list with RBAC filtering
@@ -80,6 +76,120 @@ public class AppointmentListService {
 
         log.info("Fetching appointments with criteria: {}", criteria);
 
+        // Steps 1-2.6: RBAC, DatePreset, searchCode
+        prepareCriteria(criteria);
+
+        // Step 3: Build date range
+        LocalDateTime startDate = buildStartDate(criteria);
+        LocalDateTime endDate = buildEndDate(criteria);
+
+        // Step 4: Build status list
+        List<AppointmentStatus> statuses = buildStatusList(criteria);
+
+        // Step 5: Build pageable
+        // CRITICAL FIX: Native queries need snake_case, JPQL queries need camelCase
+        // Create TWO Pageable objects:
+        // - pageableNative: For native SQL queries (uses snake_case field names)
+        // - pageableJpql: For JPQL queries (uses camelCase entity field names)
+
+        String snakeCaseSortBy = convertToSnakeCase(sortBy);
+        Sort sortNative;
+        Sort sortJpql;
+
+        if (sortDirection.equalsIgnoreCase("DESC")) {
+            sortNative = org.springframework.data.jpa.domain.JpaSort.unsafe(snakeCaseSortBy).descending();
+            sortJpql = Sort.by(Sort.Direction.DESC, sortBy);
+        } else {
+            sortNative = org.springframework.data.jpa.domain.JpaSort.unsafe(snakeCaseSortBy).ascending();
+            sortJpql = Sort.by(Sort.Direction.ASC, sortBy);
+        }
+
+        Pageable pageableNative = PageRequest.of(page, size, sortNative);
+        Pageable pageableJpql = PageRequest.of(page, size, sortJpql);
+
+        // Step 6: Execute query based on RBAC
+        Page<Appointment> appointments = findAppointmentPage(criteria, startDate, endDate, statuses,
+                pageableNative, pageableJpql);
+
+        // Step 7: Map to DTOs with batch loading to prevent N+1 queries
+        return mapToSummaryDTOsWithBatchLoading(appointments);
+    }
+
+    /**
+     * Cursor (keyset) mode of P3.3: same filters and RBAC as getAppointments
+     *
+     * - Fixed order: appointmentStartTime ASC, appointmentId ASC
+     * - No OFFSET and no COUNT: every page costs the same as the first one
+     * - totalElements only computed when withTotal = true (one extra COUNT)
+     *
+     * @param cursor     nextCursor of the previous page (null/blank = first page)
+     * @param requestedSize page size (1-100)
+     * @param withTotal  also return totalElements
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<AppointmentSummaryDTO> getAppointmentsByCursor(
+            AppointmentFilterCriteria criteria,
+            String cursor,
+            int requestedSize,
+            boolean withTotal) {
+
+        log.info("Fetching appointments by cursor with criteria: {}", criteria);
+
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int size = Math.max(1, Math.min(requestedSize, MAX_CURSOR_PAGE_SIZE));
+        prepareCriteria(criteria);
+
+        LocalDateTime startDate = buildStartDate(criteria);
+        LocalDateTime endDate = buildEndDate(criteria);
+        List<AppointmentStatus> statuses = buildStatusList(criteria);
+        String[] statusArray = toStatusArray(statuses);
+
+        LocalDateTime cursorStart = after != null ? after.sortKey() : null;
+        Integer cursorId = after != null ? (int) after.id() : 0;
+        // One extra row tells whether a next page exists
+        Pageable limit = PageRequest.of(0, size + 1);
+
+        List<Appointment> rows;
+        if (criteria.getCurrentUserPatientId() != null) {
+            rows = appointmentRepository.findByFiltersAfter(startDate, endDate, statusArray,
+                    criteria.getCurrentUserPatientId(), null, null, null, null, null,
+                    cursorStart, cursorId, limit);
+        } else if (criteria.getCurrentUserEmployeeId() != null) {
+            rows = appointmentRepository.findByFiltersAfter(startDate, endDate, statusArray,
+                    null, null, criteria.getCurrentUserEmployeeId(), null, null, null,
+                    cursorStart, cursorId, limit);
+        } else if (criteria.getSearchCode() != null && !criteria.getSearchCode().isBlank()) {
+            rows = appointmentRepository.findBySearchCodeAfter(startDate, endDate, statusArray,
+                    criteria.getSearchCode(), cursorStart, cursorId, limit);
+        } else {
+            rows = appointmentRepository.findByFiltersAfter(startDate, endDate, statusArray,
+                    resolvePatientId(criteria), resolveEmployeeId(criteria), null, criteria.getRoomCode(),
+                    criteria.getPatientName(), criteria.getPatientPhone(),
+                    cursorStart, cursorId, limit);
+        }
+
+        Long total = null;
+        if (withTotal) {
+            Pageable countOnly = PageRequest.of(0, 1);
+            total = findAppointmentPage(criteria, startDate, endDate, statuses, countOnly, countOnly)
+                    .getTotalElements();
+        }
+
+        List<Appointment> pageRows = rows.size() > size ? rows.subList(0, size) : rows;
+        AppointmentBatchLoader.LoadedRelations relations = batchLoader.load(pageRows);
+        LocalDateTime now = LocalDateTime.now();
+
+        return CursorPage.of(rows, size,
+                a -> new KeysetCursor(a.getAppointmentStartTime(), a.getAppointmentId()),
+                a -> mapToSummaryDTO(a, relations, now),
+                total);
+    }
+
+    /**
+     * Steps 1-2.6 shared by offset and cursor modes: RBAC override, DatePreset,
+     * combined searchCode
+     */
+    private void prepareCriteria(AppointmentFilterCriteria criteria) {
         // Step 1: Check RBAC permissions (PERMISSION-BASED, not role-based)
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
 
@@ -113,36 +223,18 @@ public class AppointmentListService {
                 criteria.setServiceCode(null);
             }
         }
+    }
 
-        // Step 3: Build date range
-        LocalDateTime startDate = buildStartDate(criteria);
-        LocalDateTime endDate = buildEndDate(criteria);
-
-        // Step 4: Build status list
-        List<AppointmentStatus> statuses = buildStatusList(criteria);
-
-        // Step 5: Build pageable
-        // CRITICAL FIX: Native queries need snake_case, JPQL queries need camelCase
-        // Create TWO Pageable objects:
-        // - pageableNative: For native SQL queries (uses snake_case field names)
-        // - pageableJpql: For JPQL queries (uses camelCase entity field names)
-
-        String snakeCaseSortBy = convertToSnakeCase(sortBy);
-        Sort sortNative;
-        Sort sortJpql;
-
-        if (sortDirection.equalsIgnoreCase("DESC")) {
-            sortNative = org.springframework.data.jpa.domain.JpaSort.unsafe(snakeCaseSortBy).descending();
-            sortJpql = Sort.by(Sort.Direction.DESC, sortBy);
-        } else {
-            sortNative = org.springframework.data.jpa.domain.JpaSort.unsafe(snakeCaseSortBy).ascending();
-            sortJpql = Sort.by(Sort.Direction.ASC, sortBy);
-        }
-
-        Pageable pageableNative = PageRequest.of(page, size, sortNative);
-        Pageable pageableJpql = PageRequest.of(page, size, sortJpql);
-
-        // Step 6: Execute query based on RBAC
+    /**
+     * Step 6: Execute the OFFSET page query matching the caller's view
+     */
+    private Page<Appointment> findAppointmentPage(
+            AppointmentFilterCriteria criteria,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            List<AppointmentStatus> statuses,
+            Pageable pageableNative,
+            Pageable pageableJpql) {
         Page<Appointment> appointments;
 
         if (criteria.getCurrentUserPatientId() != null) {
@@ -171,12 +263,7 @@ public class AppointmentListService {
             log.info("Admin view: Using all filters (including patient name/phone search)");
 
             // Convert List<AppointmentStatus> to String[] for native query
-            String[] statusArray = null;
-            if (statuses != null && !statuses.isEmpty()) {
-                statusArray = statuses.stream()
-                        .map(Enum::name)
-                        .toArray(String[]::new);
-            }
+            String[] statusArray = toStatusArray(statuses);
 
             // Check if using combined searchCode
             if (criteria.getSearchCode() != null && !criteria.getSearchCode().isBlank()) {
@@ -190,30 +277,8 @@ public class AppointmentListService {
             } else {
                 log.info("Executing search with individual filters");
 
-                // Resolve patientCode to patientId if provided
-                Integer patientId = null;
-                if (criteria.getPatientCode() != null && !criteria.getPatientCode().isBlank()) {
-                    var patient = patientRepository.findOneByPatientCode(criteria.getPatientCode()).orElse(null);
-                    if (patient != null) {
-                        patientId = patient.getPatientId();
-                        log.debug("Resolved patientCode {} to patientId {}", criteria.getPatientCode(), patientId);
-                    } else {
-                        log.warn("Patient not found for patientCode: {}", criteria.getPatientCode());
-                    }
-                }
-
-                // Resolve employeeCode to employeeId if provided
-                Integer employeeId = null;
-                if (criteria.getEmployeeCode() != null && !criteria.getEmployeeCode().isBlank()) {
-                    var employee = employeeRepository.findByEmployeeCodeAndIsActiveTrue(criteria.getEmployeeCode())
-                            .orElse(null);
-                    if (employee != null) {
-                        employeeId = employee.getEmployeeId();
-                        log.debug("Resolved employeeCode {} to employeeId {}", criteria.getEmployeeCode(), employeeId);
-                    } else {
-                        log.warn("Employee not found for employeeCode: {}", criteria.getEmployeeCode());
-                    }
-                }
+                Integer patientId = resolvePatientId(criteria);
+                Integer employeeId = resolveEmployeeId(criteria);
 
                 appointments = appointmentRepository.findByFilters(
                         startDate,
@@ -228,8 +293,52 @@ public class AppointmentListService {
             }
         }
 
-        // Step 7: Map to DTOs with batch loading to prevent N+1 queries
-        return mapToSummaryDTOsWithBatchLoading(appointments);
+        return appointments;
+    }
+
+    /**
+     * Resolve patientCode filter to patientId (null if absent or unknown)
+     */
+    private Integer resolvePatientId(AppointmentFilterCriteria criteria) {
+        if (criteria.getPatientCode() == null || criteria.getPatientCode().isBlank()) {
+            return null;
+        }
+        var patient = patientRepository.findOneByPatientCode(criteria.getPatientCode()).orElse(null);
+        if (patient == null) {
+            log.warn("Patient not found for patientCode: {}", criteria.getPatientCode());
+            return null;
+        }
+        log.debug("Resolved patientCode {} to patientId {}", criteria.getPatientCode(), patient.getPatientId());
+        return patient.getPatientId();
+    }
+
+    /**
+     * Resolve employeeCode filter to employeeId (null if absent or unknown)
+     */
+    private Integer resolveEmployeeId(AppointmentFilterCriteria criteria) {
+        if (criteria.getEmployeeCode() == null || criteria.getEmployeeCode().isBlank()) {
+            return null;
+        }
+        var employee = employeeRepository.findByEmployeeCodeAndIsActiveTrue(criteria.getEmployeeCode())
+                .orElse(null);
+        if (employee == null) {
+            log.warn("Employee not found for employeeCode: {}", criteria.getEmployeeCode());
+            return null;
+        }
+        log.debug("Resolved employeeCode {} to employeeId {}", criteria.getEmployeeCode(), employee.getEmployeeId());
+        return employee.getEmployeeId();
+    }
+
+    /**
+     * Convert List<AppointmentStatus> to String[] for native queries
+     */
+    private String[] toStatusArray(List<AppointmentStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        return statuses.stream()
+                .map(Enum::name)
+                .toArray(String[]::new);
     }
 
     /**
@@ -343,318 +452,23 @@ public class AppointmentListService {
 
     /**
      * Batch load related entities and map appointments to DTOs
-     * Prevents N+1 query problem by loading all related entities in bulk
+     * Constant number of queries per page (see AppointmentBatchLoader)
      */
     private Page<AppointmentSummaryDTO> mapToSummaryDTOsWithBatchLoading(Page<Appointment> appointments) {
-        List<Appointment> appointmentList = appointments.getContent();
-
-        if (appointmentList.isEmpty()) {
-            return appointments.map(this::mapToSummaryDTO);
-        }
-
-        // Step 1: Collect all unique IDs
-        var patientIds = appointmentList.stream()
-                .map(Appointment::getPatientId)
-                .distinct()
-                .collect(Collectors.toList());
-
-        var employeeIds = appointmentList.stream()
-                .map(Appointment::getEmployeeId)
-                .distinct()
-                .collect(Collectors.toList());
-
-        var roomIds = appointmentList.stream()
-                .map(Appointment::getRoomId)
-                .distinct()
-                .collect(Collectors.toList());
-
-        var appointmentIds = appointmentList.stream()
-                .map(Appointment::getAppointmentId)
-                .collect(Collectors.toList());
-
-        // Step 2: Batch load entities
-        var patientMap = patientRepository.findAllById(patientIds).stream()
-                .collect(Collectors.toMap(
-                        p -> p.getPatientId(),
-                        p -> p));
-
-        var employeeMap = employeeRepository.findAllById(employeeIds).stream()
-                .collect(Collectors.toMap(
-                        e -> e.getEmployeeId(),
-                        e -> e));
-
-        var roomMap = roomRepository.findAllById(roomIds).stream()
-                .collect(Collectors.toMap(
-                        r -> r.getRoomId(),
-                        r -> r));
-
-        // Step 3: Batch load services for all appointments
-        var servicesMap = new java.util.HashMap<Integer, List<CreateAppointmentResponse.ServiceSummary>>();
-        for (Integer appointmentId : appointmentIds) {
-            try {
-                List<Object[]> serviceData = appointmentRepository.findServicesByAppointmentId(appointmentId);
-                List<CreateAppointmentResponse.ServiceSummary> services = serviceData.stream()
-                        .map(row -> CreateAppointmentResponse.ServiceSummary.builder()
-                                .serviceCode((String) row[0])
-                                .serviceName((String) row[1])
-                                .build())
-                        .collect(Collectors.toList());
-                servicesMap.put(appointmentId, services);
-            } catch (Exception e) {
-                log.warn("Failed to load services for appointmentId={}: {}", appointmentId, e.getMessage());
-                servicesMap.put(appointmentId, new ArrayList<>());
-            }
-        }
-
-        // Step 4: Batch load participants for all appointments
-        var participantsMap = new java.util.HashMap<Integer, List<CreateAppointmentResponse.ParticipantSummary>>();
-        for (Integer appointmentId : appointmentIds) {
-            try {
-                List<AppointmentParticipant> appointmentParticipants = appointmentParticipantRepository
-                        .findByIdAppointmentId(appointmentId);
-
-                List<CreateAppointmentResponse.ParticipantSummary> participants = appointmentParticipants.stream()
-                        .map(ap -> {
-                            var participantEmployee = employeeMap.get(ap.getId().getEmployeeId());
-                            if (participantEmployee != null) {
-                                return CreateAppointmentResponse.ParticipantSummary.builder()
-                                        .employeeCode(participantEmployee.getEmployeeCode())
-                                        .fullName(participantEmployee.getFirstName() + " "
-                                                + participantEmployee.getLastName())
-                                        .role(ap.getRole())
-                                        .build();
-                            }
-                            return null;
-                        })
-                        .filter(p -> p != null)
-                        .collect(Collectors.toList());
-
-                participantsMap.put(appointmentId, participants);
-            } catch (Exception e) {
-                log.warn("Failed to load participants for appointmentId={}: {}", appointmentId, e.getMessage());
-                participantsMap.put(appointmentId, new ArrayList<>());
-            }
-        }
-
-        // Step 5: Map appointments using cached entities
-        return appointments.map(appointment -> mapToSummaryDTOWithCache(
-                appointment, patientMap, employeeMap, roomMap, servicesMap, participantsMap));
+        AppointmentBatchLoader.LoadedRelations relations = batchLoader.load(appointments.getContent());
+        LocalDateTime now = LocalDateTime.now();
+        return appointments.map(appointment -> mapToSummaryDTO(appointment, relations, now));
     }
 
     /**
-     * Map single appointment to DTO using pre-loaded entity caches
+     * Map single appointment to DTO using pre-loaded relations
      */
-    private AppointmentSummaryDTO mapToSummaryDTOWithCache(
+    private AppointmentSummaryDTO mapToSummaryDTO(
             Appointment appointment,
-            java.util.Map<Integer, com.dental.clinic.management.patient.domain.Patient> patientMap,
-            java.util.Map<Integer, com.dental.clinic.management.employee.domain.Employee> employeeMap,
-            java.util.Map<String, com.dental.clinic.management.booking_appointment.domain.Room> roomMap,
-            java.util.Map<Integer, List<CreateAppointmentResponse.ServiceSummary>> servicesMap,
-            java.util.Map<Integer, List<CreateAppointmentResponse.ParticipantSummary>> participantsMap) {
-
-        // Build patient summary with full details
-        CreateAppointmentResponse.PatientSummary patientSummary = null;
-        var patient = patientMap.get(appointment.getPatientId());
-        if (patient != null) {
-            // Calculate age
-            Integer age = null;
-            if (patient.getDateOfBirth() != null) {
-                age = java.time.Period.between(patient.getDateOfBirth(), java.time.LocalDate.now()).getYears();
-            }
-
-            patientSummary = CreateAppointmentResponse.PatientSummary.builder()
-                    .patientId(patient.getPatientId())
-                    .patientCode(patient.getPatientCode())
-                    .fullName(patient.getFirstName() + " " + patient.getLastName())
-                    .phone(patient.getPhone())
-                    .email(patient.getEmail())
-                    .dateOfBirth(patient.getDateOfBirth())
-                    .age(age)
-                    .gender(patient.getGender() != null ? patient.getGender().name() : null)
-                    .address(patient.getAddress())
-                    .medicalHistory(patient.getMedicalHistory())
-                    .allergies(patient.getAllergies())
-                    .emergencyContactName(patient.getEmergencyContactName())
-                    .emergencyContactPhone(patient.getEmergencyContactPhone())
-                    .guardianName(patient.getGuardianName())
-                    .guardianPhone(patient.getGuardianPhone())
-                    .guardianRelationship(patient.getGuardianRelationship())
-                    .guardianCitizenId(patient.getGuardianCitizenId())
-                    .isActive(patient.getIsActive())
-                    .consecutiveNoShows(patient.getConsecutiveNoShows())
-                    .isBookingBlocked(patient.getIsBookingBlocked())
-                    .bookingBlockReason(patient.getBookingBlockReason() != null 
-                            ? patient.getBookingBlockReason().name() 
-                            : null)
-                    .build();
-        }
-
-        // Build doctor summary
-        CreateAppointmentResponse.DoctorSummary doctorSummary = null;
-        var employee = employeeMap.get(appointment.getEmployeeId());
-        if (employee != null) {
-            doctorSummary = CreateAppointmentResponse.DoctorSummary.builder()
-                    .employeeCode(employee.getEmployeeCode())
-                    .fullName(employee.getFirstName() + " " + employee.getLastName())
-                    .build();
-        }
-
-        // Build room summary
-        CreateAppointmentResponse.RoomSummary roomSummary = null;
-        var room = roomMap.get(appointment.getRoomId());
-        if (room != null) {
-            roomSummary = CreateAppointmentResponse.RoomSummary.builder()
-                    .roomCode(room.getRoomCode())
-                    .roomName(room.getRoomName())
-                    .build();
-        }
-
-        // Get services and participants from cache
-        List<CreateAppointmentResponse.ServiceSummary> services = servicesMap
-                .getOrDefault(appointment.getAppointmentId(), new ArrayList<>());
-        List<CreateAppointmentResponse.ParticipantSummary> participants = participantsMap
-                .getOrDefault(appointment.getAppointmentId(), new ArrayList<>());
+            AppointmentBatchLoader.LoadedRelations relations,
+            LocalDateTime now) {
 
         // Compute dynamic fields
-        LocalDateTime now = LocalDateTime.now();
-        String computedStatus = calculateComputedStatus(appointment, now);
-        Long minutesLate = calculateMinutesLate(appointment, now);
-
-        return AppointmentSummaryDTO.builder()
-                .appointmentCode(appointment.getAppointmentCode())
-                .status(appointment.getStatus().name())
-                .computedStatus(computedStatus)
-                .minutesLate(minutesLate)
-                .appointmentStartTime(appointment.getAppointmentStartTime())
-                .appointmentEndTime(appointment.getAppointmentEndTime())
-                .expectedDurationMinutes(appointment.getExpectedDurationMinutes())
-                .patient(patientSummary)
-                .doctor(doctorSummary)
-                .room(roomSummary)
-                .services(services)
-                .participants(participants)
-                .notes(appointment.getNotes())
-                .hasFeedback(feedbackRepository.existsByAppointmentCode(appointment.getAppointmentCode()))
-                .build();
-    }
-
-    /**
-     * Fallback method for mapping single appointment (used for empty pages)
-     */
-    private AppointmentSummaryDTO mapToSummaryDTO(Appointment appointment) {
-        // Fetch related entities
-        // NOTE: This is N+1 query problem - need to optimize with batch loading
-
-        CreateAppointmentResponse.PatientSummary patientSummary = null;
-        try {
-            var patient = patientRepository.findById(appointment.getPatientId()).orElse(null);
-            if (patient != null) {
-                // Calculate age
-                Integer age = null;
-                if (patient.getDateOfBirth() != null) {
-                    age = java.time.Period.between(patient.getDateOfBirth(), java.time.LocalDate.now()).getYears();
-                }
-
-                patientSummary = CreateAppointmentResponse.PatientSummary.builder()
-                        .patientId(patient.getPatientId())
-                        .patientCode(patient.getPatientCode())
-                        .fullName(patient.getFirstName() + " " + patient.getLastName())
-                        .phone(patient.getPhone())
-                        .email(patient.getEmail())
-                        .dateOfBirth(patient.getDateOfBirth())
-                        .age(age)
-                        .gender(patient.getGender() != null ? patient.getGender().name() : null)
-                        .address(patient.getAddress())
-                        .medicalHistory(patient.getMedicalHistory())
-                        .allergies(patient.getAllergies())
-                        .emergencyContactName(patient.getEmergencyContactName())
-                        .emergencyContactPhone(patient.getEmergencyContactPhone())
-                        .guardianName(patient.getGuardianName())
-                        .guardianPhone(patient.getGuardianPhone())
-                        .guardianRelationship(patient.getGuardianRelationship())
-                        .guardianCitizenId(patient.getGuardianCitizenId())
-                        .isActive(patient.getIsActive())
-                        .consecutiveNoShows(patient.getConsecutiveNoShows())
-                        .isBookingBlocked(patient.getIsBookingBlocked())
-                        .bookingBlockReason(patient.getBookingBlockReason() != null 
-                                ? patient.getBookingBlockReason().name() 
-                                : null)
-                        .build();
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load patient for appointmentId={}: {}",
-                    appointment.getAppointmentId(), e.getMessage());
-        }
-
-        CreateAppointmentResponse.DoctorSummary doctorSummary = null;
-        try {
-            var employee = employeeRepository.findById(appointment.getEmployeeId()).orElse(null);
-            if (employee != null) {
-                doctorSummary = CreateAppointmentResponse.DoctorSummary.builder()
-                        .employeeCode(employee.getEmployeeCode())
-                        .fullName(employee.getFirstName() + " " + employee.getLastName())
-                        .build();
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load employee for appointmentId={}: {}",
-                    appointment.getAppointmentId(), e.getMessage());
-        }
-
-        // Load room
-        CreateAppointmentResponse.RoomSummary roomSummary = null;
-        try {
-            var room = roomRepository.findById(appointment.getRoomId()).orElse(null);
-            if (room != null) {
-                roomSummary = CreateAppointmentResponse.RoomSummary.builder()
-                        .roomCode(room.getRoomCode())
-                        .roomName(room.getRoomName())
-                        .build();
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load room for appointmentId={}: {}",
-                    appointment.getAppointmentId(), e.getMessage());
-        }
-
-        // Load services
-        List<CreateAppointmentResponse.ServiceSummary> services = new ArrayList<>();
-        try {
-            List<Object[]> serviceData = appointmentRepository
-                    .findServicesByAppointmentId(appointment.getAppointmentId());
-            for (Object[] row : serviceData) {
-                String serviceCode = (String) row[0];
-                String serviceName = (String) row[1];
-                services.add(CreateAppointmentResponse.ServiceSummary.builder()
-                        .serviceCode(serviceCode)
-                        .serviceName(serviceName)
-                        .build());
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load services for appointmentId={}: {}",
-                    appointment.getAppointmentId(), e.getMessage());
-        }
-
-        // Load participants
-        List<CreateAppointmentResponse.ParticipantSummary> participants = new ArrayList<>();
-        try {
-            List<AppointmentParticipant> appointmentParticipants = appointmentParticipantRepository
-                    .findByIdAppointmentId(appointment.getAppointmentId());
-            for (AppointmentParticipant ap : appointmentParticipants) {
-                var participantEmployee = employeeRepository.findById(ap.getId().getEmployeeId()).orElse(null);
-                if (participantEmployee != null) {
-                    participants.add(CreateAppointmentResponse.ParticipantSummary.builder()
-                            .employeeCode(participantEmployee.getEmployeeCode())
-                            .fullName(participantEmployee.getFirstName() + " " + participantEmployee.getLastName())
-                            .role(ap.getRole())
-                            .build());
-                }
-            }
-        } catch (Exception e) {
-            log.warn("Failed to load participants for appointmentId={}: {}",
-                    appointment.getAppointmentId(), e.getMessage());
-        }
-
-        // Compute dynamic fields based on current time
-        LocalDateTime now = LocalDateTime.now();
         String computedStatus = calculateComputedStatus(appointment, now);
         Long minutesLate = calculateMinutesLate(appointment, now);
 
@@ -666,13 +480,13 @@ public class AppointmentListService {
                 .appointmentStartTime(appointment.getAppointmentStartTime())
                 .appointmentEndTime(appointment.getAppointmentEndTime())
                 .expectedDurationMinutes(appointment.getExpectedDurationMinutes())
-                .patient(patientSummary)
-                .doctor(doctorSummary)
-                .room(roomSummary)
-                .services(services)
-                .participants(participants)
+                .patient(relations.patientSummary(appointment))
+                .doctor(relations.doctorSummary(appointment))
+                .room(relations.roomSummary(appointment))
+                .services(relations.services(appointment))
+                .participants(relations.participants(appointment))
                 .notes(appointment.getNotes())
-                .hasFeedback(feedbackRepository.existsByAppointmentCode(appointment.getAppointmentCode()))
+                .hasFeedback(relations.hasFeedback(appointment))
                 .build();
     }
 
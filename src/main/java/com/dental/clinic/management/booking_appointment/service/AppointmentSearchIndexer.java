@@ -0,0 +1,143 @@
+package com.dental.clinic.management.booking_appointment.service;
+
+import com.dental.clinic.management.booking_appointment.repository.AppointmentSearchDocumentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Maintains appointment_search_documents (P3.3 searchCode).
+ *
+ * Each refresh is one set-based UPSERT recomputing the folded text of the
+ * affected appointments from their patient, doctor, room, participants and
+ * services; it runs inside the caller's transaction so the document commits
+ * (or rolls back) together with the change.
+ *
+ * Refresh triggers:
+ * - appointment created (single, batch, reschedule target)
+ * - patient / employee / room / service renamed
+ * - startup: appointments without a document (seed data, rows created before
+ * this table existed)
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AppointmentSearchIndexer {
+
+    private static final String UPSERT_SQL = "INSERT INTO appointment_search_documents "
+            + "(appointment_id, search_text, updated_at) "
+            + "SELECT a.appointment_id, " + fold("CONCAT_WS(' | ', "
+                    + "a.appointment_code, "
+                    + "p.patient_code, CONCAT_WS(' ', p.first_name, p.last_name), "
+                    + "e.employee_code, CONCAT_WS(' ', e.first_name, e.last_name), "
+                    + "r.room_code, r.room_name, "
+                    + "(SELECT STRING_AGG(CONCAT_WS(' ', pe.employee_code, pe.first_name, pe.last_name), ' | ') "
+                    + "   FROM appointment_participants ap JOIN employees pe ON ap.employee_id = pe.employee_id "
+                    + "   WHERE ap.appointment_id = a.appointment_id), "
+                    + "(SELECT STRING_AGG(CONCAT_WS(' ', s.service_code, s.service_name), ' | ') "
+                    + "   FROM appointment_services asvc JOIN services s ON asvc.service_id = s.service_id "
+                    + "   WHERE asvc.appointment_id = a.appointment_id))")
+            + ", NOW() "
+            + "FROM appointments a "
+            + "LEFT JOIN patients p ON a.patient_id = p.patient_id "
+            + "LEFT JOIN employees e ON a.employee_id = e.employee_id "
+            + "LEFT JOIN rooms r ON a.room_id = r.room_id "
+            + "WHERE %s "
+            + "ON CONFLICT (appointment_id) DO UPDATE "
+            + "SET search_text = EXCLUDED.search_text, updated_at = EXCLUDED.updated_at";
+
+    private static final String TRIGRAM_INDEX_SQL = "CREATE INDEX IF NOT EXISTS idx_appointment_search_documents_trgm "
+            + "ON appointment_search_documents USING gin (search_text gin_trgm_ops)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Startup: create the trigram index and index appointments that have no
+     * document yet. Failures are logged only - search still works, just without
+     * the index.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute(TRIGRAM_INDEX_SQL);
+        } catch (Exception e) {
+            log.warn("Could not create trigram index on appointment_search_documents: {}", e.getMessage());
+        }
+
+        try {
+            int indexed = upsert("NOT EXISTS (SELECT 1 FROM appointment_search_documents d "
+                    + "WHERE d.appointment_id = a.appointment_id)");
+            log.info("Appointment search documents initialized: {} appointments indexed", indexed);
+        } catch (Exception e) {
+            log.error("Failed to initialize appointment search documents", e);
+        }
+    }
+
+    /**
+     * Recompute documents of the given appointments
+     */
+    public void refreshAppointments(Collection<Integer> appointmentIds) {
+        if (appointmentIds == null || appointmentIds.isEmpty()) {
+            return;
+        }
+        String placeholders = String.join(", ", Collections.nCopies(appointmentIds.size(), "?"));
+        upsert("a.appointment_id IN (" + placeholders + ")", appointmentIds.toArray());
+    }
+
+    /**
+     * Patient renamed / code changed
+     */
+    public void refreshForPatient(Integer patientId) {
+        upsert("a.patient_id = ?", patientId);
+    }
+
+    /**
+     * Employee renamed: appointments where they are primary doctor or participant
+     */
+    public void refreshForEmployee(Integer employeeId) {
+        upsert("(a.employee_id = ? OR EXISTS (SELECT 1 FROM appointment_participants x "
+                + "WHERE x.appointment_id = a.appointment_id AND x.employee_id = ?))", employeeId, employeeId);
+    }
+
+    /**
+     * Room renamed
+     */
+    public void refreshForRoom(String roomId) {
+        upsert("a.room_id = ?", roomId);
+    }
+
+    /**
+     * Service renamed
+     */
+    public void refreshForService(Integer serviceId) {
+        upsert("EXISTS (SELECT 1 FROM appointment_services x "
+                + "WHERE x.appointment_id = a.appointment_id AND x.service_id = ?)", serviceId);
+    }
+
+    private int upsert(String condition, Object... args) {
+        // Pending JPA inserts/updates (services, participants, renamed names) must be visible to the SQL
+        if (entityManager.isJoinedToTransaction()) {
+            entityManager.flush();
+        }
+        int rows = jdbcTemplate.update(String.format(UPSERT_SQL, condition), args);
+        log.debug("Refreshed {} appointment search documents ({})", rows, condition);
+        return rows;
+    }
+
+    private static String fold(String expression) {
+        return "LOWER(TRANSLATE(" + expression + ", '" + AppointmentSearchDocumentRepository.FOLD_FROM + "', '"
+                + AppointmentSearchDocumentRepository.FOLD_TO + "'))";
+    }
+}
@@ -10,6 +10,7 @@ import com.dental.clinic.management.booking_appointment.repository.AppointmentAu
 import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
 import com.dental.clinic.management.booking_appointment.repository.PatientPlanItemRepository;
 import com.dental.clinic.management.clinical_records.service.ClinicalRecordService;
+import com.dental.clinic.management.dashboard.service.DashboardRollupService;
 import com.dental.clinic.management.employee.repository.EmployeeRepository;
 import com.dental.clinic.management.exception.ResourceNotFoundException;
 import com.dental.clinic.management.treatment_plans.domain.PatientPlanItem;
@@ -29,6 +30,7 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -57,12 +59,78 @@ public class AppointmentStatusService {
     private final AppointmentAuditLogRepository auditLogRepository;
     private final EmployeeRepository employeeRepository;
     private final JdbcTemplate jdbcTemplate;
+    private final DashboardRollupService rollupService;
     private final PatientPlanPhaseRepository phaseRepository;
     private final PatientPlanItemRepository itemRepository;
     private final EntityManager entityManager;
     private final PatientTreatmentPlanRepository planRepository;
     private final com.dental.clinic.management.patient.repository.PatientRepository patientRepository;
 
+    /**
+     * Rule #5: consecutive no-shows that block online booking
+     */
+    private static final int NO_SHOW_BLOCK_THRESHOLD = 3;
+
+    /**
+     * Bulk NO_SHOW (Rule #6): claim one chunk of late SCHEDULED appointments and
+     * flip them in a single statement. SKIP LOCKED lets a concurrent sweeper
+     * (other node) or a receptionist holding the row lock simply skip it.
+     * Notes use the same text as the per-appointment path.
+     */
+    private static final String BULK_NO_SHOW_SQL = "UPDATE appointments a SET status = 'NO_SHOW', "
+            + "notes = 'Hệ thống tự động đánh dấu KHÔNG ĐẾN: Bệnh nhân đến trễ hơn 30 phút (trễ ' "
+            + "  || FLOOR(EXTRACT(EPOCH FROM (CAST(? AS timestamp) - a.appointment_start_time)) / 60)::bigint "
+            + "  || ' phút). Thời gian lịch hẹn gốc: ' || TO_CHAR(a.appointment_start_time, 'DD/MM/YYYY HH24:MI') "
+            + "  || '. Thời gian hệ thống: ' || CAST(? AS text) || '.', "
+            + "updated_at = ? "
+            + "WHERE a.appointment_id IN (SELECT l.appointment_id FROM appointments l "
+            + "    WHERE l.status = 'SCHEDULED' AND l.appointment_start_time < ? "
+            + "    ORDER BY l.appointment_start_time, l.appointment_id LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "AND a.status = 'SCHEDULED' "
+            + "RETURNING a.appointment_id, a.appointment_code, a.patient_id, a.appointment_start_time";
+
+    private static final String BULK_NO_SHOW_AUDIT_SQL = "INSERT INTO appointment_audit_logs "
+            + "(appointment_id, action_type, old_status, new_status, reason_code, notes, action_timestamp, created_at) "
+            + "SELECT a.appointment_id, CAST('STATUS_CHANGE' AS appointment_action_type), "
+            + "CAST('SCHEDULED' AS appointment_status_enum), CAST('NO_SHOW' AS appointment_status_enum), "
+            + "CAST('OTHER' AS appointment_reason_code), a.notes, ?, ? "
+            + "FROM appointments a WHERE a.appointment_id IN (%s)";
+
+    private static final String BULK_NO_SHOW_PLAN_ITEMS_SQL = "UPDATE patient_plan_items SET status = 'READY_FOR_BOOKING' "
+            + "WHERE item_id IN (SELECT api.item_id FROM appointment_plan_items api WHERE api.appointment_id IN (%s))";
+
+    /**
+     * Rule #5 for a whole chunk: one row per patient, adding all missed
+     * appointments at once (blocked by SYSTEM, notes name the latest one).
+     *
+     * The patients are locked (FOR UPDATE) while v decides who gets blocked, so
+     * the decision sees their latest state and RETURNING reports exactly the
+     * patients blocked by this chunk - not those blocked by an earlier chunk of
+     * the same sweep, which share its blocked_at.
+     */
+    private static final String BULK_NO_SHOW_PATIENT_SQL = "UPDATE patients p SET "
+            + "booking_block_reason = CASE WHEN v.newly_blocked THEN 'EXCESSIVE_NO_SHOWS' "
+            + "    ELSE p.booking_block_reason END, "
+            + "booking_block_notes = CASE WHEN v.newly_blocked THEN 'Bị chặn do bỏ hẹn ' "
+            + "    || (COALESCE(p.consecutive_no_shows, 0) + v.missed) || ' lần liên tiếp. Lần cuối: ' || v.last_code "
+            + "    ELSE p.booking_block_notes END, "
+            + "blocked_at = CASE WHEN v.newly_blocked THEN v.changed_at ELSE p.blocked_at END, "
+            + "blocked_by = CASE WHEN v.newly_blocked THEN 'SYSTEM' ELSE p.blocked_by END, "
+            + "is_booking_blocked = p.is_booking_blocked OR v.newly_blocked, "
+            + "consecutive_no_shows = COALESCE(p.consecutive_no_shows, 0) + v.missed, "
+            + "updated_at = v.changed_at "
+            + "FROM (SELECT o.patient_id, x.missed, x.last_code, CAST(? AS timestamp) AS changed_at, "
+            + "      (NOT o.is_booking_blocked AND COALESCE(o.consecutive_no_shows, 0) + x.missed >= "
+            + NO_SHOW_BLOCK_THRESHOLD + ") AS newly_blocked "
+            + "      FROM patients o JOIN (VALUES %s) x (patient_id, missed, last_code) "
+            + "      ON o.patient_id = x.patient_id ORDER BY o.patient_id FOR UPDATE OF o) v "
+            + "WHERE p.patient_id = v.patient_id "
+            + "RETURNING p.patient_code, v.newly_blocked";
+
+    private static final String BULK_NO_SHOW_PATIENT_ROW = "(CAST(? AS integer), CAST(? AS integer), CAST(? AS varchar))";
+
+    private static final DateTimeFormatter VIETNAMESE_DATE_TIME = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
     /**
      * Valid state transitions map.
      * Key: Current status
@@ -163,6 +231,83 @@ public class AppointmentStatusService {
                 appointmentCode, currentStatus, finalStatus);
     }
 
+    /**
+     * Rule #6 bulk path: mark up to {@code limit} SCHEDULED appointments that
+     * started before {@code cutoff} as NO_SHOW, in one transaction.
+     *
+     * Same side effects as updateStatus(NO_SHOW) for SYSTEM, but set-based:
+     * 1. One UPDATE ... RETURNING for the status change
+     * 2. One INSERT ... SELECT for the audit logs
+     * 3. One UPDATE for all linked plan items (-> READY_FOR_BOOKING)
+     * 4. One UPDATE ... RETURNING for the patient counters (Rule #5)
+     *
+     * @return what was changed; marked < limit means nothing is left to sweep
+     */
+    @Transactional
+    public NoShowSweepResult markLateAppointmentsAsNoShow(LocalDateTime cutoff, LocalDateTime now, int limit) {
+        Timestamp nowTs = Timestamp.valueOf(now);
+
+        record Marked(Integer appointmentId, String appointmentCode, Integer patientId, LocalDateTime startTime) {
+        }
+        List<Marked> marked = jdbcTemplate.query(BULK_NO_SHOW_SQL,
+                (rs, rowNum) -> new Marked(
+                        rs.getInt("appointment_id"),
+                        rs.getString("appointment_code"),
+                        rs.getInt("patient_id"),
+                        rs.getTimestamp("appointment_start_time").toLocalDateTime()),
+                nowTs, now.format(VIETNAMESE_DATE_TIME), nowTs, Timestamp.valueOf(cutoff), limit);
+
+        if (marked.isEmpty()) {
+            return new NoShowSweepResult(0, 0, List.of());
+        }
+
+        Object[] appointmentIds = marked.stream().map(Marked::appointmentId).toArray();
+        rollupService.markDirty(DashboardRollupService.Fact.APPOINTMENT,
+                marked.stream().map(m -> m.startTime().toLocalDate()).distinct().toList());
+        String placeholders = String.join(",", Collections.nCopies(appointmentIds.length, "?"));
+
+        Object[] auditArgs = new Object[appointmentIds.length + 2];
+        auditArgs[0] = nowTs;
+        auditArgs[1] = nowTs;
+        System.arraycopy(appointmentIds, 0, auditArgs, 2, appointmentIds.length);
+        jdbcTemplate.update(String.format(BULK_NO_SHOW_AUDIT_SQL, placeholders), auditArgs);
+
+        int planItems = jdbcTemplate.update(String.format(BULK_NO_SHOW_PLAN_ITEMS_SQL, placeholders), appointmentIds);
+
+        // Rule #5: group by patient - count + latest missed appointment code
+        Map<Integer, List<Marked>> byPatient = new LinkedHashMap<>();
+        for (Marked m : marked) {
+            byPatient.computeIfAbsent(m.patientId(), id -> new ArrayList<>()).add(m);
+        }
+        List<Object> patientArgs = new ArrayList<>();
+        patientArgs.add(nowTs);
+        byPatient.forEach((patientId, missed) -> {
+            patientArgs.add(patientId);
+            patientArgs.add(missed.size());
+            patientArgs.add(missed.stream().max(Comparator.comparing(Marked::startTime)).get().appointmentCode());
+        });
+        List<String> blockedPatientCodes = jdbcTemplate.query(
+                String.format(BULK_NO_SHOW_PATIENT_SQL,
+                        String.join(",", Collections.nCopies(byPatient.size(), BULK_NO_SHOW_PATIENT_ROW))),
+                (rs, rowNum) -> rs.getBoolean("newly_blocked") ? rs.getString("patient_code") : null,
+                patientArgs.toArray())
+                .stream().filter(Objects::nonNull).toList();
+        if (!blockedPatientCodes.isEmpty()) {
+            log.warn("⚠️ Patients AUTO-BLOCKED after {} consecutive no-shows: {}",
+                    NO_SHOW_BLOCK_THRESHOLD, blockedPatientCodes);
+        }
+
+        log.debug("Bulk NO_SHOW: {} appointments, {} plan items, {} patients",
+                marked.size(), planItems, byPatient.size());
+        return new NoShowSweepResult(marked.size(), byPatient.size(), blockedPatientCodes);
+    }
+
+    /**
+     * Outcome of one bulk NO_SHOW chunk
+     */
+    public record NoShowSweepResult(int marked, int patients, List<String> blockedPatientCodes) {
+    }
+
     /**
      * Validate state machine transition.
      *
@@ -745,7 +890,7 @@ public class AppointmentStatusService {
                     patient.getPatientCode(), currentNoShows, currentNoShows + 1);
 
             // Check if threshold reached (3 consecutive no-shows)
-            if (patient.getConsecutiveNoShows() >= 3 && !Boolean.TRUE.equals(patient.getIsBookingBlocked())) {
+            if (patient.getConsecutiveNoShows() >= NO_SHOW_BLOCK_THRESHOLD && !Boolean.TRUE.equals(patient.getIsBookingBlocked())) {
                 patient.setIsBookingBlocked(true);
                 patient.setBookingBlockReason(
                         com.dental.clinic.management.patient.enums.BookingBlockReason.EXCESSIVE_NO_SHOWS);
@@ -100,12 +100,24 @@ public class AvailabilityService {
 
                 log.debug("Found {} qualified doctors", qualifiedDoctors.size());
 
-                // 5. Filter doctors who have shifts on the selected date
+                // 5. Filter doctors who have shifts on the selected date (one query for all doctors)
                 List<AvailableDoctorDTO> result = new ArrayList<>();
+                if (qualifiedDoctors.isEmpty()) {
+                        return result;
+                }
+
+                Map<Integer, List<EmployeeShift>> shiftsByDoctor = employeeShiftRepository
+                                .findByEmployeesAndDateRange(
+                                                qualifiedDoctors.stream()
+                                                                .map(Employee::getEmployeeId)
+                                                                .collect(Collectors.toSet()),
+                                                date, date)
+                                .stream()
+                                .collect(Collectors.groupingBy(shift -> shift.getEmployee().getEmployeeId()));
 
                 for (Employee doctor : qualifiedDoctors) {
-                        List<EmployeeShift> shifts = employeeShiftRepository.findByEmployeeAndDate(
-                                        doctor.getEmployeeId(), date);
+                        List<EmployeeShift> shifts = shiftsByDoctor.getOrDefault(
+                                        doctor.getEmployeeId(), Collections.emptyList());
 
                         if (!shifts.isEmpty()) {
                                 // Format shift times: "08:00-12:00"
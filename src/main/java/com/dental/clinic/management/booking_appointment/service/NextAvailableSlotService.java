@@ -0,0 +1,419 @@
+package com.dental.clinic.management.booking_appointment.service;
+
+import com.dental.clinic.management.booking_appointment.domain.Appointment;
+import com.dental.clinic.management.booking_appointment.domain.DentalService;
+import com.dental.clinic.management.booking_appointment.domain.Room;
+import com.dental.clinic.management.booking_appointment.dto.request.NextAvailableSlotsRequest;
+import com.dental.clinic.management.booking_appointment.dto.response.NextAvailableSlotsResponse;
+import com.dental.clinic.management.booking_appointment.dto.response.NextAvailableSlotsResponse.SlotCandidate;
+import com.dental.clinic.management.booking_appointment.enums.AppointmentStatus;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentParticipantRepository;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
+import com.dental.clinic.management.booking_appointment.repository.BookingDentalServiceRepository;
+import com.dental.clinic.management.booking_appointment.repository.RoomRepository;
+import com.dental.clinic.management.booking_appointment.repository.RoomServiceRepository;
+import com.dental.clinic.management.booking_appointment.service.hold.SlotHold;
+import com.dental.clinic.management.employee.domain.Employee;
+import com.dental.clinic.management.employee.repository.EmployeeRepository;
+import com.dental.clinic.management.exception.validation.BadRequestAlertException;
+import com.dental.clinic.management.specialization.domain.Specialization;
+import com.dental.clinic.management.working_schedule.domain.EmployeeShift;
+import com.dental.clinic.management.working_schedule.enums.ShiftStatus;
+import com.dental.clinic.management.working_schedule.repository.EmployeeShiftRepository;
+import com.dental.clinic.management.working_schedule.repository.HolidayDateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * API 4.4: Clinic-wide "next available slots" search
+ *
+ * Answers "when is the earliest anyone can do these services" over a horizon
+ * of up to 30 days, instead of the receptionist clicking date by date.
+ *
+ * Query budget is constant regardless of horizon / doctor count:
+ * 1. services, 2. medical staff (+specializations), 3. compatible rooms (2),
+ * 4. holidays, 5. shifts, 6. busy appointments, 7. busy participant rows
+ *
+ * All rows are copied into plain values first, then every day is evaluated
+ * in parallel on its own ResourceOccupancyIndex (no entity access off the
+ * request thread).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class NextAvailableSlotService {
+
+        private final EmployeeRepository employeeRepository;
+        private final BookingDentalServiceRepository dentalServiceRepository;
+        private final RoomRepository roomRepository;
+        private final RoomServiceRepository roomServiceRepository;
+        private final EmployeeShiftRepository employeeShiftRepository;
+        private final HolidayDateRepository holidayDateRepository;
+        private final AppointmentRepository appointmentRepository;
+        private final AppointmentParticipantRepository appointmentParticipantRepository;
+        private final SlotHoldService slotHoldService;
+
+        private static final String ENTITY_NAME = "availability";
+        private static final int SLOT_INTERVAL_MINUTES = 15;
+        private static final int DEFAULT_HORIZON_DAYS = 14;
+        private static final int DEFAULT_LIMIT = 10;
+        private static final List<AppointmentStatus> BUSY_STATUSES = Arrays.asList(
+                        AppointmentStatus.SCHEDULED,
+                        AppointmentStatus.CHECKED_IN,
+                        AppointmentStatus.IN_PROGRESS);
+
+        @Transactional(readOnly = true)
+        public NextAvailableSlotsResponse findNextAvailableSlots(NextAvailableSlotsRequest request) {
+                LocalDate today = LocalDate.now();
+                LocalDate fromDate = request.getFromDate() != null ? request.getFromDate() : today;
+                if (fromDate.isBefore(today)) {
+                        throw new BadRequestAlertException(
+                                        "Cannot search for past dates: " + fromDate,
+                                        ENTITY_NAME,
+                                        "DATE_IN_PAST");
+                }
+                int horizonDays = request.getHorizonDays() != null ? request.getHorizonDays() : DEFAULT_HORIZON_DAYS;
+                int limit = request.getLimit() != null ? request.getLimit() : DEFAULT_LIMIT;
+                LocalDate toDate = fromDate.plusDays(horizonDays - 1L);
+
+                log.info("Finding next {} available slots for services={}, doctors={}, from {} to {}",
+                                limit, request.getServiceCodes(), request.getEmployeeCodes(), fromDate, toDate);
+
+                // STEP 1: Services + total duration
+                List<DentalService> services = validateServices(request.getServiceCodes());
+                int totalDuration = services.stream()
+                                .mapToInt(s -> s.getDefaultDurationMinutes() + s.getDefaultBufferMinutes())
+                                .sum();
+
+                // STEP 2: Doctors + participants (single fetch of medical staff)
+                Map<String, Employee> staffByCode = employeeRepository.findActiveEmployeesWithSpecializations()
+                                .stream()
+                                .collect(Collectors.toMap(Employee::getEmployeeCode, e -> e, (a, b) -> a,
+                                                LinkedHashMap::new));
+
+                List<Employee> participants = resolveStaff(request.getParticipantCodes(), staffByCode,
+                                "PARTICIPANT_NOT_FOUND");
+                Set<Integer> participantIds = participants.stream()
+                                .map(Employee::getEmployeeId)
+                                .collect(Collectors.toSet());
+
+                List<Employee> doctors = findQualifiedDoctors(request.getEmployeeCodes(), staffByCode, services)
+                                .stream()
+                                .filter(d -> !participantIds.contains(d.getEmployeeId()))
+                                .collect(Collectors.toList());
+
+                NextAvailableSlotsResponse.NextAvailableSlotsResponseBuilder response = NextAvailableSlotsResponse
+                                .builder()
+                                .totalDurationNeeded(totalDuration)
+                                .fromDate(fromDate)
+                                .toDate(toDate);
+
+                if (doctors.isEmpty()) {
+                        return response.slots(Collections.emptyList())
+                                        .message("Không có bác sĩ nào đủ chuyên môn cho các dịch vụ này")
+                                        .build();
+                }
+
+                // STEP 3: Compatible rooms
+                List<Integer> serviceIds = services.stream()
+                                .map(DentalService::getServiceId)
+                                .collect(Collectors.toList());
+                List<String> roomIds = roomServiceRepository.findRoomsSupportingAllServices(serviceIds,
+                                serviceIds.size());
+                List<RoomRef> rooms = roomIds.isEmpty() ? Collections.emptyList()
+                                : roomRepository.findByRoomIdInAndIsActiveTrue(roomIds).stream()
+                                                .sorted(Comparator.comparing(Room::getRoomCode))
+                                                .map(r -> new RoomRef(r.getRoomId(), r.getRoomCode()))
+                                                .collect(Collectors.toList());
+
+                if (rooms.isEmpty()) {
+                        return response.slots(Collections.emptyList())
+                                        .message("Không có phòng nào hỗ trợ các dịch vụ này")
+                                        .build();
+                }
+
+                // STEP 4: Bulk load the whole horizon
+                SearchContext context = loadContext(fromDate, toDate, doctors, participants, rooms, totalDuration,
+                                limit);
+
+                // STEP 5: Evaluate each day in parallel, keep the N earliest overall
+                List<SlotCandidate> slots = context.days().parallelStream()
+                                .map(date -> evaluateDay(date, context))
+                                .flatMap(List::stream)
+                                .sorted(Comparator.comparing(SlotCandidate::getStartTime)
+                                                .thenComparing(SlotCandidate::getEmployeeCode))
+                                .limit(limit)
+                                .collect(Collectors.toList());
+
+                log.info("Found {} slots across {} searchable days", slots.size(), context.days().size());
+                return response.slots(slots).build();
+        }
+
+        /**
+         * Validate all services exist and are active
+         */
+        private List<DentalService> validateServices(List<String> serviceCodes) {
+                List<DentalService> services = dentalServiceRepository.findByServiceCodeIn(serviceCodes);
+                if (services.size() != new HashSet<>(serviceCodes).size()) {
+                        throw new BadRequestAlertException("Một hoặc nhiều dịch vụ không tìm thấy", ENTITY_NAME,
+                                        "SERVICES_NOT_FOUND");
+                }
+
+                List<String> inactive = services.stream()
+                                .filter(s -> !Boolean.TRUE.equals(s.getIsActive()))
+                                .map(DentalService::getServiceCode)
+                                .collect(Collectors.toList());
+                if (!inactive.isEmpty()) {
+                        throw new BadRequestAlertException(
+                                        "Services are inactive: " + String.join(", ", inactive),
+                                        ENTITY_NAME,
+                                        "SERVICES_INACTIVE");
+                }
+                return services;
+        }
+
+        private List<Employee> resolveStaff(List<String> codes, Map<String, Employee> staffByCode, String errorKey) {
+                if (codes == null || codes.isEmpty()) {
+                        return Collections.emptyList();
+                }
+                List<String> missing = codes.stream()
+                                .filter(code -> !staffByCode.containsKey(code))
+                                .collect(Collectors.toList());
+                if (!missing.isEmpty()) {
+                        throw new BadRequestAlertException(
+                                        "Medical staff not found or inactive: " + String.join(", ", missing),
+                                        ENTITY_NAME,
+                                        errorKey);
+                }
+                return codes.stream().distinct().map(staffByCode::get).collect(Collectors.toList());
+        }
+
+        /**
+         * Doctors who have ALL required specializations (same rule as API 4.1)
+         */
+        private List<Employee> findQualifiedDoctors(List<String> employeeCodes, Map<String, Employee> staffByCode,
+                        List<DentalService> services) {
+                Set<Integer> requiredSpecIds = services.stream()
+                                .filter(s -> s.getSpecialization() != null)
+                                .map(s -> s.getSpecialization().getSpecializationId())
+                                .collect(Collectors.toSet());
+
+                Collection<Employee> candidates = (employeeCodes == null || employeeCodes.isEmpty())
+                                ? staffByCode.values()
+                                : resolveStaff(employeeCodes, staffByCode, "EMPLOYEE_NOT_FOUND");
+
+                return candidates.stream()
+                                .filter(doctor -> {
+                                        if (requiredSpecIds.isEmpty()) {
+                                                return true;
+                                        }
+                                        if (doctor.getSpecializations() == null) {
+                                                return false;
+                                        }
+                                        Set<Integer> doctorSpecIds = doctor.getSpecializations().stream()
+                                                        .map(Specialization::getSpecializationId)
+                                                        .collect(Collectors.toSet());
+                                        return doctorSpecIds.containsAll(requiredSpecIds);
+                                })
+                                .collect(Collectors.toList());
+        }
+
+        /**
+         * Load shifts, holidays and busy intervals for the whole horizon in a few
+         * set-based queries and copy them into plain, thread-safe values.
+         */
+        private SearchContext loadContext(LocalDate fromDate, LocalDate toDate, List<Employee> doctors,
+                        List<Employee> participants, List<RoomRef> rooms, int totalDuration, int limit) {
+
+                Set<Integer> employeeIds = new HashSet<>();
+                doctors.forEach(d -> employeeIds.add(d.getEmployeeId()));
+                participants.forEach(p -> employeeIds.add(p.getEmployeeId()));
+                Set<String> roomIds = rooms.stream().map(RoomRef::roomId).collect(Collectors.toSet());
+
+                Set<LocalDate> holidays = new HashSet<>(
+                                holidayDateRepository.findHolidayDatesByRange(fromDate, toDate));
+
+                // Shifts: date -> employeeId -> [start, end] windows
+                Map<LocalDate, Map<Integer, List<LocalDateTime[]>>> shifts = new HashMap<>();
+                for (EmployeeShift shift : employeeShiftRepository.findByEmployeesAndDateRange(employeeIds, fromDate,
+                                toDate)) {
+                        if (shift.getStatus() == ShiftStatus.CANCELLED || shift.getStatus() == ShiftStatus.ON_LEAVE) {
+                                continue;
+                        }
+                        shifts.computeIfAbsent(shift.getWorkDate(), d -> new HashMap<>())
+                                        .computeIfAbsent(shift.getEmployee().getEmployeeId(), id -> new ArrayList<>())
+                                        .add(new LocalDateTime[] {
+                                                        LocalDateTime.of(shift.getWorkDate(),
+                                                                        shift.getWorkShift().getStartTime()),
+                                                        LocalDateTime.of(shift.getWorkDate(),
+                                                                        shift.getWorkShift().getEndTime()) });
+                }
+
+                // Busy intervals: date -> list
+                LocalDateTime windowStart = fromDate.atStartOfDay();
+                LocalDateTime windowEnd = toDate.plusDays(1).atStartOfDay();
+                Map<LocalDate, List<BusyInterval>> busy = new HashMap<>();
+
+                for (Appointment a : appointmentRepository.findBusyForResourcesInRange(employeeIds, roomIds,
+                                windowStart, windowEnd, BUSY_STATUSES)) {
+                        busy.computeIfAbsent(a.getAppointmentStartTime().toLocalDate(), d -> new ArrayList<>())
+                                        .add(new BusyInterval(
+                                                        employeeIds.contains(a.getEmployeeId()) ? a.getEmployeeId() : null,
+                                                        roomIds.contains(a.getRoomId()) ? a.getRoomId() : null,
+                                                        a.getAppointmentStartTime(),
+                                                        a.getAppointmentEndTime()));
+                }
+                for (Object[] row : appointmentParticipantRepository.findBusyIntervalsByEmployeesInRange(employeeIds,
+                                windowStart, windowEnd)) {
+                        LocalDateTime start = (LocalDateTime) row[1];
+                        busy.computeIfAbsent(start.toLocalDate(), d -> new ArrayList<>())
+                                        .add(new BusyInterval((Integer) row[0], null, start, (LocalDateTime) row[2]));
+                }
+
+                // Slots other users are holding count as busy
+                for (SlotHold hold : slotHoldService.findHoldsOfOtherUsers(windowStart, windowEnd)) {
+                        List<BusyInterval> dayBusy = busy.computeIfAbsent(hold.getStartTime().toLocalDate(),
+                                        d -> new ArrayList<>());
+                        for (Integer employeeId : hold.employeeIds()) {
+                                if (employeeIds.contains(employeeId)) {
+                                        dayBusy.add(new BusyInterval(employeeId, null, hold.getStartTime(),
+                                                        hold.getEndTime()));
+                                }
+                        }
+                        if (roomIds.contains(hold.getRoomId())) {
+                                dayBusy.add(new BusyInterval(null, hold.getRoomId(), hold.getStartTime(),
+                                                hold.getEndTime()));
+                        }
+                }
+
+                List<LocalDate> days = fromDate.datesUntil(toDate.plusDays(1))
+                                .filter(d -> !holidays.contains(d))
+                                .filter(shifts::containsKey)
+                                .collect(Collectors.toList());
+
+                List<DoctorRef> doctorRefs = doctors.stream()
+                                .sorted(Comparator.comparing(Employee::getEmployeeCode))
+                                .map(d -> new DoctorRef(d.getEmployeeId(), d.getEmployeeCode(), d.getFullName()))
+                                .collect(Collectors.toList());
+                List<Integer> participantIdList = participants.stream()
+                                .map(Employee::getEmployeeId)
+                                .collect(Collectors.toList());
+
+                return new SearchContext(days, doctorRefs, participantIdList, rooms, shifts, busy, totalDuration,
+                                limit, LocalDateTime.now());
+        }
+
+        /**
+         * Evaluate one day: build its occupancy index and walk each doctor's
+         * shifts in SLOT_INTERVAL_MINUTES steps. Returns at most `limit` slots
+         * per doctor since only the N earliest overall are kept.
+         */
+        private List<SlotCandidate> evaluateDay(LocalDate date, SearchContext context) {
+                ResourceOccupancyIndex index = new ResourceOccupancyIndex(date);
+                for (BusyInterval interval : context.busy().getOrDefault(date, Collections.emptyList())) {
+                        if (interval.employeeId() != null) {
+                                index.markEmployeeBusy(interval.employeeId(), interval.start(), interval.end());
+                        }
+                        if (interval.roomId() != null) {
+                                index.markRoomBusy(interval.roomId(), interval.start(), interval.end());
+                        }
+                }
+
+                Map<Integer, List<LocalDateTime[]>> dayShifts = context.shifts().getOrDefault(date,
+                                Collections.emptyMap());
+                List<SlotCandidate> result = new ArrayList<>();
+
+                for (DoctorRef doctor : context.doctors()) {
+                        List<LocalDateTime[]> doctorShifts = dayShifts.get(doctor.id());
+                        if (doctorShifts == null) {
+                                continue;
+                        }
+
+                        List<Integer> team = new ArrayList<>(context.participantIds());
+                        team.add(doctor.id());
+                        int found = 0;
+
+                        for (LocalDateTime[] shift : doctorShifts) {
+                                for (LocalDateTime[] run : index.findCommonFreeRuns(team, shift[0], shift[1])) {
+                                        LocalDateTime slotStart = run[0];
+                                        LocalDateTime slotEnd = slotStart.plusMinutes(context.totalDuration());
+
+                                        while (!slotEnd.isAfter(run[1]) && found < context.limit()) {
+                                                if (!slotStart.isBefore(context.notBefore())
+                                                                && participantsOnShift(dayShifts, context.participantIds(),
+                                                                                slotStart, slotEnd)) {
+                                                        final LocalDateTime start = slotStart;
+                                                        final LocalDateTime end = slotEnd;
+                                                        List<String> freeRooms = context.rooms().stream()
+                                                                        .filter(r -> index.isRoomFree(r.roomId(), start, end))
+                                                                        .map(RoomRef::roomCode)
+                                                                        .collect(Collectors.toList());
+
+                                                        if (!freeRooms.isEmpty()) {
+                                                                result.add(SlotCandidate.builder()
+                                                                                .startTime(start)
+                                                                                .endTime(end)
+                                                                                .employeeCode(doctor.code())
+                                                                                .employeeName(doctor.fullName())
+                                                                                .roomCode(freeRooms.get(0))
+                                                                                .availableCompatibleRoomCodes(freeRooms)
+                                                                                .build());
+                                                                found++;
+                                                        }
+                                                }
+                                                slotStart = slotStart.plusMinutes(SLOT_INTERVAL_MINUTES);
+                                                slotEnd = slotStart.plusMinutes(context.totalDuration());
+                                        }
+                                }
+                        }
+                }
+
+                return result;
+        }
+
+        /**
+         * Every participant must have a shift covering the whole slot
+         */
+        private boolean participantsOnShift(Map<Integer, List<LocalDateTime[]>> dayShifts,
+                        List<Integer> participantIds, LocalDateTime start, LocalDateTime end) {
+                for (Integer participantId : participantIds) {
+                        List<LocalDateTime[]> windows = dayShifts.get(participantId);
+                        if (windows == null || windows.stream()
+                                        .noneMatch(w -> !start.isBefore(w[0]) && !end.isAfter(w[1]))) {
+                                return false;
+                        }
+                }
+                return true;
+        }
+
+        private record DoctorRef(Integer id, String code, String fullName) {
+        }
+
+        private record RoomRef(String roomId, String roomCode) {
+        }
+
+        private record BusyInterval(Integer employeeId, String roomId, LocalDateTime start, LocalDateTime end) {
+        }
+
+        /**
+         * Immutable snapshot of everything needed to evaluate a day
+         */
+        private record SearchContext(
+                        List<LocalDate> days,
+                        List<DoctorRef> doctors,
+                        List<Integer> participantIds,
+                        List<RoomRef> rooms,
+                        Map<LocalDate, Map<Integer, List<LocalDateTime[]>>> shifts,
+                        Map<LocalDate, List<BusyInterval>> busy,
+                        int totalDuration,
+                        int limit,
+                        LocalDateTime notBefore) {
+        }
+}
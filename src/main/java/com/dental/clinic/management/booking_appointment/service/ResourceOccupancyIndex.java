@@ -0,0 +1,146 @@
+package com.dental.clinic.management.booking_appointment.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory occupancy index for ONE day
+ * Holds busy intervals of employees (doctor or participant) and rooms as
+ * bitmaps, one bit per minute of the day (1440 bits = 23 longs per resource).
+ *
+ * Built once per availability search from a constant number of queries,
+ * then slot splitting, room matching and participant subtraction are
+ * answered without touching the database.
+ *
+ * Interval semantics match the repository conflict queries:
+ * [start, end) - back-to-back appointments do NOT overlap.
+ *
+ * NOT thread-safe: build it, then only read from it.
+ */
+public class ResourceOccupancyIndex {
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private final LocalDate date;
+    private final LocalDateTime dayStart;
+    private final Map<Integer, BitSet> employeeBusy = new HashMap<>();
+    private final Map<String, BitSet> roomBusy = new HashMap<>();
+
+    public ResourceOccupancyIndex(LocalDate date) {
+        this.date = date;
+        this.dayStart = date.atStartOfDay();
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Window covered by this index (whole day), useful for range queries
+     */
+    public LocalDateTime getDayStart() {
+        return dayStart;
+    }
+
+    public LocalDateTime getDayEnd() {
+        return dayStart.plusDays(1);
+    }
+
+    // ==================== Build ====================
+
+    public void markEmployeeBusy(Integer employeeId, LocalDateTime start, LocalDateTime end) {
+        mark(employeeBusy.computeIfAbsent(employeeId, id -> new BitSet(MINUTES_PER_DAY)), start, end);
+    }
+
+    public void markRoomBusy(String roomId, LocalDateTime start, LocalDateTime end) {
+        mark(roomBusy.computeIfAbsent(roomId, id -> new BitSet(MINUTES_PER_DAY)), start, end);
+    }
+
+    private void mark(BitSet bits, LocalDateTime start, LocalDateTime end) {
+        int from = toTick(start, false);
+        int to = toTick(end, true);
+        if (from < to) {
+            bits.set(from, to);
+        }
+    }
+
+    // ==================== Query ====================
+
+    public boolean isEmployeeFree(Integer employeeId, LocalDateTime start, LocalDateTime end) {
+        return isFree(employeeBusy.get(employeeId), start, end);
+    }
+
+    public boolean isRoomFree(String roomId, LocalDateTime start, LocalDateTime end) {
+        return isFree(roomBusy.get(roomId), start, end);
+    }
+
+    /**
+     * Free runs inside [from, to) where ALL given employees are free at once
+     * (union of their busy bitmaps subtracted from the window).
+     *
+     * Replaces the interval-by-interval subtraction that used to run one
+     * query per employee.
+     */
+    public List<LocalDateTime[]> findCommonFreeRuns(Collection<Integer> employeeIds,
+            LocalDateTime from, LocalDateTime to) {
+        BitSet busy = new BitSet(MINUTES_PER_DAY);
+        for (Integer employeeId : employeeIds) {
+            BitSet bits = employeeBusy.get(employeeId);
+            if (bits != null) {
+                busy.or(bits);
+            }
+        }
+
+        int fromTick = toTick(from, false);
+        int toTick = toTick(to, true);
+        List<LocalDateTime[]> runs = new ArrayList<>();
+
+        int pos = fromTick;
+        while (pos < toTick) {
+            int runStart = busy.nextClearBit(pos);
+            if (runStart >= toTick) {
+                break;
+            }
+            int nextBusy = busy.nextSetBit(runStart);
+            int runEnd = (nextBusy == -1 || nextBusy > toTick) ? toTick : nextBusy;
+            runs.add(new LocalDateTime[] { fromTick(runStart), fromTick(runEnd) });
+            pos = runEnd;
+        }
+
+        return runs;
+    }
+
+    private boolean isFree(BitSet bits, LocalDateTime start, LocalDateTime end) {
+        if (bits == null) {
+            return true;
+        }
+        int from = toTick(start, false);
+        int to = toTick(end, true);
+        if (from >= to) {
+            return true;
+        }
+        int firstBusy = bits.nextSetBit(from);
+        return firstBusy == -1 || firstBusy >= to;
+    }
+
+    /**
+     * Convert a timestamp to a minute offset clamped to this day.
+     * Start is floored and end is ceiled so partial minutes stay busy.
+     */
+    private int toTick(LocalDateTime time, boolean roundUp) {
+        long seconds = Duration.between(dayStart, time).getSeconds();
+        long minutes = roundUp ? Math.floorDiv(seconds + 59, 60) : Math.floorDiv(seconds, 60);
+        return (int) Math.max(0, Math.min(MINUTES_PER_DAY, minutes));
+    }
+
+    private LocalDateTime fromTick(int tick) {
+        return dayStart.plusMinutes(tick);
+    }
+}
@@ -45,6 +45,7 @@ public class RoomService {
     private final IdGenerator idGenerator;
     private final RoomServiceRepository roomServiceRepository;
     private final BookingDentalServiceRepository dentalServiceRepository;
+    private final AppointmentSearchIndexer searchIndexer;
 
     /**
      * Inject IdGenerator into Room entity after bean creation
@@ -276,6 +277,10 @@ public class RoomService {
                     "Room code already exists: " + request.getRoomCode());
         }
 
+        // Appointment search documents embed room code + name
+        boolean renamed = (request.getRoomCode() != null && !request.getRoomCode().equals(room.getRoomCode()))
+                || (request.getRoomName() != null && !request.getRoomName().equals(room.getRoomName()));
+
         // Update fields if provided
         if (request.getRoomCode() != null) {
             room.setRoomCode(request.getRoomCode());
@@ -291,6 +296,9 @@ public class RoomService {
         }
 
         room = roomRepository.save(room);
+        if (renamed) {
+            searchIndexer.refreshForRoom(room.getRoomId());
+        }
 
         log.info("Updated room with ID: {}", roomId);
 
@@ -0,0 +1,265 @@
+package com.dental.clinic.management.booking_appointment.service;
+
+import com.dental.clinic.management.booking_appointment.domain.Room;
+import com.dental.clinic.management.booking_appointment.dto.request.CreateSlotHoldRequest;
+import com.dental.clinic.management.booking_appointment.dto.response.SlotHoldResponse;
+import com.dental.clinic.management.booking_appointment.enums.AppointmentStatus;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
+import com.dental.clinic.management.booking_appointment.repository.RoomRepository;
+import com.dental.clinic.management.booking_appointment.service.hold.SlotHold;
+import com.dental.clinic.management.booking_appointment.service.hold.SlotHoldStore;
+import com.dental.clinic.management.employee.domain.Employee;
+import com.dental.clinic.management.employee.repository.EmployeeRepository;
+import com.dental.clinic.management.exception.validation.BadRequestAlertException;
+import com.dental.clinic.management.utils.security.SecurityUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Slot holds: short TTL reservations of (doctor, room, participants, interval)
+ * placed between the availability search and appointment creation.
+ *
+ * - Placing a hold verifies the slot against the database once
+ * - Availability search (P3.1, 4.4) treats holds of other users as busy
+ * - Creation with a valid own hold runs one combined conflict query instead
+ * of the per-resource checks; creation without a hold is rejected if another
+ * user holds one of its resources
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SlotHoldService {
+
+    private static final String ENTITY_NAME = "slot_hold";
+
+    private static final List<AppointmentStatus> BUSY_STATUSES = List.of(
+            AppointmentStatus.SCHEDULED,
+            AppointmentStatus.CHECKED_IN,
+            AppointmentStatus.IN_PROGRESS);
+
+    private final SlotHoldStore holdStore;
+    private final EmployeeRepository employeeRepository;
+    private final RoomRepository roomRepository;
+    private final AppointmentRepository appointmentRepository;
+
+    @Value("${app.slot-hold.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    /**
+     * Place a hold for the current user
+     *
+     * @throws BadRequestAlertException SLOT_TAKEN if already booked, SLOT_HELD if
+     *                                  another user holds it
+     */
+    @Transactional(readOnly = true)
+    public SlotHoldResponse placeHold(CreateSlotHoldRequest request) {
+        String username = currentUsername();
+
+        Employee doctor = findActiveEmployee(request.getEmployeeCode(), "EMPLOYEE_NOT_FOUND");
+        Room room = roomRepository.findByRoomCode(request.getRoomCode())
+                .orElseThrow(() -> new BadRequestAlertException(
+                        "Room not found: " + request.getRoomCode(),
+                        ENTITY_NAME,
+                        "ROOM_NOT_FOUND"));
+        List<String> participantCodes = request.getParticipantCodes() == null
+                ? List.of()
+                : request.getParticipantCodes().stream().distinct().collect(Collectors.toList());
+        List<Employee> participants = participantCodes.stream()
+                .map(code -> findActiveEmployee(code, "PARTICIPANT_NOT_FOUND"))
+                .collect(Collectors.toList());
+
+        LocalDateTime startTime = request.getStartTime();
+        LocalDateTime endTime = startTime.plusMinutes(request.getDurationMinutes());
+        LocalDateTime now = LocalDateTime.now();
+        if (!startTime.isAfter(now)) {
+            throw new BadRequestAlertException(
+                    "Cannot hold a slot in the past: " + startTime,
+                    ENTITY_NAME,
+                    "START_TIME_IN_PAST");
+        }
+
+        // Re-check the database once: the slot may have been booked since the search
+        Set<Integer> employeeIds = new HashSet<>();
+        employeeIds.add(doctor.getEmployeeId());
+        participants.forEach(p -> employeeIds.add(p.getEmployeeId()));
+        if (appointmentRepository.existsBusyForResources(employeeIds, employeeIds, room.getRoomId(),
+                startTime, endTime, BUSY_STATUSES)) {
+            throw new BadRequestAlertException(
+                    "Khung giờ này vừa được đặt, vui lòng chọn khung giờ khác",
+                    ENTITY_NAME,
+                    "SLOT_TAKEN");
+        }
+
+        SlotHold hold = SlotHold.builder()
+                .holdId(UUID.randomUUID().toString())
+                .doctorId(doctor.getEmployeeId())
+                .doctorCode(doctor.getEmployeeCode())
+                .roomId(room.getRoomId())
+                .roomCode(room.getRoomCode())
+                .participantIds(participants.stream().map(Employee::getEmployeeId).collect(Collectors.toList()))
+                .participantCodes(participantCodes)
+                .startTime(startTime)
+                .endTime(endTime)
+                .heldBy(username)
+                .expiresAt(now.plusSeconds(ttlSeconds))
+                .build();
+
+        if (!holdStore.tryPlace(hold)) {
+            throw new BadRequestAlertException(
+                    "Khung giờ này đang được người khác giữ chỗ, vui lòng chọn khung giờ khác",
+                    ENTITY_NAME,
+                    "SLOT_HELD");
+        }
+
+        log.info("Slot hold {} placed by {}: doctor={}, room={}, {} - {}, expires {}",
+                hold.getHoldId(), username, hold.getDoctorCode(), hold.getRoomCode(),
+                startTime, endTime, hold.getExpiresAt());
+        return toResponse(hold);
+    }
+
+    /**
+     * Release a hold of the current user (no-op if already expired)
+     */
+    public void releaseHold(String holdId) {
+        String username = currentUsername();
+        holdStore.find(holdId).ifPresent(hold -> {
+            if (!hold.getHeldBy().equals(username)) {
+                throw new BadRequestAlertException(
+                        "Slot hold belongs to another user",
+                        ENTITY_NAME,
+                        "HOLD_NOT_OWNED");
+            }
+            holdStore.release(holdId);
+            log.info("Slot hold {} released by {}", holdId, username);
+        });
+    }
+
+    /**
+     * Active holds overlapping [from, to) placed by OTHER users.
+     * Used by availability search to mark held intervals as busy.
+     */
+    public List<SlotHold> findHoldsOfOtherUsers(LocalDateTime from, LocalDateTime to) {
+        String username = SecurityUtil.getCurrentUserLogin().orElse(null);
+        return holdStore.findOverlapping(from, to).stream()
+                .filter(hold -> !hold.getHeldBy().equals(username))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Creation path: verify the caller's hold covers the booking tuple.
+     *
+     * @return false if no holdId given, true if the hold is valid
+     * @throws BadRequestAlertException if the hold expired, belongs to another
+     *                                  user or does not cover the booking
+     */
+    public boolean verifyOwnHold(String holdId, Integer doctorId, String roomId,
+            Collection<Integer> participantIds, LocalDateTime startTime, LocalDateTime endTime) {
+        if (holdId == null || holdId.isBlank()) {
+            return false;
+        }
+
+        SlotHold hold = holdStore.find(holdId)
+                .orElseThrow(() -> new BadRequestAlertException(
+                        "Giữ chỗ không tồn tại hoặc đã hết hạn, vui lòng chọn lại khung giờ",
+                        ENTITY_NAME,
+                        "HOLD_EXPIRED"));
+        if (!hold.getHeldBy().equals(currentUsername())) {
+            throw new BadRequestAlertException(
+                    "Slot hold belongs to another user",
+                    ENTITY_NAME,
+                    "HOLD_NOT_OWNED");
+        }
+
+        boolean covers = hold.getDoctorId().equals(doctorId)
+                && hold.getRoomId().equals(roomId)
+                && hold.getParticipantIds() != null
+                && hold.getParticipantIds().containsAll(participantIds)
+                && !hold.getStartTime().isAfter(startTime)
+                && !hold.getEndTime().isBefore(endTime);
+        if (!covers) {
+            throw new BadRequestAlertException(
+                    "Slot hold " + holdId + " does not cover this doctor, room, participants and time",
+                    ENTITY_NAME,
+                    "HOLD_MISMATCH");
+        }
+        return true;
+    }
+
+    /**
+     * Creation path without a hold: reject if another user holds any resource
+     */
+    public void checkNotHeldByOthers(Collection<Integer> employeeIds, String roomId,
+            LocalDateTime startTime, LocalDateTime endTime) {
+        findHoldsOfOtherUsers(startTime, endTime).stream()
+                .filter(hold -> hold.blocks(employeeIds, roomId, startTime, endTime))
+                .findFirst()
+                .ifPresent(hold -> {
+                    throw new BadRequestAlertException(
+                            String.format("Khung giờ này đang được giữ chỗ đến %s, vui lòng chọn khung giờ khác",
+                                    hold.getExpiresAt()),
+                            ENTITY_NAME,
+                            "SLOT_HELD");
+                });
+    }
+
+    /**
+     * Release the hold once the appointment is committed (kept on rollback so
+     * the user can retry)
+     */
+    public void releaseAfterCommit(String holdId) {
+        if (holdId == null || holdId.isBlank()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            holdStore.release(holdId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                holdStore.release(holdId);
+            }
+        });
+    }
+
+    private Employee findActiveEmployee(String employeeCode, String errorKey) {
+        return employeeRepository.findByEmployeeCodeAndIsActiveTrue(employeeCode)
+                .orElseThrow(() -> new BadRequestAlertException(
+                        "Employee not found or inactive: " + employeeCode,
+                        ENTITY_NAME,
+                        errorKey));
+    }
+
+    private String currentUsername() {
+        return SecurityUtil.getCurrentUserLogin()
+                .orElseThrow(() -> new BadRequestAlertException(
+                        "Người dùng chưa được xác thực",
+                        ENTITY_NAME,
+                        "NOT_AUTHENTICATED"));
+    }
+
+    private SlotHoldResponse toResponse(SlotHold hold) {
+        return SlotHoldResponse.builder()
+                .holdId(hold.getHoldId())
+                .employeeCode(hold.getDoctorCode())
+                .roomCode(hold.getRoomCode())
+                .participantCodes(hold.getParticipantCodes())
+                .startTime(hold.getStartTime())
+                .endTime(hold.getEndTime())
+                .expiresAt(hold.getExpiresAt())
+                .build();
+    }
+}
@@ -0,0 +1,134 @@
+package com.dental.clinic.management.booking_appointment.service.hold;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node slot hold store.
+ *
+ * Holds are bucketed by day; placement locks only the stripe of that day, so
+ * receptionists booking different days never contend. Expired holds are
+ * purged lazily whenever their day is touched, past days on every placement.
+ */
+@Component
+@ConditionalOnProperty(name = "app.slot-hold.store", havingValue = "memory", matchIfMissing = true)
+public class InMemorySlotHoldStore implements SlotHoldStore {
+
+    private static final int STRIPES = 32;
+
+    private final Map<LocalDate, Map<String, SlotHold>> holdsByDay = new ConcurrentHashMap<>();
+    private final Map<String, SlotHold> holdsById = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[STRIPES];
+
+    public InMemorySlotHoldStore() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @Override
+    public boolean tryPlace(SlotHold hold) {
+        LocalDate day = hold.getStartTime().toLocalDate();
+        purgePastDays(LocalDate.now());
+        synchronized (lockFor(day)) {
+            Map<String, SlotHold> dayHolds = holdsByDay.computeIfAbsent(day, d -> new ConcurrentHashMap<>());
+            purgeExpired(dayHolds, LocalDateTime.now());
+
+            boolean blocked = dayHolds.values().stream()
+                    .filter(existing -> !existing.getHeldBy().equals(hold.getHeldBy()))
+                    .anyMatch(existing -> existing.blocks(hold.employeeIds(), hold.getRoomId(),
+                            hold.getStartTime(), hold.getEndTime()));
+            if (blocked) {
+                return false;
+            }
+
+            dayHolds.put(hold.getHoldId(), hold);
+            holdsById.put(hold.getHoldId(), hold);
+            return true;
+        }
+    }
+
+    @Override
+    public Optional<SlotHold> find(String holdId) {
+        SlotHold hold = holdsById.get(holdId);
+        if (hold == null) {
+            return Optional.empty();
+        }
+        if (hold.hasExpired(LocalDateTime.now())) {
+            release(holdId);
+            return Optional.empty();
+        }
+        return Optional.of(hold);
+    }
+
+    @Override
+    public void release(String holdId) {
+        SlotHold hold = holdsById.remove(holdId);
+        if (hold == null) {
+            return;
+        }
+        LocalDate day = hold.getStartTime().toLocalDate();
+        synchronized (lockFor(day)) {
+            Map<String, SlotHold> dayHolds = holdsByDay.get(day);
+            if (dayHolds != null) {
+                dayHolds.remove(holdId);
+                if (dayHolds.isEmpty()) {
+                    holdsByDay.remove(day);
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<SlotHold> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        List<SlotHold> result = new ArrayList<>();
+        for (LocalDate day = from.toLocalDate(); day.isBefore(to.toLocalDate().plusDays(1)); day = day.plusDays(1)) {
+            Map<String, SlotHold> dayHolds = holdsByDay.get(day);
+            if (dayHolds == null) {
+                continue;
+            }
+            for (SlotHold hold : dayHolds.values()) {
+                if (!hold.hasExpired(now) && hold.overlaps(from, to)) {
+                    result.add(hold);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Buckets of past days are never touched again; drop them on the way
+     */
+    private void purgePastDays(LocalDate today) {
+        holdsByDay.entrySet().removeIf(entry -> {
+            if (entry.getKey().isBefore(today)) {
+                entry.getValue().keySet().forEach(holdsById::remove);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private void purgeExpired(Map<String, SlotHold> dayHolds, LocalDateTime now) {
+        dayHolds.values().removeIf(hold -> {
+            if (hold.hasExpired(now)) {
+                holdsById.remove(hold.getHoldId());
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private Object lockFor(LocalDate day) {
+        return locks[Math.floorMod(day.hashCode(), STRIPES)];
+    }
+}
@@ -0,0 +1,143 @@
+package com.dental.clinic.management.booking_appointment.service.hold;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Cluster-wide slot hold store (app.slot-hold.store=redis).
+ *
+ * Keys:
+ * - slot-hold:{holdId} -> SlotHold (expires with the hold)
+ * - slot-hold:day:{yyyy-MM-dd} -> set of holdIds of that day
+ * - slot-hold:lock:{yyyy-MM-dd} -> short placement lock (one stripe per day)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.slot-hold.store", havingValue = "redis")
+public class RedisSlotHoldStore implements SlotHoldStore {
+
+    private static final String HOLD_KEY = "slot-hold:";
+    private static final String DAY_KEY = "slot-hold:day:";
+    private static final String LOCK_KEY = "slot-hold:lock:";
+    private static final Duration LOCK_TTL = Duration.ofSeconds(5);
+    private static final int LOCK_ATTEMPTS = 50;
+    private static final long LOCK_RETRY_MILLIS = 20;
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Override
+    public boolean tryPlace(SlotHold hold) {
+        LocalDate day = hold.getStartTime().toLocalDate();
+        String lockKey = LOCK_KEY + day;
+        String token = UUID.randomUUID().toString();
+
+        if (!acquire(lockKey, token)) {
+            log.warn("Could not lock slot holds of {} - treating slot as held", day);
+            return false;
+        }
+        try {
+            boolean blocked = loadDay(day).stream()
+                    .filter(existing -> !existing.getHeldBy().equals(hold.getHeldBy()))
+                    .anyMatch(existing -> existing.blocks(hold.employeeIds(), hold.getRoomId(),
+                            hold.getStartTime(), hold.getEndTime()));
+            if (blocked) {
+                return false;
+            }
+
+            Duration ttl = Duration.between(LocalDateTime.now(), hold.getExpiresAt());
+            redisTemplate.opsForValue().set(HOLD_KEY + hold.getHoldId(), hold, ttl);
+            redisTemplate.opsForSet().add(DAY_KEY + day, hold.getHoldId());
+            redisTemplate.expire(DAY_KEY + day, Duration.between(LocalDateTime.now(), day.plusDays(1).atStartOfDay())
+                    .plus(ttl));
+            return true;
+        } finally {
+            if (token.equals(redisTemplate.opsForValue().get(lockKey))) {
+                redisTemplate.delete(lockKey);
+            }
+        }
+    }
+
+    @Override
+    public Optional<SlotHold> find(String holdId) {
+        Object value = redisTemplate.opsForValue().get(HOLD_KEY + holdId);
+        if (value instanceof SlotHold hold && !hold.hasExpired(LocalDateTime.now())) {
+            return Optional.of(hold);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void release(String holdId) {
+        Object value = redisTemplate.opsForValue().get(HOLD_KEY + holdId);
+        redisTemplate.delete(HOLD_KEY + holdId);
+        if (value instanceof SlotHold hold) {
+            redisTemplate.opsForSet().remove(DAY_KEY + hold.getStartTime().toLocalDate(), holdId);
+        }
+    }
+
+    @Override
+    public List<SlotHold> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<SlotHold> result = new ArrayList<>();
+        for (LocalDate day = from.toLocalDate(); day.isBefore(to.toLocalDate().plusDays(1)); day = day.plusDays(1)) {
+            loadDay(day).stream()
+                    .filter(hold -> hold.overlaps(from, to))
+                    .forEach(result::add);
+        }
+        return result;
+    }
+
+    /**
+     * Active holds of a day; ids whose hold key already expired are pruned
+     */
+    private List<SlotHold> loadDay(LocalDate day) {
+        Set<Object> members = redisTemplate.opsForSet().members(DAY_KEY + day);
+        if (members == null || members.isEmpty()) {
+            return List.of();
+        }
+        List<String> ids = members.stream().map(Object::toString).collect(Collectors.toList());
+        List<Object> values = redisTemplate.opsForValue()
+                .multiGet(ids.stream().map(id -> HOLD_KEY + id).collect(Collectors.toList()));
+
+        LocalDateTime now = LocalDateTime.now();
+        List<SlotHold> active = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object value = values != null ? values.get(i) : null;
+            if (value instanceof SlotHold hold && !hold.hasExpired(now)) {
+                active.add(hold);
+            } else {
+                redisTemplate.opsForSet().remove(DAY_KEY + day, ids.get(i));
+            }
+        }
+        return active;
+    }
+
+    private boolean acquire(String lockKey, String token) {
+        for (int attempt = 0; attempt < LOCK_ATTEMPTS; attempt++) {
+            if (Objects.equals(Boolean.TRUE, redisTemplate.opsForValue().setIfAbsent(lockKey, token, LOCK_TTL))) {
+                return true;
+            }
+            try {
+                Thread.sleep(LOCK_RETRY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return false;
+    }
+}
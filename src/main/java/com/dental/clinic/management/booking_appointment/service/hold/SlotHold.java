@@ -0,0 +1,80 @@
+package com.dental.clinic.management.booking_appointment.service.hold;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Short-lived reservation of a (doctor, room, participants, interval) tuple
+ * placed by a user while they finish the booking form.
+ *
+ * Interval is [startTime, endTime), same convention as appointments.
+ * Plain mutable bean so it can be stored as JSON in Redis.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlotHold {
+
+    private String holdId;
+
+    private Integer doctorId;
+    private String doctorCode;
+
+    private String roomId;
+    private String roomCode;
+
+    private List<Integer> participantIds;
+    private List<String> participantCodes;
+
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    /**
+     * Username (JWT subject) of the user who placed the hold
+     */
+    private String heldBy;
+
+    private LocalDateTime expiresAt;
+
+    public boolean hasExpired(LocalDateTime now) {
+        return expiresAt == null || !expiresAt.isAfter(now);
+    }
+
+    public boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        return startTime.isBefore(end) && endTime.isAfter(start);
+    }
+
+    /**
+     * Doctor + participants (an employee is busy in both roles)
+     */
+    public List<Integer> employeeIds() {
+        List<Integer> ids = new ArrayList<>();
+        ids.add(doctorId);
+        if (participantIds != null) {
+            ids.addAll(participantIds);
+        }
+        return ids;
+    }
+
+    /**
+     * True if this hold blocks any of the given resources during [start, end)
+     */
+    public boolean blocks(Collection<Integer> employeeIds, String otherRoomId, LocalDateTime start,
+            LocalDateTime end) {
+        if (!overlaps(start, end)) {
+            return false;
+        }
+        if (roomId != null && roomId.equals(otherRoomId)) {
+            return true;
+        }
+        return employeeIds().stream().anyMatch(employeeIds::contains);
+    }
+}
@@ -0,0 +1,34 @@
+package com.dental.clinic.management.booking_appointment.service.hold;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Storage for slot holds.
+ *
+ * Implementations:
+ * - InMemorySlotHoldStore (default, app.slot-hold.store=memory): single node
+ * - RedisSlotHoldStore (app.slot-hold.store=redis): shared by all nodes
+ *
+ * Expired holds must never be returned.
+ */
+public interface SlotHoldStore {
+
+    /**
+     * Atomically store the hold unless an active hold of ANOTHER user blocks
+     * one of its resources (doctor, room, participants) in the same interval.
+     *
+     * @return true if stored, false if the slot is already held
+     */
+    boolean tryPlace(SlotHold hold);
+
+    Optional<SlotHold> find(String holdId);
+
+    void release(String holdId);
+
+    /**
+     * Active holds (all users) overlapping [from, to)
+     */
+    List<SlotHold> findOverlapping(LocalDateTime from, LocalDateTime to);
+}
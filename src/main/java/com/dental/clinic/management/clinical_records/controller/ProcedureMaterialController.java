@@ -11,7 +11,7 @@ import com.dental.clinic.management.clinical_records.service.ProcedureMaterialSe
 import com.dental.clinic.management.exception.NotFoundException;
 import com.dental.clinic.management.utils.security.AuthoritiesConstants;
 import com.dental.clinic.management.utils.security.SecurityUtil;
-import com.dental.clinic.management.warehouse.repository.ItemBatchRepository;
+import com.dental.clinic.management.warehouse.service.StockBalanceService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -39,7 +39,7 @@ public class ProcedureMaterialController {
 
     private final ProcedureMaterialService procedureMaterialService;
     private final ClinicalRecordProcedureRepository procedureRepository;
-    private final ItemBatchRepository itemBatchRepository;
+    private final StockBalanceService stockBalanceService;
 
     /**
      * API 8.7: Get Procedure Materials
@@ -208,8 +208,8 @@ public class ProcedureMaterialController {
                 .hasCurrentUserPermission(AuthoritiesConstants.VIEW_WAREHOUSE_COST);
 
         // Get current stock
-        Integer currentStock = itemBatchRepository
-                .sumQuantityByItemMasterId(updated.getItemMaster().getItemMasterId());
+        Integer currentStock = stockBalanceService
+                .getQuantity(updated.getItemMaster().getItemMasterId());
 
         // Determine stock status
         String stockStatus = "OK";
@@ -269,8 +269,8 @@ public class ProcedureMaterialController {
         
         return usages.stream().map(usage -> {
             // Get current stock
-            Integer currentStock = itemBatchRepository
-                    .sumQuantityByItemMasterId(usage.getItemMaster().getItemMasterId());
+            Integer currentStock = stockBalanceService
+                    .getQuantity(usage.getItemMaster().getItemMasterId());
 
             // Determine stock status
             String stockStatus = "OK";
@@ -8,6 +8,7 @@ import com.dental.clinic.management.warehouse.domain.ItemBatch;
 import com.dental.clinic.management.warehouse.domain.ServiceConsumable;
 import com.dental.clinic.management.warehouse.repository.ItemBatchRepository;
 import com.dental.clinic.management.warehouse.repository.ServiceConsumableRepository;
+import com.dental.clinic.management.warehouse.service.StockBalanceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
@@ -38,6 +39,7 @@ public class ProcedureMaterialService {
     private final ServiceConsumableRepository serviceConsumableRepository;
     private final ItemBatchRepository itemBatchRepository;
     private final ProcedureMaterialUsageRepository materialUsageRepository;
+    private final StockBalanceService stockBalanceService;
 
     /**
      * Deduct materials for a procedure based on service BOM
@@ -179,6 +181,7 @@ public class ProcedureMaterialService {
             // Update batch quantity
             batch.setQuantityOnHand(availableInBatch - deductFromThisBatch);
             itemBatchRepository.save(batch);
+            stockBalanceService.apply(batch.getItemMaster(), -deductFromThisBatch);
 
             remainingToDeduct -= deductFromThisBatch;
 
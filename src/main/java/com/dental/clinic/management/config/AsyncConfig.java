@@ -0,0 +1,63 @@
+package com.dental.clinic.management.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Executor for @Async methods (auth emails, warehouse emails, ...).
+ *
+ * Without it @Async falls back to the scheduler pool or an unbounded
+ * SimpleAsyncTaskExecutor. Here the pool and queue are bounded; when both are
+ * full the caller runs the task itself (back-pressure instead of dropping
+ * emails). Pool metrics are published as executor.* with name=async.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class AsyncConfig implements AsyncConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.async.core-pool-size:4}")
+    private int corePoolSize;
+
+    @Value("${app.async.max-pool-size:8}")
+    private int maxPoolSize;
+
+    @Value("${app.async.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Override
+    public Executor getAsyncExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("async-");
+        executor.setCorePoolSize(corePoolSize);
+        executor.setMaxPoolSize(Math.max(corePoolSize, maxPoolSize));
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "async", List.of());
+        log.info("Async executor initialized: core {}, max {}, queue {}", corePoolSize, maxPoolSize, queueCapacity);
+        return executor;
+    }
+
+    @Override
+    public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+        return (ex, method, params) -> log.error("Uncaught error in @Async {}: {}", method.getName(),
+                ex.getMessage(), ex);
+    }
+}
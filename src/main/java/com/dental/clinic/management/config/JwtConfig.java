@@ -1,8 +1,5 @@
 package com.dental.clinic.management.config;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.List;
 
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
@@ -13,8 +10,6 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.JwtEncoder;
 import org.springframework.security.oauth2.jwt.JwtException;
@@ -22,6 +17,7 @@ import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 
+import com.dental.clinic.management.utils.security.JwtAuthorityResolver;
 import com.dental.clinic.management.utils.security.SecurityUtil;
 import com.nimbusds.jose.jwk.source.ImmutableSecret;
 import com.nimbusds.jose.util.Base64;
@@ -114,34 +110,12 @@ public class JwtConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public JwtAuthenticationConverter jwtAuthenticationConverter(JwtAuthorityResolver jwtAuthorityResolver) {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
 
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Collection<GrantedAuthority> authorities = new HashSet<>();
-
-            // Extract roles from JWT using constants (learned from JHipster)
-            // Roles are already formatted with ROLE_ prefix by SecurityUtil
-            List<String> roles = jwt.getClaimAsStringList(SecurityUtil.ROLES_CLAIM);
-            if (roles != null) {
-                for (String role : roles) {
-                    authorities.add(new SimpleGrantedAuthority(role));
-                }
-            }
-
-            // Extract permissions from JWT for fine-grained RBAC (our improvement over
-            // JHipster)
-            // This allows method-level security with
-            // @PreAuthorize("hasAuthority('CREATE_EMPLOYEE')")
-            List<String> permissions = jwt.getClaimAsStringList(SecurityUtil.PERMISSIONS_CLAIM);
-            if (permissions != null) {
-                for (String permission : permissions) {
-                    authorities.add(new SimpleGrantedAuthority(permission));
-                }
-            }
-
-            return authorities;
-        });
+        // Roles + permissions (decoded from the permission bitset claim and cached
+        // per role and catalogue version), see JwtAuthorityResolver
+        converter.setJwtGrantedAuthoritiesConverter(jwtAuthorityResolver::resolve);
 
         return converter;
     }
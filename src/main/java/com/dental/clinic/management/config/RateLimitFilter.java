@@ -0,0 +1,137 @@
+package com.dental.clinic.management.config;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.dental.clinic.management.utils.FormatRestResponse;
+import com.dental.clinic.management.utils.ratelimit.RateLimitPolicies;
+import com.dental.clinic.management.utils.ratelimit.RateLimitPolicy;
+import com.dental.clinic.management.utils.ratelimit.TokenBucketStore;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token bucket rate limiting of the routes in RateLimitPolicies.
+ *
+ * Runs after bearer token authentication so USER policies can key on the
+ * account. Rejected requests get 429 with Retry-After and the usual
+ * RestResponse error body. If the bucket store is unreachable the request is
+ * let through (rate limiting must not take the API down).
+ *
+ * IP keys use the remote address only. Behind the reverse proxy it is the
+ * client address resolved by Tomcat from X-Forwarded-For
+ * (server.forward-headers-strategy=native, trusted internal proxies only), so
+ * a client cannot pick its own bucket by sending the header.
+ *
+ * Metrics: rate_limit.rejected{policy}, rate_limit.store.errors
+ */
+@Slf4j
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final TokenBucketStore tokenBucketStore;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<RateLimitPolicy> policies = RateLimitPolicies.POLICIES;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    public RateLimitFilter(TokenBucketStore tokenBucketStore, MeterRegistry meterRegistry,
+            ObjectMapper objectMapper) {
+        this.tokenBucketStore = tokenBucketStore;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+            FilterChain filterChain) throws ServletException, IOException {
+
+        RateLimitPolicy policy = enabled ? findPolicy(request) : null;
+        if (policy == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String caller = callerKey(request, policy);
+        TokenBucketStore.Result result;
+        try {
+            result = tokenBucketStore.tryConsume(policy.name() + ":" + caller, policy);
+        } catch (Exception e) {
+            meterRegistry.counter("rate_limit.store.errors").increment();
+            log.warn("Rate limit store unavailable, allowing {} {}: {}", request.getMethod(),
+                    request.getRequestURI(), e.getMessage());
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (result.allowed()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long retryAfterSeconds = Math.max(1, (result.retryAfterMillis() + 999) / 1000);
+        meterRegistry.counter("rate_limit.rejected", "policy", policy.name()).increment();
+        log.warn("Rate limit '{}' exceeded by {} - Retry after {} seconds", policy.name(), caller,
+                retryAfterSeconds);
+
+        FormatRestResponse.RestResponse<Object> body = new FormatRestResponse.RestResponse<>();
+        body.setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
+        body.setError("error.rate.limit.exceeded");
+        body.setMessage("Bạn đã vượt quá số lần yêu cầu cho phép. Vui lòng thử lại sau "
+                + (retryAfterSeconds / 60 + 1) + " phút.");
+        body.setData(Map.of("retryAfterSeconds", retryAfterSeconds));
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getWriter(), body);
+    }
+
+    private RateLimitPolicy findPolicy(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (RateLimitPolicy policy : policies) {
+            if (policy.method() != null && !policy.method().matches(request.getMethod())) {
+                continue;
+            }
+            for (String pattern : policy.pathPatterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return policy;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String callerKey(HttpServletRequest request, RateLimitPolicy policy) {
+        if (policy.keyType() == RateLimitPolicy.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+}
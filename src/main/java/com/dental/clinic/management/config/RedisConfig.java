@@ -123,7 +123,6 @@ public class RedisConfig {
                                 "permissionsByModule", // PermissionService.getPermissionsByModule()
                                 "permissionsGrouped", // PermissionService.getPermissionsGroupedByModule(),
                                                       // getPermissionHierarchy()
-                                "sidebar", // SidebarService.getSidebarData()
                                 // Dashboard caches
                                 "dashboardOverview",
                                 "dashboardRevenue",
@@ -11,9 +11,9 @@ import org.springframework.security.config.annotation.web.configurers.HeadersCon
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.web.BearerTokenAuthenticationEntryPoint;
 import org.springframework.security.oauth2.server.resource.web.access.BearerTokenAccessDeniedHandler;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
@@ -21,20 +21,24 @@ import org.springframework.security.web.servlet.util.matcher.MvcRequestMatcher;
 import org.springframework.web.servlet.handler.HandlerMappingIntrospector;
 
 import com.dental.clinic.management.customer_contact.service.CustomUserDetailsService;
+import com.dental.clinic.management.utils.security.VerifiedTokenCache;
 
 @Configuration
 public class SecurityConfig {
 
         private final CustomUserDetailsService userDetailsService;
-        private final JwtAuthenticationConverter jwtAuthenticationConverter;
+        private final VerifiedTokenCache verifiedTokenCache;
         private final JwtBlacklistFilter jwtBlacklistFilter;
+        private final RateLimitFilter rateLimitFilter;
 
         public SecurityConfig(CustomUserDetailsService userDetailsService,
-                        JwtAuthenticationConverter jwtAuthenticationConverter,
-                        JwtBlacklistFilter jwtBlacklistFilter) {
+                        VerifiedTokenCache verifiedTokenCache,
+                        JwtBlacklistFilter jwtBlacklistFilter,
+                        RateLimitFilter rateLimitFilter) {
                 this.userDetailsService = userDetailsService;
-                this.jwtAuthenticationConverter = jwtAuthenticationConverter;
+                this.verifiedTokenCache = verifiedTokenCache;
                 this.jwtBlacklistFilter = jwtBlacklistFilter;
+                this.rateLimitFilter = rateLimitFilter;
         }
 
         @Bean
@@ -137,8 +141,9 @@ public class SecurityConfig {
                                                 .anyRequest().authenticated())
 
                                 // JWT Resource Server configuration
+                                // Decode + authority conversion cached per token (VerifiedTokenCache)
                                 .oauth2ResourceServer(oauth2 -> oauth2
-                                                .jwt(jwt -> jwt.jwtAuthenticationConverter(jwtAuthenticationConverter)))
+                                                .jwt(jwt -> jwt.authenticationManager(verifiedTokenCache::authenticate)))
 
                                 // Exception Handling
                                 .exceptionHandling(exceptions -> exceptions
@@ -150,6 +155,9 @@ public class SecurityConfig {
                                 // Custom JWT Blacklist Filter - Our improvement over JHipster
                                 .addFilterBefore(jwtBlacklistFilter, UsernamePasswordAuthenticationFilter.class)
 
+                                // Token bucket rate limits (RateLimitPolicies), after authentication for per-user keys
+                                .addFilterAfter(rateLimitFilter, BearerTokenAuthenticationFilter.class)
+
                                 // Stateless session for JWT
                                 .sessionManagement(session -> session
                                                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS));
@@ -1,9 +1,18 @@
 package com.dental.clinic.management.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+
 /**
  * Web MVC configuration for resource handling.
  * 
@@ -20,10 +29,48 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
  * - Explicitly configure resource handlers with specific patterns
  * - Disable default "/**" pattern that conflicts with API routes
  * - Use setResourceChain(false) to prevent caching issues
+ *
+ * Async requests (StreamingResponseBody Excel downloads) run on a bounded
+ * mvcTaskExecutor. Spring Boot only auto-configures one when the context has
+ * no Executor bean, and the taskScheduler bean of ScheduledTasksConfig is one,
+ * so MVC would otherwise start an unbounded SimpleAsyncTaskExecutor thread
+ * per download. When pool and queue are full the request thread writes the
+ * download itself. Pool metrics: executor.* with name=mvc-async.
  */
 @Configuration
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.mvc-async.pool-size:4}")
+    private int poolSize;
+
+    @Value("${app.mvc-async.queue-capacity:20}")
+    private int queueCapacity;
+
+    public WebMvcConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor mvcTaskExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("mvc-async-");
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+
+        ExecutorServiceMetrics.monitor(meterRegistry, executor.getThreadPoolExecutor(), "mvc-async", List.of());
+        return executor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(mvcTaskExecutor());
+    }
+
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
         // Disable default /** resource handler by not calling super.addResourceHandlers()
@@ -5,6 +5,7 @@ import com.dental.clinic.management.dashboard.service.DashboardExportService;
 import com.dental.clinic.management.dashboard.service.DashboardService;
 import com.dental.clinic.management.dashboard.service.DashboardPreferencesService;
 import com.dental.clinic.management.dashboard.service.DashboardSavedViewService;
+import com.dental.clinic.management.utils.StreamingExport;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
@@ -15,6 +16,7 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -162,19 +164,24 @@ public class DashboardController {
             
             return new ResponseEntity<>(csvData, headers, HttpStatus.OK);
         } else {
-            // Excel export (default)
-            byte[] excelFile;
+            // Excel export (default), streamed straight to the response
+            StreamingResponseBody excelFile;
             String filename;
             
             if ("all".equalsIgnoreCase(tab)) {
                 // Export all tabs to one workbook
-                excelFile = dashboardExportService.exportAllTabs(month, startDate, endDate);
+                excelFile = StreamingExport.abortOnFailure("dashboard-all",
+                        out -> dashboardExportService.exportAllTabs(month, startDate, endDate, out));
                 filename = month != null 
                     ? String.format("dashboard-all-%s.xlsx", month)
                     : String.format("dashboard-all-%s-to-%s.xlsx", startDate, endDate);
             } else {
-                // Export single tab
-                excelFile = dashboardExportService.exportToExcel(tab, month, startDate, endDate);
+                // Export single tab (checked here: the body runs after the headers are sent)
+                if (!dashboardExportService.isSupportedTab(tab)) {
+                    throw new IllegalArgumentException("Invalid tab: " + tab);
+                }
+                excelFile = StreamingExport.abortOnFailure("dashboard-" + tab,
+                        out -> dashboardExportService.exportToExcel(tab, month, startDate, endDate, out));
                 filename = month != null 
                     ? String.format("dashboard-%s-%s.xlsx", tab, month)
                     : String.format("dashboard-%s-%s-to-%s.xlsx", tab, startDate, endDate);
@@ -0,0 +1,37 @@
+package com.dental.clinic.management.dashboard.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDate;
+
+/**
+ * Daily appointment rollup: appointments starting on fact_date per start hour
+ * and status (feeds the status counters and the day-of-week x hour heatmap).
+ * Written only by DashboardRollupService (set-based recompute), read by the dashboard.
+ */
+@Entity
+@Immutable
+@Table(name = "daily_appointment_facts")
+@IdClass(DailyAppointmentFactId.class)
+@Getter
+@NoArgsConstructor
+public class DailyAppointmentFact {
+
+    @Id
+    @Column(name = "fact_date", nullable = false)
+    private LocalDate factDate;
+
+    @Id
+    @Column(name = "start_hour", nullable = false)
+    private Integer startHour;
+
+    @Id
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+
+    @Column(name = "appointment_count", nullable = false)
+    private Long appointmentCount;
+}
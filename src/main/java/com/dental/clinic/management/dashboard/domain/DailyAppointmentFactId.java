@@ -0,0 +1,22 @@
+package com.dental.clinic.management.dashboard.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite primary key for DailyAppointmentFact.
+ * Combination of (fact_date, start_hour, status).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DailyAppointmentFactId implements Serializable {
+
+    private LocalDate factDate;
+    private Integer startHour;
+    private String status;
+}
@@ -0,0 +1,46 @@
+package com.dental.clinic.management.dashboard.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Daily invoice rollup: invoices created on fact_date per type and payment status.
+ * Written only by DashboardRollupService (set-based recompute), read by the dashboard.
+ */
+@Entity
+@Immutable
+@Table(name = "daily_invoice_facts")
+@IdClass(DailyInvoiceFactId.class)
+@Getter
+@NoArgsConstructor
+public class DailyInvoiceFact {
+
+    @Id
+    @Column(name = "fact_date", nullable = false)
+    private LocalDate factDate;
+
+    @Id
+    @Column(name = "invoice_type", length = 20, nullable = false)
+    private String invoiceType;
+
+    @Id
+    @Column(name = "payment_status", length = 20, nullable = false)
+    private String paymentStatus;
+
+    @Column(name = "invoice_count", nullable = false)
+    private Long invoiceCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(name = "paid_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal paidAmount;
+
+    @Column(name = "remaining_debt", nullable = false, precision = 18, scale = 2)
+    private BigDecimal remainingDebt;
+}
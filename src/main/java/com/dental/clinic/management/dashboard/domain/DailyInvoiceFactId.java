@@ -0,0 +1,22 @@
+package com.dental.clinic.management.dashboard.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite primary key for DailyInvoiceFact.
+ * Combination of (fact_date, invoice_type, payment_status).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DailyInvoiceFactId implements Serializable {
+
+    private LocalDate factDate;
+    private String invoiceType;
+    private String paymentStatus;
+}
@@ -0,0 +1,36 @@
+package com.dental.clinic.management.dashboard.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Daily payment rollup: payments dated fact_date per payment method.
+ * Written only by DashboardRollupService (set-based recompute), read by the dashboard.
+ */
+@Entity
+@Immutable
+@Table(name = "daily_payment_facts")
+@IdClass(DailyPaymentFactId.class)
+@Getter
+@NoArgsConstructor
+public class DailyPaymentFact {
+
+    @Id
+    @Column(name = "fact_date", nullable = false)
+    private LocalDate factDate;
+
+    @Id
+    @Column(name = "payment_method", length = 20, nullable = false)
+    private String paymentMethod;
+
+    @Column(name = "payment_count", nullable = false)
+    private Long paymentCount;
+
+    @Column(name = "total_amount", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalAmount;
+}
@@ -0,0 +1,21 @@
+package com.dental.clinic.management.dashboard.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite primary key for DailyPaymentFact.
+ * Combination of (fact_date, payment_method).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DailyPaymentFactId implements Serializable {
+
+    private LocalDate factDate;
+    private String paymentMethod;
+}
@@ -0,0 +1,49 @@
+package com.dental.clinic.management.dashboard.domain;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Daily warehouse rollup: storage transactions dated fact_date per type,
+ * status and export type ('' when the transaction has none).
+ * expired_value = value of expired batches in DISPOSAL exports.
+ * Written only by DashboardRollupService (set-based recompute), read by the dashboard.
+ */
+@Entity
+@Immutable
+@Table(name = "daily_storage_facts")
+@IdClass(DailyStorageFactId.class)
+@Getter
+@NoArgsConstructor
+public class DailyStorageFact {
+
+    @Id
+    @Column(name = "fact_date", nullable = false)
+    private LocalDate factDate;
+
+    @Id
+    @Column(name = "transaction_type", length = 20, nullable = false)
+    private String transactionType;
+
+    @Id
+    @Column(name = "status", length = 20, nullable = false)
+    private String status;
+
+    @Id
+    @Column(name = "export_type", length = 20, nullable = false)
+    private String exportType;
+
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+
+    @Column(name = "total_value", nullable = false, precision = 18, scale = 2)
+    private BigDecimal totalValue;
+
+    @Column(name = "expired_value", nullable = false, precision = 18, scale = 2)
+    private BigDecimal expiredValue;
+}
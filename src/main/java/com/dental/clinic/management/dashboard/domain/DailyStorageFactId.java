@@ -0,0 +1,23 @@
+package com.dental.clinic.management.dashboard.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Composite primary key for DailyStorageFact.
+ * Combination of (fact_date, transaction_type, status, export_type).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class DailyStorageFactId implements Serializable {
+
+    private LocalDate factDate;
+    private String transactionType;
+    private String status;
+    private String exportType;
+}
@@ -0,0 +1,40 @@
+package com.dental.clinic.management.dashboard.repository;
+
+import com.dental.clinic.management.dashboard.domain.DailyAppointmentFact;
+import com.dental.clinic.management.dashboard.domain.DailyAppointmentFactId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyAppointmentFactRepository extends JpaRepository<DailyAppointmentFact, DailyAppointmentFactId> {
+
+    /**
+     * Appointment count per status
+     * Returns: [status, count]
+     */
+    @Query("SELECT f.status, SUM(f.appointmentCount) FROM DailyAppointmentFact f " +
+           "WHERE f.factDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY f.status")
+    List<Object[]> countByStatus(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Heatmap - count by day of week and hour
+     * Returns: [dayOfWeek (0-6, Sun=0), hour (0-23), count]
+     */
+    @Query(value = "SELECT EXTRACT(DOW FROM fact_date) AS day_of_week, start_hour, SUM(appointment_count) " +
+           "FROM daily_appointment_facts " +
+           "WHERE fact_date BETWEEN :startDate AND :endDate " +
+           "GROUP BY EXTRACT(DOW FROM fact_date), start_hour " +
+           "ORDER BY EXTRACT(DOW FROM fact_date), start_hour",
+           nativeQuery = true)
+    List<Object[]> getHeatmapData(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
@@ -0,0 +1,40 @@
+package com.dental.clinic.management.dashboard.repository;
+
+import com.dental.clinic.management.dashboard.domain.DailyInvoiceFact;
+import com.dental.clinic.management.dashboard.domain.DailyInvoiceFactId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyInvoiceFactRepository extends JpaRepository<DailyInvoiceFact, DailyInvoiceFactId> {
+
+    /**
+     * Totals per invoice type and payment status
+     * Returns: [invoiceType, paymentStatus, count, totalAmount, paidAmount, remainingDebt]
+     */
+    @Query("SELECT f.invoiceType, f.paymentStatus, SUM(f.invoiceCount), SUM(f.totalAmount), " +
+           "SUM(f.paidAmount), SUM(f.remainingDebt) FROM DailyInvoiceFact f " +
+           "WHERE f.factDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY f.invoiceType, f.paymentStatus")
+    List<Object[]> summarizeByTypeAndStatus(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Revenue (PAID + PARTIAL_PAID) by day for chart
+     * Returns: [date, amount]
+     */
+    @Query("SELECT f.factDate, SUM(f.totalAmount) FROM DailyInvoiceFact f " +
+           "WHERE f.factDate BETWEEN :startDate AND :endDate " +
+           "AND f.paymentStatus IN ('PAID', 'PARTIAL_PAID') " +
+           "GROUP BY f.factDate " +
+           "ORDER BY f.factDate")
+    List<Object[]> getRevenueByDay(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
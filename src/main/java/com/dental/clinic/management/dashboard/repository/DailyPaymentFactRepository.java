@@ -0,0 +1,38 @@
+package com.dental.clinic.management.dashboard.repository;
+
+import com.dental.clinic.management.dashboard.domain.DailyPaymentFact;
+import com.dental.clinic.management.dashboard.domain.DailyPaymentFactId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyPaymentFactRepository extends JpaRepository<DailyPaymentFact, DailyPaymentFactId> {
+
+    /**
+     * Totals per payment method
+     * Returns: [paymentMethod, count, amount]
+     */
+    @Query("SELECT f.paymentMethod, SUM(f.paymentCount), SUM(f.totalAmount) FROM DailyPaymentFact f " +
+           "WHERE f.factDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY f.paymentMethod")
+    List<Object[]> summarizeByMethod(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Payments by day for chart
+     * Returns: [date, count, amount]
+     */
+    @Query("SELECT f.factDate, SUM(f.paymentCount), SUM(f.totalAmount) FROM DailyPaymentFact f " +
+           "WHERE f.factDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY f.factDate " +
+           "ORDER BY f.factDate")
+    List<Object[]> getPaymentsByDay(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
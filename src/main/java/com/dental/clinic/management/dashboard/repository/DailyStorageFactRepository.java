@@ -0,0 +1,57 @@
+package com.dental.clinic.management.dashboard.repository;
+
+import com.dental.clinic.management.dashboard.domain.DailyStorageFact;
+import com.dental.clinic.management.dashboard.domain.DailyStorageFactId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyStorageFactRepository extends JpaRepository<DailyStorageFact, DailyStorageFactId> {
+
+    /**
+     * Totals per transaction type, status and export type
+     * Returns: [transactionType, status, exportType, count, totalValue, expiredValue]
+     */
+    @Query("SELECT f.transactionType, f.status, f.exportType, SUM(f.transactionCount), " +
+           "SUM(f.totalValue), SUM(f.expiredValue) FROM DailyStorageFact f " +
+           "WHERE f.factDate BETWEEN :startDate AND :endDate " +
+           "GROUP BY f.transactionType, f.status, f.exportType")
+    List<Object[]> summarize(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Approved export value by day for chart
+     * Returns: [date, amount]
+     */
+    @Query("SELECT f.factDate, SUM(f.totalValue) FROM DailyStorageFact f " +
+           "WHERE f.factDate BETWEEN :startDate AND :endDate " +
+           "AND f.transactionType = 'EXPORT' " +
+           "AND f.status = 'APPROVED' " +
+           "GROUP BY f.factDate " +
+           "ORDER BY f.factDate")
+    List<Object[]> getExportValueByDay(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+
+    /**
+     * Approved transactions by day for chart
+     * Returns: [date, count, importValue, exportValue]
+     */
+    @Query("SELECT f.factDate, SUM(f.transactionCount), " +
+           "SUM(CASE WHEN f.transactionType = 'IMPORT' THEN f.totalValue ELSE 0 END), " +
+           "SUM(CASE WHEN f.transactionType = 'EXPORT' THEN f.totalValue ELSE 0 END) " +
+           "FROM DailyStorageFact f " +
+           "WHERE f.factDate BETWEEN :startDate AND :endDate " +
+           "AND f.status = 'APPROVED' " +
+           "GROUP BY f.factDate " +
+           "ORDER BY f.factDate")
+    List<Object[]> getTransactionsByDay(
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate);
+}
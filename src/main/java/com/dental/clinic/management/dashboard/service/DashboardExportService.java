@@ -7,55 +7,79 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.ss.util.CellRangeAddress;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class DashboardExportService {
 
+    private static final Set<String> TABS = Set.of(
+            "overview", "revenue-expenses", "employees", "warehouse", "transactions", "feedbacks");
+
+    /** Rows kept in memory per sheet before flushing to the temp file */
+    private static final int ROW_ACCESS_WINDOW = 100;
+
     private final DashboardService dashboardService;
     private final DashboardRevenueService revenueService;
     private final DashboardEmployeeService employeeService;
     private final DashboardWarehouseService warehouseService;
     private final DashboardTransactionService transactionService;
     private final com.dental.clinic.management.feedback.service.AppointmentFeedbackService feedbackService;
+    private final DashboardQueryExecutor queryExecutor;
 
-    public byte[] exportToExcel(String tab, String month, LocalDate startDate, LocalDate endDate) {
+    /**
+     * Export one tab to Excel, written straight to out (SXSSF: only
+     * ROW_ACCESS_WINDOW rows per sheet stay in memory)
+     */
+    public void exportToExcel(String tab, String month, LocalDate startDate, LocalDate endDate, OutputStream out) {
         log.info("Exporting tab: {} - month: {}, startDate: {}, endDate: {}", tab, month, startDate, endDate);
         
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        SXSSFWorkbook workbook = createWorkbook();
+        try {
             
             switch (tab.toLowerCase()) {
-                case "overview" -> exportOverview(workbook, month, startDate, endDate);
-                case "revenue-expenses" -> exportRevenueExpenses(workbook, month, startDate, endDate);
-                case "employees" -> exportEmployees(workbook, month, startDate, endDate);
-                case "warehouse" -> exportWarehouse(workbook, month, startDate, endDate);
-                case "transactions" -> exportTransactions(workbook, month, startDate, endDate);
-                case "feedbacks" -> exportFeedbacks(workbook, month, startDate, endDate);
+                case "overview" -> exportOverview(workbook, month, fetchOverview(month, startDate, endDate));
+                case "revenue-expenses" -> exportRevenueExpenses(workbook, month,
+                        fetchRevenueExpenses(month, startDate, endDate));
+                case "employees" -> exportEmployees(workbook, month, fetchEmployees(month, startDate, endDate));
+                case "warehouse" -> exportWarehouse(workbook, month, fetchWarehouse(month, startDate, endDate));
+                case "transactions" -> exportTransactions(workbook, month,
+                        fetchTransactions(month, startDate, endDate));
+                case "feedbacks" -> exportFeedbacks(workbook, month, startDate, endDate,
+                        fetchFeedbacks(startDate, endDate));
                 default -> throw new IllegalArgumentException("Invalid tab: " + tab);
             }
             
             workbook.write(out);
-            return out.toByteArray();
             
         } catch (IOException e) {
             log.error("Error exporting dashboard to Excel", e);
             throw new RuntimeException("Failed to export dashboard to Excel", e);
+        } finally {
+            closeWorkbook(workbook);
         }
     }
 
-    private void exportOverview(Workbook workbook, String month, LocalDate startDate, LocalDate endDate) {
-        DashboardOverviewResponse data = dashboardService.getOverviewStatistics(month, startDate, endDate, false, null, null, null, null);
-        Sheet sheet = workbook.createSheet("Overview");
+    /**
+     * Tabs accepted by exportToExcel / exportToCSV
+     */
+    public boolean isSupportedTab(String tab) {
+        return tab != null && TABS.contains(tab.toLowerCase());
+    }
+
+    private void exportOverview(Workbook workbook, String month, DashboardOverviewResponse data) {
+        Sheet sheet = createSheet(workbook, "Overview");
         
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle currencyStyle = createCurrencyStyle(workbook);
@@ -102,9 +126,8 @@ public class DashboardExportService {
         autoSizeColumns(sheet, 2);
     }
 
-    private void exportRevenueExpenses(Workbook workbook, String month, LocalDate startDate, LocalDate endDate) {
-        RevenueExpensesResponse data = revenueService.getRevenueExpensesStatistics(month, startDate, endDate, false, null);
-        Sheet sheet = workbook.createSheet("Revenue & Expenses");
+    private void exportRevenueExpenses(Workbook workbook, String month, RevenueExpensesResponse data) {
+        Sheet sheet = createSheet(workbook, "Revenue & Expenses");
         
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle currencyStyle = createCurrencyStyle(workbook);
@@ -182,9 +205,8 @@ public class DashboardExportService {
         autoSizeColumns(sheet, 3);
     }
 
-    private void exportEmployees(Workbook workbook, String month, LocalDate startDate, LocalDate endDate) {
-        EmployeeStatisticsResponse data = employeeService.getEmployeeStatistics(month, startDate, endDate, 10);
-        Sheet sheet = workbook.createSheet("Employees");
+    private void exportEmployees(Workbook workbook, String month, EmployeeStatisticsResponse data) {
+        Sheet sheet = createSheet(workbook, "Employees");
         
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle currencyStyle = createCurrencyStyle(workbook);
@@ -244,9 +266,8 @@ public class DashboardExportService {
         autoSizeColumns(sheet, 4);
     }
 
-    private void exportWarehouse(Workbook workbook, String month, LocalDate startDate, LocalDate endDate) {
-        WarehouseStatisticsResponse data = warehouseService.getWarehouseStatistics(month, startDate, endDate);
-        Sheet sheet = workbook.createSheet("Warehouse");
+    private void exportWarehouse(Workbook workbook, String month, WarehouseStatisticsResponse data) {
+        Sheet sheet = createSheet(workbook, "Warehouse");
         
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle currencyStyle = createCurrencyStyle(workbook);
@@ -323,9 +344,8 @@ public class DashboardExportService {
         autoSizeColumns(sheet, 3);
     }
 
-    private void exportTransactions(Workbook workbook, String month, LocalDate startDate, LocalDate endDate) {
-        TransactionStatisticsResponse data = transactionService.getTransactionStatistics(month, startDate, endDate);
-        Sheet sheet = workbook.createSheet("Transactions");
+    private void exportTransactions(Workbook workbook, String month, TransactionStatisticsResponse data) {
+        Sheet sheet = createSheet(workbook, "Transactions");
         
         CellStyle headerStyle = createHeaderStyle(workbook);
         CellStyle currencyStyle = createCurrencyStyle(workbook);
@@ -377,10 +397,9 @@ public class DashboardExportService {
         autoSizeColumns(sheet, 2);
     }
 
-    private void exportFeedbacks(Workbook workbook, String month, LocalDate startDate, LocalDate endDate) {
-        com.dental.clinic.management.feedback.dto.DoctorFeedbackStatisticsResponse data = 
-            feedbackService.getStatisticsByDoctor(startDate, endDate, 10, "rating");
-        Sheet sheet = workbook.createSheet("Feedbacks");
+    private void exportFeedbacks(Workbook workbook, String month, LocalDate startDate, LocalDate endDate,
+            com.dental.clinic.management.feedback.dto.DoctorFeedbackStatisticsResponse data) {
+        Sheet sheet = createSheet(workbook, "Feedbacks");
         
         CellStyle headerStyle = createHeaderStyle(workbook);
         
@@ -593,6 +612,35 @@ public class DashboardExportService {
         return rowNum + 1;
     }
 
+    private SXSSFWorkbook createWorkbook() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        return workbook;
+    }
+
+    /**
+     * Streaming sheets only auto-size tracked columns
+     */
+    private Sheet createSheet(Workbook workbook, String name) {
+        Sheet sheet = workbook.createSheet(name);
+        if (sheet instanceof SXSSFSheet streamingSheet) {
+            streamingSheet.trackAllColumnsForAutoSizing();
+        }
+        return sheet;
+    }
+
+    /**
+     * Delete the temp files backing the streamed sheets
+     */
+    private void closeWorkbook(SXSSFWorkbook workbook) {
+        workbook.dispose();
+        try {
+            workbook.close();
+        } catch (IOException e) {
+            log.warn("Failed to close export workbook", e);
+        }
+    }
+
     private void autoSizeColumns(Sheet sheet, int numColumns) {
         for (int i = 0; i < numColumns; i++) {
             sheet.autoSizeColumn(i);
@@ -600,31 +648,91 @@ public class DashboardExportService {
     }
 
     /**
-     * Export all tabs to a single Excel file
+     * Export all tabs to a single Excel file, written straight to out.
+     * The 6 tab queries run concurrently (DashboardQueryExecutor) and share
+     * memoized fact summaries; sheets are then written in tab order.
      */
-    public byte[] exportAllTabs(String month, LocalDate startDate, LocalDate endDate) {
+    public void exportAllTabs(String month, LocalDate startDate, LocalDate endDate, OutputStream out) {
         log.info("Exporting all dashboard tabs - month: {}, startDate: {}, endDate: {}", month, startDate, endDate);
-        
-        try (Workbook workbook = new XSSFWorkbook();
-             ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            
+
+        AllTabs data = queryExecutor.withScope(() -> {
+            CompletableFuture<DashboardOverviewResponse> overview =
+                    queryExecutor.async(() -> fetchOverview(month, startDate, endDate));
+            CompletableFuture<RevenueExpensesResponse> revenueExpenses =
+                    queryExecutor.async(() -> fetchRevenueExpenses(month, startDate, endDate));
+            CompletableFuture<EmployeeStatisticsResponse> employees =
+                    queryExecutor.async(() -> fetchEmployees(month, startDate, endDate));
+            CompletableFuture<WarehouseStatisticsResponse> warehouse =
+                    queryExecutor.async(() -> fetchWarehouse(month, startDate, endDate));
+            CompletableFuture<TransactionStatisticsResponse> transactions =
+                    queryExecutor.async(() -> fetchTransactions(month, startDate, endDate));
+            CompletableFuture<com.dental.clinic.management.feedback.dto.DoctorFeedbackStatisticsResponse> feedbacks =
+                    queryExecutor.async(() -> fetchFeedbacks(startDate, endDate));
+
+            return new AllTabs(
+                    queryExecutor.await(overview, "overview"),
+                    queryExecutor.await(revenueExpenses, "revenue-expenses"),
+                    queryExecutor.await(employees, "employees"),
+                    queryExecutor.await(warehouse, "warehouse"),
+                    queryExecutor.await(transactions, "transactions"),
+                    queryExecutor.await(feedbacks, "feedbacks"));
+        });
+
+        SXSSFWorkbook workbook = createWorkbook();
+        try {
             // Export all 6 tabs to one workbook
-            exportOverview(workbook, month, startDate, endDate);
-            exportRevenueExpenses(workbook, month, startDate, endDate);
-            exportEmployees(workbook, month, startDate, endDate);
-            exportWarehouse(workbook, month, startDate, endDate);
-            exportTransactions(workbook, month, startDate, endDate);
-            exportFeedbacks(workbook, month, startDate, endDate);
-            
+            exportOverview(workbook, month, data.overview());
+            exportRevenueExpenses(workbook, month, data.revenueExpenses());
+            exportEmployees(workbook, month, data.employees());
+            exportWarehouse(workbook, month, data.warehouse());
+            exportTransactions(workbook, month, data.transactions());
+            exportFeedbacks(workbook, month, startDate, endDate, data.feedbacks());
+
             workbook.write(out);
-            return out.toByteArray();
-            
+
         } catch (IOException e) {
             log.error("Error exporting all dashboard tabs to Excel", e);
             throw new RuntimeException("Failed to export all dashboard tabs to Excel", e);
+        } finally {
+            closeWorkbook(workbook);
         }
     }
 
+    private record AllTabs(
+            DashboardOverviewResponse overview,
+            RevenueExpensesResponse revenueExpenses,
+            EmployeeStatisticsResponse employees,
+            WarehouseStatisticsResponse warehouse,
+            TransactionStatisticsResponse transactions,
+            com.dental.clinic.management.feedback.dto.DoctorFeedbackStatisticsResponse feedbacks) {
+    }
+
+    // ==================== Tab queries ====================
+
+    private DashboardOverviewResponse fetchOverview(String month, LocalDate startDate, LocalDate endDate) {
+        return dashboardService.getOverviewStatistics(month, startDate, endDate, false, null, null, null, null);
+    }
+
+    private RevenueExpensesResponse fetchRevenueExpenses(String month, LocalDate startDate, LocalDate endDate) {
+        return revenueService.getRevenueExpensesStatistics(month, startDate, endDate, false, null);
+    }
+
+    private EmployeeStatisticsResponse fetchEmployees(String month, LocalDate startDate, LocalDate endDate) {
+        return employeeService.getEmployeeStatistics(month, startDate, endDate, 10);
+    }
+
+    private WarehouseStatisticsResponse fetchWarehouse(String month, LocalDate startDate, LocalDate endDate) {
+        return warehouseService.getWarehouseStatistics(month, startDate, endDate);
+    }
+
+    private TransactionStatisticsResponse fetchTransactions(String month, LocalDate startDate, LocalDate endDate) {
+        return transactionService.getTransactionStatistics(month, startDate, endDate);
+    }
+
+    private com.dental.clinic.management.feedback.dto.DoctorFeedbackStatisticsResponse fetchFeedbacks(LocalDate startDate, LocalDate endDate) {
+        return feedbackService.getStatisticsByDoctor(startDate, endDate, 10, "rating");
+    }
+
     /**
      * Export dashboard data to CSV format
      */
@@ -0,0 +1,244 @@
+package com.dental.clinic.management.dashboard.service;
+
+import com.dental.clinic.management.dashboard.repository.DailyAppointmentFactRepository;
+import com.dental.clinic.management.dashboard.repository.DailyInvoiceFactRepository;
+import com.dental.clinic.management.dashboard.repository.DailyPaymentFactRepository;
+import com.dental.clinic.management.dashboard.repository.DailyStorageFactRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Dashboard totals read from the daily fact tables (see DashboardRollupService).
+ *
+ * Dashboard ranges are whole days (DateRangeUtil), so each summary is one
+ * grouped query over at most (days x dimensions) rollup rows; the per-status /
+ * per-type figures are then derived in memory instead of one query each.
+ * Summaries are memoized per request / export (DashboardQueryExecutor), so
+ * tabs sharing a range read each fact once.
+ */
+@Service
+@RequiredArgsConstructor
+public class DashboardFactService {
+
+    private static final Set<String> REVENUE_STATUSES = Set.of("PAID", "PARTIAL_PAID");
+    private static final Set<String> DEBT_STATUSES = Set.of("PENDING_PAYMENT", "PARTIAL_PAID");
+
+    private final DailyInvoiceFactRepository invoiceFactRepository;
+    private final DailyPaymentFactRepository paymentFactRepository;
+    private final DailyStorageFactRepository storageFactRepository;
+    private final DailyAppointmentFactRepository appointmentFactRepository;
+    private final DashboardQueryExecutor queryExecutor;
+
+    public InvoiceSummary invoices(LocalDateTime startDate, LocalDateTime endDate) {
+        return queryExecutor.memoize(List.of("invoices", startDate, endDate),
+                () -> new InvoiceSummary(invoiceFactRepository
+                        .summarizeByTypeAndStatus(startDate.toLocalDate(), endDate.toLocalDate()).stream()
+                        .map(row -> new InvoiceRow((String) row[0], (String) row[1], toLong(row[2]),
+                                toDecimal(row[3]), toDecimal(row[4]), toDecimal(row[5])))
+                        .toList()));
+    }
+
+    public PaymentSummary payments(LocalDateTime startDate, LocalDateTime endDate) {
+        return queryExecutor.memoize(List.of("payments", startDate, endDate),
+                () -> new PaymentSummary(paymentFactRepository
+                        .summarizeByMethod(startDate.toLocalDate(), endDate.toLocalDate()).stream()
+                        .map(row -> new PaymentRow((String) row[0], toLong(row[1]), toDecimal(row[2])))
+                        .toList()));
+    }
+
+    public StorageSummary storage(LocalDateTime startDate, LocalDateTime endDate) {
+        return queryExecutor.memoize(List.of("storage", startDate, endDate),
+                () -> new StorageSummary(storageFactRepository
+                        .summarize(startDate.toLocalDate(), endDate.toLocalDate()).stream()
+                        .map(row -> new StorageRow((String) row[0], (String) row[1], (String) row[2],
+                                toLong(row[3]), toDecimal(row[4]), toDecimal(row[5])))
+                        .toList()));
+    }
+
+    /**
+     * Appointment count per status (missing status = 0)
+     */
+    public Map<String, Long> appointmentsByStatus(LocalDateTime startDate, LocalDateTime endDate) {
+        return queryExecutor.memoize(List.of("appointmentsByStatus", startDate, endDate), () -> {
+            Map<String, Long> counts = new HashMap<>();
+            for (Object[] row : appointmentFactRepository.countByStatus(startDate.toLocalDate(),
+                    endDate.toLocalDate())) {
+                counts.put((String) row[0], toLong(row[1]));
+            }
+            return Map.copyOf(counts);
+        });
+    }
+
+    public List<Object[]> revenueByDay(LocalDateTime startDate, LocalDateTime endDate) {
+        return invoiceFactRepository.getRevenueByDay(startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    public List<Object[]> paymentsByDay(LocalDateTime startDate, LocalDateTime endDate) {
+        return paymentFactRepository.getPaymentsByDay(startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    public List<Object[]> exportValueByDay(LocalDateTime startDate, LocalDateTime endDate) {
+        return storageFactRepository.getExportValueByDay(startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    public List<Object[]> storageTransactionsByDay(LocalDateTime startDate, LocalDateTime endDate) {
+        return storageFactRepository.getTransactionsByDay(startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    public List<Object[]> appointmentHeatmap(LocalDateTime startDate, LocalDateTime endDate) {
+        return appointmentFactRepository.getHeatmapData(startDate.toLocalDate(), endDate.toLocalDate());
+    }
+
+    // ==================== Summaries ====================
+
+    public record InvoiceRow(String invoiceType, String paymentStatus, long count,
+            BigDecimal totalAmount, BigDecimal paidAmount, BigDecimal remainingDebt) {
+    }
+
+    public record InvoiceSummary(List<InvoiceRow> rows) {
+
+        public long count() {
+            return count(r -> true);
+        }
+
+        public long countByStatus(String status) {
+            return count(r -> r.paymentStatus().equals(status));
+        }
+
+        public long countByType(String type) {
+            return count(r -> r.invoiceType().equals(type));
+        }
+
+        public BigDecimal totalValue() {
+            return sum(r -> true, InvoiceRow::totalAmount);
+        }
+
+        public BigDecimal totalByStatus(String status) {
+            return sum(r -> r.paymentStatus().equals(status), InvoiceRow::totalAmount);
+        }
+
+        public BigDecimal totalByType(String type) {
+            return sum(r -> r.invoiceType().equals(type), InvoiceRow::totalAmount);
+        }
+
+        /** PAID + PARTIAL_PAID invoice totals (InvoiceRepository.calculateTotalRevenue) */
+        public BigDecimal revenue() {
+            return sum(r -> REVENUE_STATUSES.contains(r.paymentStatus()), InvoiceRow::totalAmount);
+        }
+
+        public BigDecimal revenueByType(String type) {
+            return sum(r -> REVENUE_STATUSES.contains(r.paymentStatus()) && r.invoiceType().equals(type),
+                    InvoiceRow::totalAmount);
+        }
+
+        /** Paid amount of PAID + PARTIAL_PAID invoices (InvoiceRepository.calculatePaidRevenue) */
+        public BigDecimal paidRevenue() {
+            return sum(r -> REVENUE_STATUSES.contains(r.paymentStatus()), InvoiceRow::paidAmount);
+        }
+
+        /** Remaining debt of PENDING_PAYMENT + PARTIAL_PAID invoices */
+        public BigDecimal debt() {
+            return sum(r -> DEBT_STATUSES.contains(r.paymentStatus()), InvoiceRow::remainingDebt);
+        }
+
+        private long count(Predicate<InvoiceRow> filter) {
+            return rows.stream().filter(filter).mapToLong(InvoiceRow::count).sum();
+        }
+
+        private BigDecimal sum(Predicate<InvoiceRow> filter, Function<InvoiceRow, BigDecimal> value) {
+            return rows.stream().filter(filter).map(value).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+
+    public record PaymentRow(String paymentMethod, long count, BigDecimal amount) {
+    }
+
+    public record PaymentSummary(List<PaymentRow> rows) {
+
+        public long count() {
+            return rows.stream().mapToLong(PaymentRow::count).sum();
+        }
+
+        public BigDecimal totalValue() {
+            return rows.stream().map(PaymentRow::amount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+
+        public long countByMethod(String method) {
+            return rows.stream().filter(r -> r.paymentMethod().equals(method)).mapToLong(PaymentRow::count).sum();
+        }
+
+        public BigDecimal valueByMethod(String method) {
+            return rows.stream().filter(r -> r.paymentMethod().equals(method)).map(PaymentRow::amount)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+
+    /**
+     * @param status     legacy storage_transactions.status ('' if null)
+     * @param exportType '' if none
+     */
+    public record StorageRow(String transactionType, String status, String exportType, long count,
+            BigDecimal totalValue, BigDecimal expiredValue) {
+
+        boolean approved() {
+            return "APPROVED".equals(status);
+        }
+    }
+
+    public record StorageSummary(List<StorageRow> rows) {
+
+        /** All statuses (StorageTransactionRepository.countByTypeInRange) */
+        public long countByType(String type) {
+            return rows.stream().filter(r -> r.transactionType().equals(type)).mapToLong(StorageRow::count).sum();
+        }
+
+        public long countByStatus(String status) {
+            return rows.stream().filter(r -> r.status().equals(status)).mapToLong(StorageRow::count).sum();
+        }
+
+        /** APPROVED transactions only */
+        public BigDecimal approvedValueByType(String type) {
+            return sum(r -> r.approved() && r.transactionType().equals(type), StorageRow::totalValue);
+        }
+
+        /** APPROVED EXPORT value (StorageTransactionRepository.calculateTotalExportValue) */
+        public BigDecimal exportValue() {
+            return approvedValueByType("EXPORT");
+        }
+
+        public BigDecimal exportValueByType(String exportType) {
+            return sum(r -> r.approved() && r.transactionType().equals("EXPORT")
+                    && r.exportType().equals(exportType), StorageRow::totalValue);
+        }
+
+        /** APPROVED DISPOSAL exports of expired batches */
+        public BigDecimal expiredValue() {
+            return sum(r -> r.approved() && r.transactionType().equals("EXPORT")
+                    && r.exportType().equals("DISPOSAL"), StorageRow::expiredValue);
+        }
+
+        private BigDecimal sum(Predicate<StorageRow> filter, Function<StorageRow, BigDecimal> value) {
+            return rows.stream().filter(filter).map(value).reduce(BigDecimal.ZERO, BigDecimal::add);
+        }
+    }
+
+    private static long toLong(Object value) {
+        return value != null ? ((Number) value).longValue() : 0L;
+    }
+
+    private static BigDecimal toDecimal(Object value) {
+        if (value == null) {
+            return BigDecimal.ZERO;
+        }
+        return value instanceof BigDecimal decimal ? decimal : new BigDecimal(value.toString());
+    }
+}
@@ -0,0 +1,219 @@
+package com.dental.clinic.management.dashboard.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs independent dashboard aggregates concurrently and memoizes identical
+ * sub-queries within one request / export.
+ *
+ * - async(): query on a bounded pool (caller runs it when pool and queue are
+ * full), awaited with a per-query timeout -> 504. A query started from a pool
+ * thread (e.g. the overview inside an all-tabs export) runs inline, so pool
+ * threads never wait for tasks queued behind them.
+ * - memoize(): inside a scope, the first caller of a key runs the query and
+ * concurrent / later callers of the same key reuse its result
+ * - withScope(): opens the memo scope for the current request (nested calls
+ * join the outer scope); async() tasks inherit the scope of their caller
+ *
+ * Each async() query runs in its own read-only transaction (REQUIRES_NEW, also
+ * when the caller runs it because the pool is full) whose timeout is the
+ * per-query timeout: Spring applies it to every JPA / JdbcTemplate statement
+ * (JDBC query timeout), so PostgreSQL cancels a runaway aggregate instead of
+ * it holding a connection after the caller got its 504. On timeout the pool
+ * thread is also interrupted.
+ *
+ * Metrics: executor.* with name=dashboard-query, dashboard.query.timeouts
+ */
+@Slf4j
+@Component
+public class DashboardQueryExecutor {
+
+    private static final ThreadLocal<Map<Object, CompletableFuture<Object>>> SCOPE = new ThreadLocal<>();
+
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final long timeoutMs;
+
+    public DashboardQueryExecutor(MeterRegistry meterRegistry, PlatformTransactionManager transactionManager,
+            @Value("${app.dashboard-query.pool-size:6}") int poolSize,
+            @Value("${app.dashboard-query.queue-capacity:100}") int queueCapacity,
+            @Value("${app.dashboard-query.timeout-ms:15000}") long timeoutMs) {
+        this.meterRegistry = meterRegistry;
+        this.timeoutMs = timeoutMs;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // Own transaction even when the caller runs the task (pool full) inside
+        // its transaction, so the statement timeout always applies
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Transaction timeouts are whole seconds
+        this.transactionTemplate.setTimeout((int) Math.max(1, TimeUnit.MILLISECONDS.toSeconds(timeoutMs + 999)));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new QueryThread(runnable, "dashboard-query-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "dashboard-query", List.of());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run body with a memo scope (reuses the current one if already open)
+     */
+    public <T> T withScope(Supplier<T> body) {
+        if (SCOPE.get() != null) {
+            return body.get();
+        }
+        SCOPE.set(new ConcurrentHashMap<>());
+        try {
+            return body.get();
+        } finally {
+            SCOPE.remove();
+        }
+    }
+
+    /**
+     * Start a query on the pool; the task sees the caller's memo scope.
+     * Cancelling the returned future interrupts the pool thread running it.
+     */
+    public <T> CompletableFuture<T> async(Supplier<T> query) {
+        if (Thread.currentThread() instanceof QueryThread) {
+            try {
+                return CompletableFuture.completedFuture(query.get());
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        Map<Object, CompletableFuture<Object>> scope = SCOPE.get();
+        QueryFuture<T> result = new QueryFuture<>();
+        result.task = executor.submit(() -> {
+            if (result.isDone()) {
+                // Cancelled while queued
+                return;
+            }
+            Map<Object, CompletableFuture<Object>> previous = SCOPE.get();
+            SCOPE.set(scope);
+            try {
+                result.complete(transactionTemplate.execute(status -> query.get()));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                if (previous != null) {
+                    SCOPE.set(previous);
+                } else {
+                    SCOPE.remove();
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Result of an async() query, waiting at most the per-query timeout
+     *
+     * @param name query name for logs / error message
+     */
+    public <T> T await(CompletableFuture<T> future, String name) {
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            meterRegistry.counter("dashboard.query.timeouts").increment();
+            log.warn("Dashboard query '{}' timed out after {} ms", name, timeoutMs);
+            throw new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+                    "Truy vấn thống kê '" + name + "' quá thời gian chờ, vui lòng thử lại");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Dashboard query '" + name + "' interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Dashboard query '" + name + "' failed", e.getCause());
+        }
+    }
+
+    /**
+     * Memoized query: within a scope each key runs once, otherwise runs directly
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T memoize(Object key, Supplier<T> query) {
+        Map<Object, CompletableFuture<Object>> scope = SCOPE.get();
+        if (scope == null) {
+            return query.get();
+        }
+        CompletableFuture<Object> created = new CompletableFuture<>();
+        CompletableFuture<Object> existing = scope.putIfAbsent(key, created);
+        if (existing != null) {
+            return (T) await(existing, String.valueOf(key));
+        }
+        try {
+            T value = query.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            // Not cached: a later caller retries
+            scope.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * CompletableFuture.cancel() does not touch the task completing it, so this
+     * one also cancels (interrupts) the pool task
+     */
+    private static final class QueryFuture<T> extends CompletableFuture<T> {
+
+        private volatile Future<?> task;
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            Future<?> running = task;
+            if (cancelled && running != null) {
+                running.cancel(true);
+            }
+            return cancelled;
+        }
+    }
+
+    private static final class QueryThread extends Thread {
+
+        QueryThread(Runnable runnable, String name) {
+            super(runnable, name);
+        }
+    }
+}
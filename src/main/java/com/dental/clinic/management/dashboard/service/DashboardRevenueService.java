@@ -4,7 +4,6 @@ import com.dental.clinic.management.dashboard.dto.RevenueExpensesResponse;
 import com.dental.clinic.management.dashboard.enums.ComparisonMode;
 import com.dental.clinic.management.dashboard.util.DateRangeUtil;
 import com.dental.clinic.management.payment.enums.InvoiceType;
-import com.dental.clinic.management.payment.repository.InvoiceRepository;
 import com.dental.clinic.management.warehouse.repository.StorageTransactionRepository;
 import com.dental.clinic.management.booking_appointment.repository.AppointmentServiceRepository;
 import lombok.RequiredArgsConstructor;
@@ -24,7 +23,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DashboardRevenueService {
 
-    private final InvoiceRepository invoiceRepository;
+    private final DashboardFactService factService;
     private final StorageTransactionRepository storageTransactionRepository;
     private final AppointmentServiceRepository appointmentServiceRepository;
 
@@ -66,22 +65,17 @@ public class DashboardRevenueService {
     }
 
     private RevenueExpensesResponse.RevenueStats buildRevenueStats(LocalDateTime startDate, LocalDateTime endDate) {
-        // Calculate total revenue with null safety
-        BigDecimal totalRevenue = invoiceRepository.calculateTotalRevenue(startDate, endDate);
-        totalRevenue = totalRevenue != null ? totalRevenue : BigDecimal.ZERO;
-        
-        // Calculate revenue by type with null safety
-        BigDecimal appointmentRevenue = invoiceRepository.calculateRevenueByType(startDate, endDate, InvoiceType.APPOINTMENT);
-        appointmentRevenue = appointmentRevenue != null ? appointmentRevenue : BigDecimal.ZERO;
-        
-        BigDecimal treatmentPlanRevenue = invoiceRepository.calculateRevenueByType(startDate, endDate, InvoiceType.TREATMENT_PLAN);
-        treatmentPlanRevenue = treatmentPlanRevenue != null ? treatmentPlanRevenue : BigDecimal.ZERO;
+        DashboardFactService.InvoiceSummary invoices = factService.invoices(startDate, endDate);
+
+        BigDecimal totalRevenue = invoices.revenue();
         
-        BigDecimal supplementalRevenue = invoiceRepository.calculateRevenueByType(startDate, endDate, InvoiceType.SUPPLEMENTAL);
-        supplementalRevenue = supplementalRevenue != null ? supplementalRevenue : BigDecimal.ZERO;
+        // Revenue by type
+        BigDecimal appointmentRevenue = invoices.revenueByType(InvoiceType.APPOINTMENT.name());
+        BigDecimal treatmentPlanRevenue = invoices.revenueByType(InvoiceType.TREATMENT_PLAN.name());
+        BigDecimal supplementalRevenue = invoices.revenueByType(InvoiceType.SUPPLEMENTAL.name());
         
         // Get revenue by day
-        List<Object[]> revenueByDayRaw = invoiceRepository.getRevenueByDay(startDate, endDate);
+        List<Object[]> revenueByDayRaw = factService.revenueByDay(startDate, endDate);
         List<RevenueExpensesResponse.DailyAmount> revenueByDay = revenueByDayRaw.stream()
                 .map(row -> RevenueExpensesResponse.DailyAmount.builder()
                         .date(row[0] instanceof Date ? ((Date) row[0]).toLocalDate() : (LocalDate) row[0])
@@ -113,29 +107,23 @@ public class DashboardRevenueService {
     }
 
     private RevenueExpensesResponse.ExpenseStats buildExpenseStats(LocalDateTime startDate, LocalDateTime endDate) {
-        // Calculate total expenses with null safety
-        BigDecimal totalExpenses = storageTransactionRepository.calculateTotalExportValue(startDate, endDate);
-        totalExpenses = totalExpenses != null ? totalExpenses : BigDecimal.ZERO;
-        
-        // Calculate expenses by type with null safety
-        BigDecimal usageExpenses = storageTransactionRepository.calculateExportValueByType(startDate, endDate, "USAGE");
-        usageExpenses = usageExpenses != null ? usageExpenses : BigDecimal.ZERO;
-        
-        BigDecimal disposalExpenses = storageTransactionRepository.calculateExportValueByType(startDate, endDate, "DISPOSAL");
-        disposalExpenses = disposalExpenses != null ? disposalExpenses : BigDecimal.ZERO;
+        DashboardFactService.StorageSummary storage = factService.storage(startDate, endDate);
+
+        BigDecimal totalExpenses = storage.exportValue();
         
-        BigDecimal returnExpenses = storageTransactionRepository.calculateExportValueByType(startDate, endDate, "RETURN");
-        returnExpenses = returnExpenses != null ? returnExpenses : BigDecimal.ZERO;
+        // Expenses by export type
+        BigDecimal usageExpenses = storage.exportValueByType("USAGE");
+        BigDecimal disposalExpenses = storage.exportValueByType("DISPOSAL");
+        BigDecimal returnExpenses = storage.exportValueByType("RETURN");
         
-        // Separate expired items from damaged items in DISPOSAL category with null safety
-        BigDecimal expiredExpenses = storageTransactionRepository.calculateExpiredItemsValue(startDate, endDate);
-        expiredExpenses = expiredExpenses != null ? expiredExpenses : BigDecimal.ZERO;
+        // Separate expired items from damaged items in DISPOSAL category
+        BigDecimal expiredExpenses = storage.expiredValue();
         BigDecimal damagedExpenses = disposalExpenses.subtract(expiredExpenses);
         
         BigDecimal otherExpenses = totalExpenses.subtract(usageExpenses).subtract(disposalExpenses).subtract(returnExpenses);
         
         // Get expenses by day
-        List<Object[]> expensesByDayRaw = storageTransactionRepository.getExportValueByDay(startDate, endDate);
+        List<Object[]> expensesByDayRaw = factService.exportValueByDay(startDate, endDate);
         List<RevenueExpensesResponse.DailyAmount> expensesByDay = expensesByDayRaw.stream()
                 .map(row -> RevenueExpensesResponse.DailyAmount.builder()
                         .date(row[0] instanceof Date ? ((Date) row[0]).toLocalDate() : (LocalDate) row[0])
@@ -173,12 +161,9 @@ public class DashboardRevenueService {
             LocalDateTime prevStartDate,
             LocalDateTime prevEndDate) {
         
-        // Calculate previous month revenue and expenses with null safety
-        BigDecimal prevRevenue = invoiceRepository.calculateTotalRevenue(prevStartDate, prevEndDate);
-        prevRevenue = prevRevenue != null ? prevRevenue : BigDecimal.ZERO;
-        
-        BigDecimal prevExpenses = storageTransactionRepository.calculateTotalExportValue(prevStartDate, prevEndDate);
-        prevExpenses = prevExpenses != null ? prevExpenses : BigDecimal.ZERO;
+        // Previous period revenue and expenses
+        BigDecimal prevRevenue = factService.invoices(prevStartDate, prevEndDate).revenue();
+        BigDecimal prevExpenses = factService.storage(prevStartDate, prevEndDate).exportValue();
         
         // Calculate changes
         BigDecimal revenueChange = currentRevenue.getTotal().subtract(prevRevenue);
@@ -0,0 +1,51 @@
+package com.dental.clinic.management.dashboard.service;
+
+import com.dental.clinic.management.booking_appointment.domain.Appointment;
+import com.dental.clinic.management.payment.domain.Invoice;
+import com.dental.clinic.management.payment.domain.Payment;
+import com.dental.clinic.management.warehouse.domain.StorageTransaction;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener on Invoice, Payment, StorageTransaction and Appointment:
+ * marks the day of the changed row dirty in DashboardRollupService (applied
+ * after commit).
+ *
+ * Only the current date is known here; callers that move a row to another
+ * day (appointment delay) mark the old day themselves.
+ *
+ * The service is looked up lazily because entity listeners are created while
+ * the EntityManagerFactory is being built.
+ */
+@Component
+public class DashboardRollupChangeListener {
+
+    private final ObjectProvider<DashboardRollupService> rollupService;
+
+    public DashboardRollupChangeListener(ObjectProvider<DashboardRollupService> rollupService) {
+        this.rollupService = rollupService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        DashboardRollupService service = rollupService.getIfAvailable();
+        if (service == null) {
+            return;
+        }
+        if (entity instanceof Invoice invoice) {
+            service.markDirty(DashboardRollupService.Fact.INVOICE, invoice.getCreatedAt());
+        } else if (entity instanceof Payment payment) {
+            service.markDirty(DashboardRollupService.Fact.PAYMENT, payment.getPaymentDate());
+        } else if (entity instanceof StorageTransaction transaction) {
+            service.markDirty(DashboardRollupService.Fact.STORAGE, transaction.getTransactionDate());
+        } else if (entity instanceof Appointment appointment) {
+            service.markDirty(DashboardRollupService.Fact.APPOINTMENT, appointment.getAppointmentStartTime());
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package com.dental.clinic.management.dashboard.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maintains the daily fact tables read by the dashboard
+ * (daily_invoice_facts, daily_payment_facts, daily_storage_facts,
+ * daily_appointment_facts).
+ *
+ * A fact day is always recomputed from its source rows with one DELETE +
+ * INSERT ... SELECT GROUP BY, so a recompute is idempotent and can never drift
+ * from the source. Recomputes of all nodes are serialized by a transaction
+ * advisory lock.
+ *
+ * Refresh triggers:
+ * - invoice / payment / storage transaction / appointment saved through JPA
+ * (DashboardRollupChangeListener) or bulk JDBC paths (markDirty): the day is
+ * marked dirty after commit and recomputed by the next flush
+ * - startup: fact tables that are still empty are backfilled from all history
+ * - nightly: the last reconcile-days are rebuilt (covers changes that bypass
+ * both, e.g. SQL scripts, batch expiry dates used by expired_value)
+ *
+ * Metrics: dashboard.rollup.days_rebuilt{fact}, dashboard.rollup.errors{fact}
+ */
+@Slf4j
+@Service
+public class DashboardRollupService {
+
+    /** Serializes fact recomputes across nodes (pg_advisory_xact_lock key) */
+    private static final long LOCK_KEY = 0x44524F4C4CL;
+
+    public enum Fact {
+        INVOICE("daily_invoice_facts", "invoices", "created_at",
+                "INSERT INTO daily_invoice_facts (fact_date, invoice_type, payment_status, invoice_count, "
+                        + "total_amount, paid_amount, remaining_debt) "
+                        + "SELECT CAST(i.created_at AS date), i.invoice_type, i.payment_status, COUNT(*), "
+                        + "COALESCE(SUM(i.total_amount), 0), COALESCE(SUM(i.paid_amount), 0), "
+                        + "COALESCE(SUM(i.remaining_debt), 0) "
+                        + "FROM invoices i "
+                        + "WHERE i.created_at >= ? AND i.created_at < ? "
+                        + "GROUP BY CAST(i.created_at AS date), i.invoice_type, i.payment_status"),
+
+        PAYMENT("daily_payment_facts", "payments", "payment_date",
+                "INSERT INTO daily_payment_facts (fact_date, payment_method, payment_count, total_amount) "
+                        + "SELECT CAST(p.payment_date AS date), p.payment_method, COUNT(*), "
+                        + "COALESCE(SUM(p.amount), 0) "
+                        + "FROM payments p "
+                        + "WHERE p.payment_date >= ? AND p.payment_date < ? "
+                        + "GROUP BY CAST(p.payment_date AS date), p.payment_method"),
+
+        // expired_value: same rule as StorageTransactionRepository.calculateExpiredItemsValue
+        STORAGE("daily_storage_facts", "storage_transactions", "transaction_date",
+                "INSERT INTO daily_storage_facts (fact_date, transaction_type, status, export_type, "
+                        + "transaction_count, total_value, expired_value) "
+                        + "SELECT CAST(st.transaction_date AS date), st.transaction_type, COALESCE(st.status, ''), "
+                        + "COALESCE(st.export_type, ''), COUNT(*), COALESCE(SUM(st.total_value), 0), "
+                        + "COALESCE(SUM(x.expired_value), 0) "
+                        + "FROM storage_transactions st "
+                        + "LEFT JOIN LATERAL (SELECT SUM(ABS(sti.quantity_change * sti.price)) AS expired_value "
+                        + "    FROM storage_transaction_items sti "
+                        + "    JOIN item_batches ib ON sti.batch_id = ib.batch_id "
+                        + "    WHERE sti.transaction_id = st.transaction_id "
+                        + "    AND st.export_type = 'DISPOSAL' "
+                        + "    AND ib.expiry_date IS NOT NULL "
+                        + "    AND ib.expiry_date <= CAST(st.transaction_date AS date)) x ON TRUE "
+                        + "WHERE st.transaction_date >= ? AND st.transaction_date < ? "
+                        + "GROUP BY CAST(st.transaction_date AS date), st.transaction_type, "
+                        + "COALESCE(st.status, ''), COALESCE(st.export_type, '')"),
+
+        APPOINTMENT("daily_appointment_facts", "appointments", "appointment_start_time",
+                "INSERT INTO daily_appointment_facts (fact_date, start_hour, status, appointment_count) "
+                        + "SELECT CAST(a.appointment_start_time AS date), "
+                        + "CAST(EXTRACT(HOUR FROM a.appointment_start_time) AS integer), a.status, COUNT(*) "
+                        + "FROM appointments a "
+                        + "WHERE a.appointment_start_time >= ? AND a.appointment_start_time < ? "
+                        + "GROUP BY CAST(a.appointment_start_time AS date), "
+                        + "CAST(EXTRACT(HOUR FROM a.appointment_start_time) AS integer), a.status");
+
+        private final String table;
+        private final String sourceTable;
+        private final String sourceColumn;
+        private final String insertSql;
+
+        Fact(String table, String sourceTable, String sourceColumn, String insertSql) {
+            this.table = table;
+            this.sourceTable = sourceTable;
+            this.sourceColumn = sourceColumn;
+            this.insertSql = insertSql;
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<Fact, Set<LocalDate>> dirtyDays = new EnumMap<>(Fact.class);
+
+    @Value("${app.dashboard-rollup.reconcile-days:35}")
+    private int reconcileDays;
+
+    public DashboardRollupService(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        for (Fact fact : Fact.values()) {
+            dirtyDays.put(fact, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Source row of the given day changed: recompute the day after commit
+     */
+    public void markDirty(Fact fact, LocalDateTime dateTime) {
+        if (dateTime != null) {
+            markDirty(fact, List.of(dateTime.toLocalDate()));
+        }
+    }
+
+    /**
+     * Source rows of the given days changed: recompute them after commit
+     */
+    public void markDirty(Fact fact, Collection<LocalDate> days) {
+        if (days == null || days.isEmpty()) {
+            return;
+        }
+        Set<LocalDate> pending = dirtyDays.get(fact);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<LocalDate> copy = List.copyOf(days);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pending.addAll(copy);
+                }
+            });
+        } else {
+            pending.addAll(days);
+        }
+    }
+
+    /**
+     * Recompute dirty days, one statement pair per contiguous run of days
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard-rollup.flush-interval-ms:5000}")
+    public void flush() {
+        for (Fact fact : Fact.values()) {
+            Set<LocalDate> pending = dirtyDays.get(fact);
+            if (pending.isEmpty()) {
+                continue;
+            }
+            List<LocalDate> days = new ArrayList<>(pending);
+            pending.removeAll(days);
+            Collections.sort(days);
+
+            int runStart = 0;
+            for (int i = 1; i <= days.size(); i++) {
+                if (i < days.size() && days.get(i).equals(days.get(i - 1).plusDays(1))) {
+                    continue;
+                }
+                LocalDate from = days.get(runStart);
+                LocalDate to = days.get(i - 1);
+                try {
+                    rebuild(fact, from, to);
+                } catch (Exception e) {
+                    // Retried on the next flush
+                    pending.addAll(days.subList(runStart, i));
+                    meterRegistry.counter("dashboard.rollup.errors", "fact", fact.name()).increment();
+                    log.warn("Dashboard rollup {} {}..{} failed: {}", fact, from, to, e.getMessage());
+                }
+                runStart = i;
+            }
+        }
+    }
+
+    /**
+     * Startup: backfill fact tables that are still empty (first deployment,
+     * restored database). Failures are logged only - the next reconcile or a
+     * manual rebuild catches up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        for (Fact fact : Fact.values()) {
+            try {
+                Boolean empty = jdbcTemplate.queryForObject(
+                        "SELECT NOT EXISTS (SELECT 1 FROM " + fact.table + ")", Boolean.class);
+                if (Boolean.TRUE.equals(empty)) {
+                    rebuildAll(fact);
+                }
+            } catch (Exception e) {
+                log.error("Failed to backfill dashboard rollup {}", fact.table, e);
+            }
+        }
+    }
+
+    /**
+     * Cron: 02:15 every day - rebuild the last reconcile-days of every fact
+     */
+    @Scheduled(cron = "${app.dashboard-rollup.reconcile-cron:0 15 2 * * ?}", zone = "Asia/Ho_Chi_Minh")
+    public void reconcile() {
+        LocalDate today = LocalDate.now();
+        LocalDate from = today.minusDays(Math.max(1, reconcileDays));
+        for (Fact fact : Fact.values()) {
+            try {
+                rebuild(fact, from, today);
+            } catch (Exception e) {
+                meterRegistry.counter("dashboard.rollup.errors", "fact", fact.name()).increment();
+                log.error("Dashboard rollup reconcile of {} failed", fact.table, e);
+            }
+        }
+        log.info("Dashboard rollups reconciled for {}..{}", from, today);
+    }
+
+    /**
+     * Rebuild a fact over its whole source history
+     */
+    public void rebuildAll(Fact fact) {
+        Map<String, Object> bounds = jdbcTemplate.queryForMap("SELECT CAST(MIN(" + fact.sourceColumn
+                + ") AS date) AS first_day, CAST(MAX(" + fact.sourceColumn + ") AS date) AS last_day FROM "
+                + fact.sourceTable);
+        Date firstDay = (Date) bounds.get("first_day");
+        Date lastDay = (Date) bounds.get("last_day");
+        if (firstDay == null || lastDay == null) {
+            return;
+        }
+        int rows = rebuild(fact, firstDay.toLocalDate(), lastDay.toLocalDate());
+        log.info("Dashboard rollup {} backfilled: {}..{}, {} rows", fact.table, firstDay, lastDay, rows);
+    }
+
+    /**
+     * Recompute the fact rows of [from, to] (inclusive) in one transaction
+     *
+     * @return number of fact rows written
+     */
+    public int rebuild(Fact fact, LocalDate from, LocalDate to) {
+        Integer rows = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LOCK_KEY + ")");
+            jdbcTemplate.update("DELETE FROM " + fact.table + " WHERE fact_date BETWEEN ? AND ?",
+                    Date.valueOf(from), Date.valueOf(to));
+            return jdbcTemplate.update(fact.insertSql,
+                    Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.plusDays(1).atStartOfDay()));
+        });
+        meterRegistry.counter("dashboard.rollup.days_rebuilt", "fact", fact.name())
+                .increment(ChronoUnit.DAYS.between(from, to) + 1);
+        log.debug("Dashboard rollup {} {}..{}: {} rows", fact, from, to, rows);
+        return rows != null ? rows : 0;
+    }
+}
@@ -16,6 +16,7 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Service
@@ -29,11 +30,11 @@ public class DashboardService {
     private final DashboardEmployeeService employeeService;
     private final DashboardWarehouseService warehouseService;
     private final DashboardTransactionService transactionService;
+    private final DashboardFactService factService;
+    private final DashboardQueryExecutor queryExecutor;
     private final com.dental.clinic.management.feedback.service.AppointmentFeedbackService feedbackService;
     
     // Additional repositories for overview statistics
-    private final com.dental.clinic.management.warehouse.repository.StorageTransactionRepository storageTransactionRepository;
-    private final com.dental.clinic.management.booking_appointment.repository.AppointmentRepository appointmentRepository;
     private final com.dental.clinic.management.employee.repository.EmployeeRepository employeeRepository;
     private final com.dental.clinic.management.warehouse.repository.ItemMasterRepository itemMasterRepository;
     private final com.dental.clinic.management.warehouse.repository.ItemBatchRepository itemBatchRepository;
@@ -68,61 +69,92 @@ public class DashboardService {
         LocalDateTime rangeStart = dateRange.getStartDate();
         LocalDateTime rangeEnd = dateRange.getEndDate();
         
-        // Get current period stats
-        BigDecimal totalRevenue = calculateTotalRevenue(rangeStart, rangeEnd);
-        BigDecimal totalExpenses = calculateTotalExpenses(rangeStart, rangeEnd);
-        BigDecimal netProfit = totalRevenue.subtract(totalExpenses);
-        
-        Long totalInvoices = countInvoices(rangeStart, rangeEnd);
-        Long totalAppointments = countAppointments(rangeStart, rangeEnd);
-        Long totalPatients = countPatients(rangeStart, rangeEnd);
-        Long newPatientsThisMonth = countNewPatients(rangeStart, rangeEnd);
-        
-        // Summary stats
-        DashboardOverviewResponse.SummaryStats summary = DashboardOverviewResponse.SummaryStats.builder()
-                .totalRevenue(totalRevenue)
-                .totalExpenses(totalExpenses)
-                .netProfit(netProfit)
-                .totalInvoices(totalInvoices)
-                .totalAppointments(totalAppointments)
-                .totalPatients(totalPatients)
-                .newPatientsThisMonth(newPatientsThisMonth)
-                .build();
-        
-        // Build response
-        DashboardOverviewResponse.DashboardOverviewResponseBuilder builder = DashboardOverviewResponse.builder()
-                .month(dateRange.getLabel())
-                .summary(summary);
-        
-        // Compare with previous period if requested
-        BigDecimal prevRevenue = null;
-        if (comparisonMode != ComparisonMode.NONE) {
-            DateRangeUtil.DateRange comparisonPeriod = DateRangeUtil.calculateComparisonPeriod(dateRange, comparisonMode);
+        // Comparison period if requested
+        DateRangeUtil.DateRange comparisonPeriod = comparisonMode != ComparisonMode.NONE
+                ? DateRangeUtil.calculateComparisonPeriod(dateRange, comparisonMode)
+                : null;
+        
+        // Independent aggregates run concurrently (memoized per request), so a
+        // cold load takes about as long as the slowest query
+        return queryExecutor.withScope(() -> {
+            CompletableFuture<DashboardFactService.InvoiceSummary> invoicesQuery = queryExecutor
+                    .async(() -> factService.invoices(rangeStart, rangeEnd));
+            CompletableFuture<java.util.Map<String, Long>> appointmentsQuery = queryExecutor
+                    .async(() -> factService.appointmentsByStatus(rangeStart, rangeEnd));
+            CompletableFuture<BigDecimal> expensesQuery = queryExecutor
+                    .async(() -> calculateTotalExpenses(rangeStart, rangeEnd));
+            CompletableFuture<Long> patientsQuery = queryExecutor
+                    .async(() -> countPatients(rangeStart, rangeEnd));
+            CompletableFuture<Long> newPatientsQuery = queryExecutor
+                    .async(() -> countNewPatients(rangeStart, rangeEnd));
+            CompletableFuture<Long> overdueQuery = queryExecutor
+                    .async(() -> invoiceRepository.countOverdueInvoices(rangeStart, rangeEnd));
+            CompletableFuture<Long> lowInventoryQuery = queryExecutor.async(this::countLowInventoryItems);
+            CompletableFuture<Long> expiringQuery = queryExecutor.async(() -> countExpiringMaterials(30));
+            CompletableFuture<BigDecimal> prevRevenueQuery = comparisonPeriod != null
+                    ? queryExecutor.async(() -> calculateTotalRevenue(
+                            comparisonPeriod.getStartDate(), comparisonPeriod.getEndDate()))
+                    : null;
+            CompletableFuture<BigDecimal> prevExpensesQuery = comparisonPeriod != null
+                    ? queryExecutor.async(() -> calculateTotalExpenses(
+                            comparisonPeriod.getStartDate(), comparisonPeriod.getEndDate()))
+                    : null;
+            
+            // Get current period stats
+            DashboardFactService.InvoiceSummary invoices = queryExecutor.await(invoicesQuery, "invoices");
+            java.util.Map<String, Long> appointmentsByStatus = queryExecutor.await(appointmentsQuery, "appointments");
+            BigDecimal totalRevenue = invoices.revenue();
+            BigDecimal totalExpenses = queryExecutor.await(expensesQuery, "expenses");
+            BigDecimal netProfit = totalRevenue.subtract(totalExpenses);
+            
+            Long totalInvoices = invoices.count();
+            Long totalAppointments = appointmentsByStatus.values().stream().mapToLong(Long::longValue).sum();
+            Long totalPatients = queryExecutor.await(patientsQuery, "patients");
+            Long newPatientsThisMonth = queryExecutor.await(newPatientsQuery, "newPatients");
+            
+            // Summary stats
+            DashboardOverviewResponse.SummaryStats summary = DashboardOverviewResponse.SummaryStats.builder()
+                    .totalRevenue(totalRevenue)
+                    .totalExpenses(totalExpenses)
+                    .netProfit(netProfit)
+                    .totalInvoices(totalInvoices)
+                    .totalAppointments(totalAppointments)
+                    .totalPatients(totalPatients)
+                    .newPatientsThisMonth(newPatientsThisMonth)
+                    .build();
+            
+            // Build response
+            DashboardOverviewResponse.DashboardOverviewResponseBuilder builder = DashboardOverviewResponse.builder()
+                    .month(dateRange.getLabel())
+                    .summary(summary);
+            
+            // Compare with previous period if requested
+            BigDecimal prevRevenue = null;
             if (comparisonPeriod != null) {
-                LocalDateTime compStartDate = comparisonPeriod.getStartDate();
-                LocalDateTime compEndDate = comparisonPeriod.getEndDate();
-                
-                prevRevenue = calculateTotalRevenue(compStartDate, compEndDate);
-                BigDecimal prevExpenses = calculateTotalExpenses(compStartDate, compEndDate);
+                prevRevenue = queryExecutor.await(prevRevenueQuery, "previousRevenue");
+                BigDecimal prevExpenses = queryExecutor.await(prevExpensesQuery, "previousExpenses");
                 
                 builder.previousMonth(comparisonPeriod.getLabel())
                        .revenue(buildComparisonStats(totalRevenue, prevRevenue))
                        .expenses(buildComparisonStats(totalExpenses, prevExpenses));
             }
-        }
-        
-        // Invoice stats
-        builder.invoices(buildInvoiceStats(rangeStart, rangeEnd));
-        
-        // Appointment stats
-        builder.appointments(buildAppointmentStats(rangeStart, rangeEnd));
-        
-        // Alert stats (top 5 only)
-        DashboardOverviewResponse.InvoiceStats invoiceStats = buildInvoiceStats(rangeStart, rangeEnd);
-        DashboardOverviewResponse.AppointmentStats appointmentStats = buildAppointmentStats(rangeStart, rangeEnd);
-        builder.alerts(buildAlertStats(totalRevenue, prevRevenue, invoiceStats, appointmentStats));
-        
-        return builder.build();
+            
+            // Invoice stats
+            DashboardOverviewResponse.InvoiceStats invoiceStats = buildInvoiceStats(invoices,
+                    queryExecutor.await(overdueQuery, "overdueInvoices"));
+            builder.invoices(invoiceStats);
+            
+            // Appointment stats
+            DashboardOverviewResponse.AppointmentStats appointmentStats = buildAppointmentStats(appointmentsByStatus);
+            builder.appointments(appointmentStats);
+            
+            // Alert stats (top 5 only)
+            builder.alerts(buildAlertStats(totalRevenue, prevRevenue, invoiceStats, appointmentStats,
+                    queryExecutor.await(lowInventoryQuery, "lowInventory"),
+                    queryExecutor.await(expiringQuery, "expiringMaterials")));
+            
+            return builder.build();
+        });
     }
 
     /**
@@ -210,9 +242,9 @@ public class DashboardService {
         LocalDateTime rangeStart = dateRange.getStartDate();
         LocalDateTime rangeEnd = dateRange.getEndDate();
         
-        // Get raw heatmap data from repository
-        List<Object[]> rawData = appointmentRepository.getAppointmentHeatmapData(rangeStart, rangeEnd);
-        Long totalAppointments = appointmentRepository.countAppointmentsInRange(rangeStart, rangeEnd);
+        // Get raw heatmap data from the daily appointment rollup
+        List<Object[]> rawData = factService.appointmentHeatmap(rangeStart, rangeEnd);
+        Long totalAppointments = rawData.stream().mapToLong(row -> ((Number) row[2]).longValue()).sum();
         
         // Transform to response format
         List<AppointmentHeatmapResponse.HeatmapCell> cells = new java.util.ArrayList<>();
@@ -264,19 +296,11 @@ public class DashboardService {
     // ==================== Private Helper Methods ====================
 
     private BigDecimal calculateTotalRevenue(LocalDateTime startDate, LocalDateTime endDate) {
-        return invoiceRepository.calculateTotalRevenue(startDate, endDate);
+        return factService.invoices(startDate, endDate).revenue();
     }
 
     private BigDecimal calculateTotalExpenses(LocalDateTime startDate, LocalDateTime endDate) {
-        return storageTransactionRepository.calculateTotalExportValue(startDate, endDate);
-    }
-
-    private Long countInvoices(LocalDateTime startDate, LocalDateTime endDate) {
-        return invoiceRepository.countInvoicesInRange(startDate, endDate);
-    }
-
-    private Long countAppointments(LocalDateTime startDate, LocalDateTime endDate) {
-        return appointmentRepository.countAppointmentsInRange(startDate, endDate);
+        return factService.storage(startDate, endDate).exportValue();
     }
 
     private Long countPatients(LocalDateTime startDate, LocalDateTime endDate) {
@@ -309,14 +333,18 @@ public class DashboardService {
                 .build();
     }
 
-    private DashboardOverviewResponse.InvoiceStats buildInvoiceStats(LocalDateTime startDate, LocalDateTime endDate) {
-        Long total = invoiceRepository.countInvoicesInRange(startDate, endDate);
-        Long paid = invoiceRepository.countByStatusInRange(startDate, endDate, InvoicePaymentStatus.PAID);
-        Long pending = invoiceRepository.countByStatusInRange(startDate, endDate, InvoicePaymentStatus.PENDING_PAYMENT);
-        Long overdue = invoiceRepository.countOverdueInvoices(startDate, endDate);
+    /**
+     * @param overdue overdue invoices of the range (depends on today's date, so
+     *                not part of the daily rollup - live query)
+     */
+    private DashboardOverviewResponse.InvoiceStats buildInvoiceStats(DashboardFactService.InvoiceSummary invoices,
+            Long overdue) {
+        Long total = invoices.count();
+        Long paid = invoices.countByStatus(InvoicePaymentStatus.PAID.name());
+        Long pending = invoices.countByStatus(InvoicePaymentStatus.PENDING_PAYMENT.name());
         
-        BigDecimal totalAmount = invoiceRepository.calculateTotalRevenue(startDate, endDate);
-        BigDecimal paidAmount = invoiceRepository.calculatePaidRevenue(startDate, endDate);
+        BigDecimal totalAmount = invoices.revenue();
+        BigDecimal paidAmount = invoices.paidRevenue();
         
         return DashboardOverviewResponse.InvoiceStats.builder()
                 .total(total)
@@ -328,15 +356,15 @@ public class DashboardService {
                 .build();
     }
 
-    private DashboardOverviewResponse.AppointmentStats buildAppointmentStats(LocalDateTime startDate, LocalDateTime endDate) {
-        Long total = appointmentRepository.countAppointmentsInRange(startDate, endDate);
+    private DashboardOverviewResponse.AppointmentStats buildAppointmentStats(java.util.Map<String, Long> countsByStatus) {
+        Long total = countsByStatus.values().stream().mapToLong(Long::longValue).sum();
         
-        Long scheduled = appointmentRepository.countByStatusInRange(startDate, endDate, 
-                com.dental.clinic.management.booking_appointment.enums.AppointmentStatus.SCHEDULED);
-        Long completed = appointmentRepository.countByStatusInRange(startDate, endDate, 
-                com.dental.clinic.management.booking_appointment.enums.AppointmentStatus.COMPLETED);
-        Long cancelled = appointmentRepository.countByStatusInRange(startDate, endDate, 
-                com.dental.clinic.management.booking_appointment.enums.AppointmentStatus.CANCELLED);
+        Long scheduled = countsByStatus.getOrDefault(
+                com.dental.clinic.management.booking_appointment.enums.AppointmentStatus.SCHEDULED.name(), 0L);
+        Long completed = countsByStatus.getOrDefault(
+                com.dental.clinic.management.booking_appointment.enums.AppointmentStatus.COMPLETED.name(), 0L);
+        Long cancelled = countsByStatus.getOrDefault(
+                com.dental.clinic.management.booking_appointment.enums.AppointmentStatus.CANCELLED.name(), 0L);
         
         return DashboardOverviewResponse.AppointmentStats.builder()
                 .total(total)
@@ -354,7 +382,9 @@ public class DashboardService {
             BigDecimal currentRevenue,
             BigDecimal previousRevenue,
             DashboardOverviewResponse.InvoiceStats invoiceStats,
-            DashboardOverviewResponse.AppointmentStats appointmentStats) {
+            DashboardOverviewResponse.AppointmentStats appointmentStats,
+            Long lowInventoryCount,
+            Long expiringCount) {
         
         java.util.List<DashboardOverviewResponse.Alert> alerts = new java.util.ArrayList<>();
         
@@ -403,7 +433,6 @@ public class DashboardService {
         }
         
         // 4. Low Inventory Alert
-        Long lowInventoryCount = countLowInventoryItems();
         if (lowInventoryCount > 5) {
             alerts.add(DashboardOverviewResponse.Alert.builder()
                     .type("LOW_INVENTORY")
@@ -416,7 +445,6 @@ public class DashboardService {
         }
         
         // 5. Expiring Materials Alert (expiring within 30 days)
-        Long expiringCount = countExpiringMaterials(30);
         if (expiringCount > 10) {
             alerts.add(DashboardOverviewResponse.Alert.builder()
                     .type("EXPIRING_MATERIALS")
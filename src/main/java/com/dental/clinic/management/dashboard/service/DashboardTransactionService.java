@@ -2,8 +2,6 @@ package com.dental.clinic.management.dashboard.service;
 
 import com.dental.clinic.management.dashboard.dto.TransactionStatisticsResponse;
 import com.dental.clinic.management.dashboard.util.DateRangeUtil;
-import com.dental.clinic.management.payment.repository.InvoiceRepository;
-import com.dental.clinic.management.payment.repository.PaymentRepository;
 import com.dental.clinic.management.payment.enums.InvoicePaymentStatus;
 import com.dental.clinic.management.payment.enums.InvoiceType;
 import com.dental.clinic.management.payment.enums.PaymentMethod;
@@ -23,8 +21,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class DashboardTransactionService {
 
-    private final InvoiceRepository invoiceRepository;
-    private final PaymentRepository paymentRepository;
+    private final DashboardFactService factService;
 
     public TransactionStatisticsResponse getTransactionStatistics(String month, LocalDate start, LocalDate end) {
         DateRangeUtil.DateRange dateRange = DateRangeUtil.parseDateRange(month, start, end);
@@ -41,32 +38,34 @@ public class DashboardTransactionService {
     private TransactionStatisticsResponse.InvoiceStats getInvoiceStats(
             LocalDateTime startDate, LocalDateTime endDate) {
         
+        DashboardFactService.InvoiceSummary invoices = factService.invoices(startDate, endDate);
+
         // Total invoices and value
-        Long totalInvoices = invoiceRepository.countInvoicesInRange(startDate, endDate);
-        BigDecimal totalValue = invoiceRepository.calculateTotalInvoiceValue(startDate, endDate);
+        Long totalInvoices = invoices.count();
+        BigDecimal totalValue = invoices.totalValue();
         
         // By status
-        Long pendingCount = invoiceRepository.countByStatusInRange(startDate, endDate, InvoicePaymentStatus.PENDING_PAYMENT);
-        BigDecimal pendingValue = invoiceRepository.calculateTotalByStatusInRange(startDate, endDate, InvoicePaymentStatus.PENDING_PAYMENT);
+        Long pendingCount = invoices.countByStatus(InvoicePaymentStatus.PENDING_PAYMENT.name());
+        BigDecimal pendingValue = invoices.totalByStatus(InvoicePaymentStatus.PENDING_PAYMENT.name());
         
-        Long partialCount = invoiceRepository.countByStatusInRange(startDate, endDate, InvoicePaymentStatus.PARTIAL_PAID);
-        BigDecimal partialValue = invoiceRepository.calculateTotalByStatusInRange(startDate, endDate, InvoicePaymentStatus.PARTIAL_PAID);
+        Long partialCount = invoices.countByStatus(InvoicePaymentStatus.PARTIAL_PAID.name());
+        BigDecimal partialValue = invoices.totalByStatus(InvoicePaymentStatus.PARTIAL_PAID.name());
         
-        Long paidCount = invoiceRepository.countByStatusInRange(startDate, endDate, InvoicePaymentStatus.PAID);
-        BigDecimal paidValue = invoiceRepository.calculateTotalByStatusInRange(startDate, endDate, InvoicePaymentStatus.PAID);
+        Long paidCount = invoices.countByStatus(InvoicePaymentStatus.PAID.name());
+        BigDecimal paidValue = invoices.totalByStatus(InvoicePaymentStatus.PAID.name());
         
-        Long cancelledCount = invoiceRepository.countByStatusInRange(startDate, endDate, InvoicePaymentStatus.CANCELLED);
-        BigDecimal cancelledValue = invoiceRepository.calculateTotalByStatusInRange(startDate, endDate, InvoicePaymentStatus.CANCELLED);
+        Long cancelledCount = invoices.countByStatus(InvoicePaymentStatus.CANCELLED.name());
+        BigDecimal cancelledValue = invoices.totalByStatus(InvoicePaymentStatus.CANCELLED.name());
         
         // By type
-        Long appointmentCount = invoiceRepository.countByTypeInRange(startDate, endDate, InvoiceType.APPOINTMENT);
-        BigDecimal appointmentValue = invoiceRepository.calculateTotalByTypeInRange(startDate, endDate, InvoiceType.APPOINTMENT);
+        Long appointmentCount = invoices.countByType(InvoiceType.APPOINTMENT.name());
+        BigDecimal appointmentValue = invoices.totalByType(InvoiceType.APPOINTMENT.name());
         
-        Long treatmentPlanCount = invoiceRepository.countByTypeInRange(startDate, endDate, InvoiceType.TREATMENT_PLAN);
-        BigDecimal treatmentPlanValue = invoiceRepository.calculateTotalByTypeInRange(startDate, endDate, InvoiceType.TREATMENT_PLAN);
+        Long treatmentPlanCount = invoices.countByType(InvoiceType.TREATMENT_PLAN.name());
+        BigDecimal treatmentPlanValue = invoices.totalByType(InvoiceType.TREATMENT_PLAN.name());
         
-        Long supplementalCount = invoiceRepository.countByTypeInRange(startDate, endDate, InvoiceType.SUPPLEMENTAL);
-        BigDecimal supplementalValue = invoiceRepository.calculateTotalByTypeInRange(startDate, endDate, InvoiceType.SUPPLEMENTAL);
+        Long supplementalCount = invoices.countByType(InvoiceType.SUPPLEMENTAL.name());
+        BigDecimal supplementalValue = invoices.totalByType(InvoiceType.SUPPLEMENTAL.name());
         
         // Payment rate - (paid + partial_paid) / total
         Long paidOrPartial = paidCount + partialCount;
@@ -74,7 +73,7 @@ public class DashboardTransactionService {
                 (paidOrPartial.doubleValue() / totalInvoices.doubleValue()) * 100.0 : 0.0;
         
         // Total debt
-        BigDecimal debt = invoiceRepository.calculateTotalDebt(startDate, endDate);
+        BigDecimal debt = invoices.debt();
         
         return TransactionStatisticsResponse.InvoiceStats.builder()
                 .total(totalInvoices)
@@ -98,16 +97,18 @@ public class DashboardTransactionService {
     private TransactionStatisticsResponse.PaymentStats getPaymentStats(
             LocalDateTime startDate, LocalDateTime endDate) {
         
+        DashboardFactService.PaymentSummary payments = factService.payments(startDate, endDate);
+
         // Total payments
-        Long total = paymentRepository.countPaymentsInRange(startDate, endDate);
-        BigDecimal totalValue = paymentRepository.calculateTotalPaymentValue(startDate, endDate);
+        Long total = payments.count();
+        BigDecimal totalValue = payments.totalValue();
         
         // By payment method (currently only SEPAY)
-        Long sepayCount = paymentRepository.countByMethodInRange(startDate, endDate, PaymentMethod.SEPAY);
-        BigDecimal sepayValue = paymentRepository.calculateValueByMethodInRange(startDate, endDate, PaymentMethod.SEPAY);
+        Long sepayCount = payments.countByMethod(PaymentMethod.SEPAY.name());
+        BigDecimal sepayValue = payments.valueByMethod(PaymentMethod.SEPAY.name());
         
         // By day
-        List<Object[]> paymentsByDayRaw = paymentRepository.getPaymentsByDay(startDate, endDate);
+        List<Object[]> paymentsByDayRaw = factService.paymentsByDay(startDate, endDate);
         List<TransactionStatisticsResponse.DailyPayment> paymentsByDay = paymentsByDayRaw.stream()
                 .map(row -> TransactionStatisticsResponse.DailyPayment.builder()
                         .date(row[0] instanceof Date ? ((Date) row[0]).toLocalDate() : (LocalDate) row[0])
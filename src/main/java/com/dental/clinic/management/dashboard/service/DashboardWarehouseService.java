@@ -5,6 +5,7 @@ import com.dental.clinic.management.dashboard.util.DateRangeUtil;
 import com.dental.clinic.management.warehouse.repository.StorageTransactionRepository;
 import com.dental.clinic.management.warehouse.repository.ItemBatchRepository;
 import com.dental.clinic.management.warehouse.enums.TransactionType;
+import com.dental.clinic.management.warehouse.service.StockBalanceService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -23,6 +24,8 @@ public class DashboardWarehouseService {
 
     private final StorageTransactionRepository storageTransactionRepository;
     private final ItemBatchRepository itemBatchRepository;
+    private final StockBalanceService stockBalanceService;
+    private final DashboardFactService factService;
 
     public WarehouseStatisticsResponse getWarehouseStatistics(String month, LocalDate start, LocalDate end) {
         DateRangeUtil.DateRange dateRange = DateRangeUtil.parseDateRange(month, start, end);
@@ -41,41 +44,25 @@ public class DashboardWarehouseService {
     private WarehouseStatisticsResponse.TransactionStats getTransactionStats(
             LocalDateTime startDate, LocalDateTime endDate) {
         
-        // Count total transactions with null safety
-        Long importCount = storageTransactionRepository.countByTypeInRange(
-                startDate, endDate, TransactionType.IMPORT);
-        importCount = importCount != null ? importCount : 0L;
-        
-        Long exportCount = storageTransactionRepository.countByTypeInRange(
-                startDate, endDate, TransactionType.EXPORT);
-        exportCount = exportCount != null ? exportCount : 0L;
-        
+        DashboardFactService.StorageSummary storage = factService.storage(startDate, endDate);
+
+        // Count total transactions
+        Long importCount = storage.countByType(TransactionType.IMPORT.name());
+        Long exportCount = storage.countByType(TransactionType.EXPORT.name());
         Long total = importCount + exportCount;
         
-        // Calculate values with null safety
-        BigDecimal importValue = storageTransactionRepository.calculateTotalValueByType(
-                startDate, endDate, TransactionType.IMPORT);
-        importValue = importValue != null ? importValue : BigDecimal.ZERO;
-        
-        BigDecimal exportValue = storageTransactionRepository.calculateTotalValueByType(
-                startDate, endDate, TransactionType.EXPORT);
-        exportValue = exportValue != null ? exportValue : BigDecimal.ZERO;
-        
-        // By status with null safety
-        Long pending = storageTransactionRepository.countByStatusInRange(startDate, endDate, "PENDING_APPROVAL");
-        pending = pending != null ? pending : 0L;
-        
-        Long approved = storageTransactionRepository.countByStatusInRange(startDate, endDate, "APPROVED");
-        approved = approved != null ? approved : 0L;
-        
-        Long rejected = storageTransactionRepository.countByStatusInRange(startDate, endDate, "REJECTED");
-        rejected = rejected != null ? rejected : 0L;
+        // Values of approved transactions
+        BigDecimal importValue = storage.approvedValueByType(TransactionType.IMPORT.name());
+        BigDecimal exportValue = storage.approvedValueByType(TransactionType.EXPORT.name());
         
-        Long cancelled = storageTransactionRepository.countByStatusInRange(startDate, endDate, "CANCELLED");
-        cancelled = cancelled != null ? cancelled : 0L;
+        // By status
+        Long pending = storage.countByStatus("PENDING_APPROVAL");
+        Long approved = storage.countByStatus("APPROVED");
+        Long rejected = storage.countByStatus("REJECTED");
+        Long cancelled = storage.countByStatus("CANCELLED");
         
         // By day
-        List<Object[]> transactionsByDayRaw = storageTransactionRepository.getTransactionsByDay(startDate, endDate);
+        List<Object[]> transactionsByDayRaw = factService.storageTransactionsByDay(startDate, endDate);
         List<WarehouseStatisticsResponse.DailyTransaction> transactionsByDay = transactionsByDayRaw.stream()
                 .map(row -> WarehouseStatisticsResponse.DailyTransaction.builder()
                         .date(row[0] instanceof Date ? ((Date) row[0]).toLocalDate() : (LocalDate) row[0])
@@ -110,9 +97,8 @@ public class DashboardWarehouseService {
         BigDecimal currentTotalValue = itemBatchRepository.calculateTotalInventoryValue();
         currentTotalValue = currentTotalValue != null ? currentTotalValue : BigDecimal.ZERO;
         
-        // Low stock items count with null safety
-        Long lowStockItems = itemBatchRepository.countLowStockItems();
-        lowStockItems = lowStockItems != null ? lowStockItems : 0L;
+        // Low stock items count (per-item totals from item_stock_balances)
+        Long lowStockItems = stockBalanceService.countLowStockItems();
         
         // Expiring items (within 30 days) with null safety
         LocalDate today = LocalDate.now();
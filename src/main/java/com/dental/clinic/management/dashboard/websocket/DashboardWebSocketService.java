@@ -3,15 +3,25 @@ package com.dental.clinic.management.dashboard.websocket;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Dashboard WebSocket Service
  * Broadcasts real-time updates to connected dashboard clients
+ *
+ * Data updates and metric changes are coalesced and flushed every
+ * app.websocket.dashboard-flush-interval-ms: a burst of invoices or
+ * appointments sends each dataType / metric once per window instead of once
+ * per event (message format unchanged). Alerts and user updates are sent
+ * immediately.
  */
 @Slf4j
 @Service
@@ -20,19 +30,51 @@ public class DashboardWebSocketService {
 
     private final SimpMessagingTemplate messagingTemplate;
 
+    private final Set<String> pendingDataTypes = ConcurrentHashMap.newKeySet();
+    private final Map<String, Object[]> pendingMetrics = new ConcurrentHashMap<>();
+
     /**
      * Broadcast dashboard data update notification
      * Clients should refetch data when they receive this
      */
     public void broadcastDataUpdate(String dataType) {
-        log.info("Broadcasting dashboard update for: {}", dataType);
-        
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", "DATA_UPDATE");
-        message.put("dataType", dataType); // e.g., "REVENUE", "APPOINTMENTS", "OVERVIEW"
-        message.put("timestamp", LocalDateTime.now().toString());
-        
-        messagingTemplate.convertAndSend("/topic/dashboard/updates", message);
+        log.debug("Queueing dashboard update for: {}", dataType);
+        pendingDataTypes.add(dataType);
+    }
+
+    /**
+     * Send the coalesced data updates and metric changes of the last window
+     */
+    @Scheduled(fixedDelayString = "${app.websocket.dashboard-flush-interval-ms:1000}")
+    public void flushPendingUpdates() {
+        for (String dataType : List.copyOf(pendingDataTypes)) {
+            pendingDataTypes.remove(dataType);
+            log.info("Broadcasting dashboard update for: {}", dataType);
+
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "DATA_UPDATE");
+            message.put("dataType", dataType); // e.g., "REVENUE", "APPOINTMENTS", "OVERVIEW"
+            message.put("timestamp", LocalDateTime.now().toString());
+
+            messagingTemplate.convertAndSend("/topic/dashboard/updates", message);
+        }
+
+        for (String metricName : List.copyOf(pendingMetrics.keySet())) {
+            Object[] change = pendingMetrics.remove(metricName);
+            if (change == null) {
+                continue;
+            }
+            log.info("Broadcasting metric change: {} from {} to {}", metricName, change[0], change[1]);
+
+            Map<String, Object> message = new HashMap<>();
+            message.put("type", "METRIC_CHANGE");
+            message.put("metricName", metricName);
+            message.put("oldValue", change[0]);
+            message.put("newValue", change[1]);
+            message.put("timestamp", LocalDateTime.now().toString());
+
+            messagingTemplate.convertAndSend("/topic/dashboard/metrics", message);
+        }
     }
 
     /**
@@ -55,16 +97,10 @@ public class DashboardWebSocketService {
      * Broadcast specific metric change
      */
     public void broadcastMetricChange(String metricName, Object oldValue, Object newValue) {
-        log.info("Broadcasting metric change: {} from {} to {}", metricName, oldValue, newValue);
-        
-        Map<String, Object> message = new HashMap<>();
-        message.put("type", "METRIC_CHANGE");
-        message.put("metricName", metricName);
-        message.put("oldValue", oldValue);
-        message.put("newValue", newValue);
-        message.put("timestamp", LocalDateTime.now().toString());
-        
-        messagingTemplate.convertAndSend("/topic/dashboard/metrics", message);
+        log.debug("Queueing metric change: {} from {} to {}", metricName, oldValue, newValue);
+        // Keep the first old value of the window and the latest new value
+        pendingMetrics.merge(metricName, new Object[] { oldValue, newValue },
+                (pending, latest) -> new Object[] { pending[0], latest[1] });
     }
 
     /**
@@ -3,15 +3,20 @@ package com.dental.clinic.management.employee.domain;
 
 import com.dental.clinic.management.account.domain.Account;
 import com.dental.clinic.management.employee.enums.EmploymentType;
+import com.dental.clinic.management.notification.service.RoleMembershipChangeListener;
+import com.dental.clinic.management.notification.service.RoleMembershipSource;
 import com.dental.clinic.management.specialization.domain.Specialization;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -24,6 +29,7 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 
@@ -32,7 +38,8 @@ import jakarta.validation.constraints.Size;
  */
 @Entity
 @Table(name = "employees")
-public class Employee {
+@EntityListeners(RoleMembershipChangeListener.class)
+public class Employee implements RoleMembershipSource {
 
   @Id
   @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -81,6 +88,10 @@ public class Employee {
   @Column(name = "created_at")
   private LocalDateTime createdAt;
 
+  // Membership fields as loaded (RoleMembershipChangeListener)
+  @Transient
+  private List<Object> loadedRoleMembershipState;
+
   // Constructors
   public Employee() {
   }
@@ -200,6 +211,21 @@ public class Employee {
     return firstName + " " + lastName;
   }
 
+  @Override
+  public List<Object> roleMembershipState() {
+    return Arrays.asList(account != null ? account.getAccountId() : null, isActive);
+  }
+
+  @Override
+  public List<Object> loadedRoleMembershipState() {
+    return loadedRoleMembershipState;
+  }
+
+  @Override
+  public void recordRoleMembershipState(List<Object> state) {
+    this.loadedRoleMembershipState = state;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o)
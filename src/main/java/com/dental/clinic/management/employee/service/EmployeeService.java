@@ -1,6 +1,7 @@
 
 package com.dental.clinic.management.employee.service;
 
+import com.dental.clinic.management.booking_appointment.service.AppointmentSearchIndexer;
 import com.dental.clinic.management.employee.domain.Employee;
 import com.dental.clinic.management.employee.dto.request.CreateEmployeeRequest;
 import com.dental.clinic.management.employee.dto.request.UpdateEmployeeRequest;
@@ -60,6 +61,7 @@ public class EmployeeService {
     private final PartTimeRegistrationRepository partTimeRegistrationRepository;
     private final EmployeeShiftRepository employeeShiftRepository;
     private final PatientRepository patientRepository;
+    private final AppointmentSearchIndexer appointmentSearchIndexer;
 
     public EmployeeService(
             EmployeeRepository employeeRepository,
@@ -72,7 +74,8 @@ public class EmployeeService {
             FixedShiftRegistrationRepository fixedRegistrationRepository,
             PartTimeRegistrationRepository partTimeRegistrationRepository,
             EmployeeShiftRepository employeeShiftRepository,
-            PatientRepository patientRepository) {
+            PatientRepository patientRepository,
+            AppointmentSearchIndexer appointmentSearchIndexer) {
         this.employeeRepository = employeeRepository;
         this.employeeMapper = employeeMapper;
         this.accountRepository = accountRepository;
@@ -84,6 +87,7 @@ public class EmployeeService {
         this.partTimeRegistrationRepository = partTimeRegistrationRepository;
         this.employeeShiftRepository = employeeShiftRepository;
         this.patientRepository = patientRepository;
+        this.appointmentSearchIndexer = appointmentSearchIndexer;
     }
 
     /**
@@ -469,6 +473,7 @@ public class EmployeeService {
         // Find existing employee
         Employee employee = employeeRepository.findOneByEmployeeCode(employeeCode)
                 .orElseThrow(() -> new EmployeeNotFoundException("Không tìm thấy nhân viên với mã: " + employeeCode));
+        String previousName = fullName(employee);
 
         // Update only non-null fields
         if (request.getRoleId() != null) {
@@ -591,6 +596,7 @@ public class EmployeeService {
 
         // Save updated employee
         Employee updatedEmployee = employeeRepository.save(employee);
+        refreshAppointmentSearchIfRenamed(previousName, updatedEmployee);
 
         // Return DTO response
         return employeeMapper.toEmployeeInfoResponse(updatedEmployee);
@@ -611,6 +617,7 @@ public class EmployeeService {
         // Find existing employee
         Employee employee = employeeRepository.findOneByEmployeeCode(employeeCode)
                 .orElseThrow(() -> new EmployeeNotFoundException("Không tìm thấy nhân viên với mã: " + employeeCode));
+        String previousName = fullName(employee);
 
         // Verify role exists
         Role role = roleRepository.findById(request.getRoleId())
@@ -660,11 +667,25 @@ public class EmployeeService {
 
         // Save replaced employee
         Employee replacedEmployee = employeeRepository.save(employee);
+        refreshAppointmentSearchIfRenamed(previousName, replacedEmployee);
 
         // Return DTO response
         return employeeMapper.toEmployeeInfoResponse(replacedEmployee);
     }
 
+    private String fullName(Employee employee) {
+        return employee.getFirstName() + " " + employee.getLastName();
+    }
+
+    /**
+     * Appointment search documents embed doctor/participant names (P3.3 searchCode)
+     */
+    private void refreshAppointmentSearchIfRenamed(String previousName, Employee employee) {
+        if (!previousName.equals(fullName(employee))) {
+            appointmentSearchIndexer.refreshForEmployee(employee.getEmployeeId());
+        }
+    }
+
     /**
      * Delete an employee (soft delete - set isActive to false)
      * Also deactivates the associated account and cleans up work schedules/shifts
@@ -2,7 +2,6 @@ package com.dental.clinic.management.exception;
 
 import com.dental.clinic.management.exception.account.AccountNotVerifiedException;
 import com.dental.clinic.management.exception.authentication.InvalidTokenException;
-import com.dental.clinic.management.exception.authentication.RateLimitExceededException;
 import com.dental.clinic.management.exception.authentication.TokenExpiredException;
 import com.dental.clinic.management.exception.time_off.InsufficientLeaveBalanceException;
 import com.dental.clinic.management.exception.time_off.ShiftNotFoundForLeaveException;
@@ -799,32 +798,6 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(res);
     }
 
-    /**
-     * Handle RateLimitExceededException.
-     * Returns 429 Too Many Requests.
-     */
-    @ExceptionHandler(RateLimitExceededException.class)
-    public ResponseEntity<FormatRestResponse.RestResponse<Object>> handleRateLimitExceeded(
-            RateLimitExceededException ex,
-            HttpServletRequest request) {
-
-        log.warn("Rate limit exceeded at {}: {}", request.getRequestURI(), ex.getMessage());
-
-        FormatRestResponse.RestResponse<Object> res = new FormatRestResponse.RestResponse<>();
-        res.setStatusCode(HttpStatus.TOO_MANY_REQUESTS.value());
-        res.setMessage(ex.getMessage());
-        res.setError("error.rate.limit.exceeded");
-        
-        // Add retry-after information to response
-        java.util.Map<String, Object> data = new java.util.HashMap<>();
-        data.put("retryAfterSeconds", ex.getRetryAfterSeconds());
-        res.setData(data);
-
-        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
-                .header("Retry-After", String.valueOf(ex.getRetryAfterSeconds()))
-                .body(res);
-    }
-
     /**
      * Handle ShiftNotFoundForLeaveException (V14 Hybrid - P5.1).
      * Returns 409 Conflict.
@@ -1024,6 +997,17 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(res);
     }
 
+    /**
+     * Streamed download that failed after part of the file was sent (already
+     * logged). Rethrown so no error body is appended to the partial file: the
+     * container then closes the connection instead of completing a truncated
+     * 200.
+     */
+    @ExceptionHandler(StreamingExportAbortedException.class)
+    public void handleStreamingExportAborted(StreamingExportAbortedException ex) {
+        throw ex;
+    }
+
     /**
      * Fallback handler for any other unexpected exceptions.
      * Returns 500 Internal Server Error.
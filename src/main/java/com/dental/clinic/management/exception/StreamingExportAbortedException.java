@@ -0,0 +1,16 @@
+package com.dental.clinic.management.exception;
+
+/**
+ * A streamed download failed after part of the file was sent.
+ *
+ * Deliberately not turned into an error body by GlobalExceptionHandler: it
+ * reaches the servlet container, which closes the connection without ending
+ * the chunked response, so the client sees a failed download instead of a
+ * truncated 200.
+ */
+public class StreamingExportAbortedException extends RuntimeException {
+
+    public StreamingExportAbortedException(String export, Throwable cause) {
+        super("Export '" + export + "' failed after the response was committed", cause);
+    }
+}
@@ -1,15 +0,0 @@
-package com.dental.clinic.management.exception.authentication;
-
-public class RateLimitExceededException extends RuntimeException {
-    
-    private final long retryAfterSeconds;
-    
-    public RateLimitExceededException(String message, long retryAfterSeconds) {
-        super(message);
-        this.retryAfterSeconds = retryAfterSeconds;
-    }
-    
-    public long getRetryAfterSeconds() {
-        return retryAfterSeconds;
-    }
-}
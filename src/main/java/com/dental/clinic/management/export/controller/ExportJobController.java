@@ -0,0 +1,74 @@
+package com.dental.clinic.management.export.controller;
+
+import com.dental.clinic.management.export.dto.CreateExportJobRequest;
+import com.dental.clinic.management.export.dto.ExportJobResponse;
+import com.dental.clinic.management.export.service.ExportJobService;
+import com.dental.clinic.management.utils.annotation.ApiMessage;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Asynchronous exports: create a job, poll its progress, download the file.
+ * Per-type permissions are the same as the synchronous export endpoints and
+ * are checked by ExportJobService.
+ */
+@RestController
+@RequestMapping("/api/v1/exports")
+@RequiredArgsConstructor
+@Tag(name = "Export Jobs", description = "Asynchronous dashboard and warehouse exports")
+public class ExportJobController {
+
+    private final ExportJobService exportJobService;
+
+    @PostMapping
+    @PreAuthorize("isAuthenticated()")
+    @ApiMessage("Đã tạo yêu cầu xuất báo cáo")
+    @Operation(summary = "Create export job",
+               description = "Queue a dashboard (DASHBOARD, xlsx/csv) or warehouse (INVENTORY_SUMMARY, " +
+                            "TRANSACTION_HISTORY, EXPIRING_ALERTS, xlsx) export. Identical requests share the running " +
+                            "job, and a recent artifact is reused while the underlying data is unchanged. " +
+                            "Poll GET /api/v1/exports/{jobId} until COMPLETED, then download from downloadUrl.")
+    public ResponseEntity<ExportJobResponse> createJob(@Valid @RequestBody CreateExportJobRequest request) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(exportJobService.submit(request));
+    }
+
+    @GetMapping("/{jobId}")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Get export job status",
+               description = "Status, rows / bytes written so far and the download URL once completed")
+    public ResponseEntity<ExportJobResponse> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(exportJobService.getJob(jobId));
+    }
+
+    @GetMapping("/{jobId}/file")
+    @PreAuthorize("isAuthenticated()")
+    @Operation(summary = "Download export file",
+               description = "Download the artifact of a completed job. Supports HTTP Range requests for resuming.")
+    public ResponseEntity<Resource> downloadFile(@PathVariable String jobId) {
+        ExportJobService.ExportArtifact artifact = exportJobService.getArtifact(jobId);
+        // Range / If-Range (206 partial content) is handled by HttpEntityMethodProcessor, which
+        // writes ResourceRegions through ResourceRegionHttpMessageConverter; it only applies to a
+        // Resource body, so keep returning ResponseEntity<Resource>
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(artifact.fileName(), StandardCharsets.UTF_8)
+                        .build()
+                        .toString())
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .contentType(MediaType.parseMediaType(artifact.contentType()))
+                .body(new FileSystemResource(artifact.file()));
+    }
+}
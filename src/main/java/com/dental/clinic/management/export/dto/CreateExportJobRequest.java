@@ -0,0 +1,66 @@
+package com.dental.clinic.management.export.dto;
+
+import com.dental.clinic.management.export.enums.ExportJobType;
+import com.dental.clinic.management.warehouse.enums.BatchStatus;
+import com.dental.clinic.management.warehouse.enums.PaymentStatus;
+import com.dental.clinic.management.warehouse.enums.StockStatus;
+import com.dental.clinic.management.warehouse.enums.TransactionStatus;
+import com.dental.clinic.management.warehouse.enums.TransactionType;
+import com.dental.clinic.management.warehouse.enums.WarehouseType;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * POST /api/v1/exports body. Only the filters of the chosen type are used;
+ * they mirror the query parameters of the synchronous export endpoints.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateExportJobRequest {
+
+    @NotNull(message = "Loại báo cáo không được để trống")
+    private ExportJobType type;
+
+    /** xlsx (default) or csv (single dashboard tab only) */
+    private String format;
+
+    // DASHBOARD
+    /** overview, revenue-expenses, employees, warehouse, transactions, feedbacks or all */
+    private String tab;
+    private String month;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    // INVENTORY_SUMMARY / TRANSACTION_HISTORY
+    private String search;
+
+    // INVENTORY_SUMMARY
+    private StockStatus stockStatus;
+
+    // INVENTORY_SUMMARY / EXPIRING_ALERTS
+    private WarehouseType warehouseType;
+    private Long categoryId;
+
+    // EXPIRING_ALERTS
+    private Integer days;
+    private BatchStatus statusFilter;
+
+    // TRANSACTION_HISTORY
+    private TransactionType transactionType;
+    private TransactionStatus transactionStatus;
+    private PaymentStatus paymentStatus;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+    private Long supplierId;
+    private Long appointmentId;
+    private Long createdBy;
+    /** asc or desc (default desc) */
+    private String sortDir;
+}
@@ -0,0 +1,40 @@
+package com.dental.clinic.management.export.dto;
+
+import com.dental.clinic.management.export.enums.ExportJobStatus;
+import com.dental.clinic.management.export.enums.ExportJobType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportJobResponse {
+
+    private String jobId;
+    private ExportJobType type;
+    private String format;
+    private ExportJobStatus status;
+
+    /** Data rows written so far (row based reports only) */
+    private long rowsWritten;
+
+    /** Bytes of the artifact written so far */
+    private long bytesWritten;
+
+    private String fileName;
+
+    /** Set once COMPLETED */
+    private String downloadUrl;
+
+    /** Set once FAILED */
+    private String error;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,8 @@
+package com.dental.clinic.management.export.enums;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,15 @@
+package com.dental.clinic.management.export.enums;
+
+/**
+ * What an export job produces
+ */
+public enum ExportJobType {
+    /** Dashboard statistics: one tab or "all" (DashboardExportService) */
+    DASHBOARD,
+    /** API 6.1.1 inventory summary */
+    INVENTORY_SUMMARY,
+    /** API 6.6.4 storage transaction history */
+    TRANSACTION_HISTORY,
+    /** API 6.3.1 expiring batches */
+    EXPIRING_ALERTS
+}
@@ -0,0 +1,38 @@
+package com.dental.clinic.management.export.service;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener on the entities behind the exports (Invoice, Payment,
+ * StorageTransaction, Appointment, ItemMaster, ItemBatch): cached export
+ * artifacts are not reused once the change commits.
+ *
+ * Other dashboard sources (feedbacks, time-off) only expire through
+ * app.export-job.cache-ttl-seconds.
+ *
+ * The service is looked up lazily because entity listeners are created while
+ * the EntityManagerFactory is being built.
+ */
+@Component
+public class ExportDataChangeListener {
+
+    private final ObjectProvider<ExportJobService> exportJobService;
+
+    public ExportDataChangeListener(ObjectProvider<ExportJobService> exportJobService) {
+        this.exportJobService = exportJobService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        ExportJobService service = exportJobService.getIfAvailable();
+        if (service != null) {
+            service.markDataChanged();
+        }
+    }
+}
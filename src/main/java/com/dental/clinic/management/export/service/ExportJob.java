@@ -0,0 +1,67 @@
+package com.dental.clinic.management.export.service;
+
+import com.dental.clinic.management.export.dto.CreateExportJobRequest;
+import com.dental.clinic.management.export.enums.ExportJobStatus;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one export job, shared by every request with the same dedup key.
+ * Written by the worker thread, read by status / download requests.
+ */
+@Getter
+class ExportJob {
+
+    private final String id;
+    private final String key;
+    private final CreateExportJobRequest request;
+    private final String fileName;
+    /** ExportJobService data version when the job was created */
+    private final long dataVersion;
+    /** Artifact contains VIEW_WAREHOUSE_COST figures */
+    private final boolean costVisible;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final AtomicLong rowsWritten = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    private volatile ExportJobStatus status = ExportJobStatus.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime completedAt;
+    private volatile Path file;
+    private volatile String error;
+
+    ExportJob(String id, String key, CreateExportJobRequest request, String fileName, long dataVersion,
+            boolean costVisible) {
+        this.id = id;
+        this.key = key;
+        this.request = request;
+        this.fileName = fileName;
+        this.dataVersion = dataVersion;
+        this.costVisible = costVisible;
+    }
+
+    boolean isFinished() {
+        return status == ExportJobStatus.COMPLETED || status == ExportJobStatus.FAILED;
+    }
+
+    void start() {
+        startedAt = LocalDateTime.now();
+        status = ExportJobStatus.RUNNING;
+    }
+
+    void complete(Path artifact) {
+        file = artifact;
+        completedAt = LocalDateTime.now();
+        status = ExportJobStatus.COMPLETED;
+    }
+
+    void fail(String message) {
+        error = message;
+        completedAt = LocalDateTime.now();
+        status = ExportJobStatus.FAILED;
+    }
+}
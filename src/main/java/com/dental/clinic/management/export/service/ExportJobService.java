@@ -0,0 +1,543 @@
+package com.dental.clinic.management.export.service;
+
+import com.dental.clinic.management.dashboard.service.DashboardExportService;
+import com.dental.clinic.management.dashboard.util.DateRangeUtil;
+import com.dental.clinic.management.exception.BadRequestException;
+import com.dental.clinic.management.exception.ConflictException;
+import com.dental.clinic.management.exception.NotFoundException;
+import com.dental.clinic.management.export.dto.CreateExportJobRequest;
+import com.dental.clinic.management.export.dto.ExportJobResponse;
+import com.dental.clinic.management.export.enums.ExportJobStatus;
+import com.dental.clinic.management.export.enums.ExportJobType;
+import com.dental.clinic.management.utils.security.AuthoritiesConstants;
+import com.dental.clinic.management.utils.security.SecurityUtil;
+import com.dental.clinic.management.warehouse.dto.request.TransactionHistoryRequest;
+import com.dental.clinic.management.warehouse.service.WarehouseExcelExportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Asynchronous dashboard / warehouse exports.
+ *
+ * - submit(): the job runs on a bounded pool (full pool and queue -> 503) and
+ * writes its XLSX / CSV artifact under app.export-job.dir; status reports rows
+ * and bytes written so far
+ * - identical requests (same normalized filters and resolved date range, same
+ * cost visibility - see dedupKey) share one job
+ * while it is queued or running, and reuse its artifact for cache-ttl after
+ * completion unless invoices, payments, appointments, storage transactions or
+ * items changed meanwhile (ExportDataChangeListener)
+ * - finished jobs and their files are deleted after retention
+ *
+ * Jobs run with the security context of the request that created them, so
+ * RBAC masking (VIEW_WAREHOUSE_COST) matches the synchronous exports.
+ *
+ * Jobs are tracked per node: behind a load balancer either route /exports
+ * stickily or poll the node that accepted the job. Data changes made on other
+ * nodes only expire cached artifacts through cache-ttl.
+ *
+ * Metrics: executor.* with name=export-job, export.jobs{type, outcome},
+ * export.jobs.reused{type}
+ */
+@Slf4j
+@Service
+public class ExportJobService {
+
+    public static final String XLSX = "xlsx";
+    public static final String CSV = "csv";
+
+    private static final String XLSX_CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+    private static final String CSV_CONTENT_TYPE = "text/csv";
+
+    /** Transaction resource key: one data-version bump per transaction */
+    private static final Object DATA_CHANGED_RESOURCE = new Object();
+
+    private final DashboardExportService dashboardExportService;
+    private final WarehouseExcelExportService warehouseExcelExportService;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final Path directory;
+    private final Duration cacheTtl;
+    private final Duration retention;
+
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    /** Dedup key -> latest job (in flight or holding a cached artifact) */
+    private final Map<String, ExportJob> jobsByKey = new ConcurrentHashMap<>();
+    private final AtomicLong dataVersion = new AtomicLong();
+
+    public ExportJobService(DashboardExportService dashboardExportService,
+            WarehouseExcelExportService warehouseExcelExportService,
+            MeterRegistry meterRegistry,
+            @Value("${app.export-job.workers:2}") int workers,
+            @Value("${app.export-job.queue-capacity:20}") int queueCapacity,
+            @Value("${app.export-job.dir:${file.upload-dir:uploads}/exports}") String directory,
+            @Value("${app.export-job.cache-ttl-seconds:300}") long cacheTtlSeconds,
+            @Value("${app.export-job.retention-minutes:60}") long retentionMinutes) {
+        this.dashboardExportService = dashboardExportService;
+        this.warehouseExcelExportService = warehouseExcelExportService;
+        this.meterRegistry = meterRegistry;
+        this.directory = Paths.get(directory);
+        this.cacheTtl = Duration.ofSeconds(cacheTtlSeconds);
+        this.retention = Duration.ofMinutes(retentionMinutes);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "export-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "export-job", List.of());
+    }
+
+    /**
+     * Create the artifact directory and drop artifacts older than retention
+     * left by a previous run (jobs are not kept across restarts)
+     */
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(directory);
+        deleteFilesOlderThan(Instant.now().minus(retention));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Start an export, or join the identical job already queued / running /
+     * recently completed on unchanged data
+     */
+    public ExportJobResponse submit(CreateExportJobRequest request) {
+        ExportJobType type = request.getType();
+        checkAccess(type);
+        String format = normalize(request);
+
+        boolean costVisible = type == ExportJobType.TRANSACTION_HISTORY
+                && SecurityUtil.hasCurrentUserPermission(AuthoritiesConstants.VIEW_WAREHOUSE_COST);
+        String key = dedupKey(request, costVisible);
+        long version = dataVersion.get();
+
+        ExportJob[] created = new ExportJob[1];
+        ExportJob job = jobsByKey.compute(key, (k, existing) -> {
+            if (existing != null && isReusable(existing, version)) {
+                return existing;
+            }
+            created[0] = new ExportJob(UUID.randomUUID().toString(), key, request, fileName(request, format),
+                    version, costVisible);
+            return created[0];
+        });
+
+        if (created[0] == null) {
+            meterRegistry.counter("export.jobs.reused", "type", type.name()).increment();
+            log.info("Export {} joined job {} ({})", type, job.getId(), job.getStatus());
+            return toResponse(job);
+        }
+
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(new DelegatingSecurityContextRunnable(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            jobsByKey.remove(key, job);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                    "Hệ thống đang xử lý nhiều yêu cầu xuất báo cáo, vui lòng thử lại sau");
+        }
+        log.info("Export job {} queued: {} {}", job.getId(), type, format);
+        return toResponse(job);
+    }
+
+    public ExportJobResponse getJob(String jobId) {
+        return toResponse(findAccessibleJob(jobId));
+    }
+
+    /**
+     * Artifact of a completed job (409 while queued / running / failed)
+     */
+    public ExportArtifact getArtifact(String jobId) {
+        ExportJob job = findAccessibleJob(jobId);
+        Path file = job.getFile();
+        if (job.getStatus() != ExportJobStatus.COMPLETED || file == null || !Files.exists(file)) {
+            throw new ConflictException("EXPORT_NOT_READY",
+                    "Báo cáo chưa sẵn sàng để tải xuống (trạng thái: " + job.getStatus() + ")");
+        }
+        String format = job.getRequest().getFormat();
+        return new ExportArtifact(file, job.getFileName(), CSV.equals(format) ? CSV_CONTENT_TYPE : XLSX_CONTENT_TYPE);
+    }
+
+    /**
+     * Exported data changed: cached artifacts are not reused after commit
+     */
+    public void markDataChanged() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            dataVersion.incrementAndGet();
+            return;
+        }
+        if (TransactionSynchronizationManager.hasResource(DATA_CHANGED_RESOURCE)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(DATA_CHANGED_RESOURCE, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(DATA_CHANGED_RESOURCE);
+                if (status == STATUS_COMMITTED) {
+                    dataVersion.incrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * Drop finished jobs older than retention together with their artifacts
+     */
+    @Scheduled(fixedDelayString = "${app.export-job.cleanup-interval-ms:60000}")
+    public void cleanup() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        for (ExportJob job : jobs.values()) {
+            if (job.isFinished() && job.getCompletedAt().isBefore(cutoff)) {
+                jobs.remove(job.getId());
+                jobsByKey.remove(job.getKey(), job);
+                deleteQuietly(job.getFile());
+            }
+        }
+    }
+
+    // ==================== Execution ====================
+
+    private void run(ExportJob job) {
+        job.start();
+        ExportJobType type = job.getRequest().getType();
+        String extension = job.getRequest().getFormat();
+        Path part = directory.resolve(job.getId() + ".part");
+        Path artifact = directory.resolve(job.getId() + "." + extension);
+        try {
+            try (OutputStream out = new ProgressOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(part)), job)) {
+                write(job, out);
+            }
+            Files.move(part, artifact, StandardCopyOption.REPLACE_EXISTING);
+            job.complete(artifact);
+            meterRegistry.counter("export.jobs", "type", type.name(), "outcome", "completed").increment();
+            log.info("Export job {} completed: {} rows, {} bytes", job.getId(), job.getRowsWritten().get(),
+                    job.getBytesWritten().get());
+        } catch (Exception e) {
+            deleteQuietly(part);
+            job.fail(e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName());
+            jobsByKey.remove(job.getKey(), job);
+            meterRegistry.counter("export.jobs", "type", type.name(), "outcome", "failed").increment();
+            log.error("Export job {} ({}) failed", job.getId(), type, e);
+        }
+    }
+
+    private void write(ExportJob job, OutputStream out) throws IOException {
+        CreateExportJobRequest request = job.getRequest();
+        switch (request.getType()) {
+            case DASHBOARD -> {
+                if (CSV.equals(request.getFormat())) {
+                    out.write(dashboardExportService.exportToCSV(request.getTab(), request.getMonth(),
+                            request.getStartDate(), request.getEndDate()).getBytes(StandardCharsets.UTF_8));
+                } else if ("all".equals(request.getTab())) {
+                    dashboardExportService.exportAllTabs(request.getMonth(), request.getStartDate(),
+                            request.getEndDate(), out);
+                } else {
+                    dashboardExportService.exportToExcel(request.getTab(), request.getMonth(),
+                            request.getStartDate(), request.getEndDate(), out);
+                }
+            }
+            case INVENTORY_SUMMARY -> warehouseExcelExportService.exportInventorySummary(request.getSearch(),
+                    request.getStockStatus(), request.getWarehouseType(), request.getCategoryId(), out,
+                    job.getRowsWritten()::set);
+            case TRANSACTION_HISTORY -> warehouseExcelExportService.exportTransactionHistory(
+                    TransactionHistoryRequest.builder()
+                            .search(request.getSearch())
+                            .type(request.getTransactionType())
+                            .status(request.getTransactionStatus())
+                            .paymentStatus(request.getPaymentStatus())
+                            .fromDate(request.getFromDate())
+                            .toDate(request.getToDate())
+                            .supplierId(request.getSupplierId())
+                            .appointmentId(request.getAppointmentId())
+                            .createdBy(request.getCreatedBy())
+                            .sortDir(request.getSortDir())
+                            .build(),
+                    out, job.getRowsWritten()::set);
+            case EXPIRING_ALERTS -> warehouseExcelExportService.exportExpiringAlerts(request.getDays(),
+                    request.getCategoryId(), request.getWarehouseType(), request.getStatusFilter(), out,
+                    job.getRowsWritten()::set);
+        }
+    }
+
+    // ==================== Helpers ====================
+
+    /**
+     * Identity of the artifact: every field that decides the output, after
+     * normalize() (lower-cased format / tab / sortDir, trimmed search, default
+     * days). Dashboard periods are compared as resolved date ranges, so month
+     * 2025-11 and 2025-11-01..2025-11-30 share a job.
+     */
+    static String dedupKey(CreateExportJobRequest request, boolean costVisible) {
+        StringJoiner key = new StringJoiner("|");
+        key.add(request.getType().name()).add(request.getFormat());
+        switch (request.getType()) {
+            case DASHBOARD -> {
+                DateRangeUtil.DateRange range = DateRangeUtil.parseDateRange(request.getMonth(),
+                        request.getStartDate(), request.getEndDate());
+                key.add("tab=" + request.getTab())
+                        .add("from=" + range.getStartDate().toLocalDate())
+                        .add("to=" + range.getEndDate().toLocalDate());
+            }
+            case INVENTORY_SUMMARY -> key.add("search=" + request.getSearch())
+                    .add("stockStatus=" + request.getStockStatus())
+                    .add("warehouseType=" + request.getWarehouseType())
+                    .add("categoryId=" + request.getCategoryId());
+            case TRANSACTION_HISTORY -> key.add("search=" + request.getSearch())
+                    .add("transactionType=" + request.getTransactionType())
+                    .add("transactionStatus=" + request.getTransactionStatus())
+                    .add("paymentStatus=" + request.getPaymentStatus())
+                    .add("fromDate=" + request.getFromDate())
+                    .add("toDate=" + request.getToDate())
+                    .add("supplierId=" + request.getSupplierId())
+                    .add("appointmentId=" + request.getAppointmentId())
+                    .add("createdBy=" + request.getCreatedBy())
+                    .add("sortDir=" + request.getSortDir());
+            case EXPIRING_ALERTS -> key.add("days=" + request.getDays())
+                    .add("categoryId=" + request.getCategoryId())
+                    .add("warehouseType=" + request.getWarehouseType())
+                    .add("statusFilter=" + request.getStatusFilter());
+        }
+        return key.add("cost=" + costVisible).toString();
+    }
+
+    /**
+     * Validate and normalize format / tab / sortDir / search / days in place
+     *
+     * @return normalized format
+     */
+    private String normalize(CreateExportJobRequest request) {
+        String format = request.getFormat() == null || request.getFormat().isBlank()
+                ? XLSX
+                : request.getFormat().trim().toLowerCase();
+        if (!XLSX.equals(format) && !CSV.equals(format)) {
+            throw new BadRequestException("INVALID_EXPORT_FORMAT", "Định dạng chỉ hỗ trợ xlsx hoặc csv");
+        }
+        request.setFormat(format);
+        if (request.getSearch() != null) {
+            String search = request.getSearch().trim();
+            request.setSearch(search.isEmpty() ? null : search);
+        }
+
+        switch (request.getType()) {
+            case DASHBOARD -> {
+                String tab = request.getTab() == null ? "" : request.getTab().trim().toLowerCase();
+                boolean all = "all".equals(tab);
+                if (!all && !dashboardExportService.isSupportedTab(tab)) {
+                    throw new BadRequestException("INVALID_EXPORT_TAB", "Tab thống kê không hợp lệ: " + request.getTab());
+                }
+                if (all && CSV.equals(format)) {
+                    throw new BadRequestException("INVALID_EXPORT_FORMAT",
+                            "Xuất CSV không hỗ trợ tất cả các tab, vui lòng chọn từng tab");
+                }
+                request.setTab(tab);
+                try {
+                    DateRangeUtil.parseDateRange(request.getMonth(), request.getStartDate(), request.getEndDate());
+                } catch (RuntimeException e) {
+                    throw new BadRequestException("INVALID_DATE_RANGE",
+                            "Cần 'month' (YYYY-MM) hoặc cả 'startDate' và 'endDate'");
+                }
+            }
+            case TRANSACTION_HISTORY -> {
+                if (request.getFromDate() != null && request.getToDate() != null
+                        && request.getFromDate().isAfter(request.getToDate())) {
+                    throw new BadRequestException("INVALID_DATE_RANGE", "Ngày bắt đầu không được sau ngày kết thúc");
+                }
+                String sortDir = request.getSortDir() == null ? "desc" : request.getSortDir().trim().toLowerCase();
+                if (!"asc".equals(sortDir) && !"desc".equals(sortDir)) {
+                    throw new BadRequestException("INVALID_SORT_DIR", "Hướng sắp xếp phải là 'asc' hoặc 'desc'");
+                }
+                request.setSortDir(sortDir);
+            }
+            case EXPIRING_ALERTS -> {
+                if (request.getDays() == null) {
+                    request.setDays(30);
+                } else if (request.getDays() < 1 || request.getDays() > 1095) {
+                    throw new BadRequestException("INVALID_DAYS", "Tham số 'days' phải từ 1 đến 1095 (3 năm)");
+                }
+            }
+            default -> {
+            }
+        }
+        if (!XLSX.equals(format) && request.getType() != ExportJobType.DASHBOARD) {
+            throw new BadRequestException("INVALID_EXPORT_FORMAT", "Báo cáo kho chỉ hỗ trợ định dạng xlsx");
+        }
+        return format;
+    }
+
+    /**
+     * In flight, or completed within cache-ttl on the current data version
+     */
+    private boolean isReusable(ExportJob job, long version) {
+        return switch (job.getStatus()) {
+            case QUEUED, RUNNING -> true;
+            case COMPLETED -> job.getDataVersion() == version
+                    && job.getCompletedAt().plus(cacheTtl).isAfter(LocalDateTime.now())
+                    && job.getFile() != null && Files.exists(job.getFile());
+            case FAILED -> false;
+        };
+    }
+
+    /**
+     * Same rule as the synchronous endpoints: dashboard for ADMIN / MANAGER,
+     * warehouse reports for ADMIN or VIEW_WAREHOUSE
+     */
+    private void checkAccess(ExportJobType type) {
+        List<String> authorities = SecurityUtil.getCurrentUserAuthorities();
+        boolean allowed = authorities.contains(AuthoritiesConstants.ADMIN)
+                || (type == ExportJobType.DASHBOARD
+                        ? authorities.contains(AuthoritiesConstants.MANAGER)
+                        : authorities.contains(AuthoritiesConstants.VIEW_WAREHOUSE));
+        if (!allowed) {
+            throw new AccessDeniedException("Bạn không có quyền xuất báo cáo này");
+        }
+    }
+
+    private ExportJob findAccessibleJob(String jobId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new NotFoundException("EXPORT_JOB_NOT_FOUND", "Không tìm thấy yêu cầu xuất báo cáo: " + jobId);
+        }
+        checkAccess(job.getRequest().getType());
+        if (job.isCostVisible() && !SecurityUtil.hasCurrentUserPermission(AuthoritiesConstants.VIEW_WAREHOUSE_COST)) {
+            throw new AccessDeniedException("Bạn không có quyền xem báo cáo này");
+        }
+        return job;
+    }
+
+    private String fileName(CreateExportJobRequest request, String format) {
+        return switch (request.getType()) {
+            case DASHBOARD -> request.getMonth() != null
+                    ? String.format("dashboard-%s-%s.%s", request.getTab(), request.getMonth(), format)
+                    : String.format("dashboard-%s-%s-to-%s.%s", request.getTab(), request.getStartDate(),
+                            request.getEndDate(), format);
+            case INVENTORY_SUMMARY -> "inventory_summary.xlsx";
+            case TRANSACTION_HISTORY -> "transaction_history.xlsx";
+            case EXPIRING_ALERTS -> "expiring_alerts.xlsx";
+        };
+    }
+
+    private ExportJobResponse toResponse(ExportJob job) {
+        return ExportJobResponse.builder()
+                .jobId(job.getId())
+                .type(job.getRequest().getType())
+                .format(job.getRequest().getFormat())
+                .status(job.getStatus())
+                .rowsWritten(job.getRowsWritten().get())
+                .bytesWritten(job.getBytesWritten().get())
+                .fileName(job.getFileName())
+                .downloadUrl(job.getStatus() == ExportJobStatus.COMPLETED
+                        ? "/api/v1/exports/" + job.getId() + "/file"
+                        : null)
+                .error(job.getError())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+
+    private void deleteFilesOlderThan(Instant cutoff) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(Files::isRegularFile).forEach(file -> {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff)) {
+                        Files.deleteIfExists(file);
+                    }
+                } catch (IOException e) {
+                    log.warn("Failed to delete stale export {}: {}", file, e.getMessage());
+                }
+            });
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Failed to delete export file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Downloadable artifact of a completed job
+     */
+    public record ExportArtifact(Path file, String fileName, String contentType) {
+    }
+
+    /**
+     * Counts bytes written into the job's progress
+     */
+    private static final class ProgressOutputStream extends FilterOutputStream {
+
+        private final ExportJob job;
+
+        ProgressOutputStream(OutputStream out, ExportJob job) {
+            super(out);
+            this.job = job;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            job.getBytesWritten().incrementAndGet();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            job.getBytesWritten().addAndGet(len);
+        }
+    }
+}
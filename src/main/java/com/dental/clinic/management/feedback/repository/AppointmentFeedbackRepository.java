@@ -10,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +30,13 @@ public interface AppointmentFeedbackRepository extends JpaRepository<Appointment
      */
     boolean existsByAppointmentCode(String appointmentCode);
 
+    /**
+     * Lấy các appointment code (trong danh sách) đã có feedback
+     * Dùng để tính hasFeedback cho cả trang lịch hẹn trong 1 query
+     */
+    @Query("SELECT f.appointmentCode FROM AppointmentFeedback f WHERE f.appointmentCode IN :appointmentCodes")
+    List<String> findAppointmentCodesWithFeedback(@Param("appointmentCodes") Collection<String> appointmentCodes);
+
     /**
      * Lấy danh sách feedbacks với filter động
      * 
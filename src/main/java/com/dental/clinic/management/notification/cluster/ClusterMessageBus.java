@@ -0,0 +1,20 @@
+package com.dental.clinic.management.notification.cluster;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport of WebSocket broker messages between application nodes.
+ *
+ * Implementations:
+ * - LocalClusterMessageBus (default, app.websocket.cluster=local): single node
+ * (also used by tests), nothing leaves the JVM
+ * - RedisClusterMessageBus (app.websocket.cluster=redis): Redis pub/sub
+ *
+ * Listeners only receive messages published by OTHER nodes.
+ */
+public interface ClusterMessageBus {
+
+    void publish(RelayedMessage message);
+
+    void subscribe(Consumer<RelayedMessage> listener);
+}
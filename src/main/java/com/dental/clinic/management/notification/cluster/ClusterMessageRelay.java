@@ -0,0 +1,49 @@
+package com.dental.clinic.management.notification.cluster;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+/**
+ * Delivers messages published by other nodes to the clients connected to
+ * this node, through the local simple broker.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterMessageRelay {
+
+    private final ClusterMessageBus clusterMessageBus;
+    private final ObjectProvider<SimpMessagingTemplate> messagingTemplate;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        clusterMessageBus.subscribe(this::deliver);
+    }
+
+    private void deliver(RelayedMessage relayed) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(relayed.destination());
+        if (relayed.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(relayed.contentType()));
+        }
+        accessor.setHeader(ClusterRelayChannelInterceptor.RELAYED_HEADER, Boolean.TRUE);
+        accessor.setLeaveMutable(true);
+
+        try {
+            messagingTemplate.getObject().send(relayed.destination(),
+                    MessageBuilder.createMessage(relayed.payload(), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            log.warn("Failed to deliver relayed WebSocket message for {}: {}", relayed.destination(),
+                    e.getMessage());
+        }
+    }
+}
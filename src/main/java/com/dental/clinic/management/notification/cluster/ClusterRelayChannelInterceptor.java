@@ -0,0 +1,46 @@
+package com.dental.clinic.management.notification.cluster;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+
+/**
+ * brokerChannel interceptor: copies every server-side send
+ * (SimpMessagingTemplate, @SendTo) to the other nodes through
+ * ClusterMessageBus. The message still goes to the local broker unchanged.
+ *
+ * Not relayed:
+ * - messages received from another node (RELAYED_HEADER), to avoid loops
+ * - user destinations already resolved to a local session
+ * (the unresolved /user/... message is relayed and resolved on each node)
+ */
+@Component
+@RequiredArgsConstructor
+public class ClusterRelayChannelInterceptor implements ChannelInterceptor {
+
+    public static final String RELAYED_HEADER = "clusterRelayed";
+
+    private final ClusterMessageBus clusterMessageBus;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE
+                || accessor.getDestination() == null
+                || accessor.getHeader(RELAYED_HEADER) != null
+                || accessor.getHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION) != null
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        MimeType contentType = accessor.getContentType();
+        clusterMessageBus.publish(new RelayedMessage(accessor.getDestination(),
+                contentType != null ? contentType.toString() : null, payload));
+        return message;
+    }
+}
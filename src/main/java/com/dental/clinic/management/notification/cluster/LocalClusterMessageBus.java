@@ -0,0 +1,24 @@
+package com.dental.clinic.management.notification.cluster;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Consumer;
+
+/**
+ * Single-node bus: there are no other nodes, so nothing is sent or received
+ */
+@Component
+@ConditionalOnProperty(name = "app.websocket.cluster", havingValue = "local", matchIfMissing = true)
+public class LocalClusterMessageBus implements ClusterMessageBus {
+
+    @Override
+    public void publish(RelayedMessage message) {
+        // Single node: local subscribers already got the message from the simple broker
+    }
+
+    @Override
+    public void subscribe(Consumer<RelayedMessage> listener) {
+        // No other node can publish
+    }
+}
@@ -0,0 +1,82 @@
+package com.dental.clinic.management.notification.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Cluster-wide bus over Redis pub/sub (app.websocket.cluster=redis).
+ *
+ * Every node publishes its broker messages to one channel and re-delivers the
+ * messages of the other nodes to its own simple broker. Pub/sub is
+ * fire-and-forget: a node that is disconnected from Redis misses messages,
+ * which is acceptable for UI pushes (durable data is in the database).
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.websocket.cluster", havingValue = "redis")
+public class RedisClusterMessageBus implements ClusterMessageBus {
+
+    private static final String CHANNEL = "websocket:broadcast";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisMessageListenerContainer container;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public RedisClusterMessageBus(StringRedisTemplate redisTemplate, RedisConnectionFactory connectionFactory,
+            ObjectMapper objectMapper) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+    }
+
+    @Override
+    public void publish(RelayedMessage message) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, objectMapper.writeValueAsString(new Envelope(nodeId, message)));
+        } catch (Exception e) {
+            log.warn("Failed to publish WebSocket message for {} to other nodes: {}", message.destination(),
+                    e.getMessage());
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<RelayedMessage> listener) {
+        container.addMessageListener((message, pattern) -> {
+            try {
+                Envelope envelope = objectMapper.readValue(
+                        new String(message.getBody(), StandardCharsets.UTF_8), Envelope.class);
+                if (!nodeId.equals(envelope.nodeId())) {
+                    listener.accept(envelope.message());
+                }
+            } catch (Exception e) {
+                log.warn("Dropping malformed WebSocket relay message: {}", e.getMessage());
+            }
+        }, new ChannelTopic(CHANNEL));
+        if (!container.isRunning()) {
+            container.afterPropertiesSet();
+            container.start();
+            log.info("WebSocket cluster relay subscribed to Redis channel {} (node {})", CHANNEL, nodeId);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        container.destroy();
+    }
+
+    record Envelope(String nodeId, RelayedMessage message) {
+    }
+}
@@ -0,0 +1,9 @@
+package com.dental.clinic.management.notification.cluster;
+
+/**
+ * A broker message as seen on brokerChannel: destination, content type and
+ * the already serialized payload, so other nodes deliver it without
+ * converting it again.
+ */
+public record RelayedMessage(String destination, String contentType, byte[] payload) {
+}
@@ -1,5 +1,6 @@
 package com.dental.clinic.management.notification.config;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.messaging.Message;
@@ -8,13 +9,16 @@ import org.springframework.messaging.simp.stomp.StompCommand;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.messaging.support.ChannelInterceptor;
 import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import com.dental.clinic.management.authentication.service.TokenBlacklistService;
+import com.dental.clinic.management.utils.security.VerifiedTokenCache;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,12 +28,25 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
-    private final JwtDecoder jwtDecoder;
+    /**
+     * Role broadcasts (NotificationServiceImpl) carry the recipient map of the
+     * whole role: only members of the role may subscribe
+     */
+    private static final String ROLE_TOPIC_PREFIX = "/topic/notifications/role/";
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenBlacklistService tokenBlacklistService;
 
     @Override
     public Message<?> preSend(Message<?> message, MessageChannel channel) {
         StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
 
+        if (accessor != null && StompCommand.SUBSCRIBE.equals(accessor.getCommand())) {
+            checkSubscription(accessor);
+        }
+
         if (accessor != null && StompCommand.CONNECT.equals(accessor.getCommand())) {
             // Get Authorization header from STOMP CONNECT frame
             List<String> authorizationHeaders = accessor.getNativeHeader("Authorization");
@@ -41,8 +58,12 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                     String token = authHeader.substring(7);
 
                     try {
-                        // Decode and validate JWT
-                        Jwt jwt = jwtDecoder.decode(token);
+                        // Same checks as REST requests: revocation, then (cached) decode and validation
+                        if (tokenBlacklistService.isTokenBlacklisted(token)) {
+                            throw new IllegalArgumentException("Token has been invalidated");
+                        }
+                        VerifiedTokenCache.Entry verified = verifiedTokenCache.verify(token);
+                        Jwt jwt = verified.jwt();
 
                         // Extract account_id from JWT claims - handle Long/Integer/String
                         Object accountIdClaim = jwt.getClaim("account_id");
@@ -67,20 +88,8 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
                                     "Unsupported account_id claim type: " + accountIdClaim.getClass().getName());
                         }
 
-                        // Extract authorities from JWT (try both 'authorities' and 'permissions'
-                        // claims)
-                        List<String> authoritiesList = jwt.getClaim("authorities");
-                        if (authoritiesList == null) {
-                            authoritiesList = jwt.getClaim("permissions");
-                        }
-
-                        List<GrantedAuthority> grantedAuthorities = List.of();
-                        if (authoritiesList != null && !authoritiesList.isEmpty()) {
-                            grantedAuthorities = authoritiesList.stream()
-                                    .map(SimpleGrantedAuthority::new)
-                                    .map(auth -> (GrantedAuthority) auth)
-                                    .toList();
-                        }
+                        // Roles + permissions, decoded the same way as for REST requests
+                        Collection<GrantedAuthority> grantedAuthorities = verified.authorities();
 
                         // Create authentication with account_id as principal
                         Authentication authentication = new UsernamePasswordAuthenticationToken(
@@ -107,4 +116,36 @@ public class WebSocketAuthInterceptor implements ChannelInterceptor {
 
         return message;
     }
+
+    /**
+     * SUBSCRIBE: role topics require the role; pattern destinations
+     * ("/topic/**") are refused since the simple broker would match them
+     * against every role topic.
+     */
+    private void checkSubscription(StompHeaderAccessor accessor) {
+        String destination = accessor.getDestination();
+        if (destination == null) {
+            return;
+        }
+        if (PATH_MATCHER.isPattern(destination)) {
+            log.warn("WebSocket subscription to pattern destination {} refused", destination);
+            throw new AccessDeniedException("Không được phép đăng ký theo mẫu đích: " + destination);
+        }
+        if (!destination.startsWith(ROLE_TOPIC_PREFIX)) {
+            return;
+        }
+        String role = withRolePrefix(destination.substring(ROLE_TOPIC_PREFIX.length()));
+        boolean member = accessor.getUser() instanceof Authentication authentication
+                && authentication.getAuthorities().stream()
+                        .anyMatch(authority -> role.equals(withRolePrefix(authority.getAuthority())));
+        if (!member) {
+            log.warn("WebSocket subscription to {} refused for {}", destination,
+                    accessor.getUser() != null ? accessor.getUser().getName() : "anonymous");
+            throw new AccessDeniedException("Không có quyền đăng ký kênh thông báo của role này");
+        }
+    }
+
+    private static String withRolePrefix(String role) {
+        return role.startsWith("ROLE_") ? role : "ROLE_" + role;
+    }
 }
@@ -1,5 +1,6 @@
 package com.dental.clinic.management.notification.config;
 
+import com.dental.clinic.management.notification.cluster.ClusterRelayChannelInterceptor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.ChannelRegistration;
@@ -19,12 +20,16 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     private String allowedOriginsString;
 
     private final WebSocketAuthInterceptor webSocketAuthInterceptor;
+    private final ClusterRelayChannelInterceptor clusterRelayChannelInterceptor;
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Enable simple in-memory message broker with prefix "/topic" and "/queue"
         config.enableSimpleBroker("/topic", "/queue");
 
+        // Copy server-side sends to the other nodes (app.websocket.cluster)
+        config.configureBrokerChannel().interceptors(clusterRelayChannelInterceptor);
+
         // Prefix for messages from client to server
         config.setApplicationDestinationPrefixes("/app");
     }
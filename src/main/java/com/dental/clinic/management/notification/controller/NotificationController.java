@@ -85,13 +85,17 @@ public class NotificationController {
         /**
          * Lấy số lượng thông báo chưa đọc
          * GET /api/v1/notifications/unread-count
+         *
+         * Đọc từ bộ đếm cache; giá trị mới được push tới
+         * /topic/notifications/{userId}/unread-count mỗi khi thay đổi nên client
+         * không cần polling
          */
         @GetMapping("/unread-count")
         @ApiMessage("Lấy số lượng thông báo chưa đọc thành công")
         @PreAuthorize("hasAnyAuthority('VIEW_NOTIFICATION', 'MANAGE_NOTIFICATION')")
         public ResponseEntity<Long> getUnreadCount(Authentication authentication) {
                 Integer userId = getUserIdFromToken(authentication);
-                log.info("Getting unread count for user: {}", userId);
+                log.debug("Getting unread count for user: {}", userId);
 
                 Long count = notificationService.getUnreadCount(userId);
 
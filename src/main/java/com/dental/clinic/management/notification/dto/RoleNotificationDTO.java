@@ -0,0 +1,37 @@
+package com.dental.clinic.management.notification.dto;
+
+import com.dental.clinic.management.notification.enums.NotificationEntityType;
+import com.dental.clinic.management.notification.enums.NotificationType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Thông báo gửi một lần tới topic của role: /topic/notifications/role/{roleName}
+ *
+ * Client lọc theo recipients: chỉ hiển thị nếu userId của mình có trong map
+ * (value là notificationId đã lưu cho user đó, dùng để đánh dấu đã đọc).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleNotificationDTO {
+
+    private String roleName;
+    private NotificationType type;
+    private String title;
+    private String message;
+    private NotificationEntityType relatedEntityType;
+    private String relatedEntityId;
+    private LocalDateTime createdAt;
+
+    /**
+     * userId -> notificationId
+     */
+    private Map<Integer, Long> recipients;
+}
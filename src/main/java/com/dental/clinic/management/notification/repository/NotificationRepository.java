@@ -9,6 +9,9 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
 
@@ -17,6 +20,12 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     @Query("SELECT COUNT(n) FROM Notification n WHERE n.userId = :userId AND n.isRead = false")
     long countUnreadByUserId(@Param("userId") Integer userId);
 
+    /**
+     * Unread counts as (userId, count) rows; users without unread notifications are absent
+     */
+    @Query("SELECT n.userId, COUNT(n) FROM Notification n WHERE n.isRead = false AND n.userId IN :userIds GROUP BY n.userId")
+    List<Object[]> countUnreadByUserIds(@Param("userIds") Collection<Integer> userIds);
+
     @Modifying
     @Query("UPDATE Notification n SET n.isRead = true, n.readAt = CURRENT_TIMESTAMP WHERE n.notificationId = :notificationId AND n.userId = :userId")
     int markAsRead(@Param("notificationId") Long notificationId, @Param("userId") Integer userId);
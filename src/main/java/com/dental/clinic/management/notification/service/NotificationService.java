@@ -2,9 +2,13 @@ package com.dental.clinic.management.notification.service;
 
 import com.dental.clinic.management.notification.dto.CreateNotificationRequest;
 import com.dental.clinic.management.notification.dto.NotificationDTO;
+import com.dental.clinic.management.notification.enums.NotificationEntityType;
+import com.dental.clinic.management.notification.enums.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.List;
+
 public interface NotificationService {
 
     /**
@@ -31,7 +35,8 @@ public interface NotificationService {
     void markAllAsRead(Integer userId);
 
     /**
-     * Lấy số lượng thông báo chưa đọc của user
+     * Lấy số lượng thông báo chưa đọc của user (từ bộ đếm cache, xem
+     * UnreadCounterService)
      *
      * @param userId ID người dùng
      * @return số lượng thông báo chưa đọc
@@ -55,6 +60,22 @@ public interface NotificationService {
      */
     void deleteNotification(Long notificationId, Integer userId);
 
+    /**
+     * Tạo cùng một thông báo cho tất cả nhân viên thuộc các role.
+     * Người nhận lấy từ RoleMembershipIndex (cache), lưu bằng một câu lệnh
+     * INSERT và push một lần cho mỗi role tới /topic/notifications/role/{roleName}
+     *
+     * @param roleNames         các role nhận thông báo (ví dụ ADMIN, MANAGER)
+     * @param type              loại thông báo
+     * @param title             tiêu đề
+     * @param message           nội dung
+     * @param relatedEntityType loại đối tượng liên quan
+     * @param relatedEntityId   ID đối tượng liên quan
+     * @return số người nhận
+     */
+    int createRoleNotification(List<String> roleNames, NotificationType type, String title, String message,
+            NotificationEntityType relatedEntityType, String relatedEntityId);
+
     /**
      * Tạo thông báo cho yêu cầu nghỉ phép mới
      *
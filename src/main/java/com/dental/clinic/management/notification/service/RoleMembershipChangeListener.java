@@ -0,0 +1,70 @@
+package com.dental.clinic.management.notification.service;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Objects;
+
+/**
+ * JPA entity listener on Account, Employee and Role: inserts, deletes and
+ * updates that change a membership field (RoleMembershipSource: role, account
+ * link, active / status) invalidate RoleMembershipIndex, again after commit so
+ * a reload that ran before the commit cannot keep the old membership. Other
+ * updates (profile edits, password changes, ...) leave the index alone.
+ *
+ * The index is looked up lazily because entity listeners are created while
+ * the EntityManagerFactory (needed by the index's repository) is being built.
+ */
+@Component
+public class RoleMembershipChangeListener {
+
+    private final ObjectProvider<RoleMembershipIndex> roleMembershipIndex;
+
+    public RoleMembershipChangeListener(ObjectProvider<RoleMembershipIndex> roleMembershipIndex) {
+        this.roleMembershipIndex = roleMembershipIndex;
+    }
+
+    @PostLoad
+    public void onLoad(Object entity) {
+        if (entity instanceof RoleMembershipSource source) {
+            source.recordRoleMembershipState(source.roleMembershipState());
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        if (entity instanceof RoleMembershipSource source) {
+            if (Objects.equals(source.roleMembershipState(), source.loadedRoleMembershipState())) {
+                return;
+            }
+        }
+        onChange(entity);
+    }
+
+    @PostPersist
+    @PostRemove
+    public void onChange(Object entity) {
+        if (entity instanceof RoleMembershipSource source) {
+            source.recordRoleMembershipState(source.roleMembershipState());
+        }
+        RoleMembershipIndex index = roleMembershipIndex.getIfAvailable();
+        if (index == null) {
+            return;
+        }
+        index.invalidate();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    index.invalidate();
+                }
+            });
+        }
+    }
+}
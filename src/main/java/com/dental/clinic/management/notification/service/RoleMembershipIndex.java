@@ -0,0 +1,88 @@
+package com.dental.clinic.management.notification.service;
+
+import com.dental.clinic.management.account.repository.AccountRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cached role -> employee ids index for role-targeted notifications.
+ *
+ * Missing roles are loaded together in one query. The whole index is dropped
+ * by RoleMembershipChangeListener whenever an account, employee or role row
+ * changes; the TTL only covers changes made outside JPA (SQL scripts).
+ */
+@Slf4j
+@Component
+public class RoleMembershipIndex {
+
+    private final AccountRepository accountRepository;
+    private final Map<String, Members> cache = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    @Value("${app.notification.role-index-ttl-seconds:600}")
+    private long ttlSeconds;
+
+    public RoleMembershipIndex(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    /**
+     * Employee ids per role, in the order of roleNames. Roles without members
+     * map to an empty list.
+     */
+    public Map<String, List<Integer>> employeeIdsByRole(Collection<String> roleNames) {
+        long now = System.currentTimeMillis();
+        Map<String, List<Integer>> result = new LinkedHashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String roleName : roleNames) {
+            Members members = cache.get(roleName);
+            if (members != null && now - members.loadedAt() < ttlSeconds * 1000) {
+                result.put(roleName, members.employeeIds());
+            } else {
+                result.put(roleName, null);
+                missing.add(roleName);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+
+        long loadGeneration = generation.get();
+        Map<String, List<Integer>> loaded = new LinkedHashMap<>();
+        missing.forEach(roleName -> loaded.put(roleName, new ArrayList<>()));
+        for (Object[] row : accountRepository.findEmployeeIdsByRoleNames(missing)) {
+            loaded.get((String) row[0]).add((Integer) row[1]);
+        }
+
+        loaded.forEach((roleName, employeeIds) -> {
+            List<Integer> members = List.copyOf(employeeIds);
+            result.put(roleName, members);
+            // Skip caching if memberships changed while loading (result may be stale)
+            if (generation.get() == loadGeneration) {
+                cache.put(roleName, new Members(members, now));
+            }
+        });
+        log.debug("Role membership loaded for {}", missing);
+        return result;
+    }
+
+    /**
+     * Drop all cached memberships
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        cache.clear();
+    }
+
+    private record Members(List<Integer> employeeIds, long loadedAt) {
+    }
+}
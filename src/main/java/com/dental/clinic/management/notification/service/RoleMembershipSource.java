@@ -0,0 +1,25 @@
+package com.dental.clinic.management.notification.service;
+
+import java.util.List;
+
+/**
+ * Entity whose fields decide role membership (Account, Employee, Role).
+ *
+ * RoleMembershipChangeListener records roleMembershipState() when the entity
+ * is loaded and only invalidates RoleMembershipIndex when an update changed
+ * it, so unrelated edits (profile, password, ...) keep the cache.
+ */
+public interface RoleMembershipSource {
+
+    /**
+     * Current values of the fields that decide membership (nulls allowed)
+     */
+    List<Object> roleMembershipState();
+
+    /**
+     * State recorded at load time, null if the entity was not loaded
+     */
+    List<Object> loadedRoleMembershipState();
+
+    void recordRoleMembershipState(List<Object> state);
+}
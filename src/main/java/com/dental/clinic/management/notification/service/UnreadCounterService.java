@@ -0,0 +1,167 @@
+package com.dental.clinic.management.notification.service;
+
+import com.dental.clinic.management.notification.repository.NotificationRepository;
+import com.dental.clinic.management.notification.service.unread.UnreadCounterStore;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-user unread notification counters.
+ *
+ * Reads come from UnreadCounterStore; a missing counter is loaded from the
+ * notifications table once. Changes are applied after the transaction commits
+ * and the new value is pushed to /topic/notifications/{userId}/unread-count,
+ * so clients do not need to poll /unread-count.
+ *
+ * Role notifications (createRoleNotification) bump the counter of every
+ * recipient and push each new value the same way.
+ *
+ * reconcile() periodically overwrites cached counters with the table count,
+ * fixing drift from missed updates (crash between commit and increment, SQL
+ * scripts, ...).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class UnreadCounterService {
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+
+    private final UnreadCounterStore store;
+    private final NotificationRepository notificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * Cached unread count, loaded from the table on a miss
+     */
+    public long getUnreadCount(Integer userId) {
+        try {
+            Long cached = store.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        } catch (Exception e) {
+            log.warn("Unread counter store unavailable, counting from table: {}", e.getMessage());
+            return notificationRepository.countUnreadByUserId(userId);
+        }
+        return load(userId);
+    }
+
+    /**
+     * Add delta to the user's counter after commit and push the new value
+     */
+    public void adjust(Integer userId, long delta) {
+        afterCommit(() -> {
+            Long value = store.increment(userId, delta);
+            push(userId, value != null ? value : load(userId));
+        });
+    }
+
+    /**
+     * One more unread notification for each user, after commit, pushing each
+     * new value
+     */
+    public void incrementAll(Collection<Integer> userIds) {
+        afterCommit(() -> {
+            for (Integer userId : userIds) {
+                try {
+                    Long value = store.increment(userId, 1);
+                    push(userId, value != null ? value : load(userId));
+                } catch (Exception e) {
+                    log.warn("Failed to update unread counter of user {}: {}", userId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /**
+     * All notifications of the user read
+     */
+    public void reset(Integer userId) {
+        afterCommit(() -> {
+            store.set(userId, 0);
+            push(userId, 0);
+        });
+    }
+
+    /**
+     * Cron: every 5 minutes - overwrite cached counters with the table count
+     */
+    @Scheduled(fixedDelayString = "${app.notification.unread-counter.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        List<Integer> userIds;
+        try {
+            userIds = new ArrayList<>(store.cachedUserIds());
+        } catch (Exception e) {
+            log.warn("Unread counter reconciliation skipped: {}", e.getMessage());
+            return;
+        }
+
+        int corrected = 0;
+        for (int from = 0; from < userIds.size(); from += RECONCILE_BATCH_SIZE) {
+            List<Integer> batch = userIds.subList(from, Math.min(from + RECONCILE_BATCH_SIZE, userIds.size()));
+            Map<Integer, Long> counts = new HashMap<>();
+            for (Object[] row : notificationRepository.countUnreadByUserIds(batch)) {
+                counts.put((Integer) row[0], (Long) row[1]);
+            }
+            for (Integer userId : batch) {
+                long actual = counts.getOrDefault(userId, 0L);
+                Long cached = store.get(userId);
+                if (cached != null && cached != actual) {
+                    store.set(userId, actual);
+                    push(userId, actual);
+                    corrected++;
+                }
+            }
+        }
+        if (corrected > 0) {
+            log.info("Unread counters reconciled: {} of {} corrected", corrected, userIds.size());
+        }
+    }
+
+    private long load(Integer userId) {
+        long count = notificationRepository.countUnreadByUserId(userId);
+        store.set(userId, count);
+        return count;
+    }
+
+    private void push(Integer userId, long value) {
+        try {
+            messagingTemplate.convertAndSend("/topic/notifications/" + userId + "/unread-count", value);
+        } catch (Exception e) {
+            log.warn("Failed to push unread count to user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        Runnable safe = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                // Counter is corrected by the next reconcile
+                log.warn("Failed to update unread counter: {}", e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    safe.run();
+                }
+            });
+        } else {
+            safe.run();
+        }
+    }
+}
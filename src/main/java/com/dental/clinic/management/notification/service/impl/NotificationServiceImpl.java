@@ -1,23 +1,37 @@
 package com.dental.clinic.management.notification.service.impl;
 
-import com.dental.clinic.management.account.domain.Account;
-import com.dental.clinic.management.account.repository.AccountRepository;
 import com.dental.clinic.management.exception.ResourceNotFoundException;
 import com.dental.clinic.management.notification.domain.Notification;
 import com.dental.clinic.management.notification.dto.CreateNotificationRequest;
 import com.dental.clinic.management.notification.dto.NotificationDTO;
+import com.dental.clinic.management.notification.dto.RoleNotificationDTO;
+import com.dental.clinic.management.notification.enums.NotificationEntityType;
 import com.dental.clinic.management.notification.enums.NotificationType;
 import com.dental.clinic.management.notification.repository.NotificationRepository;
 import com.dental.clinic.management.notification.service.NotificationService;
+import com.dental.clinic.management.notification.service.RoleMembershipIndex;
+import com.dental.clinic.management.notification.service.UnreadCounterService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 // import java.time.LocalDateTime;
 
@@ -27,9 +41,24 @@ import java.util.List;
 @Transactional
 public class NotificationServiceImpl implements NotificationService {
 
+    private static final List<String> APPROVER_ROLES = List.of("ADMIN", "MANAGER");
+
+    /**
+     * Client subscribe theo role của mình và lọc theo recipients
+     */
+    private static final String ROLE_TOPIC_PREFIX = "/topic/notifications/role/";
+
+    private static final String BULK_INSERT_SQL = "INSERT INTO notifications "
+            + "(user_id, type, title, message, related_entity_type, related_entity_id, is_read, created_at) "
+            + "SELECT u.user_id, ?, ?, ?, ?, ?, false, ? "
+            + "FROM unnest(CAST(? AS integer[])) AS u(user_id) "
+            + "RETURNING notification_id, user_id";
+
     private final NotificationRepository notificationRepository;
     private final SimpMessagingTemplate messagingTemplate;
-    private final AccountRepository accountRepository;
+    private final RoleMembershipIndex roleMembershipIndex;
+    private final JdbcTemplate jdbcTemplate;
+    private final UnreadCounterService unreadCounterService;
 
     @Override
     public NotificationDTO createNotification(CreateNotificationRequest request) {
@@ -51,6 +80,7 @@ public class NotificationServiceImpl implements NotificationService {
         log.info("Notification SAVED to DB with ID: {}", savedNotification.getNotificationId());
 
         NotificationDTO notificationDTO = convertToDTO(savedNotification);
+        unreadCounterService.adjust(request.getUserId(), 1);
 
         // Push real-time notification qua WebSocket
         try {
@@ -78,8 +108,8 @@ public class NotificationServiceImpl implements NotificationService {
             throw new IllegalArgumentException("User không có quyền đánh dấu thông báo này");
         }
 
-        if (!notification.getIsRead()) {
-            notificationRepository.markAsRead(notificationId, userId);
+        if (!notification.getIsRead() && notificationRepository.markAsRead(notificationId, userId) > 0) {
+            unreadCounterService.adjust(userId, -1);
             log.info("Notification {} marked as read", notificationId);
         }
     }
@@ -88,12 +118,13 @@ public class NotificationServiceImpl implements NotificationService {
     public void markAllAsRead(Integer userId) {
         log.info("Marking all notifications as read for user: {}", userId);
         notificationRepository.markAllAsRead(userId);
+        unreadCounterService.reset(userId);
     }
 
     @Override
     @Transactional(readOnly = true)
     public Long getUnreadCount(Integer userId) {
-        Long count = notificationRepository.countUnreadByUserId(userId);
+        Long count = unreadCounterService.getUnreadCount(userId);
         log.debug("Unread count for user {}: {}", userId, count);
         return count;
     }
@@ -119,6 +150,9 @@ public class NotificationServiceImpl implements NotificationService {
         }
 
         notificationRepository.delete(notification);
+        if (!notification.getIsRead()) {
+            unreadCounterService.adjust(userId, -1);
+        }
         log.info("Notification {} deleted successfully", notificationId);
     }
 
@@ -137,6 +171,74 @@ public class NotificationServiceImpl implements NotificationService {
                 .build();
     }
 
+    @Override
+    public int createRoleNotification(List<String> roleNames, NotificationType type, String title, String message,
+            NotificationEntityType relatedEntityType, String relatedEntityId) {
+        Map<String, List<Integer>> membersByRole = roleMembershipIndex.employeeIdsByRole(roleNames);
+        Set<Integer> userIds = new LinkedHashSet<>();
+        membersByRole.values().forEach(userIds::addAll);
+        if (userIds.isEmpty()) {
+            log.warn("No recipients in roles {} for {} notification", roleNames, type);
+            return 0;
+        }
+
+        // Một câu lệnh cho tất cả người nhận
+        LocalDateTime createdAt = LocalDateTime.now();
+        Map<Integer, Long> notificationIds = new HashMap<>();
+        jdbcTemplate.query(BULK_INSERT_SQL,
+                (RowCallbackHandler) rs -> notificationIds.put(rs.getInt("user_id"), rs.getLong("notification_id")),
+                type.name(), title, message,
+                relatedEntityType != null ? relatedEntityType.name() : null,
+                relatedEntityId, Timestamp.valueOf(createdAt),
+                userIds.toArray(new Integer[0]));
+
+        unreadCounterService.incrementAll(notificationIds.keySet());
+
+        List<RoleNotificationDTO> broadcasts = new ArrayList<>();
+        membersByRole.forEach((roleName, members) -> {
+            if (members.isEmpty()) {
+                return;
+            }
+            Map<Integer, Long> recipients = new LinkedHashMap<>();
+            members.forEach(userId -> recipients.put(userId, notificationIds.get(userId)));
+            broadcasts.add(RoleNotificationDTO.builder()
+                    .roleName(roleName)
+                    .type(type)
+                    .title(title)
+                    .message(message)
+                    .relatedEntityType(relatedEntityType)
+                    .relatedEntityId(relatedEntityId)
+                    .createdAt(createdAt)
+                    .recipients(recipients)
+                    .build());
+        });
+
+        // Push sau khi commit để client không nhận notificationId chưa tồn tại
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcasts.forEach(NotificationServiceImpl.this::broadcastToRole);
+                }
+            });
+        } else {
+            broadcasts.forEach(this::broadcastToRole);
+        }
+
+        log.info("Created {} {} notifications for roles {}", notificationIds.size(), type, roleNames);
+        return notificationIds.size();
+    }
+
+    private void broadcastToRole(RoleNotificationDTO broadcast) {
+        try {
+            messagingTemplate.convertAndSend(ROLE_TOPIC_PREFIX + broadcast.getRoleName(), broadcast);
+        } catch (Exception e) {
+            log.warn("Failed to send WebSocket notification to role {}: {}", broadcast.getRoleName(),
+                    e.getMessage());
+            // Không throw exception vì thông báo đã được lưu vào DB
+        }
+    }
+
     @Override
     public void createTimeOffRequestNotification(String employeeName, String requestId, String startDate,
             String endDate) {
@@ -145,32 +247,10 @@ public class NotificationServiceImpl implements NotificationService {
         String title = "Yeu cau nghi phep tu " + employeeName;
         String message = employeeName + " da gui yeu cau nghi phep tu " + startDate + " den " + endDate;
 
-        // Find all ADMIN and MANAGER accounts (both can approve time-off requests)
-        List<Account> adminAccounts = accountRepository.findByRole_RoleName("ADMIN");
-        List<Account> managerAccounts = accountRepository.findByRole_RoleName("MANAGER");
-        
-        // Combine both lists
-        List<Account> approverAccounts = new java.util.ArrayList<>(adminAccounts);
-        approverAccounts.addAll(managerAccounts);
-        
-        for (Account account : approverAccounts) {
-            if (account.getEmployee() != null) {
-                CreateNotificationRequest request = CreateNotificationRequest.builder()
-                        .userId(account.getEmployee().getEmployeeId())
-                        .type(NotificationType.REQUEST_TIME_OFF_PENDING)
-                        .title(title)
-                        .message(message)
-                        .relatedEntityType(
-                                com.dental.clinic.management.notification.enums.NotificationEntityType.TIME_OFF_REQUEST)
-                        .relatedEntityId(requestId)
-                        .build();
-
-                createNotification(request);
-                log.debug("Sent TIME_OFF notification to {} (role: {})", 
-                        account.getEmployee().getEmployeeCode(), account.getRole().getRoleName());
-            }
-        }
-        log.info("Sent {} TIME_OFF_REQUEST notifications to approvers", approverAccounts.size());
+        // ADMIN and MANAGER can both approve time-off requests
+        int sent = createRoleNotification(APPROVER_ROLES, NotificationType.REQUEST_TIME_OFF_PENDING, title, message,
+                NotificationEntityType.TIME_OFF_REQUEST, requestId);
+        log.info("Sent {} TIME_OFF_REQUEST notifications to approvers", sent);
     }
 
     @Override
@@ -181,32 +261,10 @@ public class NotificationServiceImpl implements NotificationService {
         String title = "Yeu cau tang ca tu " + employeeName;
         String message = employeeName + " da gui yeu cau tang ca ngay " + workDate + " ca " + shiftName;
 
-        // Find all ADMIN and MANAGER accounts (both can approve overtime requests)
-        List<Account> adminAccounts = accountRepository.findByRole_RoleName("ADMIN");
-        List<Account> managerAccounts = accountRepository.findByRole_RoleName("MANAGER");
-        
-        // Combine both lists
-        List<Account> approverAccounts = new java.util.ArrayList<>(adminAccounts);
-        approverAccounts.addAll(managerAccounts);
-        
-        for (Account account : approverAccounts) {
-            if (account.getEmployee() != null) {
-                CreateNotificationRequest request = CreateNotificationRequest.builder()
-                        .userId(account.getEmployee().getEmployeeId())
-                        .type(NotificationType.REQUEST_OVERTIME_PENDING)
-                        .title(title)
-                        .message(message)
-                        .relatedEntityType(
-                                com.dental.clinic.management.notification.enums.NotificationEntityType.OVERTIME_REQUEST)
-                        .relatedEntityId(requestId)
-                        .build();
-
-                createNotification(request);
-                log.debug("Sent OVERTIME notification to {} (role: {})", 
-                        account.getEmployee().getEmployeeCode(), account.getRole().getRoleName());
-            }
-        }
-        log.info("Sent {} OVERTIME_REQUEST notifications to approvers", approverAccounts.size());
+        // ADMIN and MANAGER can both approve overtime requests
+        int sent = createRoleNotification(APPROVER_ROLES, NotificationType.REQUEST_OVERTIME_PENDING, title, message,
+                NotificationEntityType.OVERTIME_REQUEST, requestId);
+        log.info("Sent {} OVERTIME_REQUEST notifications to approvers", sent);
     }
 
     @Override
@@ -217,31 +275,9 @@ public class NotificationServiceImpl implements NotificationService {
         String title = "Yeu cau dang ky part-time tu " + employeeName;
         String message = employeeName + " da gui yeu cau dang ky part-time tu " + effectiveFrom + " den " + effectiveTo;
 
-        // Find all ADMIN and MANAGER accounts (both can approve part-time registrations)
-        List<Account> adminAccounts = accountRepository.findByRole_RoleName("ADMIN");
-        List<Account> managerAccounts = accountRepository.findByRole_RoleName("MANAGER");
-        
-        // Combine both lists
-        List<Account> approverAccounts = new java.util.ArrayList<>(adminAccounts);
-        approverAccounts.addAll(managerAccounts);
-        
-        for (Account account : approverAccounts) {
-            if (account.getEmployee() != null) {
-                CreateNotificationRequest request = CreateNotificationRequest.builder()
-                        .userId(account.getEmployee().getEmployeeId())
-                        .type(NotificationType.REQUEST_PART_TIME_PENDING)
-                        .title(title)
-                        .message(message)
-                        .relatedEntityType(
-                                com.dental.clinic.management.notification.enums.NotificationEntityType.PART_TIME_REGISTRATION)
-                        .relatedEntityId(String.valueOf(registrationId))
-                        .build();
-
-                createNotification(request);
-                log.debug("Sent PART_TIME notification to {} (role: {})", 
-                        account.getEmployee().getEmployeeCode(), account.getRole().getRoleName());
-            }
-        }
-        log.info("Sent {} PART_TIME_REGISTRATION notifications to approvers", approverAccounts.size());
+        // ADMIN and MANAGER can both approve part-time registrations
+        int sent = createRoleNotification(APPROVER_ROLES, NotificationType.REQUEST_PART_TIME_PENDING, title, message,
+                NotificationEntityType.PART_TIME_REGISTRATION, String.valueOf(registrationId));
+        log.info("Sent {} PART_TIME_REGISTRATION notifications to approvers", sent);
     }
 }
@@ -0,0 +1,38 @@
+package com.dental.clinic.management.notification.service.unread;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Single-node unread counter store
+ */
+@Component
+@ConditionalOnProperty(name = "app.notification.unread-counter.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryUnreadCounterStore implements UnreadCounterStore {
+
+    private final Map<Integer, Long> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public Long get(Integer userId) {
+        return counters.get(userId);
+    }
+
+    @Override
+    public void set(Integer userId, long value) {
+        counters.put(userId, Math.max(0, value));
+    }
+
+    @Override
+    public Long increment(Integer userId, long delta) {
+        return counters.computeIfPresent(userId, (id, value) -> Math.max(0, value + delta));
+    }
+
+    @Override
+    public Set<Integer> cachedUserIds() {
+        return Set.copyOf(counters.keySet());
+    }
+}
@@ -0,0 +1,84 @@
+package com.dental.clinic.management.notification.service.unread;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Cluster-wide unread counter store (app.notification.unread-counter.store=redis).
+ *
+ * Keys:
+ * - notification:unread:{userId} -> counter (expires after a day without change)
+ * - notification:unread:users -> set of userIds with a counter
+ */
+@Component
+@ConditionalOnProperty(name = "app.notification.unread-counter.store", havingValue = "redis")
+public class RedisUnreadCounterStore implements UnreadCounterStore {
+
+    private static final String COUNTER_KEY = "notification:unread:";
+    private static final String USERS_KEY = "notification:unread:users";
+    private static final Duration COUNTER_TTL = Duration.ofDays(1);
+
+    /**
+     * INCRBY only if the counter exists, clamped at zero
+     */
+    private static final DefaultRedisScript<Long> INCREMENT_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return nil end "
+                    + "local v = redis.call('INCRBY', KEYS[1], ARGV[1]) "
+                    + "if v < 0 then redis.call('SET', KEYS[1], 0, 'KEEPTTL') v = 0 end "
+                    + "redis.call('EXPIRE', KEYS[1], ARGV[2]) "
+                    + "return v",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisUnreadCounterStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Long get(Integer userId) {
+        String value = redisTemplate.opsForValue().get(COUNTER_KEY + userId);
+        return value != null ? Long.valueOf(value) : null;
+    }
+
+    @Override
+    public void set(Integer userId, long value) {
+        redisTemplate.opsForValue().set(COUNTER_KEY + userId, String.valueOf(Math.max(0, value)), COUNTER_TTL);
+        redisTemplate.opsForSet().add(USERS_KEY, String.valueOf(userId));
+    }
+
+    @Override
+    public Long increment(Integer userId, long delta) {
+        return redisTemplate.execute(INCREMENT_SCRIPT, List.of(COUNTER_KEY + userId),
+                String.valueOf(delta), String.valueOf(COUNTER_TTL.toSeconds()));
+    }
+
+    @Override
+    public Set<Integer> cachedUserIds() {
+        Set<String> members = redisTemplate.opsForSet().members(USERS_KEY);
+        if (members == null || members.isEmpty()) {
+            return Set.of();
+        }
+        // Drop users whose counter expired
+        List<String> ids = List.copyOf(members);
+        List<String> values = redisTemplate.opsForValue()
+                .multiGet(ids.stream().map(id -> COUNTER_KEY + id).collect(Collectors.toList()));
+        Set<Integer> cached = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (values != null && values.get(i) != null) {
+                cached.add(Integer.valueOf(ids.get(i)));
+            } else {
+                redisTemplate.opsForSet().remove(USERS_KEY, ids.get(i));
+            }
+        }
+        return cached;
+    }
+}
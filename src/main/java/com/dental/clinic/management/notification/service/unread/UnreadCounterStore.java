@@ -0,0 +1,35 @@
+package com.dental.clinic.management.notification.service.unread;
+
+import java.util.Set;
+
+/**
+ * Storage for per-user unread notification counters.
+ *
+ * Implementations:
+ * - InMemoryUnreadCounterStore (default, app.notification.unread-counter.store=memory): single node
+ * - RedisUnreadCounterStore (app.notification.unread-counter.store=redis): shared by all nodes
+ *
+ * A missing counter means "unknown" (load it from the table), never zero.
+ */
+public interface UnreadCounterStore {
+
+    /**
+     * @return cached counter, or null if not cached
+     */
+    Long get(Integer userId);
+
+    void set(Integer userId, long value);
+
+    /**
+     * Add delta to a cached counter (never below zero). Missing counters stay
+     * missing.
+     *
+     * @return new value, or null if the counter was not cached
+     */
+    Long increment(Integer userId, long delta);
+
+    /**
+     * Users that currently have a cached counter (for reconciliation)
+     */
+    Set<Integer> cachedUserIds();
+}
@@ -0,0 +1,16 @@
+package com.dental.clinic.management.outbox.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * BR-17: confirmation email right after booking
+ */
+public record AppointmentConfirmationEmailPayload(
+        String toEmail,
+        String patientName,
+        String appointmentCode,
+        LocalDateTime appointmentStartTime,
+        String doctorName,
+        String roomName,
+        String serviceNames) {
+}
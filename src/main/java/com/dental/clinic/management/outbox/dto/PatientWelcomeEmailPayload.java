@@ -0,0 +1,10 @@
+package com.dental.clinic.management.outbox.dto;
+
+/**
+ * Welcome email with password setup link for a newly created patient account
+ */
+public record PatientWelcomeEmailPayload(
+        String toEmail,
+        String patientName,
+        String token) {
+}
@@ -0,0 +1,10 @@
+package com.dental.clinic.management.outbox.enums;
+
+/**
+ * Kind of side effect stored in the outbox (one OutboxHandler per type)
+ */
+public enum OutboxMessageType {
+    NOTIFICATION,
+    APPOINTMENT_CONFIRMATION_EMAIL,
+    PATIENT_WELCOME_EMAIL
+}
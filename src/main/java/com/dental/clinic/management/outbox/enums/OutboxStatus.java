@@ -0,0 +1,12 @@
+package com.dental.clinic.management.outbox.enums;
+
+/**
+ * PENDING -> PROCESSING -> SENT
+ * PROCESSING -> PENDING (retry with backoff) -> ... -> DEAD (attempts exhausted)
+ */
+public enum OutboxStatus {
+    PENDING,
+    PROCESSING,
+    SENT,
+    DEAD
+}
@@ -0,0 +1,39 @@
+package com.dental.clinic.management.outbox.handler;
+
+import com.dental.clinic.management.outbox.dto.AppointmentConfirmationEmailPayload;
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+import com.dental.clinic.management.outbox.service.OutboxHandler;
+import com.dental.clinic.management.utils.AppointmentEmailService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * BR-17: booking confirmation email
+ */
+@Component
+@RequiredArgsConstructor
+public class AppointmentConfirmationEmailOutboxHandler implements OutboxHandler {
+
+    private final AppointmentEmailService appointmentEmailService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public OutboxMessageType type() {
+        return OutboxMessageType.APPOINTMENT_CONFIRMATION_EMAIL;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        AppointmentConfirmationEmailPayload email = objectMapper.readValue(payload,
+                AppointmentConfirmationEmailPayload.class);
+        appointmentEmailService.deliverAppointmentConfirmation(
+                email.toEmail(),
+                email.patientName(),
+                email.appointmentCode(),
+                email.appointmentStartTime(),
+                email.doctorName(),
+                email.roomName(),
+                email.serviceNames());
+    }
+}
@@ -0,0 +1,30 @@
+package com.dental.clinic.management.outbox.handler;
+
+import com.dental.clinic.management.notification.dto.CreateNotificationRequest;
+import com.dental.clinic.management.notification.service.NotificationService;
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+import com.dental.clinic.management.outbox.service.OutboxHandler;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Saves the notification and pushes it over WebSocket
+ */
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxHandler implements OutboxHandler {
+
+    private final NotificationService notificationService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public OutboxMessageType type() {
+        return OutboxMessageType.NOTIFICATION;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        notificationService.createNotification(objectMapper.readValue(payload, CreateNotificationRequest.class));
+    }
+}
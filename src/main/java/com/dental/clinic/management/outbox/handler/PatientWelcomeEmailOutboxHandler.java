@@ -0,0 +1,31 @@
+package com.dental.clinic.management.outbox.handler;
+
+import com.dental.clinic.management.outbox.dto.PatientWelcomeEmailPayload;
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+import com.dental.clinic.management.outbox.service.OutboxHandler;
+import com.dental.clinic.management.utils.ResendEmailService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Welcome email with password setup link for new patient accounts
+ */
+@Component
+@RequiredArgsConstructor
+public class PatientWelcomeEmailOutboxHandler implements OutboxHandler {
+
+    private final ResendEmailService resendEmailService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public OutboxMessageType type() {
+        return OutboxMessageType.PATIENT_WELCOME_EMAIL;
+    }
+
+    @Override
+    public void handle(String payload) throws Exception {
+        PatientWelcomeEmailPayload email = objectMapper.readValue(payload, PatientWelcomeEmailPayload.class);
+        resendEmailService.sendWelcomeEmailWithPasswordSetup(email.toEmail(), email.patientName(), email.token());
+    }
+}
@@ -0,0 +1,13 @@
+package com.dental.clinic.management.outbox.repository;
+
+import com.dental.clinic.management.outbox.domain.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Enqueue side of the outbox. Claiming and status updates are done by
+ * OutboxDispatcher with plain SQL (FOR UPDATE SKIP LOCKED).
+ */
+@Repository
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+}
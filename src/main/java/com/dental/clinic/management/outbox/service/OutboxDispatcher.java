@@ -0,0 +1,277 @@
+package com.dental.clinic.management.outbox.service;
+
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivers outbox messages with a bounded worker pool.
+ *
+ * Each poll claims up to batch-size due messages in one statement
+ * (FOR UPDATE SKIP LOCKED, so several nodes can poll the same table without
+ * delivering a message twice), marks them PROCESSING with a lease and hands
+ * them to the workers. A message whose lease expired (node crashed while
+ * sending) is claimed again.
+ *
+ * Outcome per message:
+ * - handler returns: SENT
+ * - handler throws: back to PENDING with exponential backoff
+ * (base * 2^(attempts-1), capped), or DEAD once max-attempts is reached
+ * - no handler for the type: DEAD
+ *
+ * Metrics: outbox.queue.depth, outbox.dead.count (gauges),
+ * outbox.delivery.latency (enqueue -> sent, per type),
+ * outbox.delivered / outbox.retried / outbox.dead (counters, per type)
+ */
+@Slf4j
+@Service
+public class OutboxDispatcher {
+
+    private static final String CLAIM_SQL = "UPDATE outbox_messages SET status = 'PROCESSING', "
+            + "locked_until = ?, attempts = attempts + 1 "
+            + "WHERE outbox_id IN ("
+            + "  SELECT outbox_id FROM outbox_messages "
+            + "  WHERE (status = 'PENDING' AND next_attempt_at <= ?) "
+            + "     OR (status = 'PROCESSING' AND locked_until < ?) "
+            + "  ORDER BY next_attempt_at, outbox_id "
+            + "  LIMIT ? "
+            + "  FOR UPDATE SKIP LOCKED) "
+            + "RETURNING outbox_id, message_type, reference, payload, attempts, created_at";
+
+    private static final String MARK_SENT_SQL = "UPDATE outbox_messages SET status = 'SENT', "
+            + "processed_at = ?, locked_until = NULL, last_error = NULL "
+            + "WHERE outbox_id = ? AND status = 'PROCESSING'";
+
+    private static final String MARK_RETRY_SQL = "UPDATE outbox_messages SET status = 'PENDING', "
+            + "next_attempt_at = ?, locked_until = NULL, last_error = ? "
+            + "WHERE outbox_id = ? AND status = 'PROCESSING'";
+
+    private static final String MARK_DEAD_SQL = "UPDATE outbox_messages SET status = 'DEAD', "
+            + "processed_at = ?, locked_until = NULL, last_error = ? "
+            + "WHERE outbox_id = ? AND status = 'PROCESSING'";
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<OutboxMessageType, OutboxHandler> handlers = new EnumMap<>(OutboxMessageType.class);
+
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong deadCount = new AtomicLong();
+
+    @Value("${app.outbox.workers:4}")
+    private int workers;
+
+    @Value("${app.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${app.outbox.backoff-base-seconds:10}")
+    private long backoffBaseSeconds;
+
+    @Value("${app.outbox.backoff-max-seconds:3600}")
+    private long backoffMaxSeconds;
+
+    @Value("${app.outbox.lease-seconds:120}")
+    private long leaseSeconds;
+
+    @Value("${app.outbox.retention-days:7}")
+    private int retentionDays;
+
+    private ThreadPoolTaskExecutor executor;
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry, List<OutboxHandler> handlers) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        for (OutboxHandler handler : handlers) {
+            OutboxHandler previous = this.handlers.put(handler.type(), handler);
+            if (previous != null) {
+                throw new IllegalStateException("Duplicate outbox handler for " + handler.type());
+            }
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        // Own pool (not a bean) so it never competes with @Async or the scheduler
+        executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("outbox-");
+        executor.setCorePoolSize(Math.max(1, workers));
+        executor.setMaxPoolSize(Math.max(1, workers));
+        executor.setQueueCapacity(Math.max(1, batchSize));
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        Gauge.builder("outbox.queue.depth", queueDepth, AtomicLong::get)
+                .description("Outbox messages waiting for delivery (PENDING + PROCESSING)")
+                .register(meterRegistry);
+        Gauge.builder("outbox.dead.count", deadCount, AtomicLong::get)
+                .description("Outbox messages that exhausted their attempts")
+                .register(meterRegistry);
+
+        log.info("Outbox dispatcher started: {} workers, batch {}, handlers {}", workers, batchSize,
+                handlers.keySet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Claim a batch of due messages and deliver it. Waits for the whole batch
+     * so a poll never claims more than the pool can hold.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        List<ClaimedMessage> batch;
+        try {
+            batch = claim();
+        } catch (Exception e) {
+            log.error("Outbox claim failed: {}", e.getMessage());
+            return;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        CompletableFuture<?>[] futures = batch.stream()
+                .map(message -> CompletableFuture.runAsync(() -> deliver(message), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+        log.debug("Outbox batch of {} messages processed", batch.size());
+    }
+
+    /**
+     * Refresh the queue gauges
+     */
+    @Scheduled(fixedDelay = 30_000)
+    public void refreshGauges() {
+        try {
+            Long depth = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM outbox_messages WHERE status IN ('PENDING', 'PROCESSING')", Long.class);
+            Long dead = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM outbox_messages WHERE status = 'DEAD'", Long.class);
+            queueDepth.set(depth != null ? depth : 0);
+            deadCount.set(dead != null ? dead : 0);
+        } catch (Exception e) {
+            log.warn("Could not refresh outbox gauges: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Cron: 03:30 every day - delete delivered messages older than
+     * retention-days. DEAD messages are kept for investigation.
+     */
+    @Scheduled(cron = "0 30 3 * * ?", zone = "Asia/Ho_Chi_Minh")
+    public void purgeDelivered() {
+        LocalDateTime threshold = LocalDateTime.now().minusDays(retentionDays);
+        int deleted = jdbcTemplate.update(
+                "DELETE FROM outbox_messages WHERE status = 'SENT' AND processed_at < ?",
+                Timestamp.valueOf(threshold));
+        log.info("Outbox cleanup: {} delivered messages older than {} deleted", deleted, threshold);
+    }
+
+    private List<ClaimedMessage> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new ClaimedMessage(
+                        rs.getLong("outbox_id"),
+                        rs.getString("message_type"),
+                        rs.getString("reference"),
+                        rs.getString("payload"),
+                        rs.getInt("attempts"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                Timestamp.valueOf(now.plusSeconds(leaseSeconds)),
+                Timestamp.valueOf(now),
+                Timestamp.valueOf(now),
+                Math.max(1, batchSize));
+    }
+
+    private void deliver(ClaimedMessage message) {
+        OutboxMessageType type;
+        try {
+            type = OutboxMessageType.valueOf(message.type());
+        } catch (IllegalArgumentException e) {
+            markDead(message, "UNKNOWN", "Unknown message type " + message.type());
+            return;
+        }
+        OutboxHandler handler = handlers.get(type);
+        if (handler == null) {
+            markDead(message, type.name(), "No handler registered for " + type);
+            return;
+        }
+
+        try {
+            handler.handle(message.payload());
+            LocalDateTime sentAt = LocalDateTime.now();
+            jdbcTemplate.update(MARK_SENT_SQL, Timestamp.valueOf(sentAt), message.id());
+            meterRegistry.counter("outbox.delivered", "type", type.name()).increment();
+            meterRegistry.timer("outbox.delivery.latency", "type", type.name())
+                    .record(Duration.between(message.createdAt(), sentAt));
+        } catch (Exception e) {
+            String error = describe(e);
+            if (message.attempts() >= maxAttempts) {
+                markDead(message, type.name(), error);
+                return;
+            }
+            LocalDateTime nextAttempt = LocalDateTime.now().plus(backoff(message.attempts()));
+            jdbcTemplate.update(MARK_RETRY_SQL, Timestamp.valueOf(nextAttempt), error, message.id());
+            meterRegistry.counter("outbox.retried", "type", type.name()).increment();
+            log.warn("Outbox message {} ({} {}) failed on attempt {}/{}, retry at {}: {}", message.id(), type,
+                    message.reference(), message.attempts(), maxAttempts, nextAttempt, error);
+        }
+    }
+
+    private void markDead(ClaimedMessage message, String type, String error) {
+        jdbcTemplate.update(MARK_DEAD_SQL, Timestamp.valueOf(LocalDateTime.now()), error, message.id());
+        meterRegistry.counter("outbox.dead", "type", type).increment();
+        log.error("Outbox message {} ({} {}) is DEAD after {} attempts: {}", message.id(), type,
+                message.reference(), message.attempts(), error);
+    }
+
+    private Duration backoff(int attempts) {
+        // attempts >= 1 here; shift capped to avoid overflow
+        long seconds = backoffBaseSeconds << Math.min(attempts - 1, 20);
+        return Duration.ofSeconds(Math.min(seconds, backoffMaxSeconds));
+    }
+
+    private static String describe(Exception e) {
+        Throwable root = e;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String text = e.getClass().getSimpleName() + ": " + e.getMessage();
+        if (root != e) {
+            text += " (caused by " + root.getClass().getSimpleName() + ": " + root.getMessage() + ")";
+        }
+        return text.length() > MAX_ERROR_LENGTH ? text.substring(0, MAX_ERROR_LENGTH) : text;
+    }
+
+    private record ClaimedMessage(long id, String type, String reference, String payload, int attempts,
+            LocalDateTime createdAt) {
+    }
+}
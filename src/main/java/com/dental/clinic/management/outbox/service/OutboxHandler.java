@@ -0,0 +1,14 @@
+package com.dental.clinic.management.outbox.service;
+
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+
+/**
+ * Delivers one kind of outbox message. Throwing schedules a retry (with
+ * backoff) until the attempts are exhausted.
+ */
+public interface OutboxHandler {
+
+    OutboxMessageType type();
+
+    void handle(String payload) throws Exception;
+}
@@ -0,0 +1,50 @@
+package com.dental.clinic.management.outbox.service;
+
+import com.dental.clinic.management.outbox.domain.OutboxMessage;
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+import com.dental.clinic.management.outbox.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * Enqueue side of the transactional outbox.
+ *
+ * Messages are saved in the caller's transaction: they become visible to
+ * OutboxDispatcher only when the business change commits, and disappear with
+ * it on rollback. The request thread never waits on the email provider or the
+ * WebSocket broker.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxMessageRepository outboxMessageRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Queue a message for delivery after commit
+     *
+     * @param type      handler that will deliver it
+     * @param reference business reference for tracing (appointment code, ...)
+     * @param payload   serialized to JSON, read back by the handler
+     */
+    public void enqueue(OutboxMessageType type, String reference, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize outbox payload for " + type, e);
+        }
+
+        OutboxMessage message = outboxMessageRepository.save(OutboxMessage.builder()
+                .messageType(type)
+                .reference(reference)
+                .payload(json)
+                .build());
+        log.debug("Outbox message {} queued: type={}, reference={}", message.getOutboxId(), type, reference);
+    }
+}
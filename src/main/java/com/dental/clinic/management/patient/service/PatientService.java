@@ -10,6 +10,10 @@ import com.dental.clinic.management.account.repository.AccountVerificationTokenR
 import com.dental.clinic.management.account.repository.PasswordResetTokenRepository;
 import com.dental.clinic.management.role.domain.Role;
 import com.dental.clinic.management.role.repository.RoleRepository;
+import com.dental.clinic.management.booking_appointment.service.AppointmentSearchIndexer;
+import com.dental.clinic.management.outbox.dto.PatientWelcomeEmailPayload;
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+import com.dental.clinic.management.outbox.service.OutboxService;
 import com.dental.clinic.management.patient.domain.Patient;
 import com.dental.clinic.management.clinical_records.domain.PatientToothStatus;
 import com.dental.clinic.management.clinical_records.domain.PatientToothStatusHistory;
@@ -29,7 +33,6 @@ import com.dental.clinic.management.clinical_records.repository.PatientToothStat
 import com.dental.clinic.management.employee.domain.Employee;
 import com.dental.clinic.management.employee.repository.EmployeeRepository;
 import com.dental.clinic.management.utils.EmailService;
-import com.dental.clinic.management.utils.ResendEmailService;
 import com.dental.clinic.management.utils.SequentialCodeGenerator;
 
 import org.slf4j.Logger;
@@ -68,12 +71,13 @@ public class PatientService {
     private final PasswordResetTokenRepository passwordResetTokenRepository;
     @SuppressWarnings("unused")
     private final EmailService emailService;
-    private final ResendEmailService resendEmailService;
+    private final OutboxService outboxService;
     private final RoleRepository roleRepository;
     private final PatientToothStatusRepository patientToothStatusRepository;
     private final PatientToothStatusHistoryRepository patientToothStatusHistoryRepository;
     private final DuplicatePatientDetectionService duplicateDetectionService;
     private final EmployeeRepository employeeRepository;
+    private final AppointmentSearchIndexer appointmentSearchIndexer;
 
     public PatientService(
             PatientRepository patientRepository,
@@ -84,12 +88,13 @@ public class PatientService {
             AccountVerificationTokenRepository verificationTokenRepository,
             PasswordResetTokenRepository passwordResetTokenRepository,
             EmailService emailService,
-            ResendEmailService resendEmailService,
+            OutboxService outboxService,
             RoleRepository roleRepository,
             PatientToothStatusRepository patientToothStatusRepository,
             PatientToothStatusHistoryRepository patientToothStatusHistoryRepository,
             DuplicatePatientDetectionService duplicateDetectionService,
-            EmployeeRepository employeeRepository) {
+            EmployeeRepository employeeRepository,
+            AppointmentSearchIndexer appointmentSearchIndexer) {
         this.patientRepository = patientRepository;
         this.patientMapper = patientMapper;
         this.accountRepository = accountRepository;
@@ -98,12 +103,13 @@ public class PatientService {
         this.verificationTokenRepository = verificationTokenRepository;
         this.passwordResetTokenRepository = passwordResetTokenRepository;
         this.emailService = emailService;
-        this.resendEmailService = resendEmailService;
+        this.outboxService = outboxService;
         this.duplicateDetectionService = duplicateDetectionService;
         this.roleRepository = roleRepository;
         this.employeeRepository = employeeRepository;
         this.patientToothStatusRepository = patientToothStatusRepository;
         this.patientToothStatusHistoryRepository = patientToothStatusHistoryRepository;
+        this.appointmentSearchIndexer = appointmentSearchIndexer;
     }
 
     /**
@@ -384,13 +390,14 @@ public class PatientService {
                     patientName = request.getFirstName();
                 }
 
-                log.info("📧 [Resend] Sending welcome email to: {} (name: {})", account.getEmail(), patientName);
-                resendEmailService.sendWelcomeEmailWithPasswordSetup(
-                        account.getEmail(),
-                        patientName,
-                        setupToken.getToken());
-                log.info("✅ [Resend] Welcome email with password setup link sent successfully to: {}",
-                        account.getEmail());
+                // Queued in the outbox: sent after commit, retried if Resend is down
+                log.info("📧 Queueing welcome email to: {} (name: {})", account.getEmail(), patientName);
+                outboxService.enqueue(OutboxMessageType.PATIENT_WELCOME_EMAIL, account.getAccountCode(),
+                        new PatientWelcomeEmailPayload(
+                                account.getEmail(),
+                                patientName,
+                                setupToken.getToken()));
+                log.info("✅ Welcome email with password setup link queued for: {}", account.getEmail());
 
             } catch (Exception e) {
                 // Log error but don't fail the entire patient creation
@@ -447,6 +454,7 @@ public class PatientService {
                         "Không tìm thấy bệnh nhân với mã: " + patientCode,
                         "Patient",
                         "patientnotfound"));
+        String previousName = fullName(patient);
 
         // Check phone uniqueness if phone is being updated
         if (request.getPhone() != null && !request.getPhone().trim().isEmpty()) {
@@ -495,6 +503,7 @@ public class PatientService {
         }
 
         Patient updatedPatient = patientRepository.save(patient);
+        refreshAppointmentSearchIfRenamed(previousName, updatedPatient);
 
         return patientMapper.toPatientInfoResponse(updatedPatient);
     }
@@ -515,14 +524,30 @@ public class PatientService {
                         "Patient",
                         "patientnotfound"));
 
+        String previousName = fullName(patient);
+
         // Replace all fields
         patientMapper.replacePatientFromRequest(request, patient);
 
         Patient replacedPatient = patientRepository.save(patient);
+        refreshAppointmentSearchIfRenamed(previousName, replacedPatient);
 
         return patientMapper.toPatientInfoResponse(replacedPatient);
     }
 
+    private String fullName(Patient patient) {
+        return patient.getFirstName() + " " + patient.getLastName();
+    }
+
+    /**
+     * Appointment search documents embed the patient name (P3.3 searchCode)
+     */
+    private void refreshAppointmentSearchIfRenamed(String previousName, Patient patient) {
+        if (!previousName.equals(fullName(patient))) {
+            appointmentSearchIndexer.refreshForPatient(patient.getPatientId());
+        }
+    }
+
     /**
      * Soft delete patient
      *
@@ -5,6 +5,7 @@ import com.dental.clinic.management.payment.dto.InvoiceResponse;
 import com.dental.clinic.management.payment.dto.PatientPaymentHistoryResponse;
 import com.dental.clinic.management.payment.service.InvoiceService;
 import com.dental.clinic.management.utils.annotation.ApiMessage;
+import com.dental.clinic.management.utils.pagination.CursorPage;
 import com.dental.clinic.management.payment.enums.InvoicePaymentStatus;
 import com.dental.clinic.management.payment.enums.InvoiceType;
 import io.swagger.v3.oas.annotations.Operation;
@@ -138,6 +139,40 @@ public class InvoiceController {
         return ResponseEntity.ok(result);
     }
 
+    /**
+     * Get all invoices in cursor (keyset) mode.
+     * Same filters as GET /api/v1/invoices, ordered by createdAt desc.
+     * 
+     * @param cursor nextCursor of the previous response (omit for the first page)
+     * @param size Page size (default 20, max 100)
+     * @param withTotal Also return totalElements (extra COUNT query)
+     * @return Invoices + nextCursor (null on the last page)
+     * 
+     * Example: GET /api/v1/invoices/cursor?status=PAID&size=20&cursor=MjAyNS0xMS0...
+     */
+    @GetMapping("/cursor")
+    @PreAuthorize("hasAuthority('VIEW_INVOICE_ALL')")
+    @ApiMessage("Lấy danh sách tất cả hóa đơn thành công")
+    @Operation(summary = "Get all invoices (cursor mode)", 
+               description = "Keyset-paginated list of all invoices: pass nextCursor back as cursor; total count is optional. Admin/Manager only.")
+    public ResponseEntity<CursorPage<InvoiceResponse>> getInvoicesByCursor(
+            @RequestParam(required = false) InvoicePaymentStatus status,
+            @RequestParam(required = false) InvoiceType type,
+            @RequestParam(required = false) Integer patientId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        log.info("REST request to get invoices by cursor - status: {}, type: {}, patientId: {}, size: {}", 
+                 status, type, patientId, size);
+        
+        CursorPage<InvoiceResponse> result = invoiceService.getInvoicesByCursor(
+                status, type, patientId, startDate, endDate, cursor, size, withTotal);
+        
+        return ResponseEntity.ok(result);
+    }
+
     /**
      * Get patient payment history by patient code.
      * Returns paginated list of invoices with summary statistics.
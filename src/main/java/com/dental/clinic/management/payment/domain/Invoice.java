@@ -1,5 +1,7 @@
 package com.dental.clinic.management.payment.domain;
 
+import com.dental.clinic.management.dashboard.service.DashboardRollupChangeListener;
+import com.dental.clinic.management.export.service.ExportDataChangeListener;
 import com.dental.clinic.management.payment.enums.InvoicePaymentStatus;
 import com.dental.clinic.management.payment.enums.InvoiceType;
 import jakarta.persistence.*;
@@ -15,7 +17,10 @@ import java.util.List;
  * Lien ket voi Appointment hoac Treatment Plan
  */
 @Entity
-@Table(name = "invoices")
+@Table(name = "invoices", indexes = {
+        @Index(name = "idx_invoices_created_at_id", columnList = "created_at, invoice_id")
+})
+@EntityListeners({ DashboardRollupChangeListener.class, ExportDataChangeListener.class })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -1,5 +1,7 @@
 package com.dental.clinic.management.payment.domain;
 
+import com.dental.clinic.management.dashboard.service.DashboardRollupChangeListener;
+import com.dental.clinic.management.export.service.ExportDataChangeListener;
 import com.dental.clinic.management.payment.enums.PaymentMethod;
 import jakarta.persistence.*;
 import lombok.*;
@@ -14,6 +16,7 @@ import java.util.List;
  */
 @Entity
 @Table(name = "payments")
+@EntityListeners({ DashboardRollupChangeListener.class, ExportDataChangeListener.class })
 @Getter
 @Setter
 @NoArgsConstructor
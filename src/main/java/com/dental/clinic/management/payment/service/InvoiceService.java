@@ -26,11 +26,16 @@ import com.dental.clinic.management.payment.repository.PaymentRepository;
 import com.dental.clinic.management.payment.specification.InvoiceSpecification;
 import com.dental.clinic.management.treatment_plans.domain.PatientTreatmentPlan;
 import com.dental.clinic.management.treatment_plans.repository.PatientTreatmentPlanRepository;
+import com.dental.clinic.management.utils.CodeAllocator;
+import com.dental.clinic.management.utils.pagination.CursorPage;
+import com.dental.clinic.management.utils.pagination.KeysetCursor;
+import com.dental.clinic.management.utils.pagination.KeysetReader;
 import com.dental.clinic.management.utils.security.SecurityUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
@@ -51,6 +56,7 @@ import java.util.stream.Collectors;
 public class InvoiceService {
 
     private final InvoiceRepository invoiceRepository;
+    private final CodeAllocator codeAllocator;
     private final InvoiceItemRepository invoiceItemRepository;
     private final PaymentRepository paymentRepository;
     private final VietQRService vietQRService;
@@ -62,6 +68,7 @@ public class InvoiceService {
     private final PatientTreatmentPlanRepository treatmentPlanRepository;
     private final EmployeeRepository employeeRepository;
     private final AccountRepository accountRepository;
+    private final KeysetReader keysetReader;
 
     /**
      * Tao invoice moi
@@ -392,6 +399,46 @@ public class InvoiceService {
         }
     }
 
+    /**
+     * Cursor (keyset) mode of getAllInvoices.
+     * Ordered by createdAt DESC, invoiceId DESC; no OFFSET, COUNT only when
+     * withTotal is true, so deep pages cost the same as the first one.
+     *
+     * @param cursor nextCursor of the previous page (null/blank = first page)
+     * @param size Page size (1-100)
+     * @param withTotal Also count all matching invoices
+     * @return Page of invoice responses with nextCursor
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<InvoiceResponse> getInvoicesByCursor(
+            InvoicePaymentStatus status,
+            InvoiceType type,
+            Integer patientId,
+            LocalDate startDate,
+            LocalDate endDate,
+            String cursor,
+            int size,
+            boolean withTotal) {
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        int pageSize = Math.max(1, Math.min(size, 100));
+        log.info("Getting invoices by cursor - status: {}, type: {}, patientId: {}, startDate: {}, endDate: {}, size: {}",
+                 status, type, patientId, startDate, endDate, pageSize);
+
+        LocalDateTime startDateTime = (startDate != null) ? startDate.atStartOfDay() : null;
+        LocalDateTime endDateTime = (endDate != null) ? endDate.atTime(LocalTime.MAX) : null;
+        Specification<Invoice> spec = InvoiceSpecification.withFilters(
+                status, type, patientId, startDateTime, endDateTime);
+
+        List<Invoice> rows = keysetReader.read(Invoice.class, spec, "createdAt", "invoiceId",
+                Sort.Direction.DESC, after, pageSize + 1);
+        Long total = withTotal ? invoiceRepository.count(spec) : null;
+
+        return CursorPage.of(rows, pageSize,
+                invoice -> new KeysetCursor(invoice.getCreatedAt(), invoice.getInvoiceId()),
+                this::mapToResponse,
+                total);
+    }
+
     /**
      * Validate xem appointment co con invoice chua thanh toan khong
      */
@@ -426,14 +473,7 @@ public class InvoiceService {
         String datePart = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
         String prefix = "INV-" + datePart + "-";
 
-        int sequence = 1;
-        String invoiceCode;
-        do {
-            invoiceCode = prefix + String.format("%03d", sequence);
-            sequence++;
-        } while (invoiceRepository.existsByInvoiceCode(invoiceCode));
-
-        return invoiceCode;
+        return codeAllocator.nextCode(prefix, 3, "invoices", "invoice_code");
     }
 
     /**
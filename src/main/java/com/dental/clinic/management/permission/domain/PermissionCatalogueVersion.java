@@ -0,0 +1,43 @@
+package com.dental.clinic.management.permission.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * One permission catalogue version ever used to encode tokens
+ * (see PermissionCatalogue). Lets any node decode tokens issued by another
+ * node or before a restart.
+ *
+ * Rows are only written through PermissionCatalogueVersionRepository.insertIfAbsent,
+ * this entity exists so Hibernate creates the table (ddl-auto: update).
+ */
+@Entity
+@Table(name = "permission_catalogue_versions")
+@Getter
+@Setter
+@NoArgsConstructor
+public class PermissionCatalogueVersion {
+
+    /**
+     * Hash of the ordered permission IDs
+     */
+    @Id
+    @Column(name = "version", length = 16)
+    private String version;
+
+    /**
+     * Permission IDs in bit order, newline separated
+     */
+    @Column(name = "permission_ids", nullable = false, columnDefinition = "TEXT")
+    private String permissionIds;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
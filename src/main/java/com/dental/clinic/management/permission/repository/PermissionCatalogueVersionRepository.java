@@ -0,0 +1,27 @@
+package com.dental.clinic.management.permission.repository;
+
+import com.dental.clinic.management.permission.domain.PermissionCatalogueVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the {@link PermissionCatalogueVersion} entity.
+ */
+@Repository
+public interface PermissionCatalogueVersionRepository extends JpaRepository<PermissionCatalogueVersion, String> {
+
+    /**
+     * Record a catalogue version; several nodes may record the same one.
+     * Own transaction: also called from afterCommit callbacks.
+     */
+    @Modifying
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    @Query(value = "INSERT INTO permission_catalogue_versions (version, permission_ids, created_at) "
+            + "VALUES (:version, :permissionIds, NOW()) ON CONFLICT (version) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("version") String version, @Param("permissionIds") String permissionIds);
+}
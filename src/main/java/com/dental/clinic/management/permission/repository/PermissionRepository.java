@@ -27,6 +27,12 @@ public interface PermissionRepository extends JpaRepository<Permission, String>
     @Query("SELECT p FROM Permission p WHERE p.isActive = true ORDER BY p.module, p.displayOrder")
     List<Permission> findAllActivePermissions();
 
+    /**
+     * All permission IDs (active or not) in a stable order, for the token permission catalogue
+     */
+    @Query("SELECT p.permissionId FROM Permission p ORDER BY p.permissionId")
+    List<String> findAllPermissionIdsOrdered();
+
     @EntityGraph(attributePaths = { "parentPermission" })
     List<Permission> findByModuleAndIsActive(String module, Boolean isActive);
 
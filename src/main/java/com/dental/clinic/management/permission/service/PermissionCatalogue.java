@@ -0,0 +1,173 @@
+package com.dental.clinic.management.permission.service;
+
+import com.dental.clinic.management.permission.domain.PermissionCatalogueVersion;
+import com.dental.clinic.management.permission.repository.PermissionCatalogueVersionRepository;
+import com.dental.clinic.management.permission.repository.PermissionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Versioned permission catalogue for the compact permission claim of access
+ * tokens (SecurityUtil.PERMISSION_BITS_CLAIM).
+ *
+ * A permission is encoded as its bit index in the catalogue (all permission
+ * IDs sorted). The version is a hash of that list, so every node computes the
+ * same version from the same table without coordination, and restarts keep
+ * decoding tokens issued before them.
+ *
+ * Every version is recorded in permission_catalogue_versions when a node
+ * first loads it, so a permission created or deleted does not invalidate
+ * tokens already issued - on any node, and across restarts. A version that is
+ * not cached (issued by another node or before a restart) is read from that
+ * table; MAX_VERSIONS only bounds the in-memory cache.
+ */
+@Slf4j
+@Component
+public class PermissionCatalogue {
+
+    private static final int MAX_VERSIONS = 10;
+
+    private final PermissionRepository permissionRepository;
+    private final PermissionCatalogueVersionRepository versionRepository;
+
+    private final Map<String, List<String>> versions = new LinkedHashMap<>();
+    private volatile Snapshot current;
+
+    public PermissionCatalogue(PermissionRepository permissionRepository,
+            PermissionCatalogueVersionRepository versionRepository) {
+        this.permissionRepository = permissionRepository;
+        this.versionRepository = versionRepository;
+    }
+
+    /**
+     * Encoded permission set: catalogue version and base64url bitset
+     */
+    public record Encoded(String version, String bits) {
+    }
+
+    /**
+     * Encode permission IDs against the current catalogue
+     */
+    public Encoded encode(Collection<String> permissionIds) {
+        Snapshot snapshot = snapshot();
+        if (!snapshot.indexById().keySet().containsAll(permissionIds)) {
+            // Permission created after the catalogue was loaded
+            snapshot = reload();
+        }
+
+        BitSet bits = new BitSet(snapshot.ids().size());
+        for (String permissionId : permissionIds) {
+            Integer index = snapshot.indexById().get(permissionId);
+            if (index != null) {
+                bits.set(index);
+            }
+        }
+        return new Encoded(snapshot.version(),
+                Base64.getUrlEncoder().withoutPadding().encodeToString(bits.toByteArray()));
+    }
+
+    /**
+     * Decode a bitset issued with the given catalogue version
+     *
+     * @return permission IDs, or null if the version was never recorded
+     */
+    public List<String> decode(String version, String encodedBits) {
+        List<String> ids = idsOf(version);
+        if (ids == null) {
+            return null;
+        }
+
+        BitSet bits = BitSet.valueOf(Base64.getUrlDecoder().decode(encodedBits));
+        List<String> permissionIds = new ArrayList<>(bits.cardinality());
+        for (int index = bits.nextSetBit(0); index >= 0 && index < ids.size(); index = bits.nextSetBit(index + 1)) {
+            permissionIds.add(ids.get(index));
+        }
+        return permissionIds;
+    }
+
+    /**
+     * Reload after permissions were created or deleted
+     */
+    public synchronized Snapshot reload() {
+        List<String> ids = List.copyOf(permissionRepository.findAllPermissionIdsOrdered());
+        String version = versionOf(ids);
+
+        Map<String, Integer> indexById = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            indexById.put(ids.get(i), i);
+        }
+
+        if (cachedIds(version) == null) {
+            // First time this node sees the version (no-op if another node recorded it)
+            versionRepository.insertIfAbsent(version, String.join("\n", ids));
+        }
+        cache(version, ids);
+
+        Snapshot snapshot = new Snapshot(version, ids, Map.copyOf(indexById));
+        if (current == null || !current.version().equals(version)) {
+            log.info("Permission catalogue version {} loaded ({} permissions)", version, ids.size());
+        }
+        current = snapshot;
+        return snapshot;
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current;
+        return snapshot != null ? snapshot : reload();
+    }
+
+    private List<String> idsOf(String version) {
+        List<String> ids = cachedIds(version);
+        if (ids == null) {
+            ids = versionRepository.findById(version)
+                    .map(PermissionCatalogue::recordedIds)
+                    .orElse(null);
+            if (ids != null) {
+                cache(version, ids);
+            }
+        }
+        return ids;
+    }
+
+    private static List<String> recordedIds(PermissionCatalogueVersion recorded) {
+        String permissionIds = recorded.getPermissionIds();
+        return permissionIds.isEmpty() ? List.of() : List.of(permissionIds.split("\n"));
+    }
+
+    private synchronized List<String> cachedIds(String version) {
+        return versions.get(version);
+    }
+
+    private synchronized void cache(String version, List<String> ids) {
+        versions.remove(version);
+        versions.put(version, ids);
+        while (versions.size() > MAX_VERSIONS) {
+            versions.remove(versions.keySet().iterator().next());
+        }
+    }
+
+    private static String versionOf(List<String> ids) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(String.join("\n", ids).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Snapshot(String version, List<String> ids, Map<String, Integer> indexById) {
+    }
+}
@@ -1,5 +1,6 @@
 package com.dental.clinic.management.permission.service;
 
+import com.dental.clinic.management.authentication.service.RoleSnapshotCache;
 import com.dental.clinic.management.exception.validation.BadRequestAlertException;
 import com.dental.clinic.management.exception.authorization.PermissionNotFoundException;
 import com.dental.clinic.management.permission.domain.Permission;
@@ -22,6 +23,8 @@ import org.springframework.stereotype.Service;
 import static com.dental.clinic.management.utils.security.AuthoritiesConstants.*;
 
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -33,12 +36,18 @@ public class PermissionService {
 
     private final PermissionRepository permissionRepository;
     private final PermissionMapper permissionMapper;
+    private final PermissionCatalogue permissionCatalogue;
+    private final RoleSnapshotCache roleSnapshotCache;
 
     public PermissionService(
             PermissionRepository permissionRepository,
-            PermissionMapper permissionMapper) {
+            PermissionMapper permissionMapper,
+            PermissionCatalogue permissionCatalogue,
+            RoleSnapshotCache roleSnapshotCache) {
         this.permissionRepository = permissionRepository;
         this.permissionMapper = permissionMapper;
+        this.permissionCatalogue = permissionCatalogue;
+        this.roleSnapshotCache = roleSnapshotCache;
     }
 
     @PreAuthorize("hasRole('" + ADMIN + "')")
@@ -100,6 +109,7 @@ public class PermissionService {
                 request.getDescription());
 
         Permission savedPermission = permissionRepository.save(permission);
+        reloadCatalogueAfterCommit();
         return permissionMapper.toPermissionInfoResponse(savedPermission);
     }
 
@@ -136,6 +146,7 @@ public class PermissionService {
         }
 
         Permission updatedPermission = permissionRepository.save(existingPermission);
+        roleSnapshotCache.invalidateAll();
         return permissionMapper.toPermissionInfoResponse(updatedPermission);
     }
 
@@ -150,6 +161,7 @@ public class PermissionService {
         // Soft delete by setting isActive to false
         permission.setIsActive(false);
         permissionRepository.save(permission);
+        roleSnapshotCache.invalidateAll();
     }
 
     @PreAuthorize("hasRole('" + ADMIN + "')")
@@ -161,6 +173,25 @@ public class PermissionService {
                 .orElseThrow(() -> new PermissionNotFoundException("Không tìm thấy quyền với ID: " + permissionId));
 
         permissionRepository.delete(permission);
+        reloadCatalogueAfterCommit();
+        roleSnapshotCache.invalidateAll();
+    }
+
+    /**
+     * New tokens are encoded against the new catalogue version; tokens issued
+     * against older versions keep decoding (see PermissionCatalogue).
+     */
+    private void reloadCatalogueAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    permissionCatalogue.reload();
+                }
+            });
+        } else {
+            permissionCatalogue.reload();
+        }
     }
 
     @PreAuthorize("hasRole('" + ADMIN + "')")
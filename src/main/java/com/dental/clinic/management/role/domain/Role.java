@@ -2,6 +2,7 @@ package com.dental.clinic.management.role.domain;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
@@ -10,12 +11,17 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
+import com.dental.clinic.management.notification.service.RoleMembershipChangeListener;
+import com.dental.clinic.management.notification.service.RoleMembershipSource;
 import com.dental.clinic.management.permission.domain.Permission;
 
 /**
@@ -23,7 +29,8 @@ import com.dental.clinic.management.permission.domain.Permission;
  */
 @Entity
 @Table(name = "roles")
-public class Role {
+@EntityListeners(RoleMembershipChangeListener.class)
+public class Role implements RoleMembershipSource {
 
     @Id
     @Column(name = "role_id", length = 50)
@@ -51,6 +58,10 @@ public class Role {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Membership fields as loaded (RoleMembershipChangeListener)
+    @Transient
+    private List<Object> loadedRoleMembershipState;
+
     @ManyToMany(fetch = FetchType.LAZY)
     @JoinTable(name = "role_permissions", joinColumns = @JoinColumn(name = "role_id"), inverseJoinColumns = @JoinColumn(name = "permission_id"))
     private Set<Permission> permissions = new HashSet<>();
@@ -146,6 +157,21 @@ public class Role {
         permission.getRoles().remove(this);
     }
 
+    @Override
+    public List<Object> roleMembershipState() {
+        return Arrays.asList(roleName, isActive);
+    }
+
+    @Override
+    public List<Object> loadedRoleMembershipState() {
+        return loadedRoleMembershipState;
+    }
+
+    @Override
+    public void recordRoleMembershipState(List<Object> state) {
+        this.loadedRoleMembershipState = state;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o)
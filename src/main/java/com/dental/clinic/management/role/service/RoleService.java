@@ -1,6 +1,7 @@
 
 package com.dental.clinic.management.role.service;
 
+import com.dental.clinic.management.authentication.service.RoleSnapshotCache;
 import com.dental.clinic.management.permission.domain.Permission;
 import com.dental.clinic.management.permission.dto.response.PermissionInfoResponse;
 import com.dental.clinic.management.permission.mapper.PermissionMapper;
@@ -36,16 +37,19 @@ public class RoleService {
 
     // --- New dependencies for CRUD ---
     private final RoleMapper roleMapper;
+    private final RoleSnapshotCache roleSnapshotCache;
 
     public RoleService(
             RoleRepository roleRepository,
             PermissionRepository permissionRepository,
             PermissionMapper permissionMapper,
-            RoleMapper roleMapper) {
+            RoleMapper roleMapper,
+            RoleSnapshotCache roleSnapshotCache) {
         this.roleRepository = roleRepository;
         this.permissionRepository = permissionRepository;
         this.permissionMapper = permissionMapper;
         this.roleMapper = roleMapper;
+        this.roleSnapshotCache = roleSnapshotCache;
     }
 
     @PreAuthorize("hasRole('" + ADMIN + "')")
@@ -74,6 +78,7 @@ public class RoleService {
 
         role.setPermissions(permissions);
         roleRepository.save(role);
+        roleSnapshotCache.invalidate(roleId);
     }
 
     @PreAuthorize("hasRole('" + ADMIN + "')")
@@ -150,6 +155,7 @@ public class RoleService {
             role.setRequiresSpecialization(request.getRequiresSpecialization());
         }
         roleRepository.save(role);
+        roleSnapshotCache.invalidate(roleId);
         return roleMapper.toRoleInfoResponse(role);
     }
 
@@ -171,6 +177,7 @@ public class RoleService {
         // Soft delete: set isActive = false
         role.setIsActive(false);
         roleRepository.save(role);
+        roleSnapshotCache.invalidate(roleId);
         return roleMapper.toRoleInfoResponse(role);
     }
 }
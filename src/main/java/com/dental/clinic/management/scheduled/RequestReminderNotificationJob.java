@@ -1,8 +1,5 @@
 package com.dental.clinic.management.scheduled;
 
-import com.dental.clinic.management.account.domain.Account;
-import com.dental.clinic.management.account.repository.AccountRepository;
-import com.dental.clinic.management.notification.dto.CreateNotificationRequest;
 import com.dental.clinic.management.notification.enums.NotificationEntityType;
 import com.dental.clinic.management.notification.enums.NotificationType;
 import com.dental.clinic.management.notification.service.NotificationService;
@@ -47,7 +44,6 @@ public class RequestReminderNotificationJob {
     private final TimeOffRequestRepository timeOffRequestRepository;
     private final PartTimeRegistrationRepository partTimeRegistrationRepository;
     private final NotificationService notificationService;
-    private final AccountRepository accountRepository;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
@@ -234,26 +230,10 @@ public class RequestReminderNotificationJob {
             NotificationEntityType entityType,
             String entityId) {
         
-        List<Account> adminAccounts = accountRepository.findByRole_RoleName("ADMIN");
-        
-        for (Account admin : adminAccounts) {
-            if (admin.getEmployee() != null) {
-                try {
-                    CreateNotificationRequest notification = CreateNotificationRequest.builder()
-                            .userId(admin.getEmployee().getEmployeeId())
-                            .type(type)
-                            .title(title)
-                            .message(message)
-                            .relatedEntityType(entityType)
-                            .relatedEntityId(entityId)
-                            .build();
-
-                    notificationService.createNotification(notification);
-                } catch (Exception e) {
-                    log.error("Failed to send notification to admin {}: {}", 
-                            admin.getEmployee().getEmployeeId(), e.getMessage());
-                }
-            }
+        try {
+            notificationService.createRoleNotification(List.of("ADMIN"), type, title, message, entityType, entityId);
+        } catch (Exception e) {
+            log.error("Failed to send notification to admins: {}", e.getMessage());
         }
     }
 }
@@ -67,103 +67,120 @@ public class AppointmentEmailService {
             String serviceNames) {
         
         try {
-            logger.info("📧 [AppointmentEmail] Sending CONFIRMATION to: {} for appointment: {}", 
-                toEmail, appointmentCode);
-
-            String formattedTime = appointmentStartTime.format(DISPLAY_FORMATTER);
-            String appointmentUrl = frontendUrl + "/appointments/" + appointmentCode;
-
-            String htmlContent = String.format(
-                """
-                <html>
-                <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333;">
-                    <div style="max-width: 600px; margin: 0 auto; padding: 20px; background-color: #f9f9f9;">
-                        <div style="background-color: #fff; padding: 30px; border-radius: 10px; box-shadow: 0 2px 5px rgba(0,0,0,0.1);">
-                            <h2 style="color: #4CAF50; margin-bottom: 20px;">✅ Đặt lịch hẹn thành công!</h2>
-                            
-                            <p>Xin chào <strong>%s</strong>,</p>
-                            <p>Lịch hẹn của bạn đã được xác nhận thành công tại Phòng khám nha khoa DenTeeth.</p>
-                            
-                            <div style="background-color: #f0f8ff; border-left: 4px solid #2196F3; padding: 15px; margin: 20px 0;">
-                                <h3 style="margin-top: 0; color: #2196F3;">Thông tin lịch hẹn</h3>
-                                <table style="width: 100%%; border-collapse: collapse;">
-                                    <tr>
-                                        <td style="padding: 8px 0; color: #666;"><strong>Mã lịch hẹn:</strong></td>
-                                        <td style="padding: 8px 0;"><strong style="color: #2196F3;">%s</strong></td>
-                                    </tr>
-                                    <tr>
-                                        <td style="padding: 8px 0; color: #666;"><strong>Thời gian:</strong></td>
-                                        <td style="padding: 8px 0;">%s</td>
-                                    </tr>
-                                    <tr>
-                                        <td style="padding: 8px 0; color: #666;"><strong>Bác sĩ:</strong></td>
-                                        <td style="padding: 8px 0;">%s</td>
-                                    </tr>
-                                    <tr>
-                                        <td style="padding: 8px 0; color: #666;"><strong>Phòng khám:</strong></td>
-                                        <td style="padding: 8px 0;">%s</td>
-                                    </tr>
-                                    <tr>
-                                        <td style="padding: 8px 0; color: #666;"><strong>Dịch vụ:</strong></td>
-                                        <td style="padding: 8px 0;">%s</td>
-                                    </tr>
-                                </table>
-                            </div>
-
-                            <div style="text-align: center; margin: 30px 0;">
-                                <a href="%s" style="background-color: #2196F3; color: white; padding: 15px 30px; text-decoration: none; border-radius: 5px; font-weight: bold; display: inline-block;">
-                                    Xem chi tiết lịch hẹn
-                                </a>
-                            </div>
-
-                            <div style="background-color: #fff3cd; border-left: 4px solid #ffc107; padding: 15px; margin: 20px 0;">
-                                <p style="margin: 0; color: #856404;"><strong>Lưu ý quan trọng:</strong></p>
-                                <ul style="margin: 10px 0; padding-left: 20px; color: #856404;">
-                                    <li>Vui lòng đến <strong>trước 10 phút</strong> để làm thủ tục</li>
-                                    <li>Mang theo <strong>CMND/CCCD</strong> và các xét nghiệm liên quan (nếu có)</li>
-                                    <li>Nếu không thể đến, vui lòng <strong>hủy lịch trước 24 giờ</strong></li>
-                                    <li>Bạn sẽ nhận được email nhắc nhở trước 24 giờ</li>
-                                </ul>
-                            </div>
+            deliverAppointmentConfirmation(toEmail, patientName, appointmentCode, appointmentStartTime,
+                doctorName, roomName, serviceNames);
+        } catch (ResendException e) {
+            logger.error("❌ [AppointmentEmail] Failed to send confirmation email: {}", e.getMessage());
+        } catch (Exception e) {
+            logger.error("❌ [AppointmentEmail] Unexpected error: {}", e.getMessage(), e);
+        }
+    }
 
-                            <p style="margin-top: 30px;">Cần hỗ trợ? Liên hệ với chúng tôi:</p>
-                            <p style="color: #666;">
-                                Hotline: <strong>028-1234-5678</strong><br>
-                                Email: <strong>%s</strong>
-                            </p>
+    /**
+     * Send confirmation email synchronously, propagating failures.
+     * Used by the outbox so a failed send is retried instead of being lost.
+     */
+    public void deliverAppointmentConfirmation(
+            String toEmail,
+            String patientName,
+            String appointmentCode,
+            LocalDateTime appointmentStartTime,
+            String doctorName,
+            String roomName,
+            String serviceNames) throws ResendException {
+        
+        logger.info("📧 [AppointmentEmail] Sending CONFIRMATION to: {} for appointment: {}", 
+            toEmail, appointmentCode);
+
+        String formattedTime = appointmentStartTime.format(DISPLAY_FORMATTER);
+        String appointmentUrl = frontendUrl + "/appointments/" + appointmentCode;
+
+        String htmlContent = String.format(
+            """
+            <html>
+            <body style="font-family: Arial, sans-serif; line-height: 1.6; color: #333;">
+                <div style="max-width: 600px; margin: 0 auto; padding: 20px; background-color: #f9f9f9;">
+                    <div style="background-color: #fff; padding: 30px; border-radius: 10px; box-shadow: 0 2px 5px rgba(0,0,0,0.1);">
+                        <h2 style="color: #4CAF50; margin-bottom: 20px;">✅ Đặt lịch hẹn thành công!</h2>
+                        
+                        <p>Xin chào <strong>%s</strong>,</p>
+                        <p>Lịch hẹn của bạn đã được xác nhận thành công tại Phòng khám nha khoa DenTeeth.</p>
+                        
+                        <div style="background-color: #f0f8ff; border-left: 4px solid #2196F3; padding: 15px; margin: 20px 0;">
+                            <h3 style="margin-top: 0; color: #2196F3;">Thông tin lịch hẹn</h3>
+                            <table style="width: 100%%; border-collapse: collapse;">
+                                <tr>
+                                    <td style="padding: 8px 0; color: #666;"><strong>Mã lịch hẹn:</strong></td>
+                                    <td style="padding: 8px 0;"><strong style="color: #2196F3;">%s</strong></td>
+                                </tr>
+                                <tr>
+                                    <td style="padding: 8px 0; color: #666;"><strong>Thời gian:</strong></td>
+                                    <td style="padding: 8px 0;">%s</td>
+                                </tr>
+                                <tr>
+                                    <td style="padding: 8px 0; color: #666;"><strong>Bác sĩ:</strong></td>
+                                    <td style="padding: 8px 0;">%s</td>
+                                </tr>
+                                <tr>
+                                    <td style="padding: 8px 0; color: #666;"><strong>Phòng khám:</strong></td>
+                                    <td style="padding: 8px 0;">%s</td>
+                                </tr>
+                                <tr>
+                                    <td style="padding: 8px 0; color: #666;"><strong>Dịch vụ:</strong></td>
+                                    <td style="padding: 8px 0;">%s</td>
+                                </tr>
+                            </table>
+                        </div>
 
-                            <hr style="border: none; border-top: 1px solid #eee; margin: 30px 0;">
+                        <div style="text-align: center; margin: 30px 0;">
+                            <a href="%s" style="background-color: #2196F3; color: white; padding: 15px 30px; text-decoration: none; border-radius: 5px; font-weight: bold; display: inline-block;">
+                                Xem chi tiết lịch hẹn
+                            </a>
+                        </div>
 
-                            <p style="color: #666; font-size: 14px; margin-bottom: 0;">Trân trọng,</p>
-                            <p style="color: #2196F3; font-weight: bold; margin-top: 5px;">Đội ngũ Phòng khám nha khoa DenTeeth</p>
+                        <div style="background-color: #fff3cd; border-left: 4px solid #ffc107; padding: 15px; margin: 20px 0;">
+                            <p style="margin: 0; color: #856404;"><strong>Lưu ý quan trọng:</strong></p>
+                            <ul style="margin: 10px 0; padding-left: 20px; color: #856404;">
+                                <li>Vui lòng đến <strong>trước 10 phút</strong> để làm thủ tục</li>
+                                <li>Mang theo <strong>CMND/CCCD</strong> và các xét nghiệm liên quan (nếu có)</li>
+                                <li>Nếu không thể đến, vui lòng <strong>hủy lịch trước 24 giờ</strong></li>
+                                <li>Bạn sẽ nhận được email nhắc nhở trước 24 giờ</li>
+                            </ul>
                         </div>
-                        <p style="text-align: center; color: #999; font-size: 12px; margin-top: 20px;">
-                            © 2026 Phòng khám nha khoa DenTeeth. All rights reserved.
+
+                        <p style="margin-top: 30px;">Cần hỗ trợ? Liên hệ với chúng tôi:</p>
+                        <p style="color: #666;">
+                            Hotline: <strong>028-1234-5678</strong><br>
+                            Email: <strong>%s</strong>
                         </p>
-                    </div>
-                </body>
-                </html>
-                """,
-                patientName, appointmentCode, formattedTime, doctorName, roomName, serviceNames,
-                appointmentUrl, replyToEmail
-            );
 
-            CreateEmailOptions params = CreateEmailOptions.builder()
-                .from(fromName + " <" + fromEmail + ">")
-                .to(toEmail)
-                .replyTo(replyToEmail)
-                .subject("Xác nhận lịch hẹn " + appointmentCode + " - " + formattedTime)
-                .html(htmlContent)
-                .build();
+                        <hr style="border: none; border-top: 1px solid #eee; margin: 30px 0;">
 
-            CreateEmailResponse data = resend.emails().send(params);
-            logger.info("✅ [AppointmentEmail] CONFIRMATION email sent! ID: {}", data.getId());
+                        <p style="color: #666; font-size: 14px; margin-bottom: 0;">Trân trọng,</p>
+                        <p style="color: #2196F3; font-weight: bold; margin-top: 5px;">Đội ngũ Phòng khám nha khoa DenTeeth</p>
+                    </div>
+                    <p style="text-align: center; color: #999; font-size: 12px; margin-top: 20px;">
+                        © 2026 Phòng khám nha khoa DenTeeth. All rights reserved.
+                    </p>
+                </div>
+            </body>
+            </html>
+            """,
+            patientName, appointmentCode, formattedTime, doctorName, roomName, serviceNames,
+            appointmentUrl, replyToEmail
+        );
+
+        CreateEmailOptions params = CreateEmailOptions.builder()
+            .from(fromName + " <" + fromEmail + ">")
+            .to(toEmail)
+            .replyTo(replyToEmail)
+            .subject("Xác nhận lịch hẹn " + appointmentCode + " - " + formattedTime)
+            .html(htmlContent)
+            .build();
+
+        CreateEmailResponse data = resend.emails().send(params);
+        logger.info("✅ [AppointmentEmail] CONFIRMATION email sent! ID: {}", data.getId());
 
-        } catch (ResendException e) {
-            logger.error("❌ [AppointmentEmail] Failed to send confirmation email: {}", e.getMessage());
-        } catch (Exception e) {
-            logger.error("❌ [AppointmentEmail] Unexpected error: {}", e.getMessage(), e);
-        }
     }
 
     /**
@@ -0,0 +1,223 @@
+package com.dental.clinic.management.utils;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Shared allocator for daily business codes (APT-20251115-001, INV-..., PN-...,
+ * PX-..., EMS251016001, ...)
+ *
+ * Backed by the code_sequences table (one row per prefix + day). Each node
+ * reserves a BLOCK of numbers with a single UPSERT ... RETURNING committed in
+ * its own transaction, then hands out codes from that local range without
+ * touching the database:
+ * - Unique across nodes and restarts (the row is the single source of truth)
+ * - No row lock held for the duration of the business transaction
+ * - Different prefixes never contend (per-key lock, no global synchronized)
+ *
+ * Trade-off: codes are unique but not gap-free and not strictly ordered across
+ * nodes. On shutdown the unused tail of each block is handed back when no other
+ * node has reserved after it; otherwise (or on a crash) those numbers are lost.
+ */
+@Slf4j
+@Component
+public class CodeAllocator {
+
+    private static final String RESERVE_SQL = "UPDATE code_sequences SET last_value = last_value + ?, updated_at = NOW() "
+            + "WHERE sequence_key = ? RETURNING last_value";
+
+    private static final String INSERT_SQL = "INSERT INTO code_sequences (sequence_key, last_value, updated_at) "
+            + "VALUES (?, ?, NOW()) "
+            + "ON CONFLICT (sequence_key) DO UPDATE SET last_value = code_sequences.last_value + ?, updated_at = NOW() "
+            + "RETURNING last_value";
+
+    /** Give back [next, max] of a block if it is still the last one reserved */
+    private static final String RELEASE_SQL = "UPDATE code_sequences SET last_value = ?, updated_at = NOW() "
+            + "WHERE sequence_key = ? AND last_value = ?";
+
+    /** Date part at the end of a prefix: yyyyMMdd ("APT-20251115-") or yyMMdd ("EMS251016") */
+    private static final Pattern KEY_DATE = Pattern.compile("(\\d{8}|\\d{6})-?$");
+    /** Year part at the end of a yearly prefix: "INV-2026-" */
+    private static final Pattern KEY_YEAR = Pattern.compile("(?:^|\\D)(\\d{4})-$");
+    private static final DateTimeFormatter LONG_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter SHORT_DATE = DateTimeFormatter.ofPattern("yyMMdd");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate requiresNew;
+    private final int blockSize;
+
+    // Locally cached ranges, one per prefix (per-key monitor = striped locking)
+    private final ConcurrentHashMap<String, Block> blocks = new ConcurrentHashMap<>();
+
+    public CodeAllocator(JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.code-allocator.block-size:20}") int blockSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.blockSize = Math.max(1, blockSize);
+    }
+
+    /**
+     * Next code for a prefix without seeding from existing data.
+     *
+     * @param prefix Full prefix including date part (e.g. "PX-20251115-")
+     * @param width  Minimum digits of the sequence part (zero padded)
+     */
+    public String nextCode(String prefix, int width) {
+        return nextCode(prefix, width, null, null);
+    }
+
+    /**
+     * Next code for a prefix. The first time a prefix is seen cluster-wide the
+     * counter is seeded from MAX(existing sequence) in seedTable.seedColumn, so
+     * codes created before the allocator existed are never reused.
+     *
+     * @param prefix     Full prefix including date part (e.g. "APT-20251115-")
+     * @param width      Minimum digits of the sequence part (zero padded)
+     * @param seedTable  Table holding existing codes (constant, never user input)
+     * @param seedColumn Column holding existing codes (constant, never user input)
+     * @return Generated code, e.g. "APT-20251115-001"
+     */
+    public String nextCode(String prefix, int width, String seedTable, String seedColumn) {
+        Block block = blocks.computeIfAbsent(prefix, k -> new Block());
+        long value;
+        synchronized (block) {
+            if (block.next > block.max) {
+                long last = reserveBlock(prefix, seedTable, seedColumn);
+                block.next = last - blockSize + 1;
+                block.max = last;
+            }
+            value = block.next++;
+        }
+        return prefix + String.format("%0" + width + "d", value);
+    }
+
+    /**
+     * Drop locally cached ranges of past periods: days before today for daily
+     * prefixes, years before this one for yearly prefixes ("INV-2026-"). Ranges
+     * of the current and future periods (e.g. appointment dates) are kept;
+     * remaining numbers of dropped ranges are simply never used.
+     */
+    public void clearPastBlocks(LocalDate today) {
+        blocks.keySet().removeIf(prefix -> {
+            LocalDate lastDay = lastDayOf(prefix);
+            return lastDay != null && lastDay.isBefore(today);
+        });
+    }
+
+    /**
+     * Cron: 00:05 every day - forget yesterday's (and last year's) ranges
+     */
+    @Scheduled(cron = "0 5 0 * * ?", zone = "Asia/Ho_Chi_Minh")
+    public void evictPastBlocks() {
+        clearPastBlocks(LocalDate.now());
+    }
+
+    /**
+     * Shutdown: hand back unused numbers so the next start continues the sequence
+     */
+    @PreDestroy
+    public void releaseBlocks() {
+        for (Map.Entry<String, Block> entry : blocks.entrySet()) {
+            Block block = entry.getValue();
+            synchronized (block) {
+                if (block.next > block.max) {
+                    continue;
+                }
+                try {
+                    jdbcTemplate.update(RELEASE_SQL, block.next - 1, entry.getKey(), block.max);
+                } catch (Exception e) {
+                    log.warn("Failed to release code block for prefix {}: {}", entry.getKey(), e.getMessage());
+                }
+                block.next = block.max + 1;
+            }
+        }
+    }
+
+    /**
+     * Reserve [last - blockSize + 1, last] in its own committed transaction
+     */
+    private long reserveBlock(String prefix, String seedTable, String seedColumn) {
+        Long last = requiresNew.execute(status -> {
+            List<Long> updated = jdbcTemplate.queryForList(RESERVE_SQL, Long.class, blockSize, prefix);
+            if (!updated.isEmpty()) {
+                return updated.get(0);
+            }
+            long seed = findExistingMax(prefix, seedTable, seedColumn);
+            return jdbcTemplate.queryForObject(INSERT_SQL, Long.class, prefix, seed + blockSize, blockSize);
+        });
+        log.debug("Reserved code block for prefix {} ending at {}", prefix, last);
+        return last;
+    }
+
+    private long findExistingMax(String prefix, String seedTable, String seedColumn) {
+        if (seedTable == null || seedColumn == null) {
+            return 0L;
+        }
+        int from = prefix.length() + 1;
+        String sql = "SELECT COALESCE(MAX(CAST(SUBSTRING(" + seedColumn + " FROM " + from + ") AS BIGINT)), 0) "
+                + "FROM " + seedTable + " "
+                + "WHERE " + seedColumn + " LIKE ? "
+                + "AND SUBSTRING(" + seedColumn + " FROM " + from + ") ~ '^[0-9]+$'";
+        Long max = jdbcTemplate.queryForObject(sql, Long.class, prefix + "%");
+        return max != null ? max : 0L;
+    }
+
+    /**
+     * @return date encoded in the prefix, null if it has none
+     */
+    static LocalDate dayOf(String prefix) {
+        Matcher matcher = KEY_DATE.matcher(prefix);
+        if (!matcher.find()) {
+            return null;
+        }
+        String digits = matcher.group(1);
+        try {
+            return LocalDate.parse(digits, digits.length() == 8 ? LONG_DATE : SHORT_DATE);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return last day of the period encoded in the prefix (the day itself, or
+     *         Dec 31 of a yearly prefix), null if it has none
+     */
+    static LocalDate lastDayOf(String prefix) {
+        LocalDate day = dayOf(prefix);
+        if (day != null) {
+            return day;
+        }
+        Matcher matcher = KEY_YEAR.matcher(prefix);
+        if (!matcher.find()) {
+            return null;
+        }
+        return LocalDate.of(Integer.parseInt(matcher.group(1)), 12, 31);
+    }
+
+    /**
+     * Local range: next value to hand out and last value of the range.
+     * Starts exhausted so the first call reserves a block.
+     */
+    private static final class Block {
+        long next = 1;
+        long max = 0;
+    }
+}
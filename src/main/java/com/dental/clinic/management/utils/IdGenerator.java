@@ -4,22 +4,43 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
 
 /**
  * Utility class for generating custom IDs in the format: PREFIXYYMMDDSSS
  * Example: CTC251016001, CTH251016002, TOR251021001
  *
- * Thread-safe implementation with daily counter reset.
+ * Sequences come from CodeAllocator (code_sequences table), so IDs stay
+ * unique across restarts and across nodes instead of relying on in-memory
+ * counters.
  */
 @Component
 public class IdGenerator {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyMMdd");
+    private static final DateTimeFormatter APPOINTMENT_DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
 
-    // Map to store counters for each prefix and date combination
-    private final ConcurrentHashMap<String, AtomicInteger> counters = new ConcurrentHashMap<>();
+    /**
+     * Where IDs of each prefix are stored: used once per prefix + day to seed
+     * the counter from IDs created before the allocator existed.
+     * Format: prefix -> {table, column}
+     */
+    private static final Map<String, String[]> SEED_SOURCES = Map.of(
+            "CTC", new String[] { "customer_contacts", "contact_id" },
+            "CTH", new String[] { "contact_history", "history_id" },
+            "ESR", new String[] { "employee_shift_registrations", "registration_id" },
+            "TOR", new String[] { "time_off_requests", "request_id" },
+            "OTR", new String[] { "overtime_requests", "request_id" },
+            "SRR", new String[] { "shift_renewal_requests", "renewal_id" },
+            "EMS", new String[] { "employee_shifts", "employee_shift_id" },
+            "TOT", new String[] { "time_off_types", "type_id" },
+            "GHE", new String[] { "rooms", "room_id" });
+
+    private final CodeAllocator codeAllocator;
+
+    public IdGenerator(CodeAllocator codeAllocator) {
+        this.codeAllocator = codeAllocator;
+    }
 
     /**
      * Generate a new ID with the given prefix (3 characters)
@@ -28,29 +49,30 @@ public class IdGenerator {
      * @return Generated ID in format PREFIXYYMMDDSSS (e.g., CTC251016001,
      *         TOR251021001)
      */
-    public synchronized String generateId(String prefix) {
-        LocalDate today = LocalDate.now();
-        String dateStr = today.format(DATE_FORMATTER);
-        String key = prefix + dateStr;
-
-        // Get or create counter for this prefix-date combination
-        AtomicInteger counter = counters.computeIfAbsent(key, k -> new AtomicInteger(0));
-
-        // Increment and get the next sequence number
-        int sequence = counter.incrementAndGet();
+    public String generateId(String prefix) {
+        String dateStr = LocalDate.now().format(DATE_FORMATTER);
+        String[] seed = SEED_SOURCES.get(prefix);
 
         // Format: PREFIXYYMMDDSSS (e.g., CTC251016001, TOR251021001)
-        return String.format("%s%s%03d", prefix, dateStr, sequence);
+        return seed != null
+                ? codeAllocator.nextCode(prefix + dateStr, 3, seed[0], seed[1])
+                : codeAllocator.nextCode(prefix + dateStr, 3);
+    }
+
+    /**
+     * Generate an appointment code for the appointment date: APT-YYYYMMDD-SEQ
+     * Example: APT-20251115-001 (seeded from existing appointment codes)
+     */
+    public String generateAppointmentCode(LocalDate appointmentDate) {
+        String codePrefix = "APT-" + appointmentDate.format(APPOINTMENT_DATE_FORMATTER) + "-";
+        return codeAllocator.nextCode(codePrefix, 3, "appointments", "appointment_code");
     }
 
     /**
-     * Clear counters for dates before today (cleanup old entries)
+     * Drop locally cached ranges for dates before today (cleanup old entries)
      * This method can be called periodically to prevent memory growth
      */
     public void cleanupOldCounters() {
-        LocalDate today = LocalDate.now();
-        String todayStr = today.format(DATE_FORMATTER);
-
-        counters.keySet().removeIf(key -> !key.contains(todayStr));
+        codeAllocator.clearPastBlocks(LocalDate.now());
     }
 }
@@ -0,0 +1,66 @@
+package com.dental.clinic.management.utils;
+
+import com.dental.clinic.management.exception.StreamingExportAbortedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Failure handling for StreamingResponseBody downloads (Excel exports).
+ *
+ * - Nothing written yet (e.g. a query failed or timed out): the exception is
+ * rethrown as is and answered with the usual error body / status
+ * - Part of the file already written: the failure is logged and rethrown as
+ * StreamingExportAbortedException, which aborts the connection
+ */
+@Slf4j
+public final class StreamingExport {
+
+    private StreamingExport() {
+    }
+
+    public static StreamingResponseBody abortOnFailure(String export, StreamingResponseBody body) {
+        return out -> {
+            CountingOutputStream counting = new CountingOutputStream(out);
+            try {
+                body.writeTo(counting);
+            } catch (IOException | RuntimeException e) {
+                if (counting.written == 0) {
+                    throw e;
+                }
+                if (e instanceof IOException) {
+                    // Usually the client went away
+                    log.warn("Export '{}' aborted after {} bytes: {}", export, counting.written, e.getMessage());
+                } else {
+                    log.error("Export '{}' failed after {} bytes, aborting the download", export,
+                            counting.written, e);
+                }
+                throw new StreamingExportAbortedException(export, e);
+            }
+        };
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long written;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            written++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            written += len;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.dental.clinic.management.utils.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Counter row for business code allocation (one row per prefix + day)
+ * Example: sequence_key = "APT-20251115-", last_value = 40
+ *
+ * Rows are only touched through CodeAllocator (native UPSERT ... RETURNING),
+ * this entity exists so Hibernate creates the table (ddl-auto: update).
+ */
+@Entity
+@Table(name = "code_sequences")
+@Getter
+@Setter
+@NoArgsConstructor
+public class CodeSequence {
+
+    /**
+     * Full code prefix including the date part, e.g. "INV-20251115-", "EMS251016"
+     */
+    @Id
+    @Column(name = "sequence_key", length = 50)
+    private String sequenceKey;
+
+    /**
+     * Highest number handed out to any node (end of the last reserved block)
+     */
+    @Column(name = "last_value", nullable = false)
+    private Long lastValue;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,42 @@
+package com.dental.clinic.management.utils.pagination;
+
+import com.dental.clinic.management.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position in a keyset (seek) ordered listing: last (sort key, id) returned.
+ *
+ * Clients receive it as an opaque continuation token (base64url of
+ * "sortKey|id") and send it back unchanged to get the next page.
+ */
+public record KeysetCursor(LocalDateTime sortKey, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return null for a blank token (first page)
+     * @throws BadRequestException INVALID_CURSOR if the token was not issued by us
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new KeysetCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BadRequestException("INVALID_CURSOR", "Con trỏ phân trang không hợp lệ");
+        }
+    }
+}
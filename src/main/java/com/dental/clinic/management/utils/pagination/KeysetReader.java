@@ -0,0 +1,102 @@
+package com.dental.clinic.management.utils.pagination;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) reads for Specification-based listings.
+ *
+ * JpaSpecificationExecutor only offers Page (always runs a COUNT) or unbounded
+ * lists, so the bounded query is built here: filters + "after cursor"
+ * predicate, ORDER BY (sortKey, id), LIMIT n. Every page costs the same as the
+ * first one when (sortKey, id) is indexed.
+ */
+@Component
+public class KeysetReader {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @param sortAttribute LocalDateTime attribute used as primary sort key
+     * @param idAttribute   unique tie-breaker attribute
+     * @param cursor        last row of the previous page (null = first page)
+     * @param limit         max rows (pass page size + 1 to detect a next page)
+     */
+    public <T> List<T> read(Class<T> entityClass, Specification<T> spec, String sortAttribute,
+            String idAttribute, Sort.Direction direction, KeysetCursor cursor, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(entityClass);
+        Root<T> root = query.from(entityClass);
+
+        Predicate where = spec != null ? spec.toPredicate(root, query, cb) : null;
+        if (cursor != null) {
+            Predicate after = after(cb, root.<LocalDateTime>get(sortAttribute), root.<Number>get(idAttribute),
+                    direction, cursor);
+            where = where != null ? cb.and(where, after) : after;
+        }
+        if (where != null) {
+            query.where(where);
+        }
+
+        boolean asc = direction == Sort.Direction.ASC;
+        query.orderBy(
+                asc ? cb.asc(root.get(sortAttribute)) : cb.desc(root.get(sortAttribute)),
+                asc ? cb.asc(root.get(idAttribute)) : cb.desc(root.get(idAttribute)));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Visit every matching row in (sortKey, id) order, batchSize rows per
+     * query. The persistence context is cleared between batches, so exports
+     * of any size run in constant memory (call inside a read-only transaction
+     * when the consumer touches lazy associations).
+     *
+     * @param cursorOf position of a row (usually its sortKey and id)
+     */
+    public <T> void forEach(Class<T> entityClass, Specification<T> spec, String sortAttribute,
+            String idAttribute, Sort.Direction direction, Function<T, KeysetCursor> cursorOf, int batchSize,
+            Consumer<T> consumer) {
+        KeysetCursor cursor = null;
+        while (true) {
+            List<T> rows = read(entityClass, spec, sortAttribute, idAttribute, direction, cursor, batchSize);
+            rows.forEach(consumer);
+            if (rows.size() < batchSize) {
+                return;
+            }
+            cursor = cursorOf.apply(rows.get(rows.size() - 1));
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * (sortKey, id) strictly after the cursor in the given direction
+     */
+    private Predicate after(CriteriaBuilder cb, Path<LocalDateTime> sortKey, Path<Number> id,
+            Sort.Direction direction, KeysetCursor cursor) {
+        if (direction == Sort.Direction.ASC) {
+            return cb.or(
+                    cb.greaterThan(sortKey, cursor.sortKey()),
+                    cb.and(cb.equal(sortKey, cursor.sortKey()), cb.gt(id, cursor.id())));
+        }
+        return cb.or(
+                cb.lessThan(sortKey, cursor.sortKey()),
+                cb.and(cb.equal(sortKey, cursor.sortKey()), cb.lt(id, cursor.id())));
+    }
+}
@@ -0,0 +1,108 @@
+package com.dental.clinic.management.utils.ratelimit;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Single node token bucket store (app.rate-limit.store=memory, default).
+ *
+ * Buckets are spread over independently locked stripes, so callers on
+ * different stripes never contend. Every SWEEP_INTERVAL operations a stripe
+ * drops its own buckets that have refilled completely (equivalent to a missing
+ * bucket) - cleanup cost is bounded by the stripe, not by all callers.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryTokenBucketStore implements TokenBucketStore {
+
+    private static final int STRIPES = 64;
+    private static final int SWEEP_INTERVAL = 256;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongSupplier clock;
+
+    public InMemoryTokenBucketStore() {
+        this(System::currentTimeMillis);
+    }
+
+    /**
+     * @param clock epoch millis (tests)
+     */
+    InMemoryTokenBucketStore(LongSupplier clock) {
+        this.clock = clock;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    @Override
+    public Result tryConsume(String key, RateLimitPolicy policy) {
+        long now = clock.getAsLong();
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+
+        synchronized (stripe) {
+            if (++stripe.operations % SWEEP_INTERVAL == 0) {
+                stripe.sweep(now);
+            }
+
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(policy.capacity(), policy.refillPerMilli(), now);
+                stripe.buckets.put(key, bucket);
+            }
+            bucket.refill(now);
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return new Result(true, 0);
+            }
+            return new Result(false, (long) Math.ceil((1 - bucket.tokens) / bucket.refillPerMilli));
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+        final Map<String, Bucket> buckets = new HashMap<>();
+        long operations;
+
+        void sweep(long now) {
+            Iterator<Bucket> it = buckets.values().iterator();
+            while (it.hasNext()) {
+                Bucket bucket = it.next();
+                bucket.refill(now);
+                if (bucket.tokens >= bucket.capacity) {
+                    it.remove();
+                }
+            }
+        }
+    }
+
+    private static final class Bucket {
+        final int capacity;
+        final double refillPerMilli;
+        double tokens;
+        long lastRefill;
+
+        Bucket(int capacity, double refillPerMilli, long now) {
+            this.capacity = capacity;
+            this.refillPerMilli = refillPerMilli;
+            this.tokens = capacity;
+            this.lastRefill = now;
+        }
+
+        void refill(long now) {
+            if (now > lastRefill) {
+                tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerMilli);
+                lastRefill = now;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.dental.clinic.management.utils.ratelimit;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.http.HttpMethod;
+
+import com.dental.clinic.management.utils.ratelimit.RateLimitPolicy.KeyType;
+
+/**
+ * Rate limited routes, checked by RateLimitFilter (first matching policy
+ * wins).
+ */
+public final class RateLimitPolicies {
+
+    public static final List<RateLimitPolicy> POLICIES = List.of(
+            // Brute force on credentials
+            new RateLimitPolicy("login", HttpMethod.POST,
+                    List.of("/api/v1/auth/login"), KeyType.IP, 20, Duration.ofMinutes(5)),
+
+            // 3 emails per 15 minutes per IP
+            new RateLimitPolicy("forgot-password", HttpMethod.POST,
+                    List.of("/api/v1/auth/forgot-password"), KeyType.IP, 3, Duration.ofMinutes(15)),
+
+            // 5 attempts per 10 minutes per IP (token brute force)
+            new RateLimitPolicy("reset-password", HttpMethod.POST,
+                    List.of("/api/v1/auth/reset-password"), KeyType.IP, 5, Duration.ofMinutes(10)),
+
+            // Public, every message is a Gemini call
+            new RateLimitPolicy("chatbot", HttpMethod.POST,
+                    List.of("/api/v1/chatbot/**"), KeyType.IP, 20, Duration.ofMinutes(1)),
+
+            // Booking: availability search, slot holds, appointment creation
+            new RateLimitPolicy("booking-search", HttpMethod.GET,
+                    List.of("/api/v1/availability/**"), KeyType.USER, 120, Duration.ofMinutes(1)),
+            new RateLimitPolicy("booking-create", HttpMethod.POST,
+                    List.of("/api/v1/appointments", "/api/v1/appointments/holds"), KeyType.USER, 30,
+                    Duration.ofMinutes(1)),
+            // One request books up to a whole batch of appointments
+            new RateLimitPolicy("booking-batch", HttpMethod.POST,
+                    List.of("/api/v1/appointments/batch"), KeyType.USER, 10, Duration.ofMinutes(1)));
+
+    private RateLimitPolicies() {
+    }
+}
@@ -0,0 +1,41 @@
+package com.dental.clinic.management.utils.ratelimit;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.http.HttpMethod;
+
+/**
+ * Token bucket policy of a group of routes.
+ *
+ * The bucket holds up to capacity requests and refills capacity tokens per
+ * refillPeriod (evenly, one token every refillPeriod / capacity), so a burst of
+ * capacity requests is allowed, then the sustained rate applies.
+ *
+ * @param name         policy name (bucket key prefix, metric tag)
+ * @param method       HTTP method, or null for any
+ * @param pathPatterns Ant-style patterns of the routes
+ * @param keyType      who owns the bucket
+ */
+public record RateLimitPolicy(
+        String name,
+        HttpMethod method,
+        List<String> pathPatterns,
+        KeyType keyType,
+        int capacity,
+        Duration refillPeriod) {
+
+    public enum KeyType {
+        /** Client IP (remote address, see server.forward-headers-strategy) */
+        IP,
+        /** Authenticated user, client IP for anonymous requests */
+        USER
+    }
+
+    /**
+     * Tokens added per millisecond
+     */
+    public double refillPerMilli() {
+        return (double) capacity / refillPeriod.toMillis();
+    }
+}
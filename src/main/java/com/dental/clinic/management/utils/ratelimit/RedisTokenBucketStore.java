@@ -0,0 +1,61 @@
+package com.dental.clinic.management.utils.ratelimit;
+
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cluster-wide token bucket store (app.rate-limit.store=redis).
+ *
+ * Keys: rate:{policy}:{caller} -> hash {tokens, ts}, expiring once the bucket
+ * would be full again. Refill and consume run in one script using the Redis
+ * clock, so node clocks do not matter.
+ */
+@Component
+@ConditionalOnProperty(name = "app.rate-limit.store", havingValue = "redis")
+public class RedisTokenBucketStore implements TokenBucketStore {
+
+    private static final String KEY_PREFIX = "rate:";
+
+    /**
+     * ARGV: capacity, tokens per ms. Returns {allowed (0/1), retry after ms}
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> CONSUME_SCRIPT = new DefaultRedisScript<>(
+            "local capacity = tonumber(ARGV[1]) "
+                    + "local rate = tonumber(ARGV[2]) "
+                    + "local t = redis.call('TIME') "
+                    + "local now = tonumber(t[1]) * 1000 + math.floor(tonumber(t[2]) / 1000) "
+                    + "local b = redis.call('HMGET', KEYS[1], 'tokens', 'ts') "
+                    + "local tokens = tonumber(b[1]) "
+                    + "local ts = tonumber(b[2]) "
+                    + "if tokens == nil or ts == nil then tokens = capacity ts = now end "
+                    + "if now > ts then tokens = math.min(capacity, tokens + (now - ts) * rate) end "
+                    + "local allowed = 0 "
+                    + "local retry = 0 "
+                    + "if tokens >= 1 then tokens = tokens - 1 allowed = 1 "
+                    + "else retry = math.ceil((1 - tokens) / rate) end "
+                    + "redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(math.max(now, ts))) "
+                    + "redis.call('PEXPIRE', KEYS[1], math.ceil((capacity - tokens) / rate) + 1000) "
+                    + "return {allowed, retry}",
+            List.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisTokenBucketStore(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Result tryConsume(String key, RateLimitPolicy policy) {
+        List<?> result = redisTemplate.execute(CONSUME_SCRIPT, List.of(KEY_PREFIX + key),
+                String.valueOf(policy.capacity()), String.valueOf(policy.refillPerMilli()));
+        if (result == null || result.size() < 2) {
+            throw new IllegalStateException("Unexpected rate limit script result: " + result);
+        }
+        return new Result(((Number) result.get(0)).longValue() == 1, ((Number) result.get(1)).longValue());
+    }
+}
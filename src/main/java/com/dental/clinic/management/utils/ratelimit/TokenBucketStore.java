@@ -0,0 +1,24 @@
+package com.dental.clinic.management.utils.ratelimit;
+
+/**
+ * Storage for rate limit token buckets.
+ *
+ * Implementations:
+ * - InMemoryTokenBucketStore (default, app.rate-limit.store=memory): per node
+ * - RedisTokenBucketStore (app.rate-limit.store=redis): shared by all nodes
+ *
+ * Buckets are refilled lazily when consumed; nothing scans all buckets.
+ */
+public interface TokenBucketStore {
+
+    /**
+     * Take one token from the bucket (created full if missing)
+     */
+    Result tryConsume(String key, RateLimitPolicy policy);
+
+    /**
+     * @param retryAfterMillis time until the next token, 0 if allowed
+     */
+    record Result(boolean allowed, long retryAfterMillis) {
+    }
+}
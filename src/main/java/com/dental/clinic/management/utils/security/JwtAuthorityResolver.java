@@ -0,0 +1,92 @@
+package com.dental.clinic.management.utils.security;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.core.OAuth2AuthenticationException;
+import org.springframework.security.oauth2.core.OAuth2Error;
+import org.springframework.security.oauth2.core.OAuth2ErrorCodes;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import com.dental.clinic.management.permission.service.PermissionCatalogue;
+
+/**
+ * Builds the granted authorities (roles + permissions) of an access token.
+ *
+ * Tokens carry permissions as a catalogue bitset
+ * (SecurityUtil.PERMISSION_VERSION_CLAIM + PERMISSION_BITS_CLAIM). All users
+ * of a role share the same (roles, version, bits) key, so the authority set is
+ * decoded once per key and the same immutable, interned set is reused for
+ * every request. Tokens issued before the bitset claim (permission list) are
+ * still accepted.
+ */
+@Component
+public class JwtAuthorityResolver {
+
+    private static final int MAX_CACHED_SETS = 1024;
+
+    private final PermissionCatalogue permissionCatalogue;
+    private final Map<String, Set<GrantedAuthority>> authoritySets = new ConcurrentHashMap<>();
+    private final Map<String, GrantedAuthority> internedAuthorities = new ConcurrentHashMap<>();
+
+    public JwtAuthorityResolver(PermissionCatalogue permissionCatalogue) {
+        this.permissionCatalogue = permissionCatalogue;
+    }
+
+    public Collection<GrantedAuthority> resolve(Jwt jwt) {
+        List<String> roles = jwt.getClaimAsStringList(SecurityUtil.ROLES_CLAIM);
+        String version = jwt.getClaimAsString(SecurityUtil.PERMISSION_VERSION_CLAIM);
+        String bits = jwt.getClaimAsString(SecurityUtil.PERMISSION_BITS_CLAIM);
+
+        if (version == null || bits == null) {
+            // Token issued with the permission list claim
+            return build(roles, jwt.getClaimAsStringList(SecurityUtil.PERMISSIONS_CLAIM));
+        }
+
+        String key = (roles != null ? String.join(",", roles) : "") + "|" + version + "|" + bits;
+        Set<GrantedAuthority> cached = authoritySets.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        List<String> permissions = permissionCatalogue.decode(version, bits);
+        if (permissions == null) {
+            // Catalogue changed since the token was issued: client must refresh it
+            throw new OAuth2AuthenticationException(new OAuth2Error(OAuth2ErrorCodes.INVALID_TOKEN,
+                    "Permission catalogue version " + version + " is no longer available", null));
+        }
+
+        Set<GrantedAuthority> authorities = build(roles, permissions);
+        if (authoritySets.size() >= MAX_CACHED_SETS) {
+            authoritySets.clear();
+        }
+        authoritySets.put(key, authorities);
+        return authorities;
+    }
+
+    private Set<GrantedAuthority> build(List<String> roles, List<String> permissions) {
+        List<String> names = new ArrayList<>();
+        // Roles are already formatted with ROLE_ prefix by SecurityUtil
+        if (roles != null) {
+            names.addAll(roles);
+        }
+        // Permissions for fine-grained RBAC: @PreAuthorize("hasAuthority('CREATE_EMPLOYEE')")
+        if (permissions != null) {
+            names.addAll(permissions);
+        }
+
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        for (String name : names) {
+            authorities.add(internedAuthorities.computeIfAbsent(name, SimpleGrantedAuthority::new));
+        }
+        return Set.copyOf(authorities);
+    }
+}
@@ -21,6 +21,7 @@ import org.springframework.security.oauth2.jwt.JwtException;
 import org.springframework.stereotype.Component;
 
 import com.dental.clinic.management.exception.authentication.JwtValidationException;
+import com.dental.clinic.management.permission.service.PermissionCatalogue;
 
 @Component
 public class SecurityUtil {
@@ -31,10 +32,14 @@ public class SecurityUtil {
     // JWT Claim Names for roles and permissions
     public static final String ROLES_CLAIM = "roles";
     public static final String PERMISSIONS_CLAIM = "permissions";
+    // Compact permissions: catalogue version + base64url bitset (see PermissionCatalogue)
+    public static final String PERMISSION_VERSION_CLAIM = "perm_v";
+    public static final String PERMISSION_BITS_CLAIM = "perm_bits";
     public static final String TOKEN_TYPE_CLAIM = "type";
 
     private final JwtEncoder jwtEncoder;
     private final JwtDecoder jwtDecoder;
+    private final PermissionCatalogue permissionCatalogue;
 
     @Value("${dentalclinic.jwt.access-token-validity-in-seconds}")
     private long jwtExpiration;
@@ -42,9 +47,10 @@ public class SecurityUtil {
     @Value("${dentalclinic.jwt.refresh-token-validity-in-seconds}")
     private long refreshExpiration;
 
-    public SecurityUtil(JwtEncoder jwtEncoder, JwtDecoder jwtDecoder) {
+    public SecurityUtil(JwtEncoder jwtEncoder, JwtDecoder jwtDecoder, PermissionCatalogue permissionCatalogue) {
         this.jwtEncoder = jwtEncoder;
         this.jwtDecoder = jwtDecoder;
+        this.permissionCatalogue = permissionCatalogue;
     }
 
     public String createAccessToken(String username, List<String> roles, List<String> permissions,
@@ -57,12 +63,16 @@ public class SecurityUtil {
                 .map(role -> role.startsWith("ROLE_") ? role : "ROLE_" + role)
                 .collect(Collectors.toList());
 
+        // Permissions as a catalogue bitset instead of hundreds of strings
+        PermissionCatalogue.Encoded encodedPermissions = permissionCatalogue.encode(permissions);
+
         JwtClaimsSet.Builder claimsBuilder = JwtClaimsSet.builder()
                 .issuedAt(now)
                 .expiresAt(validity)
                 .subject(username)
                 .claim(ROLES_CLAIM, formattedRoles)
-                .claim(PERMISSIONS_CLAIM, permissions)
+                .claim(PERMISSION_VERSION_CLAIM, encodedPermissions.version())
+                .claim(PERMISSION_BITS_CLAIM, encodedPermissions.bits())
                 .claim("account_id", accountId);
 
         // Add fullName if present (FE requirement: BE-905)
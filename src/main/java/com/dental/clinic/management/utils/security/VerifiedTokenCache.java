@@ -0,0 +1,161 @@
+package com.dental.clinic.management.utils.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Verified access tokens of this node, keyed by the SHA-256 of the raw token.
+ *
+ * Signature check, claim parsing and authority resolution run once per token
+ * instead of once per request (REST resource server and STOMP CONNECT). An
+ * entry never outlives the token's exp, and TokenBlacklistService evicts it as
+ * soon as the token is revoked (locally or on another node). Revocation is
+ * still checked on every request by JwtBlacklistFilter.
+ *
+ * Metrics: jwt.cache.hit, jwt.cache.miss, jwt.cache.size
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private final JwtDecoder jwtDecoder;
+    private final JwtAuthenticationConverter jwtAuthenticationConverter;
+    private final Counter hits;
+    private final Counter misses;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Value("${app.jwt-cache.max-entries:10000}")
+    private int maxEntries;
+
+    public VerifiedTokenCache(JwtDecoder jwtDecoder,
+            JwtAuthenticationConverter jwtAuthenticationConverter,
+            MeterRegistry meterRegistry) {
+        this.jwtDecoder = jwtDecoder;
+        this.jwtAuthenticationConverter = jwtAuthenticationConverter;
+        this.hits = meterRegistry.counter("jwt.cache.hit");
+        this.misses = meterRegistry.counter("jwt.cache.miss");
+        meterRegistry.gaugeMapSize("jwt.cache.size", Tags.empty(), entries);
+    }
+
+    /**
+     * Verified token with its authorities (principal name = subject)
+     */
+    public record Entry(Jwt jwt, Collection<GrantedAuthority> authorities, String principalName) {
+    }
+
+    /**
+     * Resource server authentication (replaces JwtAuthenticationProvider).
+     * Errors are mapped the same way: invalid token -> 401 invalid_token.
+     */
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        BearerTokenAuthenticationToken bearer = (BearerTokenAuthenticationToken) authentication;
+        Entry entry;
+        try {
+            entry = verify(bearer.getToken());
+        } catch (BadJwtException e) {
+            throw new InvalidBearerTokenException(e.getMessage(), e);
+        } catch (JwtException e) {
+            throw new AuthenticationServiceException(e.getMessage(), e);
+        }
+
+        // New token object per request: details (remote address) must not be shared
+        JwtAuthenticationToken token = new JwtAuthenticationToken(entry.jwt(), entry.authorities(),
+                entry.principalName());
+        token.setDetails(bearer.getDetails());
+        return token;
+    }
+
+    /**
+     * Cached entry of the token, or decode + convert and cache it
+     *
+     * @throws JwtException if the token is invalid or expired
+     */
+    public Entry verify(String token) {
+        String hash = hash(token);
+        Entry entry = entries.get(hash);
+        if (entry != null) {
+            Instant expiresAt = entry.jwt().getExpiresAt();
+            if (expiresAt == null || expiresAt.isAfter(Instant.now())) {
+                hits.increment();
+                return entry;
+            }
+            entries.remove(hash, entry);
+        }
+
+        misses.increment();
+        Jwt jwt = jwtDecoder.decode(token);
+        AbstractAuthenticationToken converted = jwtAuthenticationConverter.convert(jwt);
+        entry = new Entry(jwt, converted.getAuthorities(), converted.getName());
+
+        // Tokens without exp are not cached: nothing would bound their lifetime
+        if (jwt.getExpiresAt() != null) {
+            if (entries.size() >= maxEntries) {
+                evictExpired();
+            }
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+            entries.put(hash, entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Token revoked on this node
+     */
+    public void evict(String token) {
+        entries.remove(hash(token));
+    }
+
+    /**
+     * Token revoked on any node (hash as stored by TokenRevocationStore)
+     */
+    public void evictByHash(String tokenHash) {
+        entries.remove(tokenHash);
+    }
+
+    private void evictExpired() {
+        Instant now = Instant.now();
+        entries.entrySet().removeIf(e -> !e.getValue().jwt().getExpiresAt().isAfter(now));
+        log.debug("Verified token cache full, {} entries left after removing expired tokens", entries.size());
+    }
+
+    /**
+     * Same encoding as the revocation store keys (base64url SHA-256, no padding)
+     */
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
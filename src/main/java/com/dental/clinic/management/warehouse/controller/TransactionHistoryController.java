@@ -1,5 +1,6 @@
 package com.dental.clinic.management.warehouse.controller;
 
+import com.dental.clinic.management.utils.StreamingExport;
 import com.dental.clinic.management.utils.annotation.ApiMessage;
 import com.dental.clinic.management.warehouse.dto.request.TransactionHistoryRequest;
 import static com.dental.clinic.management.utils.security.AuthoritiesConstants.*;
@@ -18,6 +19,7 @@ import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 
@@ -141,6 +143,74 @@ public class TransactionHistoryController {
                 return ResponseEntity.ok(response);
         }
 
+        /**
+         * API 6.6 (cursor mode): Get Transaction History without OFFSET
+         *
+         * Same filters as /transactions, fixed order transactionDate DESC.
+         * Pass meta.nextCursor of the previous page to get the next one.
+         *
+         * @param cursor    Opaque cursor from the previous page (null = first page)
+         * @param size      Items per page (1-100)
+         * @param withTotal Also count all matching rows
+         * @return Transaction page with nextCursor (stats on the first page only)
+         */
+        @GetMapping("/transactions/cursor")
+        @PreAuthorize("hasRole('" + ADMIN + "') or hasAuthority('VIEW_WAREHOUSE')")
+        @Operation(summary = "Lấy Lịch sử Giao dịch Kho (phân trang con trỏ)", description = """
+                        API 6.6 - Chế độ con trỏ cho danh sách dài / cuộn vô hạn
+
+                        - Sắp xếp cố định: ngày giao dịch mới nhất trước
+                        - Dùng meta.nextCursor của trang trước để lấy trang tiếp theo
+                        - Không đếm tổng số bản ghi trừ khi withTotal=true
+                        - Thống kê tổng hợp chỉ trả về ở trang đầu tiên
+                        """)
+        @ApiMessage("Lấy lịch sử giao dịch thành công")
+        public ResponseEntity<TransactionHistoryResponse> getTransactionHistoryByCursor(
+                        @Parameter(description = "Con trỏ trang trước (bỏ trống cho trang đầu)") @RequestParam(required = false) String cursor,
+
+                        @Parameter(description = "Số bản ghi mỗi trang (1-100)") @RequestParam(defaultValue = "20") Integer size,
+
+                        @Parameter(description = "Đếm tổng số bản ghi") @RequestParam(defaultValue = "false") Boolean withTotal,
+
+                        @Parameter(description = "Tìm kiếm theo mã phiếu (PN-xxx, PX-xxx) hoặc số hóa đơn") @RequestParam(required = false) String search,
+
+                        @Parameter(description = "Loại phiếu: IMPORT, EXPORT, ADJUSTMENT") @RequestParam(required = false) TransactionType type,
+
+                        @Parameter(description = "Trạng thái duyệt: DRAFT, PENDING_APPROVAL, APPROVED, REJECTED, CANCELLED") @RequestParam(required = false) TransactionStatus status,
+
+                        @Parameter(description = "Trạng thái thanh toán (chỉ IMPORT): UNPAID, PARTIAL, PAID") @RequestParam(required = false) PaymentStatus paymentStatus,
+
+                        @Parameter(description = "Lấy giao dịch từ ngày (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+
+                        @Parameter(description = "Lấy giao dịch đến ngày (YYYY-MM-DD)") @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+
+                        @Parameter(description = "Lọc theo nhà cung cấp (chỉ IMPORT)") @RequestParam(required = false) Long supplierId,
+
+                        @Parameter(description = "Lọc theo ca điều trị (chỉ EXPORT)") @RequestParam(required = false) Long appointmentId,
+
+                        @Parameter(description = "Lọc theo người tạo (employee_id)") @RequestParam(required = false) Long createdBy) {
+
+                log.info("GET /api/v1/warehouse/transactions/cursor - Size: {}, Type: {}, Status: {}, First page: {}",
+                                size, type, status, cursor == null);
+
+                TransactionHistoryRequest request = TransactionHistoryRequest.builder()
+                                .size(size)
+                                .cursor(cursor)
+                                .withTotal(withTotal)
+                                .search(search)
+                                .type(type)
+                                .status(status)
+                                .paymentStatus(paymentStatus)
+                                .fromDate(fromDate)
+                                .toDate(toDate)
+                                .supplierId(supplierId)
+                                .appointmentId(appointmentId)
+                                .createdBy(createdBy)
+                                .build();
+
+                return ResponseEntity.ok(transactionHistoryService.getTransactionHistoryByCursor(request));
+        }
+
         /**
          * API 6.7: Get Transaction Detail by ID
          *
@@ -308,7 +378,7 @@ public class TransactionHistoryController {
                         - VIEW_COST: Required to see financial values (totalValue, paidAmount, debt)
                         """)
         @ApiMessage("Xuất lịch sử giao dịch thành công")
-        public ResponseEntity<byte[]> exportTransactionHistory(
+        public ResponseEntity<StreamingResponseBody> exportTransactionHistory(
                         @Parameter(description = "Tìm kiếm theo mã phiếu hoặc số hóa đơn") @RequestParam(required = false) String search,
 
                         @Parameter(description = "Loại phiếu: IMPORT, EXPORT, ADJUSTMENT") @RequestParam(required = false) TransactionType type,
@@ -334,40 +404,28 @@ public class TransactionHistoryController {
                 log.info("API 6.6.4 - GET /api/v1/warehouse/transactions/export - Type: {}, Status: {}, DateRange: {} to {}",
                                 type, status, fromDate, toDate);
 
-                try {
-                        // Build request to get ALL data without pagination
-                        TransactionHistoryRequest request = TransactionHistoryRequest.builder()
-                                        .page(0)
-                                        .size(Integer.MAX_VALUE)
-                                        .search(search)
-                                        .type(type)
-                                        .status(status)
-                                        .paymentStatus(paymentStatus)
-                                        .fromDate(fromDate)
-                                        .toDate(toDate)
-                                        .supplierId(supplierId)
-                                        .appointmentId(appointmentId)
-                                        .createdBy(createdBy)
-                                        .sortBy(sortBy)
-                                        .sortDir(sortDir)
-                                        .build();
-
-                        TransactionHistoryResponse response = transactionHistoryService.getTransactionHistory(request);
-
-                        // Generate Excel file
-                        byte[] excelBytes = excelExportService.exportTransactionHistory(response);
-
-                        log.info("Exported {} transactions to Excel", response.getContent().size());
-
-                        return ResponseEntity.ok()
-                                        .header("Content-Disposition", "attachment; filename=transaction_history.xlsx")
-                                        .header("Content-Type",
-                                                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                                        .body(excelBytes);
-
-                } catch (Exception e) {
-                        log.error("Error exporting transaction history to Excel", e);
-                        throw new RuntimeException("Đã xảy ra lỗi khi xuất lịch sử giao dịch: " + e.getMessage());
-                }
+                // ALL transactions (not paginated), read in keyset batches and streamed straight to the response
+                TransactionHistoryRequest request = TransactionHistoryRequest.builder()
+                                .search(search)
+                                .type(type)
+                                .status(status)
+                                .paymentStatus(paymentStatus)
+                                .fromDate(fromDate)
+                                .toDate(toDate)
+                                .supplierId(supplierId)
+                                .appointmentId(appointmentId)
+                                .createdBy(createdBy)
+                                .sortBy(sortBy)
+                                .sortDir(sortDir)
+                                .build();
+
+                StreamingResponseBody body = StreamingExport.abortOnFailure("transaction-history",
+                                out -> excelExportService.exportTransactionHistory(request, out));
+
+                return ResponseEntity.ok()
+                                .header("Content-Disposition", "attachment; filename=transaction_history.xlsx")
+                                .header("Content-Type",
+                                                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                                .body(body);
         }
 }
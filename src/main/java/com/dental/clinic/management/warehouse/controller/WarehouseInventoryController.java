@@ -1,5 +1,6 @@
 package com.dental.clinic.management.warehouse.controller;
 
+import com.dental.clinic.management.utils.StreamingExport;
 import com.dental.clinic.management.utils.annotation.ApiMessage;
 import com.dental.clinic.management.warehouse.domain.ItemCategory;
 import com.dental.clinic.management.warehouse.dto.response.InventorySummaryResponse;
@@ -23,6 +24,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -354,7 +356,7 @@ public class WarehouseInventoryController {
                         - VIEW_WAREHOUSE: Required to export
                         """)
         @ApiMessage("Xuất báo cáo tồn kho thành công")
-        public ResponseEntity<byte[]> exportInventorySummary(
+        public ResponseEntity<StreamingResponseBody> exportInventorySummary(
                         @Parameter(description = "Tìm kiếm theo tên hoặc mã item") @RequestParam(required = false) String search,
 
                         @Parameter(description = "Lọc theo trạng thái tồn kho") @RequestParam(required = false) StockStatus stockStatus,
@@ -366,27 +368,16 @@ public class WarehouseInventoryController {
                 log.info("API 6.1.1 - GET /api/v1/warehouse/summary/export - search={}, stockStatus={}, warehouseType={}, categoryId={}",
                                 search, stockStatus, warehouseType, categoryId);
 
-                try {
-                        // Get ALL data without pagination for export
-                        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE);
-                        InventorySummaryResponse response = inventoryService.getInventorySummaryV2(
-                                        search, stockStatus, warehouseType, categoryId, pageable);
+                // ALL items (not paginated), streamed from a DB cursor straight to the response
+                StreamingResponseBody body = StreamingExport.abortOnFailure("inventory-summary",
+                                out -> excelExportService.exportInventorySummary(
+                                                search, stockStatus, warehouseType, categoryId, out));
 
-                        // Generate Excel file
-                        byte[] excelBytes = excelExportService.exportInventorySummary(response);
-
-                        log.info("Exported {} inventory items to Excel", response.getContent().size());
-
-                        return ResponseEntity.ok()
-                                        .header("Content-Disposition", "attachment; filename=inventory_summary.xlsx")
-                                        .header("Content-Type",
-                                                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                                        .body(excelBytes);
-
-                } catch (Exception e) {
-                        log.error("Error exporting inventory summary to Excel", e);
-                        throw new RuntimeException("Đã xảy ra lỗi khi xuất báo cáo tồn kho: " + e.getMessage());
-                }
+                return ResponseEntity.ok()
+                                .header("Content-Disposition", "attachment; filename=inventory_summary.xlsx")
+                                .header("Content-Type",
+                                                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                                .body(body);
         }
 
         /**
@@ -410,7 +401,7 @@ public class WarehouseInventoryController {
                         - VIEW_WAREHOUSE: Required to export
                         """)
         @ApiMessage("Xuất báo cáo hàng sắp hết hạn thành công")
-        public ResponseEntity<byte[]> exportExpiringAlerts(
+        public ResponseEntity<StreamingResponseBody> exportExpiringAlerts(
                         @Parameter(description = "Số ngày quét tới (1-1095)") @RequestParam(defaultValue = "30") Integer days,
 
                         @Parameter(description = "Lọc theo category ID") @RequestParam(required = false) Long categoryId,
@@ -422,28 +413,15 @@ public class WarehouseInventoryController {
                 log.info("API 6.3.1 - GET /api/v1/warehouse/alerts/expiring/export - days={}, categoryId={}, warehouseType={}, statusFilter={}",
                                 days, categoryId, warehouseType, statusFilter);
 
-                try {
-                        // Get ALL data without pagination for export
-                        Pageable pageable = PageRequest.of(0, Integer.MAX_VALUE,
-                                        Sort.by(Sort.Direction.ASC, "expiryDate"));
-
-                        com.dental.clinic.management.warehouse.dto.response.ExpiringAlertsResponse response = inventoryService
-                                        .getExpiringAlerts(days, categoryId, warehouseType, statusFilter, pageable);
-
-                        // Generate Excel file
-                        byte[] excelBytes = excelExportService.exportExpiringAlerts(response);
-
-                        log.info("Exported {} expiring alerts to Excel", response.getAlerts().size());
-
-                        return ResponseEntity.ok()
-                                        .header("Content-Disposition", "attachment; filename=expiring_alerts.xlsx")
-                                        .header("Content-Type",
-                                                        "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
-                                        .body(excelBytes);
+                // ALL expiring batches (not paginated, FEFO), streamed from a DB cursor straight to the response
+                StreamingResponseBody body = StreamingExport.abortOnFailure("expiring-alerts",
+                                out -> excelExportService.exportExpiringAlerts(
+                                                days, categoryId, warehouseType, statusFilter, out));
 
-                } catch (Exception e) {
-                        log.error("Error exporting expiring alerts to Excel", e);
-                        throw new RuntimeException("Đã xảy ra lỗi khi xuất cảnh báo hết hạn: " + e.getMessage());
-                }
+                return ResponseEntity.ok()
+                                .header("Content-Disposition", "attachment; filename=expiring_alerts.xlsx")
+                                .header("Content-Type",
+                                                "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet")
+                                .body(body);
         }
 }
@@ -1,8 +1,10 @@
 package com.dental.clinic.management.warehouse.domain;
 
+import com.dental.clinic.management.export.service.ExportDataChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
@@ -11,6 +13,7 @@ import java.time.LocalDateTime;
  * Chứa quantity_on_hand - Đây mới là bảng lưu số lượng
  */
 @Entity
+@EntityListeners(ExportDataChangeListener.class)
 @Table(name = "item_batches", uniqueConstraints = {
         @UniqueConstraint(columnNames = { "item_master_id", "lot_number" })
 })
@@ -87,6 +90,14 @@ public class ItemBatch {
     @JoinColumn(name = "supplier_id")
     private Supplier supplier;
 
+    /**
+     * Giá vốn trên 1 đơn vị cơ sở (base unit) - ghi khi nhập kho / bổ sung lô
+     * Dùng để định giá COGS khi xuất kho. Lô xé lẻ kế thừa giá của lô cha.
+     * NULL = dữ liệu cũ không tìm thấy giá nhập
+     */
+    @Column(name = "unit_cost", precision = 15, scale = 2)
+    private BigDecimal unitCost;
+
     @Column(name = "imported_at", nullable = false)
     private LocalDateTime importedAt;
 
@@ -1,8 +1,10 @@
 package com.dental.clinic.management.warehouse.domain;
 
+import com.dental.clinic.management.export.service.ExportDataChangeListener;
 import com.dental.clinic.management.warehouse.enums.WarehouseType;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Formula;
 
 import java.time.LocalDateTime;
 
@@ -11,6 +13,7 @@ import java.time.LocalDateTime;
  * KHÔNG chứa quantity - Chỉ chứa thông tin định nghĩa
  */
 @Entity
+@EntityListeners(ExportDataChangeListener.class)
 @Table(name = "item_masters")
 @Getter
 @Setter
@@ -68,7 +71,13 @@ public class ItemMaster {
     @Column(name = "default_shelf_life_days")
     private Integer defaultShelfLifeDays;
 
-    @Column(name = "cached_total_quantity")
+    /**
+     * Tổng tồn kho, đọc từ item_stock_balances (chỉ đọc).
+     * Bộ đếm được StockBalanceService cập nhật trong cùng transaction với item_batches;
+     * cột cached_total_quantity cũ không còn được ghi.
+     */
+    @Formula("(SELECT CAST(COALESCE(SUM(sb.quantity_on_hand), 0) AS integer) " +
+            "FROM item_stock_balances sb WHERE sb.item_master_id = item_master_id)")
     @Builder.Default
     private Integer cachedTotalQuantity = 0;
 
@@ -120,11 +129,6 @@ public class ItemMaster {
         this.updatedAt = LocalDateTime.now();
     }
 
-    public void updateCachedQuantity(int delta) {
-        this.cachedTotalQuantity = (this.cachedTotalQuantity == null ? 0 : this.cachedTotalQuantity) + delta;
-        this.cachedLastUpdated = LocalDateTime.now();
-    }
-
     @Transient
     public com.dental.clinic.management.warehouse.enums.StockStatus getStockStatus() {
         if (cachedTotalQuantity == null || cachedTotalQuantity == 0) {
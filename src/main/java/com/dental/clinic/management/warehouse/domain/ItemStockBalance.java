@@ -0,0 +1,38 @@
+package com.dental.clinic.management.warehouse.domain;
+
+import com.dental.clinic.management.warehouse.enums.WarehouseType;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Tồn kho hiện có của một vật tư trong một kho = SUM(item_batches.quantity_on_hand).
+ * Chỉ được ghi bởi StockBalanceService (cộng dồn delta trong cùng transaction
+ * với thay đổi lô hàng), đọc bởi ItemMaster.cachedTotalQuantity và các báo cáo tồn kho.
+ */
+@Entity
+@Immutable
+@Table(name = "item_stock_balances")
+@IdClass(ItemStockBalanceId.class)
+@Getter
+@NoArgsConstructor
+public class ItemStockBalance {
+
+    @Id
+    @Column(name = "item_master_id", nullable = false)
+    private Long itemMasterId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "warehouse_type", length = 20, nullable = false)
+    private WarehouseType warehouseType;
+
+    @Column(name = "quantity_on_hand", nullable = false)
+    private Integer quantityOnHand;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,21 @@
+package com.dental.clinic.management.warehouse.domain;
+
+import com.dental.clinic.management.warehouse.enums.WarehouseType;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Composite primary key for ItemStockBalance.
+ * Combination of (item_master_id, warehouse_type).
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class ItemStockBalanceId implements Serializable {
+
+    private Long itemMasterId;
+    private WarehouseType warehouseType;
+}
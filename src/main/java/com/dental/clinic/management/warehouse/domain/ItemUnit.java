@@ -10,7 +10,9 @@ import java.time.LocalDateTime;
  * VD: 1 Hộp = 10 Vỉ, 1 Vỉ = 10 Viên
  */
 @Entity
-@Table(name = "item_units")
+@Table(name = "item_units", indexes = {
+        @Index(name = "idx_item_units_item_master_base", columnList = "item_master_id, is_base_unit")
+})
 @Getter
 @Setter
 @NoArgsConstructor
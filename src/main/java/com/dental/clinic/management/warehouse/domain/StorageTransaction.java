@@ -1,7 +1,9 @@
 package com.dental.clinic.management.warehouse.domain;
 
 import com.dental.clinic.management.booking_appointment.domain.Appointment;
+import com.dental.clinic.management.dashboard.service.DashboardRollupChangeListener;
 import com.dental.clinic.management.employee.domain.Employee;
+import com.dental.clinic.management.export.service.ExportDataChangeListener;
 import com.dental.clinic.management.warehouse.enums.PaymentStatus;
 import com.dental.clinic.management.warehouse.enums.TransactionStatus;
 import com.dental.clinic.management.warehouse.enums.TransactionType;
@@ -18,7 +20,10 @@ import java.util.List;
  * Phiếu Nhập/Xuất Kho (Header)
  */
 @Entity
-@Table(name = "storage_transactions")
+@Table(name = "storage_transactions", indexes = {
+        @Index(name = "idx_storage_transactions_date_id", columnList = "transaction_date, transaction_id")
+})
+@EntityListeners({ DashboardRollupChangeListener.class, ExportDataChangeListener.class })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -48,4 +48,10 @@ public class TransactionHistoryRequest {
     private String sortBy = "transactionDate";
     @Builder.Default
     private String sortDir = "desc"; // asc, desc
+
+    // Cursor mode (GET /transactions/cursor): keyset on transactionDate desc
+    private String cursor; // nextCursor of the previous page, null = first page
+
+    @Builder.Default
+    private Boolean withTotal = false; // also count all matching transactions
 }
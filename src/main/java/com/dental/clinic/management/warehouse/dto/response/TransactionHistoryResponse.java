@@ -1,5 +1,6 @@
 package com.dental.clinic.management.warehouse.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -25,10 +26,15 @@ public class TransactionHistoryResponse {
     @Builder
     @NoArgsConstructor
     @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     public static class MetaDto {
         private Integer page;
         private Integer size;
         private Integer totalPages;
         private Long totalElements;
+
+        // Cursor mode only
+        private Boolean hasNext;
+        private String nextCursor;
     }
 }
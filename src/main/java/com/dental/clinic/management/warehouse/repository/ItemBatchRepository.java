@@ -2,16 +2,21 @@ package com.dental.clinic.management.warehouse.repository;
 
 import com.dental.clinic.management.warehouse.domain.ItemBatch;
 import com.dental.clinic.management.warehouse.enums.WarehouseType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemBatchRepository extends JpaRepository<ItemBatch, Long> {
@@ -89,14 +94,6 @@ public interface ItemBatchRepository extends JpaRepository<ItemBatch, Long> {
                        "WHERE ib.quantity_on_hand > 0", nativeQuery = true)
         java.math.BigDecimal calculateTotalInventoryValue();
 
-        /**
-         * Count items with low stock (based on item_master stock thresholds)
-         */
-        @Query("SELECT COUNT(DISTINCT ib.itemMaster.itemMasterId) FROM ItemBatch ib " +
-               "WHERE ib.quantityOnHand > 0 " +
-               "AND ib.quantityOnHand <= ib.itemMaster.minStockLevel")
-        Long countLowStockItems();
-
         /**
          * Count items expiring within specified days
          */
@@ -147,6 +144,27 @@ public interface ItemBatchRepository extends JpaRepository<ItemBatch, Long> {
                         @Param("warehouseType") WarehouseType warehouseType,
                         Pageable pageable);
 
+        /**
+         * Same filters as findExpiringBatches, FEFO order, read through a JDBC
+         * cursor (fetch size 500) for exports. Must be consumed inside a
+         * transaction.
+         */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query("SELECT ib FROM ItemBatch ib " +
+                        "JOIN FETCH ib.itemMaster im " +
+                        "LEFT JOIN FETCH im.category cat " +
+                        "LEFT JOIN FETCH ib.supplier s " +
+                        "WHERE ib.quantityOnHand > 0 " +
+                        "AND ib.expiryDate IS NOT NULL " +
+                        "AND ib.expiryDate <= :targetDate " +
+                        "AND (:categoryId IS NULL OR cat.categoryId = :categoryId) " +
+                        "AND (:warehouseType IS NULL OR im.warehouseType = :warehouseType) " +
+                        "ORDER BY ib.expiryDate ASC, ib.batchId ASC")
+        Stream<ItemBatch> streamExpiringBatches(
+                        @Param("targetDate") LocalDate targetDate,
+                        @Param("categoryId") Long categoryId,
+                        @Param("warehouseType") WarehouseType warehouseType);
+
         /**
          * API 6.3: Count total expiring batches (for pagination metadata)
          * Same logic as findExpiringBatches but COUNT only
@@ -184,4 +202,56 @@ public interface ItemBatchRepository extends JpaRepository<ItemBatch, Long> {
         Optional<ItemBatch> findByItemMasterAndLotNumber(
                         @Param("itemMaster") com.dental.clinic.management.warehouse.domain.ItemMaster itemMaster,
                         @Param("lotNumber") String lotNumber);
+
+        // ==================== Unit Cost Backfill ====================
+
+        /**
+         * Whether a batch without unit_cost can still be priced by the backfill:
+         * it has a priced import, or its parent has (or can get) a unit_cost.
+         * Legacy batches with no price anywhere do not count.
+         */
+        @Query(value = "SELECT EXISTS (SELECT 1 FROM item_batches ib " +
+                        "WHERE ib.unit_cost IS NULL AND (" +
+                        "  EXISTS (SELECT 1 FROM storage_transaction_items sti " +
+                        "          JOIN storage_transactions st ON st.transaction_id = sti.transaction_id " +
+                        "          WHERE sti.batch_id = ib.batch_id " +
+                        "          AND st.transaction_type = 'IMPORT' AND sti.price > 0) " +
+                        "  OR EXISTS (SELECT 1 FROM item_batches parent " +
+                        "          WHERE parent.batch_id = ib.parent_batch_id AND (parent.unit_cost IS NOT NULL " +
+                        "          OR EXISTS (SELECT 1 FROM storage_transaction_items psti " +
+                        "                     JOIN storage_transactions pst ON pst.transaction_id = psti.transaction_id " +
+                        "                     WHERE psti.batch_id = parent.batch_id " +
+                        "                     AND pst.transaction_type = 'IMPORT' AND psti.price > 0)))))",
+                        nativeQuery = true)
+        boolean existsPriceableBatchWithoutUnitCost();
+
+        /**
+         * Fill unit_cost of batches created before it was recorded: latest
+         * import price of the batch, converted to the base unit
+         *
+         * @return number of batches updated
+         */
+        @Modifying
+        @Query(value = "UPDATE item_batches ib SET unit_cost = c.unit_cost " +
+                        "FROM (SELECT DISTINCT ON (sti.batch_id) sti.batch_id, " +
+                        "      ROUND(sti.price / COALESCE(NULLIF(iu.conversion_rate, 0), 1), 2) AS unit_cost " +
+                        "      FROM storage_transaction_items sti " +
+                        "      JOIN storage_transactions st ON st.transaction_id = sti.transaction_id " +
+                        "      LEFT JOIN item_units iu ON iu.unit_id = sti.unit_id " +
+                        "      WHERE st.transaction_type = 'IMPORT' AND sti.price > 0 " +
+                        "      ORDER BY sti.batch_id, st.transaction_date DESC, st.transaction_id DESC) c " +
+                        "WHERE ib.batch_id = c.batch_id AND ib.unit_cost IS NULL", nativeQuery = true)
+        int backfillUnitCostFromImports();
+
+        /**
+         * Unpacked batches without unit_cost inherit their parent's
+         *
+         * @return number of batches updated
+         */
+        @Modifying
+        @Query(value = "UPDATE item_batches child SET unit_cost = parent.unit_cost " +
+                        "FROM item_batches parent " +
+                        "WHERE child.parent_batch_id = parent.batch_id " +
+                        "AND child.unit_cost IS NULL AND parent.unit_cost IS NOT NULL", nativeQuery = true)
+        int backfillUnitCostFromParents();
 }
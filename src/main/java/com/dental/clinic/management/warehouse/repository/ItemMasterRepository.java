@@ -2,14 +2,19 @@ package com.dental.clinic.management.warehouse.repository;
 
 import com.dental.clinic.management.warehouse.domain.ItemMaster;
 import com.dental.clinic.management.warehouse.enums.WarehouseType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemMasterRepository extends JpaRepository<ItemMaster, Long>, JpaSpecificationExecutor<ItemMaster> {
@@ -34,25 +39,132 @@ public interface ItemMasterRepository extends JpaRepository<ItemMaster, Long>, J
         List<ItemMaster> searchItemMasters(@Param("search") String search);
 
         /**
-         *  API 6.1: Query với filters cho Inventory Summary
-         * - Search by itemName or itemCode (LIKE)
-         * - Filter by warehouseType
-         * - Filter by categoryId
-         * - Exclude tools (is_tool = false) to prevent tools from appearing in medicine searches
+         * Inventory summary rows aggregated in the database, one per active item
+         * master. Columns (in order):
+         * item_master_id, item_code, item_name, category_name, warehouse_type,
+         * unit_of_measure, unit_name (base unit, falls back to unit_of_measure),
+         * min_stock_level, max_stock_level, is_tool, created_at, updated_at,
+         * total_quantity (item_stock_balances), nearest_expiry_date (FEFO: MIN
+         * expiry of batches in stock), expiring_soon (batch in stock expiring
+         * before :expiringBefore), stock_status (InventoryService.calculateStockStatus)
+         *
+         * Filters (NULL = no filter): search (itemName / itemCode LIKE),
+         * warehouseType, categoryId, stockStatus; tools only with includeTools.
          */
-        @Query("SELECT DISTINCT im FROM ItemMaster im " +
-                        "LEFT JOIN im.category cat " +
-                        "WHERE im.isActive = true " +
-                        "AND im.isTool = false " +
-                        "AND (:search IS NULL OR :search = '' OR " +
-                        "LOWER(im.itemName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-                        "LOWER(im.itemCode) LIKE LOWER(CONCAT('%', :search, '%'))) " +
-                        "AND (:warehouseType IS NULL OR im.warehouseType = :warehouseType) " +
-                        "AND (:categoryId IS NULL OR cat.categoryId = :categoryId)")
-        List<ItemMaster> findInventorySummary(
+        String INVENTORY_SUMMARY_ROWS = "SELECT s.* FROM ("
+                        + "SELECT im.item_master_id, im.item_code, im.item_name, cat.category_name, "
+                        + "im.warehouse_type, im.unit_of_measure, COALESCE(bu.unit_name, im.unit_of_measure) AS unit_name, "
+                        + "im.min_stock_level, im.max_stock_level, im.is_tool, im.created_at, im.updated_at, "
+                        + "q.total_quantity, b.nearest_expiry_date, b.expiring_soon, "
+                        + "CASE WHEN q.total_quantity = 0 THEN 'OUT_OF_STOCK' "
+                        + "     WHEN q.total_quantity < im.min_stock_level THEN 'LOW_STOCK' "
+                        + "     WHEN q.total_quantity > im.max_stock_level THEN 'OVERSTOCK' "
+                        + "     ELSE 'NORMAL' END AS stock_status "
+                        + "FROM item_masters im "
+                        + "LEFT JOIN item_categories cat ON cat.category_id = im.category_id "
+                        + "LEFT JOIN LATERAL (SELECT iu.unit_name FROM item_units iu "
+                        + "     WHERE iu.item_master_id = im.item_master_id AND iu.is_base_unit = true "
+                        + "     ORDER BY iu.unit_id LIMIT 1) bu ON TRUE "
+                        + "CROSS JOIN LATERAL (SELECT CAST(COALESCE(SUM(sb.quantity_on_hand), 0) AS integer) AS total_quantity "
+                        + "     FROM item_stock_balances sb WHERE sb.item_master_id = im.item_master_id) q "
+                        + "CROSS JOIN LATERAL (SELECT MIN(ib.expiry_date) AS nearest_expiry_date, "
+                        + "     COALESCE(BOOL_OR(ib.expiry_date < CAST(:expiringBefore AS date)), false) AS expiring_soon "
+                        + "     FROM item_batches ib "
+                        + "     WHERE ib.item_master_id = im.item_master_id AND ib.quantity_on_hand > 0) b "
+                        + "WHERE im.is_active = true "
+                        + "AND (CAST(:includeTools AS boolean) OR im.is_tool = false) "
+                        + "AND (CAST(:search AS text) IS NULL OR CAST(:search AS text) = '' "
+                        + "     OR LOWER(im.item_name) LIKE '%' || LOWER(CAST(:search AS text)) || '%' "
+                        + "     OR LOWER(im.item_code) LIKE '%' || LOWER(CAST(:search AS text)) || '%') "
+                        + "AND (CAST(:warehouseType AS text) IS NULL OR im.warehouse_type = CAST(:warehouseType AS text)) "
+                        + "AND (CAST(:categoryId AS bigint) IS NULL OR im.category_id = CAST(:categoryId AS bigint))"
+                        + ") s "
+                        + "WHERE (CAST(:stockStatus AS text) IS NULL OR s.stock_status = CAST(:stockStatus AS text)) ";
+
+        /**
+         * One page of INVENTORY_SUMMARY_ROWS plus total_count (all matching rows,
+         * COUNT(*) OVER ()) as last column, so a page is a single query.
+         * Ordered by item_code or item_name (sortBy), item_master_id as tie-breaker.
+         */
+        @Query(value = "SELECT p.*, COUNT(*) OVER () AS total_count FROM (" + INVENTORY_SUMMARY_ROWS + ") p "
+                        + "ORDER BY CASE WHEN CAST(:descending AS boolean) THEN NULL "
+                        + "     WHEN CAST(:sortBy AS text) = 'item_name' THEN p.item_name ELSE p.item_code END ASC, "
+                        + "CASE WHEN NOT CAST(:descending AS boolean) THEN NULL "
+                        + "     WHEN CAST(:sortBy AS text) = 'item_name' THEN p.item_name ELSE p.item_code END DESC, "
+                        + "p.item_master_id "
+                        + "LIMIT :limit OFFSET :offset", nativeQuery = true)
+        List<Object[]> findInventorySummaryPage(
                         @Param("search") String search,
-                        @Param("warehouseType") WarehouseType warehouseType,
-                        @Param("categoryId") Long categoryId);
+                        @Param("warehouseType") String warehouseType,
+                        @Param("categoryId") Long categoryId,
+                        @Param("stockStatus") String stockStatus,
+                        @Param("includeTools") boolean includeTools,
+                        @Param("expiringBefore") LocalDate expiringBefore,
+                        @Param("sortBy") String sortBy,
+                        @Param("descending") boolean descending,
+                        @Param("limit") int limit,
+                        @Param("offset") long offset);
+
+        /**
+         * Total of findInventorySummaryPage, only needed when the requested page is
+         * past the last row (no row to carry total_count)
+         */
+        @Query(value = "SELECT COUNT(*) FROM (" + INVENTORY_SUMMARY_ROWS + ") c", nativeQuery = true)
+        long countInventorySummary(
+                        @Param("search") String search,
+                        @Param("warehouseType") String warehouseType,
+                        @Param("categoryId") Long categoryId,
+                        @Param("stockStatus") String stockStatus,
+                        @Param("includeTools") boolean includeTools,
+                        @Param("expiringBefore") LocalDate expiringBefore);
+
+        /**
+         * All INVENTORY_SUMMARY_ROWS ordered by item_code, read through a JDBC
+         * cursor (fetch size 500) for exports. Must be consumed inside a
+         * transaction.
+         */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+        @Query(value = INVENTORY_SUMMARY_ROWS + "ORDER BY s.item_code", nativeQuery = true)
+        Stream<Object[]> streamInventorySummary(
+                        @Param("search") String search,
+                        @Param("warehouseType") String warehouseType,
+                        @Param("categoryId") Long categoryId,
+                        @Param("stockStatus") String stockStatus,
+                        @Param("includeTools") boolean includeTools,
+                        @Param("expiringBefore") LocalDate expiringBefore);
+
+        /**
+         * Warehouse dashboard cards over all active items (tools included):
+         * [total, LOW_STOCK, expiring soon, OUT_OF_STOCK]
+         */
+        @Query(value = "SELECT COUNT(*), "
+                        + "COUNT(*) FILTER (WHERE c.stock_status = 'LOW_STOCK'), "
+                        + "COUNT(*) FILTER (WHERE c.expiring_soon), "
+                        + "COUNT(*) FILTER (WHERE c.stock_status = 'OUT_OF_STOCK') "
+                        + "FROM (" + INVENTORY_SUMMARY_ROWS + ") c", nativeQuery = true)
+        List<Object[]> summarizeInventoryStats(
+                        @Param("search") String search,
+                        @Param("warehouseType") String warehouseType,
+                        @Param("categoryId") Long categoryId,
+                        @Param("stockStatus") String stockStatus,
+                        @Param("includeTools") boolean includeTools,
+                        @Param("expiringBefore") LocalDate expiringBefore);
+
+        /**
+         * Rule #19: items (active or not) with a minimum stock level whose total
+         * stock (item_stock_balances) is at or below it:
+         * [item_master_id, item_code, item_name, category_name, min_stock_level, total_quantity]
+         */
+        @Query(value = "SELECT im.item_master_id, im.item_code, im.item_name, cat.category_name, "
+                        + "im.min_stock_level, CAST(COALESCE(SUM(sb.quantity_on_hand), 0) AS integer) AS total_quantity "
+                        + "FROM item_masters im "
+                        + "LEFT JOIN item_categories cat ON cat.category_id = im.category_id "
+                        + "LEFT JOIN item_stock_balances sb ON sb.item_master_id = im.item_master_id "
+                        + "WHERE im.min_stock_level > 0 "
+                        + "GROUP BY im.item_master_id, cat.category_name "
+                        + "HAVING COALESCE(SUM(sb.quantity_on_hand), 0) <= im.min_stock_level "
+                        + "ORDER BY im.item_code", nativeQuery = true)
+        List<Object[]> findLowStockItems();
 
         /**
          * Count items with low inventory (below minimum stock level)
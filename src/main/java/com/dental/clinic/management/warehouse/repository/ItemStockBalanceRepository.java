@@ -0,0 +1,111 @@
+package com.dental.clinic.management.warehouse.repository;
+
+import com.dental.clinic.management.warehouse.domain.ItemStockBalance;
+import com.dental.clinic.management.warehouse.domain.ItemStockBalanceId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ItemStockBalanceRepository extends JpaRepository<ItemStockBalance, ItemStockBalanceId> {
+
+        /**
+         * Atomic increment of the (item, warehouse) balance; the row is created on first use.
+         * Concurrent writers serialize on the row lock until their transaction ends.
+         */
+        @Modifying
+        @Query(value = "INSERT INTO item_stock_balances (item_master_id, warehouse_type, quantity_on_hand, updated_at) " +
+                        "VALUES (:itemMasterId, :warehouseType, :delta, now()) " +
+                        "ON CONFLICT (item_master_id, warehouse_type) DO UPDATE " +
+                        "SET quantity_on_hand = item_stock_balances.quantity_on_hand + EXCLUDED.quantity_on_hand, " +
+                        "updated_at = now()", nativeQuery = true)
+        int applyDelta(@Param("itemMasterId") Long itemMasterId,
+                        @Param("warehouseType") String warehouseType,
+                        @Param("delta") int delta);
+
+        /**
+         * Tổng tồn kho của vật tư (mọi kho) - tra cứu theo khóa chính
+         */
+        @Query(value = "SELECT CAST(COALESCE(SUM(quantity_on_hand), 0) AS integer) FROM item_stock_balances " +
+                        "WHERE item_master_id = :itemMasterId", nativeQuery = true)
+        int sumQuantityByItemMasterId(@Param("itemMasterId") Long itemMasterId);
+
+        /**
+         * Lock the balance row for the rest of the transaction
+         *
+         * @return current quantity, null when the row does not exist
+         */
+        @Query(value = "SELECT quantity_on_hand FROM item_stock_balances " +
+                        "WHERE item_master_id = :itemMasterId AND warehouse_type = :warehouseType " +
+                        "FOR UPDATE", nativeQuery = true)
+        Integer lockQuantity(@Param("itemMasterId") Long itemMasterId,
+                        @Param("warehouseType") String warehouseType);
+
+        /**
+         * Count items with low stock: 0 < on hand <= min_stock_level
+         */
+        @Query(value = "SELECT COUNT(*) FROM item_masters im " +
+                        "JOIN (SELECT item_master_id, SUM(quantity_on_hand) AS total_quantity " +
+                        "      FROM item_stock_balances GROUP BY item_master_id) sb " +
+                        "  ON sb.item_master_id = im.item_master_id " +
+                        "WHERE sb.total_quantity > 0 AND sb.total_quantity <= im.min_stock_level", nativeQuery = true)
+        long countLowStockItems();
+
+        // ==================== Reconciliation ====================
+
+        /**
+         * Load balances missing for an (item, warehouse) from item_batches.
+         * Existing rows are left alone: the reconcile pass that follows
+         * corrects them under a row lock.
+         *
+         * @return number of balance rows created
+         */
+        @Modifying
+        @Query(value = "INSERT INTO item_stock_balances (item_master_id, warehouse_type, quantity_on_hand, updated_at) " +
+                        "SELECT im.item_master_id, im.warehouse_type, CAST(SUM(ib.quantity_on_hand) AS integer), now() " +
+                        "FROM item_batches ib " +
+                        "JOIN item_masters im ON im.item_master_id = ib.item_master_id " +
+                        "GROUP BY im.item_master_id, im.warehouse_type " +
+                        "ON CONFLICT (item_master_id, warehouse_type) DO NOTHING", nativeQuery = true)
+        int initializeFromBatches();
+
+        /**
+         * Balances that differ from their batches.
+         * Columns: [item_master_id, warehouse_type, balance_quantity, batch_quantity]
+         */
+        @Query(value = "SELECT COALESCE(sb.item_master_id, b.item_master_id), " +
+                        "COALESCE(sb.warehouse_type, b.warehouse_type), " +
+                        "COALESCE(sb.quantity_on_hand, 0), COALESCE(b.quantity, 0) " +
+                        "FROM item_stock_balances sb " +
+                        "FULL JOIN (SELECT im.item_master_id, im.warehouse_type, " +
+                        "           CAST(SUM(ib.quantity_on_hand) AS integer) AS quantity " +
+                        "           FROM item_batches ib " +
+                        "           JOIN item_masters im ON im.item_master_id = ib.item_master_id " +
+                        "           GROUP BY im.item_master_id, im.warehouse_type) b " +
+                        "  ON b.item_master_id = sb.item_master_id AND b.warehouse_type = sb.warehouse_type " +
+                        "WHERE COALESCE(sb.quantity_on_hand, 0) <> COALESCE(b.quantity, 0)", nativeQuery = true)
+        List<Object[]> findDrift();
+
+        /**
+         * Make sure the balance row exists so that it can be locked
+         */
+        @Modifying
+        @Query(value = "INSERT INTO item_stock_balances (item_master_id, warehouse_type, quantity_on_hand, updated_at) " +
+                        "VALUES (:itemMasterId, :warehouseType, 0, now()) " +
+                        "ON CONFLICT (item_master_id, warehouse_type) DO NOTHING", nativeQuery = true)
+        int ensureExists(@Param("itemMasterId") Long itemMasterId,
+                        @Param("warehouseType") String warehouseType);
+
+        /**
+         * Current batch total of the item in the given warehouse
+         */
+        @Query(value = "SELECT CAST(COALESCE(SUM(ib.quantity_on_hand), 0) AS integer) FROM item_batches ib " +
+                        "JOIN item_masters im ON im.item_master_id = ib.item_master_id " +
+                        "WHERE ib.item_master_id = :itemMasterId AND im.warehouse_type = :warehouseType", nativeQuery = true)
+        int sumBatchQuantity(@Param("itemMasterId") Long itemMasterId,
+                        @Param("warehouseType") String warehouseType);
+}
@@ -224,11 +224,6 @@ public interface StorageTransactionRepository extends JpaRepository<StorageTrans
    */
   boolean existsByInvoiceNumber(String invoiceNumber);
 
-  /**
-   * API 6.4: Count transactions by code prefix for sequence generation
-   */
-  Long countByTransactionCodeStartingWith(String prefix);
-
   /**
    * Get transaction by ID with all details eagerly loaded
    * Prevents lazy loading issues when accessing batch, itemMaster, and unit
@@ -0,0 +1,62 @@
+package com.dental.clinic.management.warehouse.service;
+
+import com.dental.clinic.management.warehouse.repository.ItemBatchRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * One-off migration of item_batches.unit_cost for batches imported before the
+ * cost was recorded on the batch (ImportTransactionService now sets it).
+ *
+ * Runs at startup while some batch without cost can still be priced (priced
+ * import, or a priced parent). The parent update is repeated until it changes
+ * nothing, so batches unpacked several levels deep are priced in the same
+ * transaction. Both updates only touch rows where unit_cost IS NULL, so each
+ * pass shrinks the set and re-running is harmless. Batches with no priced import keep NULL, are
+ * valued at the default export price and do not trigger the backfill again.
+ */
+@Slf4j
+@Service
+public class BatchUnitCostBackfillService {
+
+    private final ItemBatchRepository batchRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public BatchUnitCostBackfillService(ItemBatchRepository batchRepository,
+            PlatformTransactionManager transactionManager) {
+        this.batchRepository = batchRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Startup: failures are logged only - the next start retries
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        try {
+            if (!batchRepository.existsPriceableBatchWithoutUnitCost()) {
+                return;
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                int fromImports = batchRepository.backfillUnitCostFromImports();
+                // One unpacking level per pass; stops once no child gained a cost
+                int fromParents = 0;
+                int updated;
+                do {
+                    updated = batchRepository.backfillUnitCostFromParents();
+                    fromParents += updated;
+                } while (updated > 0);
+                if (fromImports + fromParents > 0) {
+                    log.info("Backfilled unit cost of {} batches from imports, {} unpacked batches from parents",
+                            fromImports, fromParents);
+                }
+            });
+        } catch (Exception e) {
+            log.error("Failed to backfill batch unit costs", e);
+        }
+    }
+}
@@ -31,6 +31,9 @@ public class ConsumableDeductionService {
     @Autowired
     private ItemBatchRepository itemBatchRepository;
 
+    @Autowired
+    private StockBalanceService stockBalanceService;
+
     /**
      * Rule #21: Auto-deduct consumables when service is completed
      * 
@@ -135,6 +138,7 @@ public class ConsumableDeductionService {
             // Update batch quantity
             batch.setQuantityOnHand(availableInBatch - deductFromThisBatch);
             itemBatchRepository.save(batch);
+            stockBalanceService.apply(batch.getItemMaster(), -deductFromThisBatch);
 
             // Record deduction
             batchDeductions.add(new BatchDeduction(
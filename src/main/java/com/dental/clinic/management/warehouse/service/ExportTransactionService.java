@@ -15,6 +15,7 @@ import com.dental.clinic.management.warehouse.dto.response.ExportTransactionResp
 import com.dental.clinic.management.warehouse.enums.ExportType;
 import com.dental.clinic.management.warehouse.enums.TransactionType;
 import com.dental.clinic.management.warehouse.enums.TransactionStatus;
+import com.dental.clinic.management.utils.CodeAllocator;
 import com.dental.clinic.management.warehouse.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -46,6 +47,7 @@ import java.util.stream.Collectors;
 public class ExportTransactionService {
 
     private final StorageTransactionRepository transactionRepository;
+    private final CodeAllocator codeAllocator;
     private final ItemMasterRepository itemMasterRepository;
     private final ItemBatchRepository batchRepository;
     private final ItemUnitRepository unitRepository;
@@ -587,6 +589,9 @@ public class ExportTransactionService {
         if (existingChild.isPresent()) {
             // Update existing
             ItemBatch child = existingChild.get();
+            if (child.getUnitCost() == null) {
+                child.setUnitCost(parentBatch.getUnitCost());
+            }
             // ⚠️ IMPORTANT: Quantity update moved to approval process
             // child.setQuantityOnHand(child.getQuantityOnHand() + quantityToAdd);
             log.debug("📦 Child batch {} will be updated on approval", child.getBatchId());
@@ -602,6 +607,7 @@ public class ExportTransactionService {
                     .quantityOnHand(0) // Will be updated when transaction is approved
                     .supplier(parentBatch.getSupplier()) // Inherit from parent
                     .binLocation(parentBatch.getBinLocation())
+                    .unitCost(parentBatch.getUnitCost()) // Inherit price from parent
                     .isUnpacked(true)
                     .unpackedAt(LocalDateTime.now())
                     .importedAt(parentBatch.getImportedAt())
@@ -617,29 +623,22 @@ public class ExportTransactionService {
     /**
      * Get unit price from batch (for COGS tracking)
      *
-     * Uses FIFO pricing: tries to get the purchase price from import transactions
-     * for this batch.
-     * Falls back to average price or default if not found.
+     * Uses the purchase cost per base unit recorded on the batch at import
+     * (ItemBatch.unitCost, already loaded with the FEFO batch list); unpacked
+     * batches fall back to their parent's cost.
+     * Falls back to a default price for legacy batches without import price.
      */
     private BigDecimal getUnitPrice(ItemBatch batch) {
-        // Try to get the price from the most recent import transaction for this batch
-        List<StorageTransaction> transactions = transactionRepository.findByTransactionType(TransactionType.IMPORT);
-
-        for (StorageTransaction tx : transactions) {
-            if (tx.getItems() != null) {
-                for (var item : tx.getItems()) {
-                    if (item.getBatch() != null &&
-                            item.getBatch().getBatchId().equals(batch.getBatchId()) &&
-                            item.getPrice() != null &&
-                            item.getPrice().compareTo(BigDecimal.ZERO) > 0) {
-                        return item.getPrice(); // Return the import price
-                    }
-                }
-            }
+        if (batch.getUnitCost() != null) {
+            return batch.getUnitCost();
+        }
+        ItemBatch parent = batch.getParentBatch();
+        if (parent != null && parent.getUnitCost() != null) {
+            return parent.getUnitCost();
         }
 
         // Fallback: Use a reasonable default price for legacy data
-        // In production, this should query from a price_history table or item master
+        log.debug("Batch {} has no unit cost, using default price", batch.getBatchId());
         return BigDecimal.valueOf(50000); // 50,000 VNĐ per unit
     }
 
@@ -801,10 +800,7 @@ public class ExportTransactionService {
                 java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
 
         String prefix = "PX-" + dateStr + "-";
-        Long count = transactionRepository.countByTransactionCodeStartingWith(prefix);
-
-        String sequence = String.format("%03d", count + 1);
-        return prefix + sequence;
+        return codeAllocator.nextCode(prefix, 3, "storage_transactions", "transaction_code");
     }
 
     // ========== Helper Classes ==========
@@ -11,6 +11,7 @@ import com.dental.clinic.management.warehouse.dto.response.ImportTransactionResp
 import com.dental.clinic.management.warehouse.dto.response.ImportTransactionResponse.ImportItemResponse;
 import com.dental.clinic.management.warehouse.dto.response.ImportTransactionResponse.WarningDTO;
 import com.dental.clinic.management.warehouse.enums.TransactionType;
+import com.dental.clinic.management.utils.CodeAllocator;
 import com.dental.clinic.management.warehouse.repository.*;
 import com.dental.clinic.management.warehouse.enums.TransactionStatus;
 import lombok.RequiredArgsConstructor;
@@ -19,6 +20,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
@@ -42,6 +44,7 @@ import java.util.Optional;
 public class ImportTransactionService {
 
         private final StorageTransactionRepository transactionRepository;
+        private final CodeAllocator codeAllocator;
         private final ItemMasterRepository itemMasterRepository;
         private final ItemBatchRepository batchRepository;
         private final ItemUnitRepository unitRepository;
@@ -304,13 +307,18 @@ public class ImportTransactionService {
                 // 4. Unit conversion
                 Integer baseQuantity = itemRequest.getQuantity() * unit.getConversionRate();
 
+                // Purchase price is per import unit, batch quantities are in base units
+                BigDecimal unitCost = itemRequest.getPurchasePrice()
+                                .divide(BigDecimal.valueOf(unit.getConversionRate()), 2, RoundingMode.HALF_UP);
+
                 // 5. Handle batch (create or update)
                 BatchResult batchResult = handleBatch(
                                 itemMaster,
                                 itemRequest.getLotNumber(),
                                 itemRequest.getExpiryDate(),
                                 baseQuantity,
-                                itemRequest.getBinLocation());
+                                itemRequest.getBinLocation(),
+                                unitCost);
 
                 // 6. Calculate line value
                 BigDecimal totalLineValue = itemRequest.getPurchasePrice()
@@ -357,13 +365,17 @@ public class ImportTransactionService {
 
         /**
          * Handle batch creation or update
+         *
+         * @param unitCost purchase cost per base unit; a top-up records the latest
+         *                 import cost of the lot
          */
         private BatchResult handleBatch(
                         ItemMaster itemMaster,
                         String lotNumber,
                         LocalDate expiryDate,
                         Integer quantityToAdd,
-                        String binLocation) {
+                        String binLocation,
+                        BigDecimal unitCost) {
 
                 // Find existing batch
                 Optional<ItemBatch> existingBatch = batchRepository
@@ -388,6 +400,7 @@ public class ImportTransactionService {
                         if (binLocation != null && !binLocation.isBlank()) {
                                 batch.setBinLocation(binLocation);
                         }
+                        batch.setUnitCost(unitCost);
                         batchRepository.save(batch);
 
                         // ⚠️ IMPORTANT: Cached quantity update moved to approval process
@@ -408,6 +421,7 @@ public class ImportTransactionService {
                                         .expiryDate(expiryDate)
                                         .quantityOnHand(0) // Will be updated when transaction is approved
                                         .binLocation(binLocation)
+                                        .unitCost(unitCost)
                                         .createdAt(LocalDateTime.now())
                                         .build();
 
@@ -519,12 +533,8 @@ public class ImportTransactionService {
                 String dateStr = LocalDateTime.now().format(
                                 java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd"));
 
-                // Find last transaction today
                 String prefix = "PN-" + dateStr + "-";
-                Long count = transactionRepository.countByTransactionCodeStartingWith(prefix);
-
-                String sequence = String.format("%03d", count + 1);
-                return prefix + sequence;
+                return codeAllocator.nextCode(prefix, 3, "storage_transactions", "transaction_code");
         }
 
         /**
@@ -535,15 +545,8 @@ public class ImportTransactionService {
                 int currentYear = java.time.Year.now().getValue();
                 String prefix = "INV-" + currentYear + "-";
 
-                // Count existing invoices with this year prefix
-                // Note: We count by transaction code prefix since invoiceNumber might not have same pattern
-                // We use a simple counter approach
-                Long count = transactionRepository.countByTransactionCodeStartingWith("PN-" + currentYear);
-                
-                // Generate sequence number (3 digits, zero-padded)
-                String sequence = String.format("%03d", count + 1);
-                
-                return prefix + sequence;
+                // Yearly sequence (3 digits, zero-padded), seeded from existing invoice numbers
+                return codeAllocator.nextCode(prefix, 3, "storage_transactions", "invoice_number");
         }
 
         // Helper classes
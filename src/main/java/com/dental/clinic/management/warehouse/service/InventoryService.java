@@ -28,6 +28,8 @@ import com.dental.clinic.management.warehouse.repository.ItemCategoryRepository;
 import com.dental.clinic.management.warehouse.repository.ItemMasterRepository;
 import com.dental.clinic.management.warehouse.repository.ItemUnitRepository;
 import com.dental.clinic.management.warehouse.repository.SupplierItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -35,12 +37,17 @@ import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 // import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Inventory Service
@@ -51,6 +58,13 @@ import java.util.stream.Collectors;
 @Slf4j
 public class InventoryService {
 
+    /** Rows streamed to an export between persistence context clears */
+    private static final int EXPORT_CLEAR_INTERVAL = 500;
+
+    /** Inventory summary sort columns (ItemMasterRepository.findInventorySummaryPage) */
+    private static final String SORT_ITEM_CODE = "item_code";
+    private static final String SORT_ITEM_NAME = "item_name";
+
     private final ItemMasterRepository itemMasterRepository;
     private final ItemBatchRepository itemBatchRepository;
     private final ItemCategoryRepository itemCategoryRepository;
@@ -58,6 +72,9 @@ public class InventoryService {
     private final ItemMasterMapper itemMasterMapper;
     private final ItemUnitRepository itemUnitRepository;
 
+    @PersistenceContext
+    private EntityManager entityManager;
+
     /**
      * API 1: Lấy danh sách vật tư cho Dashboard
      * BE tự động tính toán stock_status, total_quantity, isExpiringSoon
@@ -66,21 +83,11 @@ public class InventoryService {
     public List<ItemMasterSummaryResponse> getInventorySummary(WarehouseType warehouseType, StockStatus stockStatus) {
         log.info("Getting inventory summary - warehouseType: {}, stockStatus: {}", warehouseType, stockStatus);
 
-        List<ItemMaster> items = (warehouseType != null)
-                ? itemMasterRepository.findByWarehouseTypeAndIsActiveTrue(warehouseType)
-                : itemMasterRepository.findByIsActiveTrue();
-
-        List<ItemMasterSummaryResponse> result = items.stream()
+        List<ItemMasterSummaryResponse> result = findSummaryRows(null, warehouseType, null, stockStatus, true,
+                SORT_ITEM_NAME, false, Integer.MAX_VALUE, 0).stream()
                 .map(this::mapToSummaryDto)
                 .collect(Collectors.toList());
 
-        // Filter by stock status if provided
-        if (stockStatus != null) {
-            result = result.stream()
-                    .filter(dto -> dto.getStockStatus() == stockStatus)
-                    .collect(Collectors.toList());
-        }
-
         log.info("Found {} items", result.size());
         return result;
     }
@@ -94,15 +101,18 @@ public class InventoryService {
         log.info("Getting inventory summary (paginated) - warehouseType: {}, stockStatus: {}, page: {}, size: {}",
                 warehouseType, stockStatus, pageable.getPageNumber(), pageable.getPageSize());
 
-        List<ItemMasterSummaryResponse> allItems = getInventorySummary(warehouseType, stockStatus);
-
-        // Manual pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), allItems.size());
+        // Sort: itemCode or itemName (default)
+        Sort.Order order = pageable.getSort().stream().findFirst().orElse(Sort.Order.asc("itemName"));
+        String sortBy = "itemCode".equals(order.getProperty()) ? SORT_ITEM_CODE : SORT_ITEM_NAME;
 
-        List<ItemMasterSummaryResponse> pageContent = allItems.subList(start, end);
+        List<SummaryRow> rows = findSummaryRows(null, warehouseType, null, stockStatus, true,
+                sortBy, order.isDescending(), pageable.getPageSize(), pageable.getOffset());
+        long total = totalOf(rows, null, warehouseType, null, stockStatus, true);
 
-        return new PageImpl<>(pageContent, pageable, allItems.size());
+        List<ItemMasterSummaryResponse> pageContent = rows.stream()
+                .map(this::mapToSummaryDto)
+                .collect(Collectors.toList());
+        return new PageImpl<>(pageContent, pageable, total);
     }
 
     /**
@@ -112,14 +122,14 @@ public class InventoryService {
     public WarehouseStatsResponse getWarehouseStats() {
         log.info("Calculating warehouse statistics");
 
-        List<ItemMasterSummaryResponse> allItems = getInventorySummary(null, null);
+        Object[] stats = itemMasterRepository.summarizeInventoryStats(null, null, null, null, true,
+                expiringBefore()).get(0);
 
         return WarehouseStatsResponse.builder()
-                .totalItems(allItems.size())
-                .lowStockItems((int) allItems.stream().filter(i -> i.getStockStatus() == StockStatus.LOW_STOCK).count())
-                .expiringSoonItems((int) allItems.stream().filter(ItemMasterSummaryResponse::getIsExpiringSoon).count())
-                .outOfStockItems(
-                        (int) allItems.stream().filter(i -> i.getStockStatus() == StockStatus.OUT_OF_STOCK).count())
+                .totalItems(toInt(stats[0]))
+                .lowStockItems(toInt(stats[1]))
+                .expiringSoonItems(toInt(stats[2]))
+                .outOfStockItems(toInt(stats[3]))
                 .build();
     }
 
@@ -277,8 +287,69 @@ public class InventoryService {
                 .build();
     }
 
+    /**
+     * Map summary row (ItemMasterRepository.INVENTORY_SUMMARY_ROWS) sang DTO
+     */
+    private ItemMasterSummaryResponse mapToSummaryDto(SummaryRow row) {
+        return ItemMasterSummaryResponse.builder()
+                .itemMasterId(row.itemMasterId())
+                .itemCode(row.itemCode())
+                .itemName(row.itemName())
+                .categoryName(row.categoryName())
+                .warehouseType(row.warehouseType())
+                .unitOfMeasure(row.unitOfMeasure())
+                .totalQuantityOnHand(row.totalQuantity())
+                .stockStatus(row.stockStatus())
+                .isExpiringSoon(row.expiringSoon())
+                .minStockLevel(row.minStockLevel())
+                .maxStockLevel(row.maxStockLevel())
+                .isTool(row.isTool())
+                .createdAt(row.createdAt())
+                .updatedAt(row.updatedAt())
+                .build();
+    }
+
+    /**
+     * One page of inventory summary rows (single query, see
+     * ItemMasterRepository.findInventorySummaryPage)
+     */
+    private List<SummaryRow> findSummaryRows(String search, WarehouseType warehouseType, Long categoryId,
+            StockStatus stockStatus, boolean includeTools, String sortBy, boolean descending, int limit, long offset) {
+        return itemMasterRepository.findInventorySummaryPage(search, nameOf(warehouseType), categoryId,
+                nameOf(stockStatus), includeTools, expiringBefore(), sortBy, descending, limit, offset).stream()
+                .map(SummaryRow::of)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Total matching rows: carried by the page rows, counted only for a page
+     * past the end
+     */
+    private long totalOf(List<SummaryRow> rows, String search, WarehouseType warehouseType, Long categoryId,
+            StockStatus stockStatus, boolean includeTools) {
+        if (!rows.isEmpty()) {
+            return rows.get(0).totalCount();
+        }
+        return itemMasterRepository.countInventorySummary(search, nameOf(warehouseType), categoryId,
+                nameOf(stockStatus), includeTools, expiringBefore());
+    }
+
+    /** Batches expiring before this date count as "expiring soon" */
+    private static LocalDate expiringBefore() {
+        return LocalDate.now().plusDays(30);
+    }
+
+    private static String nameOf(Enum<?> value) {
+        return value != null ? value.name() : null;
+    }
+
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
     /**
      * Logic: Tính stock status
+     * (cùng quy tắc với stock_status của ItemMasterRepository.INVENTORY_SUMMARY_ROWS)
      */
     private StockStatus calculateStockStatus(Integer totalQty, Integer minLevel, Integer maxLevel) {
         if (totalQty == 0)
@@ -314,16 +385,10 @@ public class InventoryService {
     public List<ItemMasterSummaryResponse> getAllItemMasters(WarehouseType warehouseType, String search) {
         log.info("Getting all item masters - warehouseType: {}, search: '{}'", warehouseType, search);
 
-        List<ItemMaster> items;
-        if (search != null && !search.isBlank()) {
-            items = itemMasterRepository.searchItemMasters(search.trim());
-        } else if (warehouseType != null) {
-            items = itemMasterRepository.findByWarehouseTypeAndIsActiveTrue(warehouseType);
-        } else {
-            items = itemMasterRepository.findByIsActiveTrue();
-        }
-
-        return items.stream()
+        // Search ignores warehouseType (same as searchItemMasters)
+        boolean searching = search != null && !search.isBlank();
+        return findSummaryRows(searching ? search.trim() : null, searching ? null : warehouseType, null, null,
+                true, SORT_ITEM_NAME, false, Integer.MAX_VALUE, 0).stream()
                 .map(this::mapToSummaryDto)
                 .collect(Collectors.toList());
     }
@@ -487,36 +552,46 @@ public class InventoryService {
                 "API 6.1 - Getting inventory summary: search='{}', stockStatus={}, warehouseType={}, categoryId={}, page={}, size={}",
                 search, stockStatus, warehouseType, categoryId, pageable.getPageNumber(), pageable.getPageSize());
 
-        // Step 1: Query items with filters (search, warehouseType, categoryId)
-        List<ItemMaster> items = itemMasterRepository.findInventorySummary(search, warehouseType, categoryId);
+        // Step 1: One query - filters, aggregation, stock status and LIMIT/OFFSET in
+        // the database (tools excluded), total from the same rows
+        List<SummaryRow> rows = findSummaryRows(search, warehouseType, categoryId, stockStatus, false,
+                SORT_ITEM_CODE, false, pageable.getPageSize(), pageable.getOffset());
+        long total = totalOf(rows, search, warehouseType, categoryId, stockStatus, false);
 
-        // Step 2: Map to DTO with computed fields
-        List<InventoryItemDTO> allItems = items.stream()
+        // Step 2: Map to DTO
+        List<InventoryItemDTO> pageContent = rows.stream()
                 .map(this::mapToInventoryItemDTO)
                 .collect(Collectors.toList());
 
-        // Step 3: Filter by stockStatus if provided
-        if (stockStatus != null) {
-            allItems = allItems.stream()
-                    .filter(dto -> dto.getStockStatus() == stockStatus)
-                    .collect(Collectors.toList());
-        }
-
-        // Step 4: Manual pagination
-        int start = (int) pageable.getOffset();
-        int end = Math.min((start + pageable.getPageSize()), allItems.size());
-        List<InventoryItemDTO> pageContent = allItems.subList(start, end);
-
-        // Step 5: Build response
+        // Step 3: Build response
         return InventorySummaryResponse.builder()
                 .page(pageable.getPageNumber())
                 .size(pageable.getPageSize())
-                .totalPages((int) Math.ceil((double) allItems.size() / pageable.getPageSize()))
-                .totalItems((long) allItems.size())
+                .totalPages((int) Math.ceil((double) total / pageable.getPageSize()))
+                .totalItems(total)
                 .content(pageContent)
                 .build();
     }
 
+    /**
+     * API 6.1 export: same rows as getInventorySummaryV2 (all pages), read
+     * through a database cursor and handed to the consumer one by one, so
+     * memory stays flat regardless of the item count.
+     */
+    @Transactional(readOnly = true)
+    public void forEachInventoryItem(
+            String search,
+            StockStatus stockStatus,
+            WarehouseType warehouseType,
+            Long categoryId,
+            Consumer<InventoryItemDTO> consumer) {
+
+        try (Stream<Object[]> rows = itemMasterRepository.streamInventorySummary(search, nameOf(warehouseType),
+                categoryId, nameOf(stockStatus), false, expiringBefore())) {
+            rows.forEach(row -> consumer.accept(mapToInventoryItemDTO(SummaryRow.of(row))));
+        }
+    }
+
     /**
      * API 6.1.1: Get MEDICINE category ID for filtering prescriptions
      * Used by medicine-only search endpoint to ensure only medicines are returned
@@ -530,48 +605,25 @@ public class InventoryService {
     }
 
     /**
-     * Map ItemMaster sang InventoryItemDTO với computed fields
+     * Map summary row sang InventoryItemDTO (computed fields đã tính trong DB)
      * - totalQuantity: SUM(quantity_on_hand) từ batches
      * - stockStatus: calculated từ totalQuantity vs min/max levels
      * - nearestExpiryDate: MIN(expiry_date) WHERE quantity > 0 (FEFO)
      * - unitName: base unit name
      */
-    private InventoryItemDTO mapToInventoryItemDTO(ItemMaster item) {
-        // Step 1: Get all batches for this item
-        List<ItemBatch> batches = itemBatchRepository.findByItemMaster_ItemMasterId(item.getItemMasterId());
-
-        // Step 2: Calculate totalQuantity (aggregation)
-        Integer totalQty = batches.stream()
-                .mapToInt(ItemBatch::getQuantityOnHand)
-                .sum();
-
-        // Step 3: Calculate stockStatus
-        StockStatus status = calculateStockStatus(totalQty, item.getMinStockLevel(), item.getMaxStockLevel());
-
-        // Step 4: Find nearestExpiryDate (FEFO - First Expired First Out)
-        LocalDate nearestExpiry = batches.stream()
-                .filter(b -> b.getExpiryDate() != null && b.getQuantityOnHand() > 0)
-                .map(ItemBatch::getExpiryDate)
-                .min(LocalDate::compareTo)
-                .orElse(null);
-
-        // Step 5: Get base unit name
-        String unitName = itemUnitRepository.findBaseUnitByItemMasterId(item.getItemMasterId())
-                .map(ItemUnit::getUnitName)
-                .orElse(item.getUnitOfMeasure()); // fallback to old field if no unit defined
-
+    private InventoryItemDTO mapToInventoryItemDTO(SummaryRow row) {
         return InventoryItemDTO.builder()
-                .itemMasterId(item.getItemMasterId())
-                .itemCode(item.getItemCode())
-                .itemName(item.getItemName())
-                .categoryName(item.getCategory() != null ? item.getCategory().getCategoryName() : null)
-                .warehouseType(item.getWarehouseType())
-                .unitName(unitName)
-                .minStockLevel(item.getMinStockLevel())
-                .maxStockLevel(item.getMaxStockLevel())
-                .totalQuantity(totalQty)
-                .stockStatus(status)
-                .nearestExpiryDate(nearestExpiry)
+                .itemMasterId(row.itemMasterId())
+                .itemCode(row.itemCode())
+                .itemName(row.itemName())
+                .categoryName(row.categoryName())
+                .warehouseType(row.warehouseType())
+                .unitName(row.unitName())
+                .minStockLevel(row.minStockLevel())
+                .maxStockLevel(row.maxStockLevel())
+                .totalQuantity(row.totalQuantity())
+                .stockStatus(row.stockStatus())
+                .nearestExpiryDate(row.nearestExpiryDate())
                 .build();
     }
 
@@ -772,12 +824,7 @@ public class InventoryService {
                 days, categoryId, warehouseType, statusFilter);
 
         // 1. Validate days parameter
-        if (days == null) {
-            days = 30; // Default
-        }
-        if (days < 1 || days > 1095) {
-            throw new IllegalArgumentException("Tham số 'days' phải từ 1 đến 1095 (3 năm)");
-        }
+        days = resolveAlertDays(days);
 
         // 2. Calculate target date
         LocalDate today = LocalDate.now();
@@ -793,28 +840,7 @@ public class InventoryService {
 
         // 4. Map to DTOs & calculate status (before filtering)
         List<com.dental.clinic.management.warehouse.dto.response.ExpiringAlertDTO> alerts = batches.stream()
-                .map(batch -> {
-                    long daysRemaining = java.time.temporal.ChronoUnit.DAYS.between(today, batch.getExpiryDate());
-                    BatchStatus status = BatchStatus.fromDaysRemaining(daysRemaining);
-
-                    return com.dental.clinic.management.warehouse.dto.response.ExpiringAlertDTO.builder()
-                            .batchId(batch.getBatchId())
-                            .itemCode(batch.getItemMaster().getItemCode())
-                            .itemName(batch.getItemMaster().getItemName())
-                            .categoryName(batch.getItemMaster().getCategory() != null
-                                    ? batch.getItemMaster().getCategory().getCategoryName()
-                                    : null)
-                            .warehouseType(batch.getItemMaster().getWarehouseType())
-                            .lotNumber(batch.getLotNumber())
-                            .binLocation(batch.getBinLocation())
-                            .quantityOnHand(batch.getQuantityOnHand())
-                            .unitName(batch.getItemMaster().getUnitOfMeasure())
-                            .expiryDate(batch.getExpiryDate())
-                            .daysRemaining(daysRemaining)
-                            .status(status)
-                            .supplierName(batch.getSupplier() != null ? batch.getSupplier().getSupplierName() : null)
-                            .build();
-                })
+                .map(batch -> mapToExpiringAlertDTO(batch, today))
                 .collect(Collectors.toList());
 
         // 5. Apply statusFilter if provided (post-query filter)
@@ -844,6 +870,72 @@ public class InventoryService {
                 .build();
     }
 
+    /**
+     * API 6.3 export: same alerts as getExpiringAlerts (all pages, FEFO order),
+     * read through a database cursor and handed to the consumer one by one
+     */
+    @Transactional(readOnly = true)
+    public void forEachExpiringAlert(
+            Integer days,
+            Long categoryId,
+            WarehouseType warehouseType,
+            BatchStatus statusFilter,
+            Consumer<com.dental.clinic.management.warehouse.dto.response.ExpiringAlertDTO> consumer) {
+
+        LocalDate today = LocalDate.now();
+        LocalDate targetDate = today.plusDays(resolveAlertDays(days));
+
+        try (Stream<ItemBatch> batches = itemBatchRepository.streamExpiringBatches(targetDate, categoryId,
+                warehouseType)) {
+            int[] read = { 0 };
+            batches.forEach(batch -> {
+                com.dental.clinic.management.warehouse.dto.response.ExpiringAlertDTO alert = mapToExpiringAlertDTO(batch, today);
+                if (statusFilter == null || alert.getStatus() == statusFilter) {
+                    consumer.accept(alert);
+                }
+                if (++read[0] % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            });
+        }
+    }
+
+    /**
+     * Default 30, allowed 1-1095 days
+     */
+    private int resolveAlertDays(Integer days) {
+        if (days == null) {
+            return 30; // Default
+        }
+        if (days < 1 || days > 1095) {
+            throw new IllegalArgumentException("Tham số 'days' phải từ 1 đến 1095 (3 năm)");
+        }
+        return days;
+    }
+
+    private com.dental.clinic.management.warehouse.dto.response.ExpiringAlertDTO mapToExpiringAlertDTO(ItemBatch batch, LocalDate today) {
+        long daysRemaining = java.time.temporal.ChronoUnit.DAYS.between(today, batch.getExpiryDate());
+        BatchStatus status = BatchStatus.fromDaysRemaining(daysRemaining);
+
+        return com.dental.clinic.management.warehouse.dto.response.ExpiringAlertDTO.builder()
+                .batchId(batch.getBatchId())
+                .itemCode(batch.getItemMaster().getItemCode())
+                .itemName(batch.getItemMaster().getItemName())
+                .categoryName(batch.getItemMaster().getCategory() != null
+                        ? batch.getItemMaster().getCategory().getCategoryName()
+                        : null)
+                .warehouseType(batch.getItemMaster().getWarehouseType())
+                .lotNumber(batch.getLotNumber())
+                .binLocation(batch.getBinLocation())
+                .quantityOnHand(batch.getQuantityOnHand())
+                .unitName(batch.getItemMaster().getUnitOfMeasure())
+                .expiryDate(batch.getExpiryDate())
+                .daysRemaining(daysRemaining)
+                .status(status)
+                .supplierName(batch.getSupplier() != null ? batch.getSupplier().getSupplierName() : null)
+                .build();
+    }
+
     /**
      * Calculate Alert Statistics
      * Count batches by status categories & sum total quantity
@@ -897,4 +989,53 @@ public class InventoryService {
         
         return prefix + sequence;
     }
+
+    /**
+     * Row of ItemMasterRepository.INVENTORY_SUMMARY_ROWS (+ total_count for pages)
+     */
+    private record SummaryRow(Long itemMasterId, String itemCode, String itemName, String categoryName,
+            WarehouseType warehouseType, String unitOfMeasure, String unitName, Integer minStockLevel,
+            Integer maxStockLevel, Boolean isTool, LocalDateTime createdAt, LocalDateTime updatedAt,
+            Integer totalQuantity, LocalDate nearestExpiryDate, Boolean expiringSoon, StockStatus stockStatus,
+            long totalCount) {
+
+        static SummaryRow of(Object[] row) {
+            return new SummaryRow(
+                    ((Number) row[0]).longValue(),
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    WarehouseType.valueOf((String) row[4]),
+                    (String) row[5],
+                    (String) row[6],
+                    toInteger(row[7]),
+                    toInteger(row[8]),
+                    (Boolean) row[9],
+                    toLocalDateTime(row[10]),
+                    toLocalDateTime(row[11]),
+                    toInt(row[12]),
+                    toLocalDate(row[13]),
+                    Boolean.TRUE.equals(row[14]),
+                    StockStatus.valueOf((String) row[15]),
+                    row.length > 16 ? ((Number) row[16]).longValue() : 0L);
+        }
+
+        private static Integer toInteger(Object value) {
+            return value != null ? ((Number) value).intValue() : null;
+        }
+
+        private static LocalDateTime toLocalDateTime(Object value) {
+            if (value instanceof Timestamp timestamp) {
+                return timestamp.toLocalDateTime();
+            }
+            return (LocalDateTime) value;
+        }
+
+        private static LocalDate toLocalDate(Object value) {
+            if (value instanceof Date date) {
+                return date.toLocalDate();
+            }
+            return (LocalDate) value;
+        }
+    }
 }
@@ -12,6 +12,7 @@ import com.dental.clinic.management.warehouse.dto.response.ItemMasterListDto;
 import com.dental.clinic.management.warehouse.dto.response.ItemMasterPageResponse;
 import com.dental.clinic.management.warehouse.dto.response.UpdateItemMasterResponse;
 import com.dental.clinic.management.warehouse.domain.ItemCategory;
+import com.dental.clinic.management.warehouse.enums.WarehouseType;
 import com.dental.clinic.management.warehouse.repository.ItemBatchRepository;
 import com.dental.clinic.management.warehouse.repository.ItemCategoryRepository;
 import com.dental.clinic.management.warehouse.repository.ItemMasterRepository;
@@ -45,6 +46,7 @@ public class ItemMasterService {
         private final ItemUnitRepository itemUnitRepository;
         private final ItemCategoryRepository itemCategoryRepository;
         private final ItemBatchRepository itemBatchRepository;
+        private final StockBalanceService stockBalanceService;
 
         @Transactional
         public CreateItemMasterResponse createItemMaster(CreateItemMasterRequest request) {
@@ -383,6 +385,7 @@ public class ItemMasterService {
                                 });
 
                 // 9. Update ItemMaster entity
+                WarehouseType previousWarehouseType = itemMaster.getWarehouseType();
                 itemMaster.setItemName(request.getItemName());
                 itemMaster.setDescription(request.getDescription());
                 itemMaster.setCategory(category);
@@ -403,6 +406,7 @@ public class ItemMasterService {
 
                 ItemMaster updatedItemMaster = itemMasterRepository.save(itemMaster);
                 log.info("Item master updated: {}", updatedItemMaster.getItemCode());
+                stockBalanceService.changeWarehouse(updatedItemMaster, previousWarehouseType);
 
                 // 10. Update or create units (only if provided)
                 List<ItemUnit> unitsToSave = new ArrayList<>();
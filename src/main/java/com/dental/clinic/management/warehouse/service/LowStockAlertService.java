@@ -2,7 +2,6 @@ package com.dental.clinic.management.warehouse.service;
 
 // import com.dental.clinic.management.warehouse.domain.ItemBatch;
 import com.dental.clinic.management.warehouse.domain.ItemMaster;
-import com.dental.clinic.management.warehouse.repository.ItemBatchRepository;
 import com.dental.clinic.management.warehouse.repository.ItemMasterRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,9 +26,6 @@ public class LowStockAlertService {
     @Autowired
     private ItemMasterRepository itemMasterRepository;
 
-    @Autowired
-    private ItemBatchRepository itemBatchRepository;
-
     /**
      * Rule #19: Check for low stock items and generate alerts
      *
@@ -58,39 +54,28 @@ public class LowStockAlertService {
 
     /**
      * Find all items with stock below minimum threshold
+     * (aggregated and filtered in one query: ItemMasterRepository.findLowStockItems)
      *
      * @return List of low stock alerts
      */
     public List<LowStockAlert> findLowStockItems() {
-        List<ItemMaster> allItems = itemMasterRepository.findAll();
         List<LowStockAlert> alerts = new ArrayList<>();
 
-        for (ItemMaster item : allItems) {
-            // Skip if no minimum stock level defined
-            if (item.getMinStockLevel() == null || item.getMinStockLevel() <= 0) {
-                continue;
-            }
-
-            // Calculate total stock across all batches
-            Integer totalStock = itemBatchRepository.findByItemMasterIdFEFO(item.getItemMasterId())
-                    .stream()
-                    .mapToInt(batch -> batch.getQuantityOnHand() != null ? batch.getQuantityOnHand() : 0)
-                    .sum();
-
-            // Check if below minimum threshold
-            if (totalStock <= item.getMinStockLevel()) {
-                LowStockAlert alert = LowStockAlert.builder()
-                        .itemMasterId(item.getItemMasterId())
-                        .itemCode(item.getItemCode())
-                        .itemName(item.getItemName())
-                        .currentStock(totalStock)
-                        .minStockLevel(item.getMinStockLevel())
-                        .shortfall(item.getMinStockLevel() - totalStock)
-                        .categoryName(item.getCategory() != null ? item.getCategory().getCategoryName() : null)
-                        .build();
-
-                alerts.add(alert);
-            }
+        for (Object[] row : itemMasterRepository.findLowStockItems()) {
+            int minStockLevel = ((Number) row[4]).intValue();
+            int totalStock = ((Number) row[5]).intValue();
+
+            LowStockAlert alert = LowStockAlert.builder()
+                    .itemMasterId(((Number) row[0]).longValue())
+                    .itemCode((String) row[1])
+                    .itemName((String) row[2])
+                    .currentStock(totalStock)
+                    .minStockLevel(minStockLevel)
+                    .shortfall(minStockLevel - totalStock)
+                    .categoryName((String) row[3])
+                    .build();
+
+            alerts.add(alert);
         }
 
         return alerts;
@@ -142,10 +127,8 @@ public class LowStockAlertService {
             return false;
         }
 
-        Integer totalStock = itemBatchRepository.findByItemMasterIdFEFO(itemMasterId)
-                .stream()
-                .mapToInt(batch -> batch.getQuantityOnHand() != null ? batch.getQuantityOnHand() : 0)
-                .sum();
+        // On-hand total comes from item_stock_balances (loaded with the item)
+        Integer totalStock = item.getCachedTotalQuantity() != null ? item.getCachedTotalQuantity() : 0;
 
         return totalStock <= item.getMinStockLevel();
     }
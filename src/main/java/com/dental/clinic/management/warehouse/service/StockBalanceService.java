@@ -0,0 +1,187 @@
+package com.dental.clinic.management.warehouse.service;
+
+import com.dental.clinic.management.warehouse.domain.ItemMaster;
+import com.dental.clinic.management.warehouse.enums.WarehouseType;
+import com.dental.clinic.management.warehouse.repository.ItemStockBalanceRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Maintains item_stock_balances: on-hand quantity per (item master, warehouse
+ * type), equal to SUM(item_batches.quantity_on_hand) of the item.
+ *
+ * Every code path that changes a batch quantity calls apply() in the same
+ * transaction (approval of import / export / adjustment / unpack transactions,
+ * consumable deduction, procedure material deduction), so the counter commits
+ * or rolls back together with the batches. Stock reads, low-stock checks and
+ * warehouse stats then read one row per item instead of summing batches.
+ *
+ * Refresh triggers besides apply():
+ * - startup, before the web server accepts requests: balance rows missing for
+ * an item are loaded from item_batches, then a reconcile pass resets rows that
+ * do not match their batches (e.g. a row another node created from a single
+ * delta before it was seeded)
+ * - nightly: balances that drifted from their batches (SQL scripts, code paths
+ * that bypass apply) are reset, one locked row at a time
+ *
+ * Metrics: warehouse.stock_balance.drift, warehouse.stock_balance.errors
+ */
+@Slf4j
+@Service
+public class StockBalanceService implements SmartInitializingSingleton {
+
+    private final ItemStockBalanceRepository balanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public StockBalanceService(ItemStockBalanceRepository balanceRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.balanceRepository = balanceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Add delta to the item's balance in its warehouse.
+     * Must run in the transaction that changes the batch quantity.
+     */
+    @Transactional
+    public void apply(ItemMaster itemMaster, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        balanceRepository.applyDelta(itemMaster.getItemMasterId(), warehouseOf(itemMaster), delta);
+    }
+
+    /**
+     * Item moved to another warehouse type: move its balance along
+     */
+    @Transactional
+    public void changeWarehouse(ItemMaster itemMaster, WarehouseType previous) {
+        String from = previous != null ? previous.name() : WarehouseType.NORMAL.name();
+        String to = warehouseOf(itemMaster);
+        if (from.equals(to)) {
+            return;
+        }
+        Integer quantity = balanceRepository.lockQuantity(itemMaster.getItemMasterId(), from);
+        if (quantity != null && quantity != 0) {
+            balanceRepository.applyDelta(itemMaster.getItemMasterId(), from, -quantity);
+            balanceRepository.applyDelta(itemMaster.getItemMasterId(), to, quantity);
+        }
+    }
+
+    /**
+     * Tổng tồn kho hiện có của vật tư
+     */
+    @Transactional(readOnly = true)
+    public int getQuantity(Long itemMasterId) {
+        return balanceRepository.sumQuantityByItemMasterId(itemMasterId);
+    }
+
+    /**
+     * Số vật tư sắp hết hàng (0 < tồn kho <= min_stock_level)
+     */
+    @Transactional(readOnly = true)
+    public long countLowStockItems() {
+        return balanceRepository.countLowStockItems();
+    }
+
+    /**
+     * Runs once all beans exist, i.e. before the web server starts accepting
+     * requests
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        initialize();
+    }
+
+    /**
+     * Startup: create the balance rows missing for items with batches (first
+     * deployment, new items added by scripts), then reconcile so rows that
+     * exist but were only ever given deltas are reset to their batches.
+     * Failures are logged only - the nightly reconcile catches up.
+     */
+    public void initialize() {
+        try {
+            Integer rows = transactionTemplate.execute(status -> balanceRepository.initializeFromBatches());
+            if (rows != null && rows > 0) {
+                log.info("Stock balances initialized from batches: {} rows", rows);
+            }
+        } catch (Exception e) {
+            meterRegistry.counter("warehouse.stock_balance.errors").increment();
+            log.error("Failed to initialize stock balances", e);
+        }
+        reconcile();
+    }
+
+    /**
+     * Cron: 02:30 every day - reset balances that no longer match their batches
+     */
+    @Scheduled(cron = "${app.stock-balance.reconcile-cron:0 30 2 * * ?}", zone = "Asia/Ho_Chi_Minh")
+    public void reconcile() {
+        List<Object[]> candidates;
+        try {
+            candidates = balanceRepository.findDrift();
+        } catch (Exception e) {
+            meterRegistry.counter("warehouse.stock_balance.errors").increment();
+            log.error("Stock balance reconcile failed", e);
+            return;
+        }
+        int corrected = 0;
+        for (Object[] row : candidates) {
+            Long itemMasterId = ((Number) row[0]).longValue();
+            String warehouseType = (String) row[1];
+            try {
+                if (resetBalance(itemMasterId, warehouseType)) {
+                    corrected++;
+                }
+            } catch (Exception e) {
+                meterRegistry.counter("warehouse.stock_balance.errors").increment();
+                log.error("Stock balance reconcile of item {} ({}) failed", itemMasterId, warehouseType, e);
+            }
+        }
+        log.info("Stock balances reconciled: {} candidates, {} corrected", candidates.size(), corrected);
+    }
+
+    /**
+     * Lock the balance row, then compare it with its batches. Transactions in
+     * flight either committed before the lock (visible to the sum) or apply
+     * their delta after it, so only real drift is corrected.
+     *
+     * @return true if the balance was corrected
+     */
+    private boolean resetBalance(Long itemMasterId, String warehouseType) {
+        Boolean corrected = transactionTemplate.execute(status -> {
+            balanceRepository.ensureExists(itemMasterId, warehouseType);
+            Integer balance = balanceRepository.lockQuantity(itemMasterId, warehouseType);
+            int actual = balanceRepository.sumBatchQuantity(itemMasterId, warehouseType);
+            int current = balance != null ? balance : 0;
+            if (current == actual) {
+                return false;
+            }
+            balanceRepository.applyDelta(itemMasterId, warehouseType, actual - current);
+            log.warn("Stock balance drift: item {} ({}) balance {} != batches {}, corrected",
+                    itemMasterId, warehouseType, current, actual);
+            return true;
+        });
+        if (Boolean.TRUE.equals(corrected)) {
+            meterRegistry.counter("warehouse.stock_balance.drift").increment();
+            return true;
+        }
+        return false;
+    }
+
+    private static String warehouseOf(ItemMaster itemMaster) {
+        WarehouseType type = itemMaster.getWarehouseType();
+        return (type != null ? type : WarehouseType.NORMAL).name();
+    }
+}
@@ -1,7 +1,6 @@
 package com.dental.clinic.management.warehouse.service;
 
 import com.dental.clinic.management.exception.validation.BadRequestAlertException;
-import com.dental.clinic.management.warehouse.repository.ItemBatchRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -16,7 +15,7 @@ import org.springframework.stereotype.Service;
 public class StockValidationService {
 
     @Autowired
-    private ItemBatchRepository itemBatchRepository;
+    private StockBalanceService stockBalanceService;
 
     /**
      * Rule #18: Validate sufficient stock before export
@@ -42,11 +41,8 @@ public class StockValidationService {
                     "invalidQuantity");
         }
 
-        // Calculate total available stock across all batches
-        Integer totalAvailableStock = itemBatchRepository.findByItemMasterIdFEFO(itemMasterId)
-                .stream()
-                .mapToInt(batch -> batch.getQuantityOnHand() != null ? batch.getQuantityOnHand() : 0)
-                .sum();
+        // Total available stock across all batches (item_stock_balances)
+        Integer totalAvailableStock = stockBalanceService.getQuantity(itemMasterId);
 
         // Check if sufficient stock available
         if (totalAvailableStock < requestedQuantity) {
@@ -77,10 +73,7 @@ public class StockValidationService {
             return 0;
         }
 
-        return itemBatchRepository.findByItemMasterIdFEFO(itemMasterId)
-                .stream()
-                .mapToInt(batch -> batch.getQuantityOnHand() != null ? batch.getQuantityOnHand() : 0)
-                .sum();
+        return stockBalanceService.getQuantity(itemMasterId);
     }
 
     /**
@@ -5,6 +5,9 @@ import com.dental.clinic.management.exception.BadRequestException;
 import com.dental.clinic.management.patient.domain.Patient;
 import com.dental.clinic.management.patient.repository.PatientRepository;
 import com.dental.clinic.management.utils.security.AuthoritiesConstants;
+import com.dental.clinic.management.utils.pagination.CursorPage;
+import com.dental.clinic.management.utils.pagination.KeysetCursor;
+import com.dental.clinic.management.utils.pagination.KeysetReader;
 import com.dental.clinic.management.utils.security.SecurityUtil;
 import com.dental.clinic.management.warehouse.domain.StorageTransaction;
 import com.dental.clinic.management.warehouse.domain.ItemBatch;
@@ -34,6 +37,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -51,10 +55,15 @@ import java.util.stream.Collectors;
 @Slf4j
 public class TransactionHistoryService {
 
+    /** Transactions per keyset query when exporting */
+    private static final int EXPORT_BATCH_SIZE = 500;
+
     private final StorageTransactionRepository transactionRepository;
     private final PatientRepository patientRepository;
     private final ItemBatchRepository batchRepository;
     private final ItemMasterRepository itemMasterRepository;
+    private final KeysetReader keysetReader;
+    private final StockBalanceService stockBalanceService;
 
     /**
      * Get transaction history with advanced filtering
@@ -104,6 +113,79 @@ public class TransactionHistoryService {
                 .build();
     }
 
+    /**
+     * Cursor (keyset) mode of API 6.6: same filters and RBAC masking
+     *
+     * - Ordered by transactionDate DESC, transactionId DESC (sortBy/page ignored)
+     * - No OFFSET; COUNT only when withTotal = true
+     * - Summary stats describe the whole filter set, so they are computed on the
+     * first page only (cursor = null)
+     *
+     * @param request Filter criteria + cursor
+     * @return Page of transactions with meta.nextCursor
+     */
+    @Transactional(readOnly = true)
+    public TransactionHistoryResponse getTransactionHistoryByCursor(TransactionHistoryRequest request) {
+        log.info("Fetching transaction history by cursor - Type: {}, Status: {}, Size: {}",
+                request.getType(), request.getStatus(), request.getSize());
+
+        KeysetCursor after = KeysetCursor.decode(request.getCursor());
+        validateRequest(request);
+
+        boolean hasViewCostPermission = hasPermission(AuthoritiesConstants.VIEW_WAREHOUSE_COST);
+        Specification<StorageTransaction> spec = TransactionHistorySpecification.buildSpecification(request);
+
+        List<StorageTransaction> rows = keysetReader.read(StorageTransaction.class, spec,
+                "transactionDate", "transactionId", Sort.Direction.DESC, after, request.getSize() + 1);
+        CursorPage<TransactionHistoryItemDto> page = CursorPage.of(rows, request.getSize(),
+                tx -> new KeysetCursor(tx.getTransactionDate(), tx.getTransactionId()),
+                tx -> mapToDto(tx, hasViewCostPermission),
+                Boolean.TRUE.equals(request.getWithTotal()) ? transactionRepository.count(spec) : null);
+
+        TransactionSummaryStatsDto stats = after == null
+                ? calculateStats(spec, request, hasViewCostPermission)
+                : null;
+
+        return TransactionHistoryResponse.builder()
+                .meta(TransactionHistoryResponse.MetaDto.builder()
+                        .size(page.getSize())
+                        .totalElements(page.getTotalElements())
+                        .hasNext(page.isHasNext())
+                        .nextCursor(page.getNextCursor())
+                        .build())
+                .stats(stats)
+                .content(page.getContent())
+                .build();
+    }
+
+    /**
+     * Export mode of API 6.6: every transaction matching the filters, with the
+     * same RBAC masking, read in keyset batches and handed to the consumer one
+     * by one (page/size ignored)
+     *
+     * - Ordered by transactionDate, transactionId in sortDir (sortBy ignored:
+     * the keyset needs a unique, indexed order)
+     */
+    @Transactional(readOnly = true)
+    public void forEachTransaction(TransactionHistoryRequest request, Consumer<TransactionHistoryItemDto> consumer) {
+        if (request.getFromDate() != null && request.getToDate() != null
+                && request.getFromDate().isAfter(request.getToDate())) {
+            throw new BadRequestException(
+                    "INVALID_DATE_RANGE",
+                    "Ngày bắt đầu không được sau ngày kết thúc");
+        }
+
+        boolean hasViewCostPermission = hasPermission(AuthoritiesConstants.VIEW_WAREHOUSE_COST);
+        Specification<StorageTransaction> spec = TransactionHistorySpecification.buildSpecification(request);
+        Sort.Direction direction = "asc".equalsIgnoreCase(request.getSortDir())
+                ? Sort.Direction.ASC
+                : Sort.Direction.DESC;
+
+        keysetReader.forEach(StorageTransaction.class, spec, "transactionDate", "transactionId", direction,
+                tx -> new KeysetCursor(tx.getTransactionDate(), tx.getTransactionId()), EXPORT_BATCH_SIZE,
+                tx -> consumer.accept(mapToDto(tx, hasViewCostPermission)));
+    }
+
     /**
      * Validate request parameters
      */
@@ -598,7 +680,7 @@ public class TransactionHistoryService {
             ItemBatch batch = item.getBatch();
             Integer quantityChange = item.getQuantityChange();
 
-            // Get itemMaster for cached quantity update
+            // Get itemMaster for stock balance update
             ItemMaster itemMaster = batch.getItemMaster();
 
             // Update batch quantity
@@ -617,8 +699,9 @@ public class TransactionHistoryService {
             batch.setQuantityOnHand(newQuantity);
             batchRepository.save(batch);
 
-            // Update cached quantity in ItemMaster
-            itemMaster.updateCachedQuantity(quantityChange);
+            // Update on-hand balance (same transaction as the batch)
+            stockBalanceService.apply(itemMaster, quantityChange);
+            itemMaster.setCachedLastUpdated(LocalDateTime.now());
 
             // Update last import date for IMPORT transactions
             if (transaction.getTransactionType() == TransactionType.IMPORT) {
@@ -627,7 +710,7 @@ public class TransactionHistoryService {
 
             itemMasterRepository.save(itemMaster);
 
-            log.debug("✅ Updated batch {}: {} → {} (Δ{}), Item {}: cachedQuantity updated",
+            log.debug("✅ Updated batch {}: {} → {} (Δ{}), Item {}: stock balance updated",
                     batch.getBatchId(), oldQuantity, newQuantity, quantityChange,
                     itemMaster.getItemCode());
         }
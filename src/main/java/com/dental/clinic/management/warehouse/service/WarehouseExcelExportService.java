@@ -1,23 +1,22 @@
 package com.dental.clinic.management.warehouse.service;
 
-import com.dental.clinic.management.warehouse.dto.response.ExpiringAlertDTO;
-import com.dental.clinic.management.warehouse.dto.response.ExpiringAlertsResponse;
-import com.dental.clinic.management.warehouse.dto.response.InventoryItemDTO;
-import com.dental.clinic.management.warehouse.dto.response.InventorySummaryResponse;
-import com.dental.clinic.management.warehouse.dto.response.TransactionHistoryResponse;
-import com.dental.clinic.management.warehouse.dto.response.TransactionHistoryItemDto;
+import com.dental.clinic.management.warehouse.dto.request.TransactionHistoryRequest;
+import com.dental.clinic.management.warehouse.enums.BatchStatus;
 import com.dental.clinic.management.warehouse.enums.StockStatus;
+import com.dental.clinic.management.warehouse.enums.WarehouseType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFCellStyle;
 import org.apache.poi.xssf.usermodel.XSSFColor;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.springframework.stereotype.Service;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.time.format.DateTimeFormatter;
+import java.util.function.IntConsumer;
 
 /**
  * Excel Export Service for Warehouse Reports
@@ -30,6 +29,12 @@ import java.time.format.DateTimeFormatter;
  * - Expiring Alerts export (with filters: days, warehouseType, categoryId)
  * - Formatted headers and auto-sized columns
  * - Freeze panes for better navigation
+ *
+ * Streaming: rows come from a database cursor (InventoryService /
+ * TransactionHistoryService forEach*) and are written with SXSSF, which keeps
+ * only ROW_ACCESS_WINDOW rows in memory and spills the rest to a compressed
+ * temp file; the workbook is written straight to the given stream. Heap use
+ * does not grow with the row count.
  */
 @Service
 @RequiredArgsConstructor
@@ -39,13 +44,32 @@ public class WarehouseExcelExportService {
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
 
+    /** Rows kept in memory per sheet before flushing to the temp file */
+    private static final int ROW_ACCESS_WINDOW = 100;
+
+    private static final IntConsumer NO_PROGRESS = rows -> {
+    };
+
+    private final InventoryService inventoryService;
+    private final TransactionHistoryService transactionHistoryService;
+
     /**
      * Export Inventory Summary to Excel
      * API: GET /api/v1/warehouse/summary/export
      */
-    public byte[] exportInventorySummary(InventorySummaryResponse response) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Inventory Summary");
+    public void exportInventorySummary(String search, StockStatus stockStatus, WarehouseType warehouseType,
+            Long categoryId, OutputStream out) throws IOException {
+        exportInventorySummary(search, stockStatus, warehouseType, categoryId, out, NO_PROGRESS);
+    }
+
+    /**
+     * @param onRow receives the number of data rows written so far (export jobs)
+     */
+    public void exportInventorySummary(String search, StockStatus stockStatus, WarehouseType warehouseType,
+            Long categoryId, OutputStream out, IntConsumer onRow) throws IOException {
+        SXSSFWorkbook workbook = createWorkbook();
+        try {
+            SXSSFSheet sheet = createSheet(workbook, "Inventory Summary");
 
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle dataStyle = createDataStyle(workbook);
@@ -53,75 +77,63 @@ public class WarehouseExcelExportService {
             CellStyle dateStyle = createDateStyle(workbook);
             CellStyle lowStockDataStyle = createLowStockDataStyle(workbook);
             CellStyle lowStockNumberStyle = createLowStockNumberStyle(workbook);
+            CellStyle lowStockDateStyle = createLowStockDateStyle(workbook);
             CellStyle outOfStockDataStyle = createOutOfStockDataStyle(workbook);
             CellStyle outOfStockNumberStyle = createOutOfStockNumberStyle(workbook);
+            CellStyle outOfStockDateStyle = createOutOfStockDateStyle(workbook);
 
-            Row headerRow = sheet.createRow(0);
             String[] headers = {
                     "STT", "Item Code", "Item Name", "Category", "Warehouse Type",
                     "Unit", "Total Quantity", "Min Stock", "Max Stock",
                     "Stock Status", "Nearest Expiry Date"
             };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
-
-            int rowNum = 1;
-            if (response.getContent() != null) {
-                for (InventoryItemDTO item : response.getContent()) {
-                    Row row = sheet.createRow(rowNum++);
-
-                    CellStyle rowDataStyle = dataStyle;
-                    CellStyle rowNumberStyle = numberStyle;
-                    CellStyle rowDateStyle = dateStyle;
-
-                    if (item.getStockStatus() == StockStatus.OUT_OF_STOCK) {
-                        rowDataStyle = outOfStockDataStyle;
-                        rowNumberStyle = outOfStockNumberStyle;
-                        rowDateStyle = createOutOfStockDateStyle(workbook);
-                    } else if (item.getStockStatus() == StockStatus.LOW_STOCK) {
-                        rowDataStyle = lowStockDataStyle;
-                        rowNumberStyle = lowStockNumberStyle;
-                        rowDateStyle = createLowStockDateStyle(workbook);
-                    }
-
-                    createCell(row, 0, rowNum - 1, numberStyle);
-                    createCell(row, 1, item.getItemCode(), rowDataStyle);
-                    createCell(row, 2, item.getItemName(), rowDataStyle);
-                    createCell(row, 3, item.getCategoryName(), rowDataStyle);
-                    createCell(row, 4, item.getWarehouseType() != null ? item.getWarehouseType().name() : "",
-                            rowDataStyle);
-                    createCell(row, 5, item.getUnitName(), rowDataStyle);
-                    createCell(row, 6, item.getTotalQuantity() != null ? item.getTotalQuantity() : 0, rowNumberStyle);
-                    createCell(row, 7, item.getMinStockLevel() != null ? item.getMinStockLevel() : 0, rowNumberStyle);
-                    createCell(row, 8, item.getMaxStockLevel() != null ? item.getMaxStockLevel() : 0, rowNumberStyle);
-                    createCell(row, 9, item.getStockStatus() != null ? item.getStockStatus().name() : "", rowDataStyle);
-
-                    if (item.getNearestExpiryDate() != null) {
-                        Cell dateCell = row.createCell(10);
-                        dateCell.setCellValue(item.getNearestExpiryDate().format(DATE_FORMATTER));
-                        dateCell.setCellStyle(rowDateStyle);
-                    } else {
-                        createCell(row, 10, "", rowDataStyle);
-                    }
+            createHeaderRow(sheet, headers, headerStyle);
+
+            int[] rowNum = { 1 };
+            inventoryService.forEachInventoryItem(search, stockStatus, warehouseType, categoryId, item -> {
+                Row row = sheet.createRow(rowNum[0]++);
+
+                CellStyle rowDataStyle = dataStyle;
+                CellStyle rowNumberStyle = numberStyle;
+                CellStyle rowDateStyle = dateStyle;
+
+                if (item.getStockStatus() == StockStatus.OUT_OF_STOCK) {
+                    rowDataStyle = outOfStockDataStyle;
+                    rowNumberStyle = outOfStockNumberStyle;
+                    rowDateStyle = outOfStockDateStyle;
+                } else if (item.getStockStatus() == StockStatus.LOW_STOCK) {
+                    rowDataStyle = lowStockDataStyle;
+                    rowNumberStyle = lowStockNumberStyle;
+                    rowDateStyle = lowStockDateStyle;
                 }
-            }
 
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Freeze header row
-            sheet.createFreezePane(0, 1);
+                createCell(row, 0, rowNum[0] - 1, numberStyle);
+                createCell(row, 1, item.getItemCode(), rowDataStyle);
+                createCell(row, 2, item.getItemName(), rowDataStyle);
+                createCell(row, 3, item.getCategoryName(), rowDataStyle);
+                createCell(row, 4, item.getWarehouseType() != null ? item.getWarehouseType().name() : "",
+                        rowDataStyle);
+                createCell(row, 5, item.getUnitName(), rowDataStyle);
+                createCell(row, 6, item.getTotalQuantity() != null ? item.getTotalQuantity() : 0, rowNumberStyle);
+                createCell(row, 7, item.getMinStockLevel() != null ? item.getMinStockLevel() : 0, rowNumberStyle);
+                createCell(row, 8, item.getMaxStockLevel() != null ? item.getMaxStockLevel() : 0, rowNumberStyle);
+                createCell(row, 9, item.getStockStatus() != null ? item.getStockStatus().name() : "", rowDataStyle);
+
+                if (item.getNearestExpiryDate() != null) {
+                    Cell dateCell = row.createCell(10);
+                    dateCell.setCellValue(item.getNearestExpiryDate().format(DATE_FORMATTER));
+                    dateCell.setCellStyle(rowDateStyle);
+                } else {
+                    createCell(row, 10, "", rowDataStyle);
+                }
+                onRow.accept(rowNum[0] - 1);
+            });
 
+            finishSheet(sheet, headers.length);
             workbook.write(out);
-            log.info("Exported {} inventory items to Excel",
-                    response.getContent() != null ? response.getContent().size() : 0);
-            return out.toByteArray();
+            log.info("Exported {} inventory items to Excel", rowNum[0] - 1);
+        } finally {
+            closeWorkbook(workbook);
         }
     }
 
@@ -129,9 +141,18 @@ public class WarehouseExcelExportService {
      * Export Transaction History to Excel
      * API: GET /api/v1/warehouse/transactions/export
      */
-    public byte[] exportTransactionHistory(TransactionHistoryResponse response) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Transaction History");
+    public void exportTransactionHistory(TransactionHistoryRequest request, OutputStream out) throws IOException {
+        exportTransactionHistory(request, out, NO_PROGRESS);
+    }
+
+    /**
+     * @param onRow receives the number of data rows written so far (export jobs)
+     */
+    public void exportTransactionHistory(TransactionHistoryRequest request, OutputStream out, IntConsumer onRow)
+            throws IOException {
+        SXSSFWorkbook workbook = createWorkbook();
+        try {
+            SXSSFSheet sheet = createSheet(workbook, "Transaction History");
 
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle dataStyle = createDataStyle(workbook);
@@ -140,72 +161,58 @@ public class WarehouseExcelExportService {
             CellStyle dateStyle = createDateStyle(workbook);
 
             // Create header row
-            Row headerRow = sheet.createRow(0);
             String[] headers = {
                     "STT", "Transaction Code", "Type", "Transaction Date", "Status",
                     "Payment Status", "Invoice Number", "Supplier/Appointment", "Total Value",
                     "Paid Amount", "Remaining Debt", "Created By", "Approved By", "Notes"
             };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
+            createHeaderRow(sheet, headers, headerStyle);
 
             // Populate data rows
-            int rowNum = 1;
-            if (response.getContent() != null) {
-                for (TransactionHistoryItemDto txn : response.getContent()) {
-                    Row row = sheet.createRow(rowNum++);
-
-                    createCell(row, 0, rowNum - 1, numberStyle);
-                    createCell(row, 1, txn.getTransactionCode(), dataStyle);
-                    createCell(row, 2, txn.getType() != null ? txn.getType().name() : "", dataStyle);
-
-                    // Transaction date
-                    if (txn.getTransactionDate() != null) {
-                        Cell dateCell = row.createCell(3);
-                        dateCell.setCellValue(txn.getTransactionDate().format(DATETIME_FORMATTER));
-                        dateCell.setCellStyle(dateStyle);
-                    } else {
-                        createCell(row, 3, "", dataStyle);
-                    }
-
-                    createCell(row, 4, txn.getStatus() != null ? txn.getStatus().name() : "", dataStyle);
-                    createCell(row, 5, txn.getPaymentStatus() != null ? txn.getPaymentStatus().name() : "", dataStyle);
-                    createCell(row, 6, txn.getInvoiceNumber(), dataStyle);
-                    createCell(row, 7,
-                            txn.getSupplierName() != null ? txn.getSupplierName()
-                                    : (txn.getRelatedAppointmentCode() != null ? txn.getRelatedAppointmentCode() : ""),
-                            dataStyle);
-
-                    // Currency values
-                    createCell(row, 8, txn.getTotalValue() != null ? txn.getTotalValue().doubleValue() : 0.0,
-                            currencyStyle);
-                    createCell(row, 9, txn.getPaidAmount() != null ? txn.getPaidAmount().doubleValue() : 0.0,
-                            currencyStyle);
-                    createCell(row, 10, txn.getRemainingDebt() != null ? txn.getRemainingDebt().doubleValue() : 0.0,
-                            currencyStyle);
-
-                    createCell(row, 11, txn.getCreatedByName(), dataStyle);
-                    createCell(row, 12, txn.getApprovedByName(), dataStyle);
-                    createCell(row, 13, txn.getNotes(), dataStyle);
+            int[] rowNum = { 1 };
+            transactionHistoryService.forEachTransaction(request, txn -> {
+                Row row = sheet.createRow(rowNum[0]++);
+
+                createCell(row, 0, rowNum[0] - 1, numberStyle);
+                createCell(row, 1, txn.getTransactionCode(), dataStyle);
+                createCell(row, 2, txn.getType() != null ? txn.getType().name() : "", dataStyle);
+
+                // Transaction date
+                if (txn.getTransactionDate() != null) {
+                    Cell dateCell = row.createCell(3);
+                    dateCell.setCellValue(txn.getTransactionDate().format(DATETIME_FORMATTER));
+                    dateCell.setCellStyle(dateStyle);
+                } else {
+                    createCell(row, 3, "", dataStyle);
                 }
-            }
-
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
-
-            // Freeze header row
-            sheet.createFreezePane(0, 1);
 
+                createCell(row, 4, txn.getStatus() != null ? txn.getStatus().name() : "", dataStyle);
+                createCell(row, 5, txn.getPaymentStatus() != null ? txn.getPaymentStatus().name() : "", dataStyle);
+                createCell(row, 6, txn.getInvoiceNumber(), dataStyle);
+                createCell(row, 7,
+                        txn.getSupplierName() != null ? txn.getSupplierName()
+                                : (txn.getRelatedAppointmentCode() != null ? txn.getRelatedAppointmentCode() : ""),
+                        dataStyle);
+
+                // Currency values
+                createCell(row, 8, txn.getTotalValue() != null ? txn.getTotalValue().doubleValue() : 0.0,
+                        currencyStyle);
+                createCell(row, 9, txn.getPaidAmount() != null ? txn.getPaidAmount().doubleValue() : 0.0,
+                        currencyStyle);
+                createCell(row, 10, txn.getRemainingDebt() != null ? txn.getRemainingDebt().doubleValue() : 0.0,
+                        currencyStyle);
+
+                createCell(row, 11, txn.getCreatedByName(), dataStyle);
+                createCell(row, 12, txn.getApprovedByName(), dataStyle);
+                createCell(row, 13, txn.getNotes(), dataStyle);
+                onRow.accept(rowNum[0] - 1);
+            });
+
+            finishSheet(sheet, headers.length);
             workbook.write(out);
-            log.info("Exported {} transactions to Excel",
-                    response.getContent() != null ? response.getContent().size() : 0);
-            return out.toByteArray();
+            log.info("Exported {} transactions to Excel", rowNum[0] - 1);
+        } finally {
+            closeWorkbook(workbook);
         }
     }
 
@@ -213,9 +220,19 @@ public class WarehouseExcelExportService {
      * Export Expiring Alerts to Excel
      * API: GET /api/v1/warehouse/expiring-alerts/export
      */
-    public byte[] exportExpiringAlerts(ExpiringAlertsResponse response) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream out = new ByteArrayOutputStream()) {
-            Sheet sheet = workbook.createSheet("Expiring Alerts");
+    public void exportExpiringAlerts(Integer days, Long categoryId, WarehouseType warehouseType,
+            BatchStatus statusFilter, OutputStream out) throws IOException {
+        exportExpiringAlerts(days, categoryId, warehouseType, statusFilter, out, NO_PROGRESS);
+    }
+
+    /**
+     * @param onRow receives the number of data rows written so far (export jobs)
+     */
+    public void exportExpiringAlerts(Integer days, Long categoryId, WarehouseType warehouseType,
+            BatchStatus statusFilter, OutputStream out, IntConsumer onRow) throws IOException {
+        SXSSFWorkbook workbook = createWorkbook();
+        try {
+            SXSSFSheet sheet = createSheet(workbook, "Expiring Alerts");
 
             CellStyle headerStyle = createHeaderStyle(workbook);
             CellStyle dataStyle = createDataStyle(workbook);
@@ -224,75 +241,101 @@ public class WarehouseExcelExportService {
             CellStyle warningStyle = createWarningStyle(workbook);
 
             // Create header row
-            Row headerRow = sheet.createRow(0);
             String[] headers = {
                     "STT", "Item Code", "Item Name", "Lot Number", "Warehouse Type",
                     "Quantity On Hand", "Unit", "Expiry Date", "Days Remaining",
                     "Status", "Bin Location", "Supplier", "Category"
             };
-
-            for (int i = 0; i < headers.length; i++) {
-                Cell cell = headerRow.createCell(i);
-                cell.setCellValue(headers[i]);
-                cell.setCellStyle(headerStyle);
-            }
+            createHeaderRow(sheet, headers, headerStyle);
 
             // Populate data rows
-            int rowNum = 1;
-            if (response.getAlerts() != null) {
-                for (ExpiringAlertDTO alert : response.getAlerts()) {
-                    Row row = sheet.createRow(rowNum++);
-
-                    // Choose style based on status
-                    CellStyle statusStyle = alert
-                            .getStatus() == com.dental.clinic.management.warehouse.enums.BatchStatus.EXPIRED
-                                    ? warningStyle
-                                    : dataStyle;
-
-                    createCell(row, 0, rowNum - 1, numberStyle);
-                    createCell(row, 1, alert.getItemCode(), dataStyle);
-                    createCell(row, 2, alert.getItemName(), dataStyle);
-                    createCell(row, 3, alert.getLotNumber(), dataStyle);
-                    createCell(row, 4, alert.getWarehouseType() != null ? alert.getWarehouseType().name() : "",
-                            dataStyle);
-                    createCell(row, 5, alert.getQuantityOnHand() != null ? alert.getQuantityOnHand() : 0, numberStyle);
-                    createCell(row, 6, alert.getUnitName(), dataStyle);
-
-                    // Expiry date
-                    if (alert.getExpiryDate() != null) {
-                        Cell dateCell = row.createCell(7);
-                        dateCell.setCellValue(alert.getExpiryDate().format(DATE_FORMATTER));
-                        dateCell.setCellStyle(dateStyle);
-                    } else {
-                        createCell(row, 7, "", dataStyle);
-                    }
-
-                    createCell(row, 8, alert.getDaysRemaining() != null ? alert.getDaysRemaining().intValue() : 0,
-                            numberStyle);
-                    createCell(row, 9, alert.getStatus() != null ? alert.getStatus().name() : "", statusStyle);
-                    createCell(row, 10, alert.getBinLocation(), dataStyle);
-                    createCell(row, 11, alert.getSupplierName(), dataStyle);
-                    createCell(row, 12, alert.getCategoryName(), dataStyle);
+            int[] rowNum = { 1 };
+            inventoryService.forEachExpiringAlert(days, categoryId, warehouseType, statusFilter, alert -> {
+                Row row = sheet.createRow(rowNum[0]++);
+
+                // Choose style based on status
+                CellStyle statusStyle = alert.getStatus() == BatchStatus.EXPIRED ? warningStyle : dataStyle;
+
+                createCell(row, 0, rowNum[0] - 1, numberStyle);
+                createCell(row, 1, alert.getItemCode(), dataStyle);
+                createCell(row, 2, alert.getItemName(), dataStyle);
+                createCell(row, 3, alert.getLotNumber(), dataStyle);
+                createCell(row, 4, alert.getWarehouseType() != null ? alert.getWarehouseType().name() : "",
+                        dataStyle);
+                createCell(row, 5, alert.getQuantityOnHand() != null ? alert.getQuantityOnHand() : 0, numberStyle);
+                createCell(row, 6, alert.getUnitName(), dataStyle);
+
+                // Expiry date
+                if (alert.getExpiryDate() != null) {
+                    Cell dateCell = row.createCell(7);
+                    dateCell.setCellValue(alert.getExpiryDate().format(DATE_FORMATTER));
+                    dateCell.setCellStyle(dateStyle);
+                } else {
+                    createCell(row, 7, "", dataStyle);
                 }
-            }
-
-            // Auto-size columns
-            for (int i = 0; i < headers.length; i++) {
-                sheet.autoSizeColumn(i);
-            }
 
-            // Freeze header row
-            sheet.createFreezePane(0, 1);
+                createCell(row, 8, alert.getDaysRemaining() != null ? alert.getDaysRemaining().intValue() : 0,
+                        numberStyle);
+                createCell(row, 9, alert.getStatus() != null ? alert.getStatus().name() : "", statusStyle);
+                createCell(row, 10, alert.getBinLocation(), dataStyle);
+                createCell(row, 11, alert.getSupplierName(), dataStyle);
+                createCell(row, 12, alert.getCategoryName(), dataStyle);
+                onRow.accept(rowNum[0] - 1);
+            });
 
+            finishSheet(sheet, headers.length);
             workbook.write(out);
-            log.info("Exported {} expiring alerts to Excel",
-                    response.getAlerts() != null ? response.getAlerts().size() : 0);
-            return out.toByteArray();
+            log.info("Exported {} expiring alerts to Excel", rowNum[0] - 1);
+        } finally {
+            closeWorkbook(workbook);
         }
     }
 
     // =============== HELPER METHODS ===============
 
+    private SXSSFWorkbook createWorkbook() {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_ACCESS_WINDOW);
+        workbook.setCompressTempFiles(true);
+        return workbook;
+    }
+
+    /**
+     * Sheet whose column widths are tracked while rows stream past, so
+     * autoSizeColumn still sees every row after they are flushed
+     */
+    private SXSSFSheet createSheet(SXSSFWorkbook workbook, String name) {
+        SXSSFSheet sheet = workbook.createSheet(name);
+        sheet.trackAllColumnsForAutoSizing();
+        return sheet;
+    }
+
+    private void createHeaderRow(Sheet sheet, String[] headers, CellStyle headerStyle) {
+        Row headerRow = sheet.createRow(0);
+        for (int i = 0; i < headers.length; i++) {
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+
+    private void finishSheet(SXSSFSheet sheet, int columns) {
+        // Auto-size columns
+        for (int i = 0; i < columns; i++) {
+            sheet.autoSizeColumn(i);
+        }
+
+        // Freeze header row
+        sheet.createFreezePane(0, 1);
+    }
+
+    /**
+     * Delete the temp files backing the streamed sheets
+     */
+    private void closeWorkbook(SXSSFWorkbook workbook) throws IOException {
+        workbook.dispose();
+        workbook.close();
+    }
+
     private CellStyle createHeaderStyle(Workbook workbook) {
         CellStyle style = workbook.createCellStyle();
         Font font = workbook.createFont();
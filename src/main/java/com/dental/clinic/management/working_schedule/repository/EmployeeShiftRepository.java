@@ -244,6 +244,27 @@ public interface EmployeeShiftRepository extends JpaRepository<EmployeeShift, St
                         @Param("endDate") LocalDate endDate,
                         @Param("statuses") List<ShiftStatus> statuses);
 
+        /**
+         * Find shifts of several employees within a date range in ONE query.
+         * Work shift is fetched eagerly so callers can read start/end times
+         * without a lazy load per row.
+         * Used by availability search (multi-doctor, multi-day).
+         *
+         * @param employeeIds employee IDs (must not be empty)
+         * @param startDate   start date (inclusive)
+         * @param endDate     end date (inclusive)
+         * @return list of shifts ordered by date and shift start time
+         */
+        @Query("SELECT es FROM EmployeeShift es " +
+                        "JOIN FETCH es.workShift ws " +
+                        "WHERE es.employee.employeeId IN :employeeIds " +
+                        "AND es.workDate BETWEEN :startDate AND :endDate " +
+                        "ORDER BY es.workDate ASC, ws.startTime ASC")
+        List<EmployeeShift> findByEmployeesAndDateRange(
+                        @Param("employeeIds") java.util.Collection<Integer> employeeIds,
+                        @Param("startDate") LocalDate startDate,
+                        @Param("endDate") LocalDate endDate);
+
         /**
          * Find all shifts for an employee on a specific date excluding cancelled
          * shifts.
@@ -5616,6 +5616,158 @@ ALTER TABLE ONLY public.appointment_feedbacks
 
 
 --
--- PostgreSQL database dump complete
+-- Table: code_sequences
+-- Bộ đếm mã nghiệp vụ theo (tiền tố, ngày) - dùng bởi CodeAllocator
+--
+
+CREATE TABLE public.code_sequences (
+    sequence_key VARCHAR(50) PRIMARY KEY,
+    last_value BIGINT NOT NULL,
+    updated_at TIMESTAMP WITHOUT TIME ZONE
+);
+
+
+--
+-- Keyset (cursor) pagination: (sort key, id) indexes
+--
+
+CREATE INDEX idx_appointments_start_time_id ON public.appointments USING btree (appointment_start_time, appointment_id);
+
+CREATE INDEX idx_invoices_created_at_id ON public.invoices USING btree (created_at, invoice_id);
+
+CREATE INDEX idx_storage_transactions_date_id ON public.storage_transactions USING btree (transaction_date, transaction_id);
+
+
+--
+-- Appointment search documents (P3.3 searchCode): one folded text row per appointment
+--
+
+CREATE TABLE public.appointment_search_documents (
+    appointment_id integer NOT NULL,
+    search_text text NOT NULL,
+    updated_at timestamp without time zone NOT NULL,
+    CONSTRAINT appointment_search_documents_pkey PRIMARY KEY (appointment_id)
+);
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_appointment_search_documents_trgm ON public.appointment_search_documents USING gin (search_text gin_trgm_ops);
+
+
+--
+-- NO_SHOW sweeper: late SCHEDULED appointments by start time
+--
+
+CREATE INDEX idx_appointments_status_start_time ON public.appointments USING btree (status, appointment_start_time);
+
+
+--
+-- Transactional outbox: emails / notifications delivered after commit
+--
+
+CREATE TABLE public.outbox_messages (
+    outbox_id bigint GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    message_type character varying(50) NOT NULL,
+    reference character varying(100),
+    payload text NOT NULL,
+    status character varying(20) NOT NULL,
+    attempts integer NOT NULL,
+    next_attempt_at timestamp without time zone NOT NULL,
+    locked_until timestamp without time zone,
+    last_error text,
+    created_at timestamp without time zone NOT NULL,
+    processed_at timestamp without time zone,
+    CONSTRAINT outbox_messages_pkey PRIMARY KEY (outbox_id)
+);
+
+CREATE INDEX idx_outbox_messages_status_next_attempt ON public.outbox_messages USING btree (status, next_attempt_at);
+
+
 --
+-- Dashboard daily fact rollups (maintained by DashboardRollupService)
+--
+
+CREATE TABLE public.daily_invoice_facts (
+    fact_date date NOT NULL,
+    invoice_type character varying(20) NOT NULL,
+    payment_status character varying(20) NOT NULL,
+    invoice_count bigint NOT NULL,
+    total_amount numeric(18,2) NOT NULL,
+    paid_amount numeric(18,2) NOT NULL,
+    remaining_debt numeric(18,2) NOT NULL,
+    CONSTRAINT daily_invoice_facts_pkey PRIMARY KEY (fact_date, invoice_type, payment_status)
+);
 
+CREATE TABLE public.daily_payment_facts (
+    fact_date date NOT NULL,
+    payment_method character varying(20) NOT NULL,
+    payment_count bigint NOT NULL,
+    total_amount numeric(18,2) NOT NULL,
+    CONSTRAINT daily_payment_facts_pkey PRIMARY KEY (fact_date, payment_method)
+);
+
+CREATE TABLE public.daily_storage_facts (
+    fact_date date NOT NULL,
+    transaction_type character varying(20) NOT NULL,
+    status character varying(20) NOT NULL,
+    export_type character varying(20) NOT NULL,
+    transaction_count bigint NOT NULL,
+    total_value numeric(18,2) NOT NULL,
+    expired_value numeric(18,2) NOT NULL,
+    CONSTRAINT daily_storage_facts_pkey PRIMARY KEY (fact_date, transaction_type, status, export_type)
+);
+
+CREATE TABLE public.daily_appointment_facts (
+    fact_date date NOT NULL,
+    start_hour integer NOT NULL,
+    status character varying(20) NOT NULL,
+    appointment_count bigint NOT NULL,
+    CONSTRAINT daily_appointment_facts_pkey PRIMARY KEY (fact_date, start_hour, status)
+);
+
+
+--
+-- Batch purchase cost per base unit (export COGS valuation); existing rows are
+-- backfilled at startup by BatchUnitCostBackfillService
+--
+
+ALTER TABLE public.item_batches ADD COLUMN IF NOT EXISTS unit_cost numeric(15,2);
+
+
+--
+-- Inventory summary: base unit lookup per item (ItemMasterRepository.INVENTORY_SUMMARY_ROWS)
+--
+
+CREATE INDEX idx_item_units_item_master_base ON public.item_units USING btree (item_master_id, is_base_unit);
+
+
+--
+-- On-hand stock per item and warehouse type = SUM(item_batches.quantity_on_hand),
+-- maintained by StockBalanceService (replaces item_masters.cached_total_quantity)
+--
+
+CREATE TABLE public.item_stock_balances (
+    item_master_id bigint NOT NULL,
+    warehouse_type character varying(20) NOT NULL,
+    quantity_on_hand integer NOT NULL,
+    updated_at timestamp(6) without time zone NOT NULL,
+    CONSTRAINT item_stock_balances_pkey PRIMARY KEY (item_master_id, warehouse_type)
+);
+
+
+--
+-- Permission catalogue versions used to encode token permissions (PermissionCatalogue),
+-- so tokens stay decodable across restarts and nodes
+--
+
+CREATE TABLE public.permission_catalogue_versions (
+    version character varying(16) NOT NULL,
+    permission_ids text NOT NULL,
+    created_at timestamp(6) without time zone,
+    CONSTRAINT permission_catalogue_versions_pkey PRIMARY KEY (version)
+);
+
+
+--
+-- PostgreSQL database dump complete
+--
@@ -0,0 +1,168 @@
+package com.dental.clinic.management.authentication.service;
+
+import com.dental.clinic.management.authentication.service.revocation.InMemoryTokenRevocationStore;
+import com.dental.clinic.management.utils.security.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TokenBlacklistService
+ * The revocation store is a spied InMemoryTokenRevocationStore
+ */
+class TokenBlacklistServiceTest {
+
+    private JwtDecoder jwtDecoder;
+    private InMemoryTokenRevocationStore store;
+    private VerifiedTokenCache verifiedTokenCache;
+    private TokenBlacklistService service;
+
+    @BeforeEach
+    void setUp() {
+        jwtDecoder = mock(JwtDecoder.class);
+        when(jwtDecoder.decode(anyString())).thenAnswer(inv -> Jwt.withTokenValue(inv.getArgument(0))
+                .header("alg", "HS512")
+                .subject("user")
+                .issuedAt(Instant.now())
+                .expiresAt(Instant.now().plus(Duration.ofHours(1)))
+                .build());
+        store = spy(new InMemoryTokenRevocationStore());
+        verifiedTokenCache = mock(VerifiedTokenCache.class);
+        service = new TokenBlacklistService(jwtDecoder, store, verifiedTokenCache);
+        ReflectionTestUtils.setField(service, "bloomCapacity", 1000);
+    }
+
+    private static String hash(String token) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    @Test
+    @DisplayName("Revoked token is rejected; other tokens are answered by the filter alone")
+    void blacklistToken_thenRejected() {
+        service.initialize();
+
+        service.blacklistToken("token-a");
+
+        assertTrue(service.isTokenBlacklisted("token-a"));
+        assertFalse(service.isTokenBlacklisted("token-b"));
+        verify(verifiedTokenCache).evict("token-a");
+        // Only the filter hit was confirmed against the store
+        verify(store, times(1)).isRevoked(anyString());
+    }
+
+    @Test
+    @DisplayName("Revocations already in the store are loaded at startup")
+    void initialize_loadsStore() throws Exception {
+        store.revoke(hash("token-a"), Duration.ofHours(1));
+
+        service.initialize();
+
+        assertTrue(service.isTokenBlacklisted("token-a"));
+    }
+
+    @Test
+    @DisplayName("Store down at startup: every token is checked against the store until a retry loads the filter")
+    void initialize_storeDown_failsClosedUntilLoaded() throws Exception {
+        store.revoke(hash("token-a"), Duration.ofHours(1));
+        doThrow(new QueryTimeoutException("redis down")).doCallRealMethod().when(store).activeHashes();
+
+        service.initialize();
+
+        // The empty filter is not trusted
+        assertTrue(service.isTokenBlacklisted("token-a"));
+        assertFalse(service.isTokenBlacklisted("token-b"));
+        verify(store, times(2)).isRevoked(anyString());
+
+        service.retryInitialization();
+        clearInvocations(store);
+
+        assertTrue(service.isTokenBlacklisted("token-a"));
+        assertFalse(service.isTokenBlacklisted("token-b"));
+        verify(store, times(1)).isRevoked(anyString());
+    }
+
+    @Test
+    @DisplayName("Store unreachable before the filter is loaded: tokens are rejected")
+    void isTokenBlacklisted_notLoadedAndStoreDown_rejected() {
+        doThrow(new QueryTimeoutException("redis down")).when(store).activeHashes();
+        doThrow(new QueryTimeoutException("redis down")).when(store).isRevoked(anyString());
+
+        service.initialize();
+
+        assertTrue(service.isTokenBlacklisted("token-b"));
+    }
+
+    @Test
+    @DisplayName("Resync picks up revocations whose notification was missed")
+    void resyncFilter_recoversMissedNotification() throws Exception {
+        service.initialize();
+        // Revoked on another node while this one was disconnected from pub/sub
+        store.revoke(hash("token-c"), Duration.ofHours(1));
+        assertFalse(service.isTokenBlacklisted("token-c"));
+
+        service.resyncFilter();
+
+        assertTrue(service.isTokenBlacklisted("token-c"));
+    }
+
+    @Test
+    @DisplayName("Notification from another node is applied to the filter and the verified-token cache")
+    @SuppressWarnings("unchecked")
+    void subscription_addsToFilter() throws Exception {
+        Consumer<String>[] listener = new Consumer[1];
+        doAnswer(inv -> listener[0] = inv.getArgument(0)).when(store).subscribe(any());
+        service.initialize();
+
+        store.revoke(hash("token-d"), Duration.ofHours(1));
+        listener[0].accept(hash("token-d"));
+
+        assertTrue(service.isTokenBlacklisted("token-d"));
+        verify(verifiedTokenCache).evictByHash(hash("token-d"));
+    }
+
+    @Test
+    @DisplayName("Failed subscription is retried and followed by a reload")
+    void retryInitialization_resubscribes() {
+        doThrow(new QueryTimeoutException("redis down")).doCallRealMethod().when(store).subscribe(any());
+        service.initialize();
+        clearInvocations(store);
+
+        service.retryInitialization();
+
+        verify(store).subscribe(any());
+        verify(store).activeHashes();
+
+        // Both done: nothing more to retry
+        clearInvocations(store);
+        service.retryInitialization();
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    @DisplayName("Invalid token is ignored, but a store failure is not swallowed")
+    void blacklistToken_errors() {
+        service.initialize();
+        when(jwtDecoder.decode("expired")).thenThrow(new BadJwtException("expired"));
+        doThrow(new QueryTimeoutException("redis down")).when(store).revoke(anyString(), any());
+
+        assertDoesNotThrow(() -> service.blacklistToken("expired"));
+        assertThrows(QueryTimeoutException.class, () -> service.blacklistToken("token-e"));
+    }
+}
@@ -0,0 +1,204 @@
+package com.dental.clinic.management.booking_appointment.service;
+
+import com.dental.clinic.management.booking_appointment.domain.DentalService;
+import com.dental.clinic.management.booking_appointment.domain.Room;
+import com.dental.clinic.management.booking_appointment.domain.RoomService;
+import com.dental.clinic.management.booking_appointment.domain.RoomServiceId;
+import com.dental.clinic.management.booking_appointment.dto.request.BatchCreateAppointmentRequest;
+import com.dental.clinic.management.booking_appointment.dto.request.BatchCreateAppointmentRequest.BatchAppointmentItem;
+import com.dental.clinic.management.booking_appointment.dto.response.BatchCreateAppointmentResponse;
+import com.dental.clinic.management.booking_appointment.dto.response.BatchCreateAppointmentResponse.ItemResult;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentParticipantRepository;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentPlanItemRepository;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
+import com.dental.clinic.management.booking_appointment.repository.BookingDentalServiceRepository;
+import com.dental.clinic.management.booking_appointment.repository.PatientPlanItemRepository;
+import com.dental.clinic.management.booking_appointment.repository.RoomRepository;
+import com.dental.clinic.management.booking_appointment.repository.RoomServiceRepository;
+import com.dental.clinic.management.dashboard.service.DashboardRollupService;
+import com.dental.clinic.management.employee.domain.Employee;
+import com.dental.clinic.management.employee.repository.EmployeeRepository;
+import com.dental.clinic.management.outbox.service.OutboxService;
+import com.dental.clinic.management.patient.domain.Patient;
+import com.dental.clinic.management.patient.repository.PatientRepository;
+import com.dental.clinic.management.service.service.ClinicalRulesValidationService;
+import com.dental.clinic.management.treatment_plans.repository.PatientTreatmentPlanRepository;
+import com.dental.clinic.management.utils.IdGenerator;
+import com.dental.clinic.management.working_schedule.domain.EmployeeShift;
+import com.dental.clinic.management.working_schedule.domain.WorkShift;
+import com.dental.clinic.management.working_schedule.repository.EmployeeShiftRepository;
+import com.dental.clinic.management.working_schedule.repository.HolidayDateRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AppointmentBatchCreationService
+ * Items of one batch are validated against each other in memory
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AppointmentBatchCreationServiceTest {
+
+    private static final DateTimeFormatter START_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    @Mock private AppointmentCreationService appointmentCreationService;
+    @Mock private PatientRepository patientRepository;
+    @Mock private EmployeeRepository employeeRepository;
+    @Mock private RoomRepository roomRepository;
+    @Mock private RoomServiceRepository roomServiceRepository;
+    @Mock private BookingDentalServiceRepository dentalServiceRepository;
+    @Mock private PatientPlanItemRepository patientPlanItemRepository;
+    @Mock private AppointmentPlanItemRepository appointmentPlanItemRepository;
+    @Mock private PatientTreatmentPlanRepository treatmentPlanRepository;
+    @Mock private EmployeeShiftRepository employeeShiftRepository;
+    @Mock private HolidayDateRepository holidayDateRepository;
+    @Mock private AppointmentRepository appointmentRepository;
+    @Mock private AppointmentParticipantRepository appointmentParticipantRepository;
+    @Mock private ClinicalRulesValidationService clinicalRulesValidationService;
+    @Mock private SlotHoldService slotHoldService;
+    @Mock private AppointmentSearchIndexer searchIndexer;
+    @Mock private IdGenerator idGenerator;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private DashboardRollupService rollupService;
+    @Mock private OutboxService outboxService;
+
+    @InjectMocks
+    private AppointmentBatchCreationService batchCreationService;
+
+    private final LocalDate day = LocalDate.now().plusDays(7);
+
+    @BeforeEach
+    void setUp() {
+        Patient patient = new Patient();
+        patient.setPatientId(1);
+        patient.setPatientCode("BN-001");
+        patient.setIsActive(true);
+        patient.setIsBookingBlocked(false);
+        when(patientRepository.findOneByPatientCode("BN-001")).thenReturn(Optional.of(patient));
+
+        Employee doctor = new Employee();
+        doctor.setEmployeeId(10);
+        doctor.setEmployeeCode("EMP-10");
+        when(employeeRepository.findActiveEmployeesWithSpecializations()).thenReturn(List.of(doctor));
+
+        Room room1 = room("GHE01");
+        Room room2 = room("GHE02");
+        when(roomRepository.findByIsActiveTrue()).thenReturn(List.of(room1, room2));
+
+        DentalService service = new DentalService();
+        service.setServiceId(5);
+        service.setServiceCode("SV-CLEAN");
+        service.setIsActive(true);
+        service.setDefaultDurationMinutes(30);
+        service.setDefaultBufferMinutes(0);
+        when(dentalServiceRepository.findByServiceCodeIn(anyList())).thenReturn(List.of(service));
+
+        RoomService rs1 = new RoomService();
+        rs1.setId(new RoomServiceId("GHE01", 5));
+        RoomService rs2 = new RoomService();
+        rs2.setId(new RoomServiceId("GHE02", 5));
+        when(roomServiceRepository.findByIdRoomIdIn(anyCollection())).thenReturn(List.of(rs1, rs2));
+
+        WorkShift morning = new WorkShift();
+        morning.setStartTime(LocalTime.of(8, 0));
+        morning.setEndTime(LocalTime.of(17, 0));
+        EmployeeShift shift = new EmployeeShift();
+        shift.setEmployee(doctor);
+        shift.setWorkDate(day);
+        shift.setWorkShift(morning);
+        when(employeeShiftRepository.findByEmployeesAndDateRange(anyCollection(), any(), any()))
+                .thenReturn(List.of(shift));
+
+        AtomicInteger sequence = new AtomicInteger();
+        when(idGenerator.generateAppointmentCode(any()))
+                .thenAnswer(inv -> String.format("APT-TEST-%03d", sequence.incrementAndGet()));
+    }
+
+    private Room room(String code) {
+        Room room = new Room();
+        room.setRoomId(code);
+        room.setRoomCode(code);
+        room.setIsActive(true);
+        return room;
+    }
+
+    private BatchAppointmentItem item(String roomCode, LocalTime time) {
+        return BatchAppointmentItem.builder()
+                .employeeCode("EMP-10")
+                .roomCode(roomCode)
+                .serviceCodes(List.of("SV-CLEAN"))
+                .appointmentStartTime(LocalDateTime.of(day, time).format(START_TIME_FORMAT))
+                .build();
+    }
+
+    private BatchCreateAppointmentResponse create(BatchAppointmentItem... items) {
+        return batchCreationService.createAppointments(BatchCreateAppointmentRequest.builder()
+                .patientCode("BN-001")
+                .appointments(List.of(items))
+                .build());
+    }
+
+    @Test
+    @DisplayName("Non-overlapping items are all created with one code each")
+    void createAppointments_allValid() {
+        BatchCreateAppointmentResponse response = create(
+                item("GHE01", LocalTime.of(9, 0)),
+                item("GHE01", LocalTime.of(10, 0)));
+
+        assertEquals(2, response.getCreatedCount());
+        assertEquals(0, response.getFailedCount());
+        assertTrue(response.getResults().stream().allMatch(ItemResult::getSuccess));
+        verify(idGenerator, times(2)).generateAppointmentCode(day);
+    }
+
+    @Test
+    @DisplayName("Item overlapping an earlier item of the same batch is rejected")
+    void createAppointments_overlapWithinBatch_rejected() {
+        // Submitted later-first: the earliest start time is validated (and wins) first
+        BatchCreateAppointmentResponse response = create(
+                item("GHE02", LocalTime.of(9, 15)),
+                item("GHE01", LocalTime.of(9, 0)));
+
+        assertEquals(1, response.getCreatedCount());
+        ItemResult later = response.getResults().get(0);
+        ItemResult earlier = response.getResults().get(1);
+        assertTrue(earlier.getSuccess());
+        assertFalse(later.getSuccess());
+        assertEquals("EMPLOYEE_SLOT_TAKEN", later.getErrorKey());
+    }
+
+    @Test
+    @DisplayName("Invalid item is reported by index while the rest is created")
+    void createAppointments_partialFailure() {
+        BatchCreateAppointmentResponse response = create(
+                item("GHE01", LocalTime.of(9, 0)),
+                item("NO-ROOM", LocalTime.of(11, 0)),
+                item("GHE01", LocalTime.of(18, 0)));
+
+        assertEquals(1, response.getCreatedCount());
+        assertEquals("ROOM_NOT_FOUND", response.getResults().get(1).getErrorKey());
+        assertEquals("EMPLOYEE_SHIFT_NOT_COVERING", response.getResults().get(2).getErrorKey());
+        verify(clinicalRulesValidationService, times(1))
+                .validateAppointmentServices(eq(1), anyList(), eq(day));
+    }
+}
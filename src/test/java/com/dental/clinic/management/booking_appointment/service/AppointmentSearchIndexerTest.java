@@ -0,0 +1,87 @@
+package com.dental.clinic.management.booking_appointment.service;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AppointmentSearchIndexer
+ */
+class AppointmentSearchIndexerTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private EntityManager entityManager;
+    private AppointmentSearchIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        entityManager = mock(EntityManager.class);
+        indexer = new AppointmentSearchIndexer(jdbcTemplate);
+        ReflectionTestUtils.setField(indexer, "entityManager", entityManager);
+    }
+
+    @Test
+    @DisplayName("Refresh upserts exactly the given appointments in one statement")
+    void refreshAppointments_singleUpsert() {
+        indexer.refreshAppointments(List.of(7, 8, 9));
+
+        verify(jdbcTemplate).update(
+                argThat((String sql) -> sql.contains("a.appointment_id IN (?, ?, ?)")
+                        && sql.contains("ON CONFLICT (appointment_id) DO UPDATE")),
+                eq(7), eq(8), eq(9));
+    }
+
+    @Test
+    @DisplayName("Empty refresh touches neither the persistence context nor the database")
+    void refreshAppointments_empty_noop() {
+        indexer.refreshAppointments(List.of());
+        indexer.refreshAppointments(null);
+
+        verifyNoInteractions(jdbcTemplate, entityManager);
+    }
+
+    @Test
+    @DisplayName("Pending JPA changes are flushed before the upsert reads them")
+    void refresh_flushesInsideTransaction() {
+        when(entityManager.isJoinedToTransaction()).thenReturn(true);
+
+        indexer.refreshForPatient(3);
+
+        InOrder order = inOrder(entityManager, jdbcTemplate);
+        order.verify(entityManager).flush();
+        order.verify(jdbcTemplate).update(contains("a.patient_id = ?"), eq(3));
+    }
+
+    @Test
+    @DisplayName("Renamed employee refreshes both primary and participant appointments")
+    void refreshForEmployee_coversParticipants() {
+        indexer.refreshForEmployee(12);
+
+        verify(jdbcTemplate).update(
+                argThat((String sql) -> sql.contains("a.employee_id = ?")
+                        && sql.contains("x.employee_id = ?")),
+                eq(12), eq(12));
+        verify(entityManager, never()).flush();
+    }
+
+    @Test
+    @DisplayName("Search text is folded to lower-case ASCII")
+    void upsert_foldsSearchText() {
+        indexer.refreshForRoom("GHE01");
+
+        verify(jdbcTemplate).update(
+                argThat((String sql) -> sql.contains("LOWER(TRANSLATE(CONCAT_WS(")),
+                eq("GHE01"));
+    }
+}
@@ -0,0 +1,142 @@
+package com.dental.clinic.management.booking_appointment.service;
+
+import com.dental.clinic.management.booking_appointment.repository.AppointmentAuditLogRepository;
+import com.dental.clinic.management.booking_appointment.repository.AppointmentRepository;
+import com.dental.clinic.management.booking_appointment.repository.PatientPlanItemRepository;
+import com.dental.clinic.management.clinical_records.service.ClinicalRecordService;
+import com.dental.clinic.management.dashboard.service.DashboardRollupService;
+import com.dental.clinic.management.employee.repository.EmployeeRepository;
+import com.dental.clinic.management.patient.repository.PatientRepository;
+import com.dental.clinic.management.treatment_plans.repository.PatientPlanPhaseRepository;
+import com.dental.clinic.management.treatment_plans.repository.PatientTreatmentPlanRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for AppointmentStatusService bulk NO_SHOW chunks
+ */
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AppointmentStatusServiceTest {
+
+    @Mock private ClinicalRecordService clinicalRecordService;
+    @Mock private AppointmentRepository appointmentRepository;
+    @Mock private AppointmentAuditLogRepository auditLogRepository;
+    @Mock private EmployeeRepository employeeRepository;
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private DashboardRollupService rollupService;
+    @Mock private PatientPlanPhaseRepository phaseRepository;
+    @Mock private PatientPlanItemRepository itemRepository;
+    @Mock private EntityManager entityManager;
+    @Mock private PatientTreatmentPlanRepository planRepository;
+    @Mock private PatientRepository patientRepository;
+
+    @InjectMocks
+    private AppointmentStatusService statusService;
+
+    private final LocalDateTime now = LocalDateTime.of(2025, 11, 15, 10, 0);
+
+    private static ResultSet appointmentRow(int appointmentId, int patientId, LocalDateTime start) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getInt("appointment_id")).thenReturn(appointmentId);
+        when(rs.getString("appointment_code")).thenReturn("APT-20251115-" + appointmentId);
+        when(rs.getInt("patient_id")).thenReturn(patientId);
+        when(rs.getTimestamp("appointment_start_time")).thenReturn(Timestamp.valueOf(start));
+        return rs;
+    }
+
+    private static ResultSet patientRow(String patientCode, boolean newlyBlocked) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("patient_code")).thenReturn(patientCode);
+        when(rs.getBoolean("newly_blocked")).thenReturn(newlyBlocked);
+        return rs;
+    }
+
+    private void returnRows(String sqlPrefix, ResultSet... rows) {
+        when(jdbcTemplate.query(startsWith(sqlPrefix), any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(inv -> {
+                    RowMapper<?> mapper = inv.getArgument(1);
+                    List<Object> mapped = new ArrayList<>();
+                    for (int i = 0; i < rows.length; i++) {
+                        mapped.add(mapper.mapRow(rows[i], i));
+                    }
+                    return mapped;
+                });
+    }
+
+    @Test
+    @DisplayName("Nothing late: no side effects")
+    void markLate_noneClaimed() {
+        returnRows("UPDATE appointments");
+
+        AppointmentStatusService.NoShowSweepResult result =
+                statusService.markLateAppointmentsAsNoShow(now.minusMinutes(30), now, 50);
+
+        assertEquals(0, result.marked());
+        assertTrue(result.blockedPatientCodes().isEmpty());
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Only patients the chunk itself blocked are reported")
+    void markLate_reportsNewlyBlockedOnly() throws Exception {
+        returnRows("UPDATE appointments",
+                appointmentRow(1, 7, now.minusHours(2)),
+                appointmentRow(2, 7, now.minusHours(1)),
+                appointmentRow(3, 8, now.minusHours(1)));
+        // BN-8 was already blocked by an earlier chunk of the same sweep (same blocked_at)
+        returnRows("UPDATE patients", patientRow("BN-7", true), patientRow("BN-8", false));
+
+        AppointmentStatusService.NoShowSweepResult result =
+                statusService.markLateAppointmentsAsNoShow(now.minusMinutes(30), now, 50);
+
+        assertEquals(3, result.marked());
+        assertEquals(2, result.patients());
+        assertEquals(List.of("BN-7"), result.blockedPatientCodes());
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(String.class), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Patient counters are one statement: changed_at, then (id, missed, latest code) per patient")
+    void markLate_singlePatientStatement() throws Exception {
+        returnRows("UPDATE appointments",
+                appointmentRow(1, 7, now.minusHours(2)),
+                appointmentRow(2, 7, now.minusHours(1)),
+                appointmentRow(3, 8, now.minusHours(1)));
+        returnRows("UPDATE patients");
+
+        statusService.markLateAppointmentsAsNoShow(now.minusMinutes(30), now, 50);
+
+        ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate, times(2)).query(sql.capture(), any(RowMapper.class), args.capture());
+        assertTrue(sql.getValue().contains("RETURNING p.patient_code"));
+
+        Object[] patientArgs = args.getValue();
+        assertArrayEquals(new Object[] {
+                Timestamp.valueOf(now),
+                7, 2, "APT-20251115-2",
+                8, 1, "APT-20251115-3" }, patientArgs);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyList());
+    }
+}
@@ -0,0 +1,110 @@
+package com.dental.clinic.management.booking_appointment.service.hold;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InMemorySlotHoldStore
+ */
+class InMemorySlotHoldStoreTest {
+
+    private final InMemorySlotHoldStore store = new InMemorySlotHoldStore();
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+
+    private SlotHold hold(String user, Integer doctorId, String roomId, LocalDateTime from, int minutes,
+            LocalDateTime expiresAt) {
+        return SlotHold.builder()
+                .holdId(UUID.randomUUID().toString())
+                .doctorId(doctorId)
+                .roomId(roomId)
+                .participantIds(List.of())
+                .startTime(from)
+                .endTime(from.plusMinutes(minutes))
+                .heldBy(user)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private SlotHold hold(String user, Integer doctorId, String roomId) {
+        return hold(user, doctorId, roomId, start, 30, LocalDateTime.now().plusMinutes(5));
+    }
+
+    @Test
+    @DisplayName("Overlapping hold of another user on the same room is refused")
+    void tryPlace_sameRoomOtherUser_refused() {
+        assertTrue(store.tryPlace(hold("alice", 1, "GHE01")));
+        assertFalse(store.tryPlace(hold("bob", 2, "GHE01")));
+        // Different doctor and room: no conflict
+        assertTrue(store.tryPlace(hold("bob", 2, "GHE02")));
+    }
+
+    @Test
+    @DisplayName("A user's own holds never block each other")
+    void tryPlace_sameUser_allowed() {
+        assertTrue(store.tryPlace(hold("alice", 1, "GHE01")));
+        assertTrue(store.tryPlace(hold("alice", 1, "GHE01")));
+    }
+
+    @Test
+    @DisplayName("Expired holds are neither returned nor blocking")
+    void expiredHold_isIgnored() {
+        SlotHold expired = hold("alice", 1, "GHE01", start, 30, LocalDateTime.now().minusSeconds(1));
+        assertTrue(store.tryPlace(expired));
+
+        assertTrue(store.find(expired.getHoldId()).isEmpty());
+        assertTrue(store.findOverlapping(start, start.plusHours(1)).isEmpty());
+        assertTrue(store.tryPlace(hold("bob", 1, "GHE01")));
+    }
+
+    @Test
+    @DisplayName("Released hold frees the slot")
+    void release_freesSlot() {
+        SlotHold first = hold("alice", 1, "GHE01");
+        assertTrue(store.tryPlace(first));
+        store.release(first.getHoldId());
+
+        assertTrue(store.find(first.getHoldId()).isEmpty());
+        assertTrue(store.tryPlace(hold("bob", 1, "GHE01")));
+    }
+
+    @Test
+    @DisplayName("Concurrent users racing for one slot: exactly one wins")
+    void tryPlace_concurrentUsers_singleWinner() throws Exception {
+        int users = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(users);
+        CountDownLatch go = new CountDownLatch(1);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < users; i++) {
+                SlotHold candidate = hold("user" + i, 100 + i, "GHE01");
+                results.add(pool.submit(() -> {
+                    go.await();
+                    return store.tryPlace(candidate);
+                }));
+            }
+            go.countDown();
+
+            int placed = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    placed++;
+                }
+            }
+            assertEquals(1, placed);
+            assertEquals(1, store.findOverlapping(start, start.plusMinutes(30)).size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
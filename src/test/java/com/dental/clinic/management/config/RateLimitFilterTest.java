@@ -0,0 +1,118 @@
+package com.dental.clinic.management.config;
+
+import com.dental.clinic.management.utils.ratelimit.TokenBucketStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RateLimitFilter
+ */
+class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private TokenBucketStore store;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        store = mock(TokenBucketStore.class);
+        when(store.tryConsume(anyString(), any())).thenReturn(new TokenBucketStore.Result(true, 0));
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new RateLimitFilter(store, meterRegistry, objectMapper);
+        ReflectionTestUtils.setField(filter, "enabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request, FilterChain chain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private static MockHttpServletRequest post(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr("10.0.0.7");
+        return request;
+    }
+
+    @Test
+    @DisplayName("Rejected request gets 429, Retry-After and the RestResponse error body")
+    void rejected_429() throws Exception {
+        when(store.tryConsume(anyString(), any())).thenReturn(new TokenBucketStore.Result(false, 90_500));
+        FilterChain chain = mock(FilterChain.class);
+
+        MockHttpServletResponse response = run(post("/api/v1/auth/login"), chain);
+
+        verifyNoInteractions(chain);
+        assertEquals(429, response.getStatus());
+        assertEquals("91", response.getHeader("Retry-After"));
+        JsonNode body = objectMapper.readTree(response.getContentAsByteArray());
+        assertEquals(429, body.get("statusCode").asInt());
+        assertEquals("error.rate.limit.exceeded", body.get("error").asText());
+        assertEquals(91, body.get("data").get("retryAfterSeconds").asLong());
+        assertEquals(1.0, meterRegistry.counter("rate_limit.rejected", "policy", "login").count());
+    }
+
+    @Test
+    @DisplayName("IP buckets use the remote address, not a client supplied X-Forwarded-For")
+    void ipKey_ignoresForwardedHeader() throws Exception {
+        MockHttpServletRequest request = post("/api/v1/auth/login");
+        request.addHeader("X-Forwarded-For", "1.2.3.4");
+
+        run(request, mock(FilterChain.class));
+
+        verify(store).tryConsume(eq("login:ip:10.0.0.7"), any());
+    }
+
+    @Test
+    @DisplayName("USER policies key on the authenticated account")
+    void userKey_authenticated() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("receptionist1", null, List.of()));
+
+        run(post("/api/v1/appointments/batch"), mock(FilterChain.class));
+
+        verify(store).tryConsume(eq("booking-batch:user:receptionist1"),
+                argThat(policy -> policy.capacity() == 10));
+    }
+
+    @Test
+    @DisplayName("Routes without a policy and store failures pass through")
+    void passThrough() throws Exception {
+        FilterChain chain = mock(FilterChain.class);
+        MockHttpServletRequest unlimited = new MockHttpServletRequest("GET", "/api/v1/patients");
+        run(unlimited, chain);
+        verify(store, never()).tryConsume(anyString(), any());
+
+        when(store.tryConsume(anyString(), any())).thenThrow(new IllegalStateException("redis down"));
+        MockHttpServletRequest login = post("/api/v1/auth/login");
+        MockHttpServletResponse response = run(login, chain);
+
+        verify(chain).doFilter(eq(unlimited), any());
+        verify(chain).doFilter(eq(login), any());
+        assertEquals(200, response.getStatus());
+        assertEquals(1.0, meterRegistry.counter("rate_limit.store.errors").count());
+    }
+}
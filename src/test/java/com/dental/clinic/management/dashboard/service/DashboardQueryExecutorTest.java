@@ -0,0 +1,110 @@
+package com.dental.clinic.management.dashboard.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DashboardQueryExecutor
+ */
+class DashboardQueryExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PlatformTransactionManager transactionManager;
+    private DashboardQueryExecutor queryExecutor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionManager = mock(PlatformTransactionManager.class);
+        queryExecutor = new DashboardQueryExecutor(meterRegistry, transactionManager, 2, 10, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queryExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("Timed-out query answers 504 and its pool thread is interrupted")
+    void await_timeout_interruptsQuery() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        CompletableFuture<Integer> query = queryExecutor.async(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+            return 1;
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> queryExecutor.await(query, "slow"));
+
+        assertEquals(HttpStatus.GATEWAY_TIMEOUT, e.getStatusCode());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.counter("dashboard.query.timeouts").count());
+    }
+
+    @Test
+    @DisplayName("Query runs in a read-only transaction carrying the timeout as statement timeout")
+    void async_runsInTimedReadOnlyTransaction() {
+        assertEquals(42, queryExecutor.await(queryExecutor.async(() -> 42), "answer"));
+
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        verify(transactionManager).getTransaction(definition.capture());
+        assertTrue(definition.getValue().isReadOnly());
+        // Never joins a caller's transaction (caller-runs when the pool is full)
+        assertEquals(TransactionDefinition.PROPAGATION_REQUIRES_NEW, definition.getValue().getPropagationBehavior());
+        // 200 ms rounded up to whole seconds
+        assertEquals(1, definition.getValue().getTimeout());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Query failure reaches the caller unwrapped")
+    void await_failure_rethrowsCause() {
+        CompletableFuture<Integer> query = queryExecutor.async(() -> {
+            throw new IllegalArgumentException("boom");
+        });
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> queryExecutor.await(query, "failing"));
+        assertEquals("boom", e.getMessage());
+    }
+
+    @Test
+    @DisplayName("Within a scope identical sub-queries run once across pool threads")
+    void memoize_sharedAcrossAsyncQueries() {
+        AtomicInteger runs = new AtomicInteger();
+        int total = queryExecutor.withScope(() -> {
+            CompletableFuture<Integer> first = queryExecutor.async(
+                    () -> queryExecutor.memoize("key", runs::incrementAndGet));
+            CompletableFuture<Integer> second = queryExecutor.async(
+                    () -> queryExecutor.memoize("key", runs::incrementAndGet));
+            return queryExecutor.await(first, "first") + queryExecutor.await(second, "second");
+        });
+
+        assertEquals(1, runs.get());
+        assertEquals(2, total);
+    }
+}
@@ -0,0 +1,124 @@
+package com.dental.clinic.management.dashboard.service;
+
+import com.dental.clinic.management.dashboard.service.DashboardRollupService.Fact;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for DashboardRollupService
+ */
+class DashboardRollupServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 11, 10);
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private DashboardRollupService rollupService;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        rollupService = new DashboardRollupService(jdbcTemplate, mock(PlatformTransactionManager.class),
+                meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void verifyRebuilt(String table, LocalDate from, LocalDate to) {
+        verify(jdbcTemplate).update("DELETE FROM " + table + " WHERE fact_date BETWEEN ? AND ?",
+                Date.valueOf(from), Date.valueOf(to));
+        verify(jdbcTemplate).update(startsWith("INSERT INTO " + table),
+                eq(Timestamp.valueOf(from.atStartOfDay())), eq(Timestamp.valueOf(to.plusDays(1).atStartOfDay())));
+    }
+
+    @Test
+    @DisplayName("Dirty days are rebuilt once per contiguous run, under the advisory lock")
+    void flush_contiguousRuns() {
+        rollupService.markDirty(Fact.INVOICE, List.of(DAY, DAY.plusDays(2), DAY.plusDays(1), DAY.plusDays(5)));
+
+        rollupService.flush();
+
+        verifyRebuilt("daily_invoice_facts", DAY, DAY.plusDays(2));
+        verifyRebuilt("daily_invoice_facts", DAY.plusDays(5), DAY.plusDays(5));
+        verify(jdbcTemplate, times(2)).execute(startsWith("SELECT pg_advisory_xact_lock"));
+        assertEquals(4.0, meterRegistry.counter("dashboard.rollup.days_rebuilt", "fact", "INVOICE").count());
+
+        // Nothing left to do
+        clearInvocations(jdbcTemplate);
+        rollupService.flush();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    @DisplayName("Days changed in a transaction are only queued after it commits")
+    void markDirty_afterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        rollupService.markDirty(Fact.PAYMENT, List.of(DAY));
+
+        rollupService.flush();
+        verifyNoInteractions(jdbcTemplate);
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        rollupService.flush();
+        verifyRebuilt("daily_payment_facts", DAY, DAY);
+    }
+
+    @Test
+    @DisplayName("A failed run is kept for the next flush")
+    void flush_failure_retried() {
+        when(jdbcTemplate.update(startsWith("DELETE FROM daily_storage_facts"), any(Object[].class)))
+                .thenThrow(new IllegalStateException("lock timeout"))
+                .thenReturn(0);
+        rollupService.markDirty(Fact.STORAGE, List.of(DAY));
+
+        rollupService.flush();
+        assertEquals(1.0, meterRegistry.counter("dashboard.rollup.errors", "fact", "STORAGE").count());
+
+        rollupService.flush();
+        verify(jdbcTemplate, times(2)).update("DELETE FROM daily_storage_facts WHERE fact_date BETWEEN ? AND ?",
+                Date.valueOf(DAY), Date.valueOf(DAY));
+        verify(jdbcTemplate, times(1)).update(startsWith("INSERT INTO daily_storage_facts"), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("Startup backfills only empty fact tables, over the whole source history")
+    void initialize_backfillsEmptyFacts() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class))).thenReturn(false);
+        when(jdbcTemplate.queryForObject(eq("SELECT NOT EXISTS (SELECT 1 FROM daily_appointment_facts)"),
+                eq(Boolean.class))).thenReturn(true);
+        when(jdbcTemplate.queryForMap(contains("FROM appointments"))).thenReturn(Map.of(
+                "first_day", Date.valueOf(DAY.minusYears(1)),
+                "last_day", Date.valueOf(DAY)));
+
+        rollupService.initialize();
+
+        verifyRebuilt("daily_appointment_facts", DAY.minusYears(1), DAY);
+        verify(jdbcTemplate, never()).update(startsWith("DELETE FROM daily_invoice_facts"), any(Object[].class));
+    }
+}
@@ -0,0 +1,157 @@
+package com.dental.clinic.management.export.service;
+
+import com.dental.clinic.management.dashboard.service.DashboardExportService;
+import com.dental.clinic.management.export.dto.CreateExportJobRequest;
+import com.dental.clinic.management.export.dto.ExportJobResponse;
+import com.dental.clinic.management.export.enums.ExportJobStatus;
+import com.dental.clinic.management.export.enums.ExportJobType;
+import com.dental.clinic.management.utils.security.AuthoritiesConstants;
+import com.dental.clinic.management.warehouse.service.WarehouseExcelExportService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ExportJobService
+ */
+class ExportJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private DashboardExportService dashboardExportService;
+    private ExportJobService exportJobService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        dashboardExportService = mock(DashboardExportService.class);
+        when(dashboardExportService.isSupportedTab(anyString())).thenReturn(true);
+        exportJobService = new ExportJobService(dashboardExportService, mock(WarehouseExcelExportService.class),
+                new SimpleMeterRegistry(), 1, 1, directory.toString(), 300, 60);
+        exportJobService.init();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", null,
+                List.of(new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN))));
+    }
+
+    @AfterEach
+    void tearDown() {
+        exportJobService.shutdown();
+        SecurityContextHolder.clearContext();
+    }
+
+    private CreateExportJobRequest monthRequest(String format, String tab, String month) {
+        return CreateExportJobRequest.builder()
+                .type(ExportJobType.DASHBOARD)
+                .format(format)
+                .tab(tab)
+                .month(month)
+                .build();
+    }
+
+    private ExportJobResponse awaitCompleted(String jobId) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ExportJobResponse job = exportJobService.getJob(jobId);
+            if (job.getStatus() == ExportJobStatus.COMPLETED || job.getStatus() == ExportJobStatus.FAILED) {
+                return job;
+            }
+            Thread.sleep(10);
+        }
+        fail("Export job " + jobId + " did not finish");
+        return null;
+    }
+
+    @Test
+    @DisplayName("Equivalent requests (format case, month vs same date range) reuse the completed job")
+    void submit_equivalentRequest_reusesJob() throws Exception {
+        ExportJobResponse first = exportJobService.submit(monthRequest(" XLSX", "Revenue", "2025-11"));
+        assertEquals(ExportJobStatus.COMPLETED, awaitCompleted(first.getJobId()).getStatus());
+
+        ExportJobResponse second = exportJobService.submit(CreateExportJobRequest.builder()
+                .type(ExportJobType.DASHBOARD)
+                .format("xlsx")
+                .tab("revenue")
+                .startDate(LocalDate.of(2025, 11, 1))
+                .endDate(LocalDate.of(2025, 11, 30))
+                .build());
+
+        assertEquals(first.getJobId(), second.getJobId());
+        verify(dashboardExportService, times(1)).exportToExcel(eq("revenue"), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Different resolved range is a different job")
+    void submit_differentRange_newJob() throws Exception {
+        ExportJobResponse first = exportJobService.submit(monthRequest("xlsx", "revenue", "2025-11"));
+        awaitCompleted(first.getJobId());
+
+        ExportJobResponse second = exportJobService.submit(CreateExportJobRequest.builder()
+                .type(ExportJobType.DASHBOARD)
+                .format("xlsx")
+                .tab("revenue")
+                .startDate(LocalDate.of(2025, 11, 1))
+                .endDate(LocalDate.of(2025, 11, 29))
+                .build());
+
+        assertNotEquals(first.getJobId(), second.getJobId());
+    }
+
+    @Test
+    @DisplayName("Completed artifact is not reused after the data version bumps")
+    void submit_afterDataChanged_newJob() throws Exception {
+        ExportJobResponse first = exportJobService.submit(monthRequest("xlsx", "revenue", "2025-11"));
+        awaitCompleted(first.getJobId());
+
+        exportJobService.markDataChanged();
+        ExportJobResponse second = exportJobService.submit(monthRequest("xlsx", "revenue", "2025-11"));
+
+        assertNotEquals(first.getJobId(), second.getJobId());
+        awaitCompleted(second.getJobId());
+        verify(dashboardExportService, times(2)).exportToExcel(eq("revenue"), eq("2025-11"), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Full worker pool and queue answers 503 without registering the job")
+    void submit_poolFull_serviceUnavailable() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(5, TimeUnit.SECONDS))
+                .when(dashboardExportService).exportToExcel(anyString(), anyString(), any(), any(), any());
+        ExportJobResponse running;
+        ExportJobResponse queued;
+        try {
+            // One running on the single worker, one waiting in the single queue slot
+            running = exportJobService.submit(monthRequest("xlsx", "revenue", "2025-10"));
+            queued = exportJobService.submit(monthRequest("xlsx", "revenue", "2025-11"));
+
+            ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                    () -> exportJobService.submit(monthRequest("xlsx", "revenue", "2025-12")));
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        } finally {
+            release.countDown();
+        }
+
+        awaitCompleted(running.getJobId());
+        awaitCompleted(queued.getJobId());
+
+        // Rejected key was released: the same request is accepted once there is room
+        ExportJobResponse retry = exportJobService.submit(monthRequest("xlsx", "revenue", "2025-12"));
+        assertEquals(ExportJobStatus.COMPLETED, awaitCompleted(retry.getJobId()).getStatus());
+    }
+}
@@ -0,0 +1,148 @@
+package com.dental.clinic.management.notification.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Loopback test for the WebSocket cluster relay.
+ *
+ * Two nodes, each with its own simple broker, brokerChannel interceptor,
+ * RedisClusterMessageBus and ClusterMessageRelay. Redis pub/sub is replaced by
+ * an in-memory channel that hands every published string to all subscribed
+ * listeners, including the publisher's own (as Redis does).
+ */
+class ClusterMessageRelayTest {
+
+    private static final String DESTINATION = "/topic/dashboard";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<MessageListener> redisSubscribers = new CopyOnWriteArrayList<>();
+
+    private Node nodeA;
+    private Node nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new Node("session-a");
+        nodeB = new Node("session-b");
+    }
+
+    @AfterEach
+    void tearDown() {
+        nodeA.broker.stop();
+        nodeB.broker.stop();
+    }
+
+    @Test
+    @DisplayName("Message sent on node A reaches the STOMP session connected to node B")
+    void convertAndSend_deliveredToOtherNode() {
+        nodeA.template.convertAndSend(DESTINATION, Map.of("metric", "revenue"));
+
+        assertEquals(1, nodeB.outbound.size());
+        org.springframework.messaging.Message<?> delivered = nodeB.outbound.get(0);
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(delivered);
+        assertEquals("session-b", accessor.getSessionId());
+        assertEquals(DESTINATION, accessor.getDestination());
+        assertEquals("application/json", accessor.getContentType().toString());
+        assertEquals("{\"metric\":\"revenue\"}", new String((byte[]) delivered.getPayload(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Sender's own clients get the message once and nothing is relayed back")
+    void convertAndSend_noEcho() {
+        nodeA.template.convertAndSend(DESTINATION, Map.of("metric", "revenue"));
+
+        assertEquals(1, nodeA.outbound.size());
+        // Only node A published; node B's redelivery is marked as relayed
+        verify(nodeA.redisTemplate, times(1)).convertAndSend(anyString(), anyString());
+        verify(nodeB.redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("Sessions resolved to one node are not relayed")
+    void resolvedUserDestination_notRelayed() {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination("/queue/notifications-user123");
+        accessor.setHeader(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION, "/user/queue/notifications");
+        nodeA.brokerChannel.send(MessageBuilder.createMessage("{}".getBytes(StandardCharsets.UTF_8),
+                accessor.getMessageHeaders()));
+
+        verify(nodeA.redisTemplate, never()).convertAndSend(anyString(), anyString());
+    }
+
+    /**
+     * One application node: broker + brokerChannel interceptor + Redis bus + relay
+     */
+    private class Node {
+
+        final List<org.springframework.messaging.Message<?>> outbound = new CopyOnWriteArrayList<>();
+        final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        final SimpleBrokerMessageHandler broker;
+        final SimpMessagingTemplate template;
+        final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+        @SuppressWarnings("unchecked")
+        Node(String sessionId) {
+            RedisClusterMessageBus bus = new RedisClusterMessageBus(redisTemplate,
+                    mock(RedisConnectionFactory.class), objectMapper);
+            RedisMessageListenerContainer container = mock(RedisMessageListenerContainer.class);
+            doAnswer(inv -> redisSubscribers.add(inv.getArgument(0)))
+                    .when(container).addMessageListener(any(MessageListener.class), any(Topic.class));
+            ReflectionTestUtils.setField(bus, "container", container);
+            when(redisTemplate.convertAndSend(anyString(), anyString())).thenAnswer(inv -> {
+                Message redisMessage = mock(Message.class);
+                when(redisMessage.getBody())
+                        .thenReturn(((String) inv.getArgument(1)).getBytes(StandardCharsets.UTF_8));
+                redisSubscribers.forEach(listener -> listener.onMessage(redisMessage, null));
+                return (long) redisSubscribers.size();
+            });
+
+            brokerChannel.addInterceptor(new ClusterRelayChannelInterceptor(bus));
+            MessageChannel clientOutbound = (message, timeout) -> outbound.add(message);
+            broker = new SimpleBrokerMessageHandler(new ExecutorSubscribableChannel(), clientOutbound,
+                    brokerChannel, List.of("/topic", "/queue"));
+            broker.start();
+
+            template = new SimpMessagingTemplate(brokerChannel);
+            template.setMessageConverter(new MappingJackson2MessageConverter());
+
+            ObjectProvider<SimpMessagingTemplate> provider = mock(ObjectProvider.class);
+            when(provider.getObject()).thenReturn(template);
+            new ClusterMessageRelay(bus, provider).start();
+
+            SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+            subscribe.setSessionId(sessionId);
+            subscribe.setSubscriptionId("sub-0");
+            subscribe.setDestination(DESTINATION);
+            broker.handleMessage(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+        }
+    }
+}
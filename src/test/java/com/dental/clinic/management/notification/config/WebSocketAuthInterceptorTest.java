@@ -0,0 +1,78 @@
+package com.dental.clinic.management.notification.config;
+
+import com.dental.clinic.management.authentication.service.TokenBlacklistService;
+import com.dental.clinic.management.utils.security.VerifiedTokenCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for WebSocketAuthInterceptor (SUBSCRIBE checks)
+ */
+class WebSocketAuthInterceptorTest {
+
+    private WebSocketAuthInterceptor interceptor;
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new WebSocketAuthInterceptor(mock(VerifiedTokenCache.class), mock(TokenBlacklistService.class));
+    }
+
+    private Message<byte[]> subscribe(String destination, String... authorities) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setDestination(destination);
+        accessor.setUser(new UsernamePasswordAuthenticationToken("42", null,
+                List.of(authorities).stream().map(SimpleGrantedAuthority::new).toList()));
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    @DisplayName("Member of the role may subscribe to its topic")
+    void subscribe_roleMember_allowed() {
+        Message<byte[]> message = subscribe("/topic/notifications/role/ROLE_MANAGER", "ROLE_MANAGER");
+
+        assertSame(message, interceptor.preSend(message, channel));
+        // Role names without prefix are matched too
+        Message<byte[]> unprefixed = subscribe("/topic/notifications/role/MANAGER", "ROLE_MANAGER");
+        assertSame(unprefixed, interceptor.preSend(unprefixed, channel));
+    }
+
+    @Test
+    @DisplayName("Other roles cannot subscribe to a role topic")
+    void subscribe_otherRole_refused() {
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(
+                subscribe("/topic/notifications/role/ROLE_ADMIN", "ROLE_DENTIST", "VIEW_NOTIFICATION"), channel));
+    }
+
+    @Test
+    @DisplayName("Pattern subscriptions that could match role topics are refused")
+    void subscribe_pattern_refused() {
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(
+                subscribe("/topic/notifications/role/*", "ROLE_DENTIST"), channel));
+        assertThrows(AccessDeniedException.class, () -> interceptor.preSend(
+                subscribe("/topic/**", "ROLE_DENTIST"), channel));
+    }
+
+    @Test
+    @DisplayName("Other destinations are not restricted")
+    void subscribe_otherDestination_allowed() {
+        Message<byte[]> message = subscribe("/topic/notifications/42/unread-count", "ROLE_DENTIST");
+
+        assertSame(message, interceptor.preSend(message, channel));
+    }
+}
@@ -0,0 +1,78 @@
+package com.dental.clinic.management.notification.service;
+
+import com.dental.clinic.management.account.domain.Account;
+import com.dental.clinic.management.account.enums.AccountStatus;
+import com.dental.clinic.management.role.domain.Role;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for RoleMembershipChangeListener
+ */
+class RoleMembershipChangeListenerTest {
+
+    private RoleMembershipIndex index;
+    private RoleMembershipChangeListener listener;
+    private Account account;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        index = mock(RoleMembershipIndex.class);
+        ObjectProvider<RoleMembershipIndex> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(index);
+        listener = new RoleMembershipChangeListener(provider);
+
+        account = new Account();
+        account.setRole(new Role("ROLE_DENTIST", "ROLE_DENTIST", "Bác sĩ"));
+        account.setStatus(AccountStatus.ACTIVE);
+        listener.onLoad(account);
+    }
+
+    @Test
+    @DisplayName("Update of unrelated fields keeps the membership cache")
+    void onUpdate_unrelatedField_keepsCache() {
+        account.setEmail("new@example.com");
+
+        listener.onUpdate(account);
+
+        verify(index, never()).invalidate();
+    }
+
+    @Test
+    @DisplayName("Role change invalidates the membership cache once")
+    void onUpdate_roleChanged_invalidates() {
+        account.setRole(new Role("ROLE_NURSE", "ROLE_NURSE", "Y tá"));
+
+        listener.onUpdate(account);
+        // Same state on the next flush: nothing new to invalidate
+        listener.onUpdate(account);
+
+        verify(index, times(1)).invalidate();
+    }
+
+    @Test
+    @DisplayName("Status change invalidates the membership cache")
+    void onUpdate_statusChanged_invalidates() {
+        account.setStatus(AccountStatus.LOCKED);
+
+        listener.onUpdate(account);
+
+        verify(index).invalidate();
+    }
+
+    @Test
+    @DisplayName("Entity that was never loaded is treated as changed")
+    void onUpdate_notLoaded_invalidates() {
+        Account detached = new Account();
+        detached.setStatus(AccountStatus.ACTIVE);
+
+        listener.onUpdate(detached);
+
+        verify(index).invalidate();
+    }
+}
@@ -0,0 +1,60 @@
+package com.dental.clinic.management.notification.service;
+
+import com.dental.clinic.management.notification.repository.NotificationRepository;
+import com.dental.clinic.management.notification.service.unread.InMemoryUnreadCounterStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for UnreadCounterService (no transaction: changes apply at once)
+ */
+class UnreadCounterServiceTest {
+
+    private InMemoryUnreadCounterStore store;
+    private NotificationRepository notificationRepository;
+    private SimpMessagingTemplate messagingTemplate;
+    private UnreadCounterService unreadCounterService;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryUnreadCounterStore();
+        notificationRepository = mock(NotificationRepository.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        unreadCounterService = new UnreadCounterService(store, notificationRepository, messagingTemplate);
+    }
+
+    @Test
+    @DisplayName("Role fan-out bumps each recipient's counter and pushes the new value")
+    void incrementAll_pushesEachRecipient() {
+        store.set(1, 4);
+        // No cached counter: loaded from the table (already including the new row)
+        when(notificationRepository.countUnreadByUserId(2)).thenReturn(7L);
+
+        unreadCounterService.incrementAll(List.of(1, 2));
+
+        assertEquals(5L, store.get(1));
+        assertEquals(7L, store.get(2));
+        verify(messagingTemplate).convertAndSend("/topic/notifications/1/unread-count", (Object) 5L);
+        verify(messagingTemplate).convertAndSend("/topic/notifications/2/unread-count", (Object) 7L);
+    }
+
+    @Test
+    @DisplayName("A failing recipient does not stop the others")
+    void incrementAll_failure_continues() {
+        when(notificationRepository.countUnreadByUserId(1)).thenThrow(new IllegalStateException("db down"));
+        store.set(2, 0);
+
+        unreadCounterService.incrementAll(List.of(1, 2));
+
+        verify(messagingTemplate).convertAndSend("/topic/notifications/2/unread-count", (Object) 1L);
+        verify(messagingTemplate, never()).convertAndSend(eq("/topic/notifications/1/unread-count"), any(Object.class));
+    }
+}
@@ -0,0 +1,151 @@
+package com.dental.clinic.management.outbox.service;
+
+import com.dental.clinic.management.outbox.enums.OutboxMessageType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for OutboxDispatcher
+ * The claim statement is answered by the mocked JdbcTemplate
+ */
+class OutboxDispatcherTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxHandler notificationHandler;
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        meterRegistry = new SimpleMeterRegistry();
+        notificationHandler = mock(OutboxHandler.class);
+        when(notificationHandler.type()).thenReturn(OutboxMessageType.NOTIFICATION);
+
+        dispatcher = new OutboxDispatcher(jdbcTemplate, meterRegistry, List.of(notificationHandler));
+        ReflectionTestUtils.setField(dispatcher, "workers", 2);
+        ReflectionTestUtils.setField(dispatcher, "batchSize", 10);
+        ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+        ReflectionTestUtils.setField(dispatcher, "backoffBaseSeconds", 10L);
+        ReflectionTestUtils.setField(dispatcher, "backoffMaxSeconds", 3600L);
+        ReflectionTestUtils.setField(dispatcher, "leaseSeconds", 120L);
+        dispatcher.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    private static ResultSet row(long id, String type, int attempts) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("outbox_id")).thenReturn(id);
+        when(rs.getString("message_type")).thenReturn(type);
+        when(rs.getString("reference")).thenReturn("APT-20251115-00" + id);
+        when(rs.getString("payload")).thenReturn("{\"id\":" + id + "}");
+        when(rs.getInt("attempts")).thenReturn(attempts);
+        when(rs.getTimestamp("created_at")).thenReturn(Timestamp.valueOf(LocalDateTime.now().minusSeconds(5)));
+        return rs;
+    }
+
+    private void claimReturns(ResultSet... rows) {
+        when(jdbcTemplate.query(startsWith("UPDATE outbox_messages SET status = 'PROCESSING'"),
+                any(RowMapper.class), any(Object[].class)))
+                .thenAnswer(inv -> {
+                    RowMapper<?> mapper = inv.getArgument(1);
+                    List<Object> claimed = new ArrayList<>();
+                    for (int i = 0; i < rows.length; i++) {
+                        claimed.add(mapper.mapRow(rows[i], i));
+                    }
+                    return claimed;
+                });
+    }
+
+    @Test
+    @DisplayName("Delivered message is marked SENT and its latency recorded")
+    void dispatch_success_markedSent() throws Exception {
+        claimReturns(row(1, "NOTIFICATION", 1));
+
+        dispatcher.dispatch();
+
+        verify(notificationHandler).handle("{\"id\":1}");
+        verify(jdbcTemplate).update(startsWith("UPDATE outbox_messages SET status = 'SENT'"),
+                any(Timestamp.class), eq(1L));
+        assertEquals(1.0, meterRegistry.counter("outbox.delivered", "type", "NOTIFICATION").count());
+        assertEquals(1, meterRegistry.timer("outbox.delivery.latency", "type", "NOTIFICATION").count());
+    }
+
+    @Test
+    @DisplayName("Failed message goes back to PENDING with exponential backoff")
+    void dispatch_failure_retriedWithBackoff() throws Exception {
+        claimReturns(row(2, "NOTIFICATION", 2));
+        doThrow(new IllegalStateException("broker down")).when(notificationHandler).handle(anyString());
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher.dispatch();
+
+        ArgumentCaptor<Timestamp> nextAttempt = ArgumentCaptor.forClass(Timestamp.class);
+        verify(jdbcTemplate).update(startsWith("UPDATE outbox_messages SET status = 'PENDING'"),
+                nextAttempt.capture(), contains("broker down"), eq(2L));
+        // Second attempt: base * 2^1 = 20 seconds
+        Duration delay = Duration.between(before, nextAttempt.getValue().toLocalDateTime());
+        assertTrue(delay.getSeconds() >= 19 && delay.getSeconds() <= 21, "delay was " + delay);
+        assertEquals(1.0, meterRegistry.counter("outbox.retried", "type", "NOTIFICATION").count());
+    }
+
+    @Test
+    @DisplayName("Message failing its last attempt is DEAD")
+    void dispatch_lastAttempt_dead() throws Exception {
+        claimReturns(row(3, "NOTIFICATION", 3));
+        doThrow(new IllegalStateException("still down")).when(notificationHandler).handle(anyString());
+
+        dispatcher.dispatch();
+
+        verify(jdbcTemplate).update(startsWith("UPDATE outbox_messages SET status = 'DEAD'"),
+                any(Timestamp.class), contains("still down"), eq(3L));
+        verify(jdbcTemplate, never()).update(startsWith("UPDATE outbox_messages SET status = 'PENDING'"),
+                any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Message without a handler is DEAD without calling any handler")
+    void dispatch_noHandler_dead() throws Exception {
+        claimReturns(row(4, "PATIENT_WELCOME_EMAIL", 1), row(5, "REMOVED_TYPE", 1));
+
+        dispatcher.dispatch();
+
+        verify(notificationHandler, never()).handle(anyString());
+        verify(jdbcTemplate).update(startsWith("UPDATE outbox_messages SET status = 'DEAD'"),
+                any(Timestamp.class), contains("No handler"), eq(4L));
+        verify(jdbcTemplate).update(startsWith("UPDATE outbox_messages SET status = 'DEAD'"),
+                any(Timestamp.class), contains("Unknown message type"), eq(5L));
+    }
+
+    @Test
+    @DisplayName("Two handlers for one type are rejected at startup")
+    void constructor_duplicateHandler_rejected() {
+        OutboxHandler other = mock(OutboxHandler.class);
+        when(other.type()).thenReturn(OutboxMessageType.NOTIFICATION);
+
+        assertThrows(IllegalStateException.class,
+                () -> new OutboxDispatcher(jdbcTemplate, meterRegistry, List.of(notificationHandler, other)));
+    }
+}
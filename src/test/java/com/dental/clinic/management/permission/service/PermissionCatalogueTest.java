@@ -0,0 +1,109 @@
+package com.dental.clinic.management.permission.service;
+
+import com.dental.clinic.management.permission.domain.PermissionCatalogueVersion;
+import com.dental.clinic.management.permission.repository.PermissionCatalogueVersionRepository;
+import com.dental.clinic.management.permission.repository.PermissionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for PermissionCatalogue
+ * permission_catalogue_versions is simulated by a map shared by all "nodes"
+ */
+class PermissionCatalogueTest {
+
+    private PermissionRepository permissionRepository;
+    private PermissionCatalogueVersionRepository versionRepository;
+    private final Map<String, String> recordedVersions = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        permissionRepository = mock(PermissionRepository.class);
+        when(permissionRepository.findAllPermissionIdsOrdered())
+                .thenReturn(List.of("CREATE_APPOINTMENT", "VIEW_APPOINTMENT", "VIEW_PATIENT"));
+
+        versionRepository = mock(PermissionCatalogueVersionRepository.class);
+        when(versionRepository.insertIfAbsent(anyString(), anyString()))
+                .thenAnswer(inv -> recordedVersions.putIfAbsent(inv.getArgument(0), inv.getArgument(1)) == null ? 1 : 0);
+        when(versionRepository.findById(anyString())).thenAnswer(inv -> {
+            String ids = recordedVersions.get(inv.<String>getArgument(0));
+            if (ids == null) {
+                return Optional.empty();
+            }
+            PermissionCatalogueVersion version = new PermissionCatalogueVersion();
+            version.setVersion(inv.getArgument(0));
+            version.setPermissionIds(ids);
+            return Optional.of(version);
+        });
+    }
+
+    private PermissionCatalogue node() {
+        return new PermissionCatalogue(permissionRepository, versionRepository);
+    }
+
+    @Test
+    @DisplayName("Encoded permissions decode to the same IDs")
+    void encode_decode_roundTrip() {
+        PermissionCatalogue catalogue = node();
+
+        PermissionCatalogue.Encoded encoded = catalogue.encode(List.of("VIEW_PATIENT", "CREATE_APPOINTMENT"));
+
+        assertEquals(List.of("CREATE_APPOINTMENT", "VIEW_PATIENT"),
+                catalogue.decode(encoded.version(), encoded.bits()));
+    }
+
+    @Test
+    @DisplayName("Same permission table gives the same version on every node")
+    void version_isDeterministic() {
+        assertEquals(node().encode(List.of()).version(), node().encode(List.of()).version());
+    }
+
+    @Test
+    @DisplayName("Token issued before a permission was added still decodes on another node")
+    void decode_olderVersion_fromOtherNode() {
+        PermissionCatalogue issuer = node();
+        PermissionCatalogue.Encoded encoded = issuer.encode(List.of("VIEW_APPOINTMENT", "VIEW_PATIENT"));
+
+        // A permission sorting before the others shifts every bit index
+        when(permissionRepository.findAllPermissionIdsOrdered())
+                .thenReturn(List.of("APPROVE_LEAVE", "CREATE_APPOINTMENT", "VIEW_APPOINTMENT", "VIEW_PATIENT"));
+        PermissionCatalogue restarted = node();
+        PermissionCatalogue.Encoded newer = restarted.encode(List.of("VIEW_PATIENT"));
+        assertNotEquals(encoded.version(), newer.version());
+
+        // The old version was never loaded by this node: read from the table
+        assertEquals(List.of("VIEW_APPOINTMENT", "VIEW_PATIENT"),
+                restarted.decode(encoded.version(), encoded.bits()));
+        assertEquals(List.of("VIEW_PATIENT"), restarted.decode(newer.version(), newer.bits()));
+    }
+
+    @Test
+    @DisplayName("A version is recorded once per node, later reloads only refresh the cache")
+    void reload_recordsVersionOnce() {
+        PermissionCatalogue catalogue = node();
+        catalogue.reload();
+        catalogue.reload();
+
+        verify(versionRepository, times(1)).insertIfAbsent(anyString(), anyString());
+        assertEquals(1, recordedVersions.size());
+    }
+
+    @Test
+    @DisplayName("Version never recorded is rejected")
+    void decode_unknownVersion_null() {
+        PermissionCatalogue catalogue = node();
+        catalogue.reload();
+
+        assertNull(catalogue.decode("unknown-ver", "AQ"));
+    }
+}
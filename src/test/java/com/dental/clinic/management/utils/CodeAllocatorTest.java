@@ -0,0 +1,139 @@
+package com.dental.clinic.management.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for CodeAllocator
+ * code_sequences is simulated by one counter per key behind the mocked JdbcTemplate
+ */
+class CodeAllocatorTest {
+
+    private static final int BLOCK_SIZE = 5;
+
+    private JdbcTemplate jdbcTemplate;
+    private CodeAllocator allocator;
+    private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        // UPDATE ... RETURNING: reserve the next block
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any(), any()))
+                .thenAnswer(inv -> List.of(sequences.computeIfAbsent(inv.getArgument(3), k -> new AtomicLong())
+                        .addAndGet((Integer) inv.getArgument(2))));
+        allocator = new CodeAllocator(jdbcTemplate, mock(PlatformTransactionManager.class), BLOCK_SIZE);
+    }
+
+    @Test
+    @DisplayName("One reservation serves a whole block of codes")
+    void nextCode_reservesOncePerBlock() {
+        for (int i = 1; i <= BLOCK_SIZE; i++) {
+            assertEquals(String.format("PX-20251115-%03d", i), allocator.nextCode("PX-20251115-", 3));
+        }
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), any(), any());
+
+        assertEquals("PX-20251115-006", allocator.nextCode("PX-20251115-", 3));
+        verify(jdbcTemplate, times(2)).queryForList(anyString(), eq(Long.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Concurrent callers never receive the same code")
+    void nextCode_concurrentCallers_areUnique() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                futures.add(pool.submit(() -> allocator.nextCode("EMS251016", 3)));
+            }
+            Set<String> codes = new HashSet<>();
+            for (Future<String> future : futures) {
+                codes.add(future.get());
+            }
+            assertEquals(200, codes.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Date part is read from both long and short prefixes")
+    void dayOf_parsesPrefixes() {
+        assertEquals(LocalDate.of(2025, 11, 15), CodeAllocator.dayOf("APT-20251115-"));
+        assertEquals(LocalDate.of(2025, 10, 16), CodeAllocator.dayOf("EMS251016"));
+        assertNull(CodeAllocator.dayOf("NO-DATE-"));
+    }
+
+    @Test
+    @DisplayName("Cleanup drops past-day blocks only")
+    void clearPastBlocks_keepsTodayAndFuture() {
+        allocator.nextCode("APT-20251114-", 3);
+        allocator.nextCode("APT-20251115-", 3);
+        allocator.nextCode("APT-20251120-", 3);
+        clearInvocations(jdbcTemplate);
+
+        allocator.clearPastBlocks(LocalDate.of(2025, 11, 15));
+
+        // Today and future days continue from their cached block
+        assertEquals("APT-20251115-002", allocator.nextCode("APT-20251115-", 3));
+        assertEquals("APT-20251120-002", allocator.nextCode("APT-20251120-", 3));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), any(), any());
+
+        // The past day reserves a new block
+        allocator.nextCode("APT-20251114-", 3);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Yearly prefixes are dropped once their year is over")
+    void clearPastBlocks_dropsPastYears() {
+        assertEquals(LocalDate.of(2025, 12, 31), CodeAllocator.lastDayOf("INV-2025-"));
+        allocator.nextCode("INV-2025-", 3);
+        allocator.nextCode("INV-2026-", 3);
+
+        // Last day of 2025: the yearly range is still current
+        allocator.clearPastBlocks(LocalDate.of(2025, 12, 31));
+        clearInvocations(jdbcTemplate);
+        assertEquals("INV-2025-002", allocator.nextCode("INV-2025-", 3));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), any(), any());
+
+        allocator.clearPastBlocks(LocalDate.of(2026, 1, 1));
+
+        assertEquals("INV-2026-002", allocator.nextCode("INV-2026-", 3));
+        verify(jdbcTemplate, never()).queryForList(anyString(), eq(Long.class), any(), any());
+        allocator.nextCode("INV-2025-", 3);
+        verify(jdbcTemplate, times(1)).queryForList(anyString(), eq(Long.class), any(), any());
+    }
+
+    @Test
+    @DisplayName("Shutdown hands back the unused tail of a block")
+    void releaseBlocks_returnsUnusedNumbers() {
+        allocator.nextCode("INV-20251115-", 3);
+        allocator.nextCode("INV-20251115-", 3);
+
+        allocator.releaseBlocks();
+
+        // last_value 5 -> 2 if no other node reserved after this block
+        verify(jdbcTemplate).update(startsWith("UPDATE code_sequences SET last_value = ?"),
+                eq(2L), eq("INV-20251115-"), eq(5L));
+    }
+}
@@ -0,0 +1,51 @@
+package com.dental.clinic.management.utils;
+
+import com.dental.clinic.management.exception.StreamingExportAbortedException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StreamingExport
+ */
+class StreamingExportTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    @Test
+    @DisplayName("Successful export passes every byte through")
+    void abortOnFailure_success() throws Exception {
+        StreamingExport.abortOnFailure("test", o -> o.write(new byte[] { 1, 2, 3 }, 0, 3)).writeTo(out);
+
+        assertArrayEquals(new byte[] { 1, 2, 3 }, out.toByteArray());
+    }
+
+    @Test
+    @DisplayName("Failure before any byte keeps the original exception (normal error response)")
+    void abortOnFailure_beforeFirstByte_rethrowsOriginal() {
+        IllegalArgumentException failure = new IllegalArgumentException("Invalid tab");
+        StreamingResponseBody body = StreamingExport.abortOnFailure("test", o -> {
+            throw failure;
+        });
+
+        assertSame(failure, assertThrows(IllegalArgumentException.class, () -> body.writeTo(out)));
+    }
+
+    @Test
+    @DisplayName("Failure after part of the file was written aborts the download")
+    void abortOnFailure_midStream_aborts() {
+        IllegalStateException failure = new IllegalStateException("cursor closed");
+        StreamingResponseBody body = StreamingExport.abortOnFailure("test", o -> {
+            o.write(42);
+            throw failure;
+        });
+
+        StreamingExportAbortedException e = assertThrows(StreamingExportAbortedException.class,
+                () -> body.writeTo(out));
+        assertSame(failure, e.getCause());
+    }
+}
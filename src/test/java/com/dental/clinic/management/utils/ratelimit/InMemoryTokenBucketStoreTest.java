@@ -0,0 +1,85 @@
+package com.dental.clinic.management.utils.ratelimit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for InMemoryTokenBucketStore
+ */
+class InMemoryTokenBucketStoreTest {
+
+    // 4 requests per 4096 ms: one token every 1024 ms (exact in floating point)
+    private static final RateLimitPolicy POLICY = new RateLimitPolicy("test", HttpMethod.POST,
+            List.of("/api/v1/test"), RateLimitPolicy.KeyType.IP, 4, Duration.ofMillis(4096));
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final InMemoryTokenBucketStore store = new InMemoryTokenBucketStore(now::get);
+
+    @Test
+    @DisplayName("A full bucket allows a burst of capacity requests, then rejects")
+    void tryConsume_burstThenLimited() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(store.tryConsume("ip:1", POLICY).allowed(), "request " + i);
+        }
+
+        TokenBucketStore.Result rejected = store.tryConsume("ip:1", POLICY);
+        assertFalse(rejected.allowed());
+        assertEquals(1024, rejected.retryAfterMillis());
+    }
+
+    @Test
+    @DisplayName("Tokens refill evenly over the period and never above capacity")
+    void tryConsume_refill() {
+        for (int i = 0; i < 4; i++) {
+            store.tryConsume("ip:1", POLICY);
+        }
+
+        now.addAndGet(512);
+        TokenBucketStore.Result halfway = store.tryConsume("ip:1", POLICY);
+        assertFalse(halfway.allowed());
+        assertEquals(512, halfway.retryAfterMillis());
+
+        now.addAndGet(512);
+        assertTrue(store.tryConsume("ip:1", POLICY).allowed());
+        assertFalse(store.tryConsume("ip:1", POLICY).allowed());
+
+        // Idle for a long time: still only capacity requests in a burst
+        now.addAndGet(Duration.ofHours(1).toMillis());
+        for (int i = 0; i < 4; i++) {
+            assertTrue(store.tryConsume("ip:1", POLICY).allowed());
+        }
+        assertFalse(store.tryConsume("ip:1", POLICY).allowed());
+    }
+
+    @Test
+    @DisplayName("Each key has its own bucket")
+    void tryConsume_separateKeys() {
+        for (int i = 0; i < 4; i++) {
+            store.tryConsume("ip:1", POLICY);
+        }
+
+        assertFalse(store.tryConsume("ip:1", POLICY).allowed());
+        assertTrue(store.tryConsume("ip:2", POLICY).allowed());
+    }
+
+    @Test
+    @DisplayName("Sweeping refilled buckets does not change the outcome")
+    void tryConsume_sweepKeepsPartialBuckets() {
+        for (int i = 0; i < 4; i++) {
+            store.tryConsume("ip:limited", POLICY);
+        }
+        // Enough operations on many keys to sweep every stripe
+        for (int i = 0; i < 64 * 256; i++) {
+            store.tryConsume("ip:other-" + i, POLICY);
+        }
+
+        assertFalse(store.tryConsume("ip:limited", POLICY).allowed());
+    }
+}
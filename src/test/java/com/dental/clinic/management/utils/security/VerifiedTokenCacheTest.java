@@ -0,0 +1,125 @@
+package com.dental.clinic.management.utils.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.BearerTokenAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for VerifiedTokenCache
+ */
+class VerifiedTokenCacheTest {
+
+    private JwtDecoder jwtDecoder;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+    private Duration lifetime = Duration.ofHours(1);
+
+    @BeforeEach
+    void setUp() {
+        jwtDecoder = mock(JwtDecoder.class);
+        when(jwtDecoder.decode(anyString())).thenAnswer(inv -> Jwt.withTokenValue(inv.getArgument(0))
+                .header("alg", "HS512")
+                .subject("user-" + inv.getArgument(0))
+                .claim("scope", "VIEW_PATIENT")
+                .issuedAt(Instant.now().minusSeconds(10))
+                .expiresAt(Instant.now().plus(lifetime))
+                .build());
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(jwtDecoder, new JwtAuthenticationConverter(), meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxEntries", 3);
+    }
+
+    private static String hash(String token) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+    }
+
+    @Test
+    @DisplayName("A token is decoded once, later requests are served from the cache")
+    void verify_cachesDecodedToken() {
+        VerifiedTokenCache.Entry first = cache.verify("token-a");
+        VerifiedTokenCache.Entry second = cache.verify("token-a");
+
+        assertSame(first, second);
+        assertEquals("user-token-a", second.principalName());
+        assertTrue(second.authorities().stream().anyMatch(a -> a.getAuthority().equals("SCOPE_VIEW_PATIENT")));
+        verify(jwtDecoder, times(1)).decode("token-a");
+        assertEquals(1.0, meterRegistry.counter("jwt.cache.hit").count());
+        assertEquals(1.0, meterRegistry.counter("jwt.cache.miss").count());
+    }
+
+    @Test
+    @DisplayName("An entry never outlives the token's exp")
+    void verify_expiredEntry_decodedAgain() {
+        lifetime = Duration.ofSeconds(-1);
+        cache.verify("token-a");
+        cache.verify("token-a");
+
+        verify(jwtDecoder, times(2)).decode("token-a");
+    }
+
+    @Test
+    @DisplayName("Revoked token is evicted by value and by revocation-store hash")
+    void evict_forcesDecode() throws Exception {
+        cache.verify("token-a");
+        cache.verify("token-b");
+
+        cache.evict("token-a");
+        cache.evictByHash(hash("token-b"));
+        cache.verify("token-a");
+        cache.verify("token-b");
+
+        verify(jwtDecoder, times(2)).decode("token-a");
+        verify(jwtDecoder, times(2)).decode("token-b");
+    }
+
+    @Test
+    @DisplayName("Cache stays bounded by max-entries")
+    void verify_full_bounded() {
+        for (int i = 0; i < 10; i++) {
+            cache.verify("token-" + i);
+        }
+
+        assertTrue(meterRegistry.get("jwt.cache.size").gauge().value() <= 3);
+    }
+
+    @Test
+    @DisplayName("Invalid token maps to invalid_token; each request gets its own authentication")
+    void authenticate_mapsErrorsAndCopiesDetails() {
+        when(jwtDecoder.decode("bad")).thenThrow(new BadJwtException("bad signature"));
+        assertThrows(InvalidBearerTokenException.class,
+                () -> cache.authenticate(new BearerTokenAuthenticationToken("bad")));
+
+        BearerTokenAuthenticationToken first = new BearerTokenAuthenticationToken("token-a");
+        first.setDetails("10.0.0.1");
+        BearerTokenAuthenticationToken second = new BearerTokenAuthenticationToken("token-a");
+        second.setDetails("10.0.0.2");
+
+        Authentication a = cache.authenticate(first);
+        Authentication b = cache.authenticate(second);
+
+        assertNotSame(a, b);
+        assertEquals("10.0.0.1", a.getDetails());
+        assertEquals("10.0.0.2", b.getDetails());
+        verify(jwtDecoder, times(1)).decode("token-a");
+    }
+}
@@ -0,0 +1,54 @@
+package com.dental.clinic.management.warehouse.service;
+
+import com.dental.clinic.management.warehouse.repository.ItemBatchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for BatchUnitCostBackfillService
+ */
+class BatchUnitCostBackfillServiceTest {
+
+    private ItemBatchRepository batchRepository;
+    private PlatformTransactionManager transactionManager;
+    private BatchUnitCostBackfillService backfillService;
+
+    @BeforeEach
+    void setUp() {
+        batchRepository = mock(ItemBatchRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        backfillService = new BatchUnitCostBackfillService(batchRepository, transactionManager);
+    }
+
+    @Test
+    @DisplayName("Parent backfill repeats until no level is left, in one transaction")
+    void backfill_nestedUnpacking_loopsUntilNothingChanges() {
+        when(batchRepository.existsPriceableBatchWithoutUnitCost()).thenReturn(true);
+        when(batchRepository.backfillUnitCostFromImports()).thenReturn(5);
+        // Box -> pack -> piece: two levels, then nothing left
+        when(batchRepository.backfillUnitCostFromParents()).thenReturn(3, 2, 0);
+
+        backfillService.backfill();
+
+        verify(batchRepository).backfillUnitCostFromImports();
+        verify(batchRepository, times(3)).backfillUnitCostFromParents();
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    @DisplayName("Nothing priceable: no transaction is opened")
+    void backfill_nothingPriceable_skips() {
+        when(batchRepository.existsPriceableBatchWithoutUnitCost()).thenReturn(false);
+
+        backfillService.backfill();
+
+        verify(batchRepository, never()).backfillUnitCostFromParents();
+        verifyNoInteractions(transactionManager);
+    }
+}
@@ -0,0 +1,135 @@
+package com.dental.clinic.management.warehouse.service;
+
+import com.dental.clinic.management.warehouse.domain.ItemMaster;
+import com.dental.clinic.management.warehouse.enums.WarehouseType;
+import com.dental.clinic.management.warehouse.repository.ItemStockBalanceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for StockBalanceService
+ */
+class StockBalanceServiceTest {
+
+    private ItemStockBalanceRepository balanceRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private StockBalanceService stockBalanceService;
+
+    @BeforeEach
+    void setUp() {
+        balanceRepository = mock(ItemStockBalanceRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        stockBalanceService = new StockBalanceService(balanceRepository, mock(PlatformTransactionManager.class),
+                meterRegistry);
+    }
+
+    private ItemMaster item(Long id, WarehouseType warehouseType) {
+        ItemMaster itemMaster = new ItemMaster();
+        itemMaster.setItemMasterId(id);
+        itemMaster.setWarehouseType(warehouseType);
+        return itemMaster;
+    }
+
+    @Test
+    @DisplayName("apply() adds the delta to the item's warehouse, NORMAL when unset")
+    void apply_addsDelta() {
+        stockBalanceService.apply(item(1L, WarehouseType.COLD), -5);
+        stockBalanceService.apply(item(2L, null), 3);
+        stockBalanceService.apply(item(3L, WarehouseType.COLD), 0);
+
+        verify(balanceRepository).applyDelta(1L, "COLD", -5);
+        verify(balanceRepository).applyDelta(2L, "NORMAL", 3);
+        verify(balanceRepository, never()).applyDelta(eq(3L), anyString(), anyInt());
+    }
+
+    @Test
+    @DisplayName("changeWarehouse() moves the whole balance to the new warehouse")
+    void changeWarehouse_movesBalance() {
+        when(balanceRepository.lockQuantity(1L, "NORMAL")).thenReturn(12);
+
+        stockBalanceService.changeWarehouse(item(1L, WarehouseType.COLD), WarehouseType.NORMAL);
+
+        verify(balanceRepository).applyDelta(1L, "NORMAL", -12);
+        verify(balanceRepository).applyDelta(1L, "COLD", 12);
+    }
+
+    @Test
+    @DisplayName("reconcile() locks each drifted row and resets it to its batches")
+    void reconcile_resetsDriftedRows() {
+        when(balanceRepository.findDrift()).thenReturn(List.<Object[]>of(
+                new Object[] { 1L, "NORMAL", 4, 10 },
+                new Object[] { 2L, "COLD", 7, 7 }));
+        when(balanceRepository.lockQuantity(1L, "NORMAL")).thenReturn(4);
+        when(balanceRepository.sumBatchQuantity(1L, "NORMAL")).thenReturn(10);
+        // Fixed by an in-flight transaction between the scan and the lock
+        when(balanceRepository.lockQuantity(2L, "COLD")).thenReturn(7);
+        when(balanceRepository.sumBatchQuantity(2L, "COLD")).thenReturn(7);
+
+        stockBalanceService.reconcile();
+
+        InOrder inOrder = inOrder(balanceRepository);
+        inOrder.verify(balanceRepository).ensureExists(1L, "NORMAL");
+        inOrder.verify(balanceRepository).lockQuantity(1L, "NORMAL");
+        inOrder.verify(balanceRepository).sumBatchQuantity(1L, "NORMAL");
+        inOrder.verify(balanceRepository).applyDelta(1L, "NORMAL", 6);
+        verify(balanceRepository, never()).applyDelta(eq(2L), anyString(), anyInt());
+        assertEquals(1.0, meterRegistry.counter("warehouse.stock_balance.drift").count());
+    }
+
+    @Test
+    @DisplayName("reconcile() keeps going when one row fails")
+    void reconcile_rowFailure_continues() {
+        when(balanceRepository.findDrift()).thenReturn(List.<Object[]>of(
+                new Object[] { 1L, "NORMAL", 4, 10 },
+                new Object[] { 2L, "NORMAL", 0, 3 }));
+        when(balanceRepository.lockQuantity(1L, "NORMAL")).thenThrow(new QueryTimeoutException("lock timeout"));
+        when(balanceRepository.lockQuantity(2L, "NORMAL")).thenReturn(null);
+        when(balanceRepository.sumBatchQuantity(2L, "NORMAL")).thenReturn(3);
+
+        stockBalanceService.reconcile();
+
+        verify(balanceRepository).applyDelta(2L, "NORMAL", 3);
+        assertEquals(1.0, meterRegistry.counter("warehouse.stock_balance.errors").count());
+        assertEquals(1.0, meterRegistry.counter("warehouse.stock_balance.drift").count());
+    }
+
+    @Test
+    @DisplayName("initialize() seeds missing rows even when the table is not empty, then fixes delta-only rows")
+    void initialize_seedsMissingRowsThenReconciles() {
+        when(balanceRepository.initializeFromBatches()).thenReturn(3);
+        // Row created by an early approval (delta -2) before the seed: batches hold 48
+        when(balanceRepository.findDrift()).thenReturn(List.<Object[]>of(new Object[] { 9L, "NORMAL", -2, 48 }));
+        when(balanceRepository.lockQuantity(9L, "NORMAL")).thenReturn(-2);
+        when(balanceRepository.sumBatchQuantity(9L, "NORMAL")).thenReturn(48);
+
+        stockBalanceService.initialize();
+
+        InOrder inOrder = inOrder(balanceRepository);
+        inOrder.verify(balanceRepository).initializeFromBatches();
+        inOrder.verify(balanceRepository).findDrift();
+        inOrder.verify(balanceRepository).applyDelta(9L, "NORMAL", 50);
+    }
+
+    @Test
+    @DisplayName("initialize() still reconciles when seeding fails")
+    void initialize_seedFailure_stillReconciles() {
+        when(balanceRepository.initializeFromBatches()).thenThrow(new QueryTimeoutException("timeout"));
+        when(balanceRepository.findDrift()).thenReturn(List.of());
+
+        assertDoesNotThrow(() -> stockBalanceService.initialize());
+
+        verify(balanceRepository).findDrift();
+        assertEquals(1.0, meterRegistry.counter("warehouse.stock_balance.errors").count());
+    }
+}